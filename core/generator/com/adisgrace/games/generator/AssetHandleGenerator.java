@@ -0,0 +1,174 @@
+package com.adisgrace.games.generator;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.OrderedMap;
+
+import java.io.File;
+
+/**
+ * Build tool that writes a class of typed asset handles for every entry of an asset directory.
+ *
+ * Each key of the directory becomes a constant named after it, so "UI:DaysLeft" becomes
+ * UI_DAYS_LEFT, holding an AssetHandle of the type that the key's section is loaded as. Handles
+ * are numbered in the order that they appear, which is the slot that the AssetDirectory keeps the
+ * loaded asset in. Code that refers to a key that has been removed from the directory then no
+ * longer compiles.
+ *
+ * The build also fails here if a file named by the directory does not exist, if a section has no
+ * known asset type, or if two keys would make constants with the same name. Files under the
+ * compiled directory are the exception, as the desktop tools write them after the core is built.
+ *
+ * Run through the generateAssetHandles Gradle task, before the core sources are compiled, with
+ * the asset directory file and the root of the generated sources as arguments.
+ */
+public class AssetHandleGenerator {
+    /** Package of the generated class */
+    private static final String PACKAGE = "com.adisgrace.games.util";
+    /** Name of the generated class */
+    private static final String CLASS = "Assets";
+    /** Sections of the directory that are not assets */
+    private static final String[] SKIPPED = { "scopes" };
+    /** Directory of files written by the desktop tools, which need not exist yet */
+    private static final String COMPILED = "compiled/";
+
+    /** Asset type of each section of the directory, by its fully qualified name */
+    private static final OrderedMap<String, String> TYPES = new OrderedMap<String, String>();
+    static {
+        TYPES.put("textures", "com.badlogic.gdx.graphics.Texture");
+        TYPES.put("regions", "com.badlogic.gdx.graphics.g2d.TextureRegion");
+        TYPES.put("sounds", "com.badlogic.gdx.audio.Sound");
+        TYPES.put("music", "com.badlogic.gdx.audio.Music");
+        TYPES.put("fonts", "com.badlogic.gdx.graphics.g2d.BitmapFont");
+        TYPES.put("skins", "com.badlogic.gdx.scenes.scene2d.ui.Skin");
+        TYPES.put("jsons", "com.badlogic.gdx.utils.JsonValue");
+    }
+
+    public static void main (String[] arg) {
+        File directory = new File(arg.length > 0 ? arg[0] : "assets.json");
+        File output = new File(arg.length > 1 ? arg[1] : "build/generated/assets");
+        JsonValue json = new JsonReader().parse(new FileHandle(directory));
+
+        StringBuilder constants = new StringBuilder();
+        ObjectSet<String> imports = new ObjectSet<String>();
+        ObjectMap<String, String> names = new ObjectMap<String, String>();
+        int count = 0;
+        for (JsonValue section : json) {
+            if (isSkipped(section.name)) {
+                continue;
+            }
+            String type = TYPES.get(section.name);
+            if (type == null) {
+                throw new GdxRuntimeException("No asset type for section \"" + section.name + "\" of " + directory);
+            }
+            String simpleType = type.substring(type.lastIndexOf('.') + 1);
+
+            for (JsonValue entry : section) {
+                String file = entry.isString() ? entry.asString() : entry.getString("file", null);
+                if (file == null || !file.startsWith(COMPILED) && !new File(directory.getParentFile(), file).exists()) {
+                    throw new GdxRuntimeException("Missing file for \"" + entry.name + "\": " + file);
+                }
+                String name = constantName(entry.name);
+                if (names.containsKey(name)) {
+                    throw new GdxRuntimeException("\"" + entry.name + "\" and \"" + names.get(name)
+                            + "\" would both be named " + name);
+                }
+                names.put(name, entry.name);
+                imports.add(type);
+
+                constants.append("    /** ").append(entry.name).append(", loaded from ").append(file).append(" */\n");
+                constants.append("    public static final AssetHandle<").append(simpleType).append("> ").append(name)
+                        .append(" =\n            new AssetHandle<").append(simpleType).append(">( ").append(count)
+                        .append(", \"").append(entry.name).append("\", ").append(simpleType).append(".class );\n");
+                count++;
+            }
+        }
+
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated from ").append(directory.getName()).append(" by ")
+                .append(AssetHandleGenerator.class.getSimpleName()).append(". Do not edit.\n");
+        source.append("package ").append(PACKAGE).append(";\n\n");
+        for (String type : TYPES.values()) {
+            if (imports.contains(type)) {
+                source.append("import ").append(type).append(";\n");
+            }
+        }
+        source.append("\n/**\n");
+        source.append(" * Typed handles for every entry of ").append(directory.getName()).append(".\n");
+        source.append(" *\n");
+        source.append(" * Pass a handle to {@link AssetDirectory#getEntry(AssetHandle)} to get its asset.\n");
+        source.append(" */\n");
+        source.append("public final class ").append(CLASS).append(" {\n");
+        source.append("    /** Number of handles, which are numbered from 0 */\n");
+        source.append("    public static final int COUNT = ").append(count).append(";\n\n");
+        source.append(constants);
+        source.append("\n    /** Only accessed statically */\n");
+        source.append("    private ").append(CLASS).append("() {}\n");
+        source.append("}\n");
+
+        FileHandle file = new FileHandle(new File(output, PACKAGE.replace('.', '/') + "/" + CLASS + ".java"));
+        if (!file.exists() || !file.readString("UTF-8").equals(source.toString())) {
+            file.writeString(source.toString(), false, "UTF-8");
+        }
+        System.out.println("Generated " + count + " asset handles");
+    }
+
+    /**
+     * Returns true if the given section of the directory holds no assets.
+     *
+     * @param section   The name of the section
+     *
+     * @return true if the section holds no assets
+     */
+    private static boolean isSkipped(String section) {
+        for (String skipped : SKIPPED) {
+            if (skipped.equals(section)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the name of the constant for the given key.
+     *
+     * Words are split at punctuation and at the start of each capitalized word, so "UI:APCounter"
+     * becomes UI_AP_COUNTER and "Tutorial:1.2" becomes TUTORIAL_1_2.
+     *
+     * @param key   The asset directory key
+     *
+     * @return the name of the constant
+     */
+    static String constantName(String key) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                if (name.length() > 0 && name.charAt(name.length() - 1) != '_') {
+                    name.append('_');
+                }
+                continue;
+            }
+            if (Character.isUpperCase(c) && name.length() > 0 && name.charAt(name.length() - 1) != '_') {
+                char previous = key.charAt(i - 1);
+                boolean nextLower = i + 1 < key.length() && Character.isLowerCase(key.charAt(i + 1));
+                if (Character.isLowerCase(previous) || Character.isDigit(previous)
+                        || (Character.isUpperCase(previous) && nextLower)) {
+                    name.append('_');
+                }
+            }
+            name.append(Character.toUpperCase(c));
+        }
+        if (name.length() > 0 && name.charAt(name.length() - 1) == '_') {
+            name.setLength(name.length() - 1);
+        }
+        if (name.length() == 0 || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            name.insert(0, '_');
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.adisgrace.games;
+
+/**
+ * Shared clock that drives every looping animation on the node map.
+ *
+ * The clock is advanced once per frame by the game screen. Animated views do not keep any per-frame
+ * state of their own; instead they sample the clock when they are drawn, adding a fixed phase so
+ * that they do not all move in lockstep. Since every animation is a pure function of time, it runs
+ * at the same speed at any frame rate, and views that are not drawn cost nothing.
+ */
+public final class AnimationClock {
+    /** Seconds for a node top to bob up and back down again */
+    public static final float BOB_PERIOD = 10f / 3f;
+    /** Distance in pixels that a node top rises at the peak of its bob */
+    public static final float BOB_HEIGHT = 10f;
+
+    /**
+     * Seconds elapsed since the clock was created.
+     *
+     * Kept as a double, as a float loses too much precision after a few hours to still step
+     * smoothly at 60 frames per second. Animations reduce it to their own period before it is
+     * narrowed to a float.
+     */
+    private static double time = 0.0;
+
+    /** The clock is only accessed statically */
+    private AnimationClock() {}
+
+    /**
+     * Advances the clock by one frame.
+     *
+     * Should be called exactly once per frame, before anything that samples the clock is drawn.
+     *
+     * @param delta     Number of seconds since the last frame
+     */
+    public static void update(float delta) {
+        time += delta;
+    }
+
+    /**
+     * Returns the number of seconds that the clock has run for.
+     *
+     * Subtract an earlier reading before narrowing this to a float, so that the result stays small.
+     *
+     * @return  Current clock time
+     */
+    public static double getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the current time for an animation with the given phase.
+     *
+     * @param phase     Phase of the animation, as a fraction of the given period
+     * @param period    Length of one loop of the animation in seconds
+     * @return          Clock time shifted by the phase, within a single period
+     */
+    public static float getTime(float phase, float period) {
+        return (float) ((time + phase * period) % period);
+    }
+
+    /**
+     * Returns the vertical offset of a bobbing node top with the given phase.
+     *
+     * The offset rises linearly from 0 to {@link #BOB_HEIGHT} and falls back again once per
+     * {@link #BOB_PERIOD}.
+     *
+     * @param phase     Phase of the bob, as a fraction of the period
+     * @return          Vertical offset in pixels
+     */
+    public static float getBobOffset(float phase) {
+        float t = (float) ((time / BOB_PERIOD + phase) % 1.0);
+        return BOB_HEIGHT * (1f - Math.abs(2f * t - 1f));
+    }
+
+    /**
+     * Returns a phase in [0, 1) that is fixed for the given key.
+     *
+     * Used so that a view keeps the same phase for as long as it exists, without storing a
+     * random number generator.
+     *
+     * @param key   Object identifying the view, such as its name
+     * @return      Phase derived from the key
+     */
+    public static float phaseOf(Object key) {
+        if (key == null) {
+            return 0f;
+        }
+        // Scramble the hash so that similar names still get well separated phases
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash >>> 8) / (float)(1 << 24);
+    }
+}
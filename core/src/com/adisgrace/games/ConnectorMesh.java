@@ -0,0 +1,322 @@
+package com.adisgrace.games;
+
+import com.adisgrace.games.util.Connector;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Actor that draws every revealed connector in a level from a handful of vertex buffers.
+ *
+ * Connectors are stored as quads in one buffer per connector texture (N, E, S, W), so the whole
+ * connector network takes at most four draw calls no matter how many paths have been revealed.
+ * Buffers are only appended to, and are re-uploaded to the GPU only when a path is revealed.
+ *
+ * Each vertex remembers the time at which its connector was revealed. The vertex shader grows the
+ * quad (and its texture window) out from the tile center based on how long ago that was, so the
+ * reveal animation needs no per-segment actors or per-frame texture regions. Progress is continuous,
+ * so the reveal is as smooth as the frame rate allows.
+ */
+public class ConnectorMesh extends Actor implements Disposable {
+    /** Seconds taken for a newly revealed connector to grow to its full size */
+    private static final float REVEAL_DURATION = 1.25f;
+    /** Number of floats per vertex: position (2), texture coordinates (2), quad center (2), reveal time (1) */
+    private static final int VERTEX_SIZE = 7;
+    /** Number of quads each buffer has room for when first created */
+    private static final int INITIAL_CAPACITY = 64;
+    /** Largest number of quads a buffer can hold while still using short indices */
+    private static final int MAX_CAPACITY = 16383;
+
+    /** Grows each connector quad out from its center as the reveal progresses */
+    private static final String VERTEX_SHADER =
+            "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+            "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+            "attribute vec2 a_center;\n" +
+            "attribute float a_reveal;\n" +
+            "uniform mat4 u_projTrans;\n" +
+            "uniform float u_time;\n" +
+            "uniform float u_duration;\n" +
+            "varying vec2 v_texCoords;\n" +
+            "void main() {\n" +
+            "    float progress = clamp((u_time - a_reveal) / u_duration, 0.0, 1.0);\n" +
+            "    vec2 pos = a_center + (" + ShaderProgram.POSITION_ATTRIBUTE + ".xy - a_center) * progress;\n" +
+            "    v_texCoords = vec2(0.5) + (" + ShaderProgram.TEXCOORD_ATTRIBUTE + "0 - vec2(0.5)) * progress;\n" +
+            "    gl_Position = u_projTrans * vec4(pos, 0.0, 1.0);\n" +
+            "}\n";
+    /** Samples the connector texture, faded by the actor alpha */
+    private static final String FRAGMENT_SHADER =
+            "#ifdef GL_ES\n" +
+            "precision mediump float;\n" +
+            "#endif\n" +
+            "varying vec2 v_texCoords;\n" +
+            "uniform sampler2D u_texture;\n" +
+            "uniform float u_alpha;\n" +
+            "void main() {\n" +
+            "    vec4 color = texture2D(u_texture, v_texCoords);\n" +
+            "    gl_FragColor = vec4(color.rgb, color.a * u_alpha);\n" +
+            "}\n";
+
+    /**
+     * All connector quads that share a single texture.
+     */
+    private static class Layer {
+        /** Texture drawn by every quad in this layer */
+        Texture texture;
+        /** CPU copy of the vertices, appended to as connectors are revealed */
+        FloatArray vertices;
+        /** Owner of each quad, as given to {@link #addConnector} */
+        IntArray owners;
+        /** GPU copy of the vertices */
+        Mesh mesh;
+        /** Number of quads the mesh currently has room for */
+        int capacity;
+        /** Whether the vertices have changed since they were last uploaded */
+        boolean dirty;
+
+        Layer(Texture texture) {
+            this.texture = texture;
+            vertices = new FloatArray(INITIAL_CAPACITY * 4 * VERTEX_SIZE);
+            owners = new IntArray(INITIAL_CAPACITY);
+        }
+
+        /** Returns the number of quads in this layer */
+        int size() {
+            return vertices.size / (4 * VERTEX_SIZE);
+        }
+    }
+
+    /** Shader that animates the connector reveal */
+    private ShaderProgram shader;
+    /** One layer per connector direction, indexed by {@link Connector.Direction#ordinal()} */
+    private Layer[] layers;
+    /** Matrix cache for the combined batch projection and transform */
+    private Matrix4 projTrans = new Matrix4();
+    /** Value of the animation clock when the mesh was last cleared, which reveal times count from */
+    private double epoch;
+
+    /**
+     * Creates an empty connector mesh, with one layer for each connector direction.
+     */
+    public ConnectorMesh() {
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Could not compile connector shader: " + shader.getLog());
+        }
+
+        Connector.Direction[] dirs = Connector.Direction.values();
+        layers = new Layer[dirs.length];
+        for (Connector.Direction dir : dirs) {
+            layers[dir.ordinal()] = new Layer(Connector.getTexture(dir));
+        }
+
+        setTouchable(Touchable.disabled);
+    }
+
+    /**
+     * Adds every direction of a connector to the mesh.
+     *
+     * @param connector     The connector to add
+     * @param coords        World coordinates of the lower-left corner of the connector's tile
+     * @param animate       Whether the connector should grow in, or appear fully revealed
+     * @param owner         Index of the target that the connector belongs to, for {@link #removeConnectors}
+     */
+    public void addConnector(Connector connector, Vector2 coords, boolean animate, int owner) {
+        float now = (float) (AnimationClock.getTime() - epoch);
+        float revealTime = animate ? now : now - REVEAL_DURATION;
+        if (animate) {
+            RenderScheduler.requestFrames(REVEAL_DURATION);
+        }
+        for (int i = 0; i < connector.type.length(); i++) {
+            Layer layer = layers[Connector.toDir(connector.type.charAt(i)).ordinal()];
+            addQuad(layer, coords.x, coords.y, revealTime, owner);
+        }
+    }
+
+    /**
+     * Removes every connector that belongs to the given target, leaving the rest as they are.
+     *
+     * @param owner         Index of the target, as given to {@link #addConnector}
+     */
+    public void removeConnectors(int owner) {
+        int quadSize = 4 * VERTEX_SIZE;
+        for (Layer layer : layers) {
+            float[] vertices = layer.vertices.items;
+            int kept = 0;
+            for (int i = 0; i < layer.owners.size; i++) {
+                if (layer.owners.get(i) == owner) {
+                    continue;
+                }
+                if (kept != i) {
+                    System.arraycopy(vertices, i * quadSize, vertices, kept * quadSize, quadSize);
+                    layer.owners.set(kept, layer.owners.get(i));
+                }
+                kept++;
+            }
+            if (kept != layer.owners.size) {
+                layer.vertices.size = kept * quadSize;
+                layer.owners.size = kept;
+                layer.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Removes every connector from the mesh, so that a new level can be drawn.
+     */
+    public void clearConnectors() {
+        // Count reveal times from here, so that they stay small enough to be precise as floats
+        epoch = AnimationClock.getTime();
+        for (Layer layer : layers) {
+            layer.vertices.clear();
+            layer.owners.clear();
+            layer.dirty = true;
+        }
+    }
+
+    /**
+     * Returns whether there are no connectors in the mesh.
+     *
+     * @return  Whether every layer is empty
+     */
+    public boolean isEmpty() {
+        for (Layer layer : layers) {
+            if (layer.size() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends the four vertices of a connector quad to the given layer.
+     *
+     * Texture coordinates follow the same orientation that SpriteBatch uses for whole textures.
+     *
+     * @param layer         Layer to append to
+     * @param x             x-coordinate of the lower-left corner of the quad
+     * @param y             y-coordinate of the lower-left corner of the quad
+     * @param revealTime    Value of the animation clock at which the reveal started
+     * @param owner         Index of the target that the quad belongs to
+     */
+    private void addQuad(Layer layer, float x, float y, float revealTime, int owner) {
+        if (layer.size() >= MAX_CAPACITY) {
+            throw new GdxRuntimeException("Too many connectors in a single level");
+        }
+        float w = layer.texture.getWidth();
+        float h = layer.texture.getHeight();
+        float cx = x + w / 2f;
+        float cy = y + h / 2f;
+
+        layer.vertices.addAll(x, y, 0f, 1f, cx, cy, revealTime);
+        layer.vertices.addAll(x, y + h, 0f, 0f, cx, cy, revealTime);
+        layer.vertices.addAll(x + w, y + h, 1f, 0f, cx, cy, revealTime);
+        layer.vertices.addAll(x + w, y, 1f, 1f, cx, cy, revealTime);
+        layer.owners.add(owner);
+        layer.dirty = true;
+    }
+
+    /**
+     * Uploads the layer vertices to the GPU, growing the mesh first if it is too small.
+     *
+     * @param layer     Layer to upload
+     */
+    private void upload(Layer layer) {
+        int quads = layer.size();
+        if (layer.mesh == null || quads > layer.capacity) {
+            int capacity = Math.max(INITIAL_CAPACITY, layer.capacity);
+            while (capacity < quads) {
+                capacity *= 2;
+            }
+            capacity = Math.min(capacity, MAX_CAPACITY);
+
+            if (layer.mesh != null) {
+                layer.mesh.dispose();
+            }
+            layer.mesh = new Mesh(false, capacity * 4, capacity * 6,
+                    new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                    new VertexAttribute(VertexAttributes.Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0"),
+                    new VertexAttribute(VertexAttributes.Usage.Generic, 2, "a_center"),
+                    new VertexAttribute(VertexAttributes.Usage.Generic, 1, "a_reveal"));
+
+            short[] indices = new short[capacity * 6];
+            for (int i = 0, j = 0; i < indices.length; i += 6, j += 4) {
+                indices[i] = (short)j;
+                indices[i + 1] = (short)(j + 1);
+                indices[i + 2] = (short)(j + 2);
+                indices[i + 3] = (short)(j + 2);
+                indices[i + 4] = (short)(j + 3);
+                indices[i + 5] = (short)j;
+            }
+            layer.mesh.setIndices(indices);
+            layer.capacity = capacity;
+        }
+        layer.mesh.setVertices(layer.vertices.items, 0, layer.vertices.size);
+        layer.dirty = false;
+    }
+
+    /**
+     * Draws all connectors, one draw call per non-empty layer.
+     *
+     * The batch is suspended while the mesh is drawn, since the mesh uses its own shader.
+     *
+     * @param batch         libGDX batch object
+     * @param parentAlpha   alpha value to draw
+     */
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        if (isEmpty()) {
+            return;
+        }
+        batch.end();
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        projTrans.set(batch.getProjectionMatrix()).mul(batch.getTransformMatrix());
+        shader.begin();
+        shader.setUniformMatrix("u_projTrans", projTrans);
+        shader.setUniformf("u_time", (float) (AnimationClock.getTime() - epoch));
+        shader.setUniformf("u_duration", REVEAL_DURATION);
+        shader.setUniformf("u_alpha", getColor().a * parentAlpha);
+        shader.setUniformi("u_texture", 0);
+        for (Layer layer : layers) {
+            if (layer.size() == 0) {
+                continue;
+            }
+            if (layer.dirty) {
+                upload(layer);
+            }
+            layer.texture.bind(0);
+            layer.mesh.render(shader, GL20.GL_TRIANGLES, 0, layer.size() * 6);
+        }
+        shader.end();
+
+        batch.begin();
+    }
+
+    /**
+     * Releases the meshes and shader owned by this actor.
+     */
+    @Override
+    public void dispose() {
+        for (Layer layer : layers) {
+            if (layer.mesh != null) {
+                layer.mesh.dispose();
+                layer.mesh = null;
+            }
+        }
+        shader.dispose();
+    }
+}
@@ -0,0 +1,354 @@
+package com.adisgrace.games;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.OrderedMap;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * In-game overlay that shows where frame time goes.
+ *
+ * While the overlay is shown, every frame records its length, the GL work done through
+ * {@link GLProfiler} (draw calls, texture binds, shader switches and vertices), and the CPU time
+ * spent in each {@link Section} of the game loop. The overlay shows frame time percentiles over the
+ * last few seconds along with the averages of everything else.
+ *
+ * Frames are also summarized per level, and the summaries are added to {@link #SUMMARY_FILE}
+ * when the profiler is disposed. The file is started afresh, with a header, the first time this
+ * happens in a run of the game, so it holds every level visited in that run. Nothing is recorded while the overlay is hidden.
+ */
+public class FrameProfiler implements Disposable {
+    /** File that per-level summaries are written to, relative to the local storage directory */
+    public static final String SUMMARY_FILE = "profiler-summary.txt";
+    /** Whether any summary has been written to {@link #SUMMARY_FILE} in this run of the game */
+    private static boolean summaryStarted;
+    /** Number of frames that the overlay percentiles are taken over */
+    private static final int WINDOW = 240;
+    /** Number of frames between refreshes of the overlay text */
+    private static final int REFRESH_FRAMES = 15;
+    /** Distance of the overlay text from the top-left corner of the window */
+    private static final float MARGIN = 10f;
+
+    /**
+     * Parts of the game loop that are timed separately.
+     */
+    public enum Section {
+        /** Input, level switching, camera and HUD updates */
+        MODEL,
+        /** Acting on the node map stage */
+        ACT,
+        /** Drawing the background grid */
+        GRID,
+        /** Drawing the node map stage */
+        DRAW,
+        /** Acting on and drawing the toolbar stage */
+        TOOLBAR
+    }
+
+    /**
+     * Totals for all frames recorded on a single level.
+     */
+    private static class LevelSummary {
+        /** Length of every recorded frame, in milliseconds */
+        FloatArray frameTimes = new FloatArray();
+        long drawCalls, textureBindings, shaderSwitches;
+        double vertices;
+        /** Total time per section, in nanoseconds */
+        long[] sectionTimes = new long[Section.values().length];
+    }
+
+    /** Profiler that wraps the GL calls */
+    private GLProfiler glProfiler;
+    /** Whether the overlay is shown, and frames are being recorded */
+    private boolean visible;
+
+    /** Ring buffer of the most recent frame lengths, in milliseconds */
+    private float[] window = new float[WINDOW];
+    /** Scratch copy of the window, sorted to find percentiles */
+    private float[] sorted = new float[WINDOW];
+    /** Number of frames written into the window, capped at its size */
+    private int windowCount;
+    /** Next slot of the window to write */
+    private int windowIndex;
+
+    /** Start of the section being timed, in nanoseconds */
+    private long sectionStart;
+    /** Time spent in each section this frame, in nanoseconds */
+    private long[] sectionTimes = new long[Section.values().length];
+    /** Time spent in each section since the overlay text was refreshed, in nanoseconds */
+    private long[] sectionTotals = new long[Section.values().length];
+    /** GL totals since the overlay text was refreshed */
+    private long drawCalls, textureBindings, shaderSwitches;
+    private double vertices;
+    /** Number of frames since the overlay text was refreshed */
+    private int framesSinceRefresh;
+
+    /** Name of the level being profiled */
+    private String level = "";
+    /** Per-level summaries, in the order the levels were first profiled */
+    private OrderedMap<String, LevelSummary> summaries = new OrderedMap<String, LevelSummary>();
+
+    /** Batch and font for the overlay, drawn in screen coordinates */
+    private Batch batch;
+    private BitmapFont font;
+    /** Overlay text, rebuilt every few frames */
+    private StringBuilder text = new StringBuilder();
+    private String shownText = "";
+
+    /**
+     * Creates a hidden profiler.
+     *
+     * @param batch     Batch to draw the overlay with, which must not be active when frames end
+     */
+    public FrameProfiler(Batch batch) {
+        glProfiler = new GLProfiler(Gdx.graphics);
+        this.batch = batch;
+        font = new BitmapFont();
+        font.setColor(Color.WHITE);
+    }
+
+    /**
+     * Shows the overlay and starts recording if it is hidden, and hides it otherwise.
+     */
+    public void toggle() {
+        visible = !visible;
+        if (visible) {
+            glProfiler.enable();
+            glProfiler.reset();
+            windowCount = 0;
+            windowIndex = 0;
+            resetTotals();
+        } else {
+            glProfiler.disable();
+        }
+    }
+
+    /**
+     * Returns whether the overlay is shown.
+     *
+     * @return  Whether the overlay is shown
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Sets the level that frames are recorded against.
+     *
+     * @param name  Name of the level
+     */
+    public void setLevel(String name) {
+        level = name;
+    }
+
+    /**
+     * Starts timing a section of the frame. Sections must not overlap.
+     *
+     * @param section   Section that is about to run
+     */
+    public void begin(Section section) {
+        if (visible) {
+            sectionStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stops timing a section of the frame.
+     *
+     * @param section   Section that has just finished
+     */
+    public void end(Section section) {
+        if (visible) {
+            sectionTimes[section.ordinal()] += System.nanoTime() - sectionStart;
+        }
+    }
+
+    /**
+     * Records the frame that has just been drawn, and then draws the overlay over it.
+     *
+     * Should be called once at the end of every frame, after everything else has been drawn.
+     *
+     * @param delta     Length of the frame in seconds
+     */
+    public void endFrame(float delta) {
+        if (!visible) {
+            return;
+        }
+
+        float frameMillis = delta * 1000f;
+        int calls = glProfiler.getDrawCalls();
+        int bindings = glProfiler.getTextureBindings();
+        int switches = glProfiler.getShaderSwitches();
+        float verts = glProfiler.getVertexCount().total;
+
+        // Recent frames, for the overlay
+        window[windowIndex] = frameMillis;
+        windowIndex = (windowIndex + 1) % WINDOW;
+        windowCount = Math.min(windowCount + 1, WINDOW);
+        drawCalls += calls;
+        textureBindings += bindings;
+        shaderSwitches += switches;
+        vertices += verts;
+
+        // Every frame, for the level summary
+        LevelSummary summary = summaries.get(level);
+        if (summary == null) {
+            summary = new LevelSummary();
+            summaries.put(level, summary);
+        }
+        summary.frameTimes.add(frameMillis);
+        summary.drawCalls += calls;
+        summary.textureBindings += bindings;
+        summary.shaderSwitches += switches;
+        summary.vertices += verts;
+        for (int i = 0; i < sectionTimes.length; i++) {
+            sectionTotals[i] += sectionTimes[i];
+            summary.sectionTimes[i] += sectionTimes[i];
+            sectionTimes[i] = 0;
+        }
+
+        framesSinceRefresh++;
+        if (framesSinceRefresh >= REFRESH_FRAMES) {
+            refreshText();
+            resetTotals();
+        }
+
+        // Reset before drawing the overlay, so that it is not counted in the next frame
+        glProfiler.reset();
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.begin();
+        font.draw(batch, shownText, MARGIN, Gdx.graphics.getHeight() - MARGIN);
+        batch.end();
+        glProfiler.reset();
+    }
+
+    /**
+     * Rebuilds the overlay text from the recent frames and the totals since the last refresh.
+     */
+    private void refreshText() {
+        System.arraycopy(window, 0, sorted, 0, windowCount);
+        Arrays.sort(sorted, 0, windowCount);
+        int frames = framesSinceRefresh;
+
+        text.setLength(0);
+        text.append("Frame ms  p50 ").append(format(percentile(sorted, windowCount, 0.5f)))
+                .append("  p95 ").append(format(percentile(sorted, windowCount, 0.95f)))
+                .append("  p99 ").append(format(percentile(sorted, windowCount, 0.99f)))
+                .append("  max ").append(format(percentile(sorted, windowCount, 1f))).append('\n');
+        text.append("Draw calls ").append(drawCalls / frames)
+                .append("  Texture binds ").append(textureBindings / frames)
+                .append("  Shader switches ").append(shaderSwitches / frames)
+                .append("  Vertices ").append((long) (vertices / frames)).append('\n');
+        for (Section section : Section.values()) {
+            text.append(section.name().toLowerCase()).append(' ')
+                    .append(format(sectionTotals[section.ordinal()] / 1e6f / frames)).append(" ms  ");
+        }
+        shownText = text.toString();
+    }
+
+    /**
+     * Clears the totals used for the overlay text.
+     */
+    private void resetTotals() {
+        drawCalls = 0;
+        textureBindings = 0;
+        shaderSwitches = 0;
+        vertices = 0;
+        framesSinceRefresh = 0;
+        Arrays.fill(sectionTotals, 0);
+        Arrays.fill(sectionTimes, 0);
+    }
+
+    /**
+     * Returns the given percentile of a sorted array, using the nearest rank.
+     *
+     * @param values    Sorted values
+     * @param count     Number of values to use from the start of the array
+     * @param p         Percentile, from 0 to 1
+     * @return          Value at that percentile, or 0 if there are no values
+     */
+    private static float percentile(float[] values, int count, float p) {
+        if (count == 0) {
+            return 0f;
+        }
+        int index = (int) Math.ceil(p * count) - 1;
+        return values[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * Formats a number of milliseconds with two decimal places.
+     *
+     * @param value     Number to format
+     * @return          Formatted number
+     */
+    private static String format(float value) {
+        return String.format("%.2f", value);
+    }
+
+    /**
+     * Adds a summary of every level profiled since the last call to {@link #SUMMARY_FILE}.
+     *
+     * Does nothing if no frames were recorded.
+     */
+    public void writeSummary() {
+        if (summaries.size == 0) {
+            return;
+        }
+        StringBuilder out = new StringBuilder();
+        if (!summaryStarted) {
+            out.append("Session started ").append(new Date()).append("\n\n");
+        }
+        for (ObjectMap.Entry<String, LevelSummary> entry : summaries.entries()) {
+            LevelSummary summary = entry.value;
+            int frames = summary.frameTimes.size;
+            float[] times = Arrays.copyOf(summary.frameTimes.items, frames);
+            Arrays.sort(times);
+
+            out.append("Level: ").append(entry.key).append('\n');
+            out.append("  frames ").append(frames)
+                    .append("  p50 ").append(format(percentile(times, frames, 0.5f)))
+                    .append("  p95 ").append(format(percentile(times, frames, 0.95f)))
+                    .append("  p99 ").append(format(percentile(times, frames, 0.99f)))
+                    .append("  max ").append(format(percentile(times, frames, 1f))).append(" ms\n");
+            out.append("  per frame: draw calls ").append(summary.drawCalls / frames)
+                    .append("  texture binds ").append(summary.textureBindings / frames)
+                    .append("  shader switches ").append(summary.shaderSwitches / frames)
+                    .append("  vertices ").append((long) (summary.vertices / frames)).append('\n');
+            out.append("  per frame:");
+            for (Section section : Section.values()) {
+                out.append(' ').append(section.name().toLowerCase()).append(' ')
+                        .append(format(summary.sectionTimes[section.ordinal()] / 1e6f / frames)).append(" ms");
+            }
+            out.append("\n\n");
+        }
+
+        try {
+            FileHandle file = Gdx.files.local(SUMMARY_FILE);
+            file.writeString(out.toString(), summaryStarted);
+            summaryStarted = true;
+            summaries.clear();
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("FrameProfiler", "Could not write " + SUMMARY_FILE, e);
+        }
+    }
+
+    /**
+     * Adds the level summaries to the summary file and releases the overlay resources.
+     */
+    @Override
+    public void dispose() {
+        writeSummary();
+        glProfiler.disable();
+        font.dispose();
+    }
+}
@@ -1,6 +1,7 @@
 package com.adisgrace.games;
 
 import com.adisgrace.games.util.AssetDirectory;
+import com.adisgrace.games.util.GameConstants;
 import com.adisgrace.games.util.ScreenListener;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
@@ -26,30 +27,66 @@ public class FreeHim extends Game implements ScreenListener {
 	private TutorialMode tutorialMode;
 	/** AssetManager to load game assets (textures, sounds, etc.) */
 	AssetDirectory directory;
+	/** Whether the main menu has drawn a frame yet */
+	private boolean menuDrawn;
 	
 	@Override
 	public void create () {
+		long start = StartupTrace.begin();
+		// Frame pacing and render scale chosen in the settings
+		RenderSettings.load();
 		// Create main menu and set as starting screen
 		loading = new LoadingMode();
 		loading.setScreenListener(this);
 		setScreen(loading);
+		StartupTrace.end("FreeHim.create", "startup", start);
 //		mainmenu = new MainMenu();
 //		mainmenu.setScreenListener(this);
 //		setScreen(mainmenu);
 	}
 
+	/**
+	 * Renders the current screen, and then holds the frame to the chosen frame cap.
+	 */
+	@Override
+	public void render () {
+		long start = System.nanoTime();
+		// Changes to asset files are applied between frames, during development. Level changes
+		// only apply to the level being played, which is not the case in the menus.
+		if (HotReload.isEnabled()) {
+			HotReload.apply(directory, getScreen() == game ? game : null);
+		}
+		super.render();
+		// The first frame of the main menu is the end of startup
+		if (!menuDrawn && mainmenu != null && getScreen() == mainmenu) {
+			menuDrawn = true;
+			StartupTrace.mark("First MainMenu frame", "startup");
+			StartupTrace.write();
+		}
+		RenderSettings.endFrame((System.nanoTime() - start) / 1e9f, RenderScheduler.isIdle());
+	}
+
 	@Override
 	public void dispose () {
 		setScreen(null);
-		game.dispose();
-//		mainmenu.dispose();
+		if (game != null) {
+			game.dispose();
+		}
+		if (tutorialMode != null) {
+			tutorialMode.dispose();
+		}
+		if (mainmenu != null) {
+			mainmenu.dispose();
+		}
 
 		// Unload all of the resources
 		if (directory != null) {
+			GameConstants.setAssets(null);
 			directory.unloadAssets();
 			directory.dispose();
 			directory = null;
 		}
+		StartupTrace.write();
 		super.dispose();
 	}
 
@@ -65,8 +102,11 @@ public class FreeHim extends Game implements ScreenListener {
 		// If the current screen is the main menu and exitScreen is
 		// called, start the game
 		System.out.println("Screen: "+screen.toString()+", Exit Code: "+exitCode );
+		long start = StartupTrace.begin();
+		String transition = "exitScreen " + screen.getClass().getSimpleName() + " " + exitCode;
 		if(screen == loading) {
 			directory = loading.getAssets();
+			GameConstants.setAssets(directory);
 			mainmenu = new MainMenu(directory);
 			mainmenu.setScreenListener(this);
 			setScreen(mainmenu);
@@ -76,13 +116,16 @@ public class FreeHim extends Game implements ScreenListener {
 		}
 		else if (screen == mainmenu) {
 			// Create primary game controller
-			levelSelection = new LevelSelection();
+			levelSelection = new LevelSelection(directory);
 			levelSelection.setScreenListener(this);
 			setScreen(levelSelection);
 
 		}
 		else if (screen == levelSelection) {
-			// Create primary game controller
+			// Create primary game controller, releasing the one from the last visit
+			if (game != null) {
+				game.dispose();
+			}
 			game = new GameController(directory);
 			game.setScreenListener(this);
 			setScreen(game);
@@ -111,5 +154,6 @@ public class FreeHim extends Game implements ScreenListener {
 			tutorialMode.dispose();
 			tutorialMode = null;
 		}
+		StartupTrace.end(transition, "screen", start);
 	}
 }
@@ -72,6 +72,12 @@ public class GameCanvas {
 	
 	/** Rendering context for the debug outlines */
 	private ShapeRenderer debugRender;
+
+	/** Composes layered regions into shared atlas pages */
+	private TextureCompositor compositor;
+
+	/** Layouts of recently drawn text, so unchanged text is not laid out every frame */
+	private TextLayoutCache textCache;
 	
 	/** Track whether or not we are active (for error checking) */
 	private DrawPass active;
@@ -110,6 +116,8 @@ public class GameCanvas {
 		active = DrawPass.INACTIVE;
 		spriteBatch = new PolygonSpriteBatch();
 		debugRender = new ShapeRenderer();
+		compositor = new TextureCompositor(spriteBatch);
+		textCache = new TextLayoutCache();
 		
 		// Set the projection matrix (for proper scaling)
 		camera = new OrthographicCamera(getWidth(),getHeight());
@@ -137,6 +145,11 @@ public class GameCanvas {
 		}
 		spriteBatch.dispose();
     	spriteBatch = null;
+		tile.dispose();
+		gradient.dispose();
+		compositor.dispose();
+		compositor = null;
+		textCache.clear();
     	local  = null;
     	global = null;
     	vertex = null;
@@ -929,7 +942,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
-		GlyphLayout layout = new GlyphLayout(font,text);
+		GlyphLayout layout = textCache.get(font,text);
 		font.draw(spriteBatch, layout, x, y);
     }
 
@@ -946,7 +959,7 @@ public class GameCanvas {
 			return;
 		}
 		
-		GlyphLayout layout = new GlyphLayout(font,text);
+		GlyphLayout layout = textCache.get(font,text);
 		float x = (getWidth()  - layout.width) / 2.0f;
 		float y = (getHeight() + layout.height) / 2.0f;
 		font.draw(spriteBatch, layout, x, y+offset);
@@ -1260,64 +1273,28 @@ public class GameCanvas {
 //		System.out.println(getWidth() + ", " + getHeight());
 	}
 
-	public static Texture combineTextures(TextureRegion textureRegion1, TextureRegion textureRegion2) {
-//		texture1.getTextureData().prepare();
-//		Pixmap pixmap1 = texture1.getTextureData().consumePixmap();
-//
-//		texture2.getTextureData().prepare();
-//		Pixmap pixmap2 = texture2.getTextureData().consumePixmap();
-//
-//		pixmap1.drawPixmap(pixmap2, 0, 100);
-//		Texture textureResult = new Texture(pixmap1);
-//
-//		pixmap1.dispose();
-//		pixmap2.dispose();
-
-		TextureData textureData1 = textureRegion1.getTexture().getTextureData();
-		if (!textureData1.isPrepared()) {
-			textureData1.prepare();
-		}
-		Pixmap pixmap1 = new Pixmap(
-				textureRegion1.getRegionWidth(),
-				textureRegion1.getRegionHeight(),
-				textureData1.getFormat()
-		);
-		pixmap1.drawPixmap(
-				textureData1.consumePixmap(), // The other Pixmap
-				0, // The target x-coordinate (top left corner)
-				0, // The target y-coordinate (top left corner)
-				textureRegion1.getRegionX(), // The source x-coordinate (top left corner)
-				textureRegion1.getRegionY(), // The source y-coordinate (top left corner)
-				textureRegion1.getRegionWidth(), // The width of the area from the other Pixmap in pixels
-				textureRegion1.getRegionHeight() // The height of the area from the other Pixmap in pixels
-		);
-
-		TextureData textureData2 = textureRegion2.getTexture().getTextureData();
-		if (!textureData2.isPrepared()) {
-			textureData2.prepare();
-		}
-		Pixmap pixmap2 = new Pixmap(
-				textureRegion2.getRegionWidth(),
-				textureRegion2.getRegionHeight(),
-				textureData2.getFormat()
-		);
-		pixmap2.drawPixmap(
-				textureData2.consumePixmap(), // The other Pixmap
-				0, // The target x-coordinate (top left corner)
-				0, // The target y-coordinate (top left corner)
-				textureRegion2.getRegionX(), // The source x-coordinate (top left corner)
-				textureRegion2.getRegionY(), // The source y-coordinate (top left corner)
-				textureRegion2.getRegionWidth(), // The width of the area from the other Pixmap in pixels
-				textureRegion2.getRegionHeight() // The height of the area from the other Pixmap in pixels
-		);
-
-		pixmap1.drawPixmap(pixmap2, 0, 10);
-		Texture textureResult = new Texture(pixmap1);
-
-		pixmap1.dispose();
-		pixmap2.dispose();
+	/**
+	 * Returns the batch used for all sprite drawing.
+	 *
+	 * Stages and overlays should draw through this batch rather than creating their own, so that
+	 * only one batch (and one set of vertex buffers) is in use at a time.
+	 *
+	 * @return the batch used for all sprite drawing.
+	 */
+	public PolygonSpriteBatch getBatch() {
+		return spriteBatch;
+	}
 
-		return textureResult;
+	/**
+	 * Returns the compositor used to merge layered regions into single regions.
+	 *
+	 * Compositions are drawn on the GPU and cached, so they should be requested by a stable key
+	 * rather than stored by the caller.
+	 *
+	 * @return the compositor used to merge layered regions into single regions.
+	 */
+	public TextureCompositor getCompositor() {
+		return compositor;
 	}
 
 }
\ No newline at end of file
@@ -2,11 +2,13 @@ package com.adisgrace.games;
 
 import com.adisgrace.games.models.*;
 import com.adisgrace.games.util.AssetDirectory;
+import com.adisgrace.games.util.Assets;
 import com.adisgrace.games.util.Connector;
 import com.adisgrace.games.util.GameConstants;
 import com.adisgrace.games.util.ScreenListener;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
@@ -30,6 +32,7 @@ import com.badlogic.gdx.utils.viewport.FitViewport;
 import java.lang.annotation.Target;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 public class GameController implements Screen{
@@ -117,10 +120,13 @@ public class GameController implements Screen{
     private Label stress;
     /** ap is the dialog label for ap */
 //    private Label ap;
-    /** apImages is the images for ap shown on the right toolbar*/
-    private Image[] apImages;
-    /** current amount of AP displayed*/
+    /** apDrawables is the images for ap shown on the right toolbar*/
+    private TextureRegionDrawable[] apDrawables;
+    /** image showing the current amount of AP*/
     private Image displayedAP;
+    /** stats currently shown by the toolbar, so widgets are only updated when they change*/
+    private int shownAP, shownBitecoin, shownDays;
+    private float shownStress;
     /** tStress is the dialog label for tStress */
     private Label tStress;
     /** tSusp is the dialog label for tSusp */
@@ -154,8 +160,6 @@ public class GameController implements Screen{
     private Group daysGroup;
     /** label for the days left in level*/
     private Label daysLeft;
-    /** shapeRenderer for grid lines, may not be needed anymore*/
-    private ShapeRenderer shapeRenderer;
     /** controller for camera operations*/
     private CameraController cameraController;
 
@@ -165,6 +169,8 @@ public class GameController implements Screen{
 
     private Vector2 gridSize;
 
+    /** group for the right side of the toolbar, kept above the rest of the toolbar*/
+    private Group rightPanel;
     private Image menuBack;
     private ImageButton end;
     private ImageButton settings;
@@ -187,25 +193,59 @@ public class GameController implements Screen{
     private ScreenListener listener;
     public int currentLevel;
 
-    private Animation<TextureRegion> NorthConnectorAnimation;
-    private Animation<TextureRegion> SouthConnectorAnimation;
-    private Animation<TextureRegion> EastConnectorAnimation;
-    private Animation<TextureRegion> WestConnectorAnimation;
+    /** Time spent loading a level in a single frame, in milliseconds */
+    private static final int LOAD_BUDGET_MS = 4;
+    /** Time spent prefetching the next level in a single frame of play, in milliseconds */
+    private static final int PREFETCH_BUDGET_MS = 1;
+    /** Share of the loading progress bar given to parsing the level, before its actors are built */
+    private static final float PARSE_PROGRESS = 0.5f;
+    /** Level being loaded, or -1 if the current level is ready */
+    private int loadingLevel = -1;
+    /** Asset name of the level being loaded, or null if the current level is ready */
+    private String loadingPath;
+    /** Time that the level being loaded was asked for, for the {@link StartupTrace} */
+    private long loadStart;
+    /** Index of the next target to build, or -1 while the level is still being parsed */
+    private int buildIndex = -1;
+    /** Whether to show the tutorial once the level being loaded is ready */
+    private boolean tutorialOnLoad;
+    /** Asset name of the next level in the campaign, loaded in the background, or null if none */
+    private String prefetchPath;
+    /** Asset scope of the prefetched level, held until that level begins, or null if not held */
+    private String prefetchScope;
+    /** Asset scope holding the current level's own assets, or null before the first level */
+    private String levelScope;
+    /** Whether this controller holds the tutorial assets for a tutorial about to be shown */
+    private boolean tutorialHeld;
+    /** Stage showing the progress of the level being loaded */
+    private Stage loadingStage;
+    /** Progress bar for the level being loaded */
+    private ProgressBar loadingBar;
+
+    /** Batched vertex buffers for every connector revealed in the current level */
+    private ConnectorMesh connectorMesh;
+    /** Group holding every visible node, drawn in texture runs */
+    private NodeLayer nodeLayer;
+    /** Stress and suspicion bars of every target, drawn above the nodes in one pass */
+    private TargetBarLayer targetBars;
+    /** overlay showing where frame time goes, toggled with F3 */
+    private FrameProfiler profiler;
+    /** Draws the node map at the render scale chosen in the settings */
+    private RenderScaler renderScaler;
 
     private Array<TargetModel.TargetState> targetStates;
 
     //private Image north, east, south, west;
 
     /** Assets for use in game */
-    private static Texture TX_END_DAY_LOW;
-    private static Texture TX_NOTEBOOK_LOW;
-    private static Texture TX_SETTINGS_LOW;
-    private static Texture TX_MENU_BACK;
+    private Texture TX_END_DAY_LOW;
+    private Texture TX_NOTEBOOK_LOW;
+    private Texture TX_SETTINGS_LOW;
+    private Texture TX_MENU_BACK;
     /** Constants for dimensions of screen */
     private static final int SCREEN_WIDTH = 1280, SCREEN_HEIGHT = 720;
     private static final int RIGHT_SIDE_HEIGHT = 199;
 
-    private Map<String, Array<FillBar>> targetBars;
     /** Used for the loading of levels */
     private Array<String> tutorialPaths;
     private boolean init;
@@ -220,7 +260,8 @@ public class GameController implements Screen{
         ExtendViewport viewport = new ExtendViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         viewport.setCamera(canvas.getCamera());
         currentZoom = canvas.getCamera().zoom;
-        stage = new Stage(viewport);
+        // Every stage draws through the canvas batch, so only one batch is ever bound
+        stage = new Stage(viewport, canvas.getBatch());
         canvas.getCamera().zoom = 1.5f;
 
 //        levelJsons = new Array<>();
@@ -242,7 +283,8 @@ public class GameController implements Screen{
 //            levelControllers.add(new LevelController(s));
 //        }
 
-        skin = GameConstants.SELECTION_SKIN;
+        skin = GameConstants.getSelectionSkin();
+        createLoadingStage();
         uiController = new UIController(skin, directory);
 //        NodeView.loadAnimations();
         ic = new InputController();
@@ -253,26 +295,23 @@ public class GameController implements Screen{
 
         init = true;
 
+        connectorMesh = new ConnectorMesh();
+        nodeLayer = new NodeLayer(canvas.getCompositor());
+        targetBars = new TargetBarLayer(directory, canvas.getCompositor());
+        profiler = new FrameProfiler(canvas.getBatch());
+        renderScaler = new RenderScaler();
         loadLevel(0);
 
         cameraController = new CameraController(ic, canvas);
 
 
-        TX_END_DAY_LOW = directory.getEntry("UI:EndDayLow", Texture.class);
-        TX_MENU_BACK = directory.getEntry("UI:MenuBack", Texture.class);
-        TX_NOTEBOOK_LOW = directory.getEntry("UI:NotebookLow", Texture.class);
-        TX_SETTINGS_LOW = directory.getEntry("UI:SettingsLow", Texture.class);
-
-        createToolbar();
-        shapeRenderer = new ShapeRenderer();
+        TX_END_DAY_LOW = directory.getEntry(Assets.UI_END_DAY_LOW);
+        TX_MENU_BACK = directory.getEntry(Assets.UI_MENU_BACK);
+        TX_NOTEBOOK_LOW = directory.getEntry(Assets.UI_NOTEBOOK_LOW);
+        TX_SETTINGS_LOW = directory.getEntry(Assets.UI_SETTINGS_LOW);
 
         //playMusic();
 
-        NorthConnectorAnimation = connectorAnimation(Connector.TX_NORTH);
-        SouthConnectorAnimation = connectorAnimation(Connector.TX_SOUTH);
-        EastConnectorAnimation = connectorAnimation(Connector.TX_EAST);
-        WestConnectorAnimation = connectorAnimation(Connector.TX_WEST);
-
         // Fixing volume for sfx
 
 
@@ -297,6 +336,7 @@ public class GameController implements Screen{
     @Override
     public void show() {
         playMusic();
+        RenderScheduler.begin();
     }
 
     @Override
@@ -304,8 +344,29 @@ public class GameController implements Screen{
      * renders the game display at consistent time steps
      */
     public void render(float delta) {
+        // Keep drawing for a while after any input, so held camera keys and ambient animation work
+        // when rendering on demand
+        if (Gdx.input.justTouched() || Gdx.input.isKeyPressed(Input.Keys.ANY_KEY)) {
+            RenderScheduler.requestActivity();
+        }
+        float frameTime = delta;
+        delta = RenderScheduler.step(delta);
+
         canvas.clear();
 
+        if (loadingLevel >= 0) {
+            // Keep frames coming until the level is ready
+            RenderScheduler.requestActivity();
+            updateLoading();
+            if (loadingLevel >= 0) {
+                drawLoading(delta);
+                RenderScheduler.endFrame(delta);
+                return;
+            }
+        }
+
+        profiler.begin(FrameProfiler.Section.MODEL);
+        updatePrefetch();
         handleLevelSwitching();
 
         // If no action is currently selected, and the cursor is not hovering above any button, then remove any effects
@@ -314,24 +375,45 @@ public class GameController implements Screen{
         }
 
         if(levelController.getLevelState() != LevelModel.LevelState.ONGOING && !cleared) {
-            toolbarStage.clear();
             createToolbar();
             cleared = true;
         }
         cameraController.moveCamera();
+        if(ic.didToggleProfiler()) {
+            profiler.toggle();
+        }
+        AnimationClock.update(delta);
+        profiler.end(FrameProfiler.Section.MODEL);
+
+        profiler.begin(FrameProfiler.Section.TOOLBAR);
         toolbarStage.act(delta);
+        profiler.end(FrameProfiler.Section.TOOLBAR);
+        profiler.begin(FrameProfiler.Section.ACT);
         if(!nodeFreeze) {
             stage.act(delta);
         }
+        profiler.end(FrameProfiler.Section.ACT);
+        profiler.begin(FrameProfiler.Section.MODEL);
         updateNodeColors();
         updateStats();
+        profiler.end(FrameProfiler.Section.MODEL);
 
         //canvas.drawIsometricGrid(nodeWorldWidth,nodeWorldHeight);
+        profiler.begin(FrameProfiler.Section.GRID);
+        // The node map is drawn at the render scale, and the toolbar at full resolution
+        renderScaler.begin();
         canvas.drawIsometricGrid((int)gridSize.x, (int)gridSize.y);
+        profiler.end(FrameProfiler.Section.GRID);
+        profiler.begin(FrameProfiler.Section.DRAW);
         stage.getViewport().apply();
+        renderScaler.applyViewport();
         stage.draw();
+        renderScaler.end(canvas.getBatch());
+        profiler.end(FrameProfiler.Section.DRAW);
+        profiler.begin(FrameProfiler.Section.TOOLBAR);
         toolbarStage.getViewport().apply();
         toolbarStage.draw();
+        profiler.end(FrameProfiler.Section.TOOLBAR);
 
 
 
@@ -426,17 +508,23 @@ public class GameController implements Screen{
 //            }
         }
 
-
+        profiler.endFrame(frameTime);
+        RenderScheduler.endFrame(delta);
     }
 
     @Override
     public void resize(int width, int height) {
         //access viewports and change size
-        toolbarStage.getViewport().update(width,height);
         stage.getViewport().update(width,height, true);
+        loadingStage.getViewport().update(width,height, true);
 
-        toolbarStage.clear();
-        createToolbar();
+        // The toolbar is only created once the first level is ready, and shows that level's stats
+        if (toolbarStage != null) {
+            toolbarStage.getViewport().update(width,height);
+            if (levelController != null && loadingLevel < 0) {
+                createToolbar();
+            }
+        }
 
     }
 
@@ -452,21 +540,43 @@ public class GameController implements Screen{
 
     @Override
     public void hide() {
-
+        RenderScheduler.end();
     }
 
     @Override
     public void dispose() {
-
+        connectorMesh.dispose();
+        nodeLayer.dispose();
+        renderScaler.dispose();
+        profiler.dispose();
+        loadingStage.dispose();
+        if (loadingPath != null && directory.contains(loadingPath)) {
+            directory.unload(loadingPath);
+        }
+        dropPrefetch();
+        if (prefetchScope != null) {
+            directory.releaseScope(prefetchScope);
+        }
+        if (levelScope != null) {
+            directory.releaseScope(levelScope);
+        }
+        if (tutorialHeld) {
+            directory.releaseScope(AssetDirectory.TUTORIAL_SCOPE);
+        }
+        music.dispose();
+        stage.dispose();
+        // The toolbar is shared statically, so the next controller must not find this one's
+        if (toolbarStage != null) {
+            toolbarStage.dispose();
+            toolbarStage = null;
+        }
+        canvas.dispose();
     }
 
     public void updateNodeColors() {
         for(int i = 0; i < targets.size; i++) {
             TargetModel target = targets.get(i);
-            String name = targets.get(i).getName();
-            targetBars.get(name).get(0).setFillAmount(1f - ((float)target.getStress())/target.getMaxStress());
-//            System.out.println("Stress fill amount " + (target.getStress()/target.getMaxStress()));
-            targetBars.get(name).get(1).setFillAmount(target.getSuspicion()/100f);
+            targetBars.update(i, target.getStress(), target.getMaxStress(), target.getSuspicion());
             if(targets.get(i).getState() != targetStates.get(i)) {
                 TargetModel.TargetState state = target.getState();
                 int colorState = target.getColorState();
@@ -477,14 +587,15 @@ public class GameController implements Screen{
                 }
                 imageNodes.get(target.getName()).changeColor(colorState);
                 targetStates.set(i, state);
+                RenderScheduler.requestActivity();
                 if(state == TargetModel.TargetState.DEFEATED) {
                     uiController.createDialogBox(target.getDefeatMessage());
-                    GameConstants.ELIMINATED.play(GameConstants.global_sound);
+                    GameConstants.SoundEffect.ELIMINATED.play(GameConstants.global_sound);
                 }
 //                System.out.println("CHANGE STATE");
 //                System.out.println(state);
 
-                GameConstants.TARGET_STATE_CHANGE.play(.5f * GameConstants.global_sound);
+                GameConstants.SoundEffect.TARGET_STATE_CHANGE.play(.5f * GameConstants.global_sound);
 
             }
         }
@@ -536,6 +647,7 @@ public class GameController implements Screen{
                 nodeLabel.setHeight(100f);
             }
             final LevelController lc = levelController;
+            final String targetLabel = s;
             b.addListener(ic.getButtonListener(
                     new Runnable() {
                         @Override
@@ -545,27 +657,17 @@ public class GameController implements Screen{
                     }, new Runnable() {
                         @Override
                         public void run() {
-                            String labelS = "";
-                            if(nodeInfo.length == 1) {
-                                ArrayList<TraitModel.Trait> traits = levelController.getTargetTraits(b.getName());
-                                String traitString = "";
-                                for(TraitModel.Trait trait : traits) {
-                                    traitString += trait.toString() + ", ";
-                                }
-                                if(traits.size() > 0) {
-                                    traitString = traitString.substring(0, traitString.length()-2);
-                                } else {
-                                    traitString = "None";
-                                }
-
-                                labelS =  b.getName() + "\n" +
-                                        "Traits: " + traitString+ "\n";
-                            } else {
+                            // Traits never change, so the target label built above is reused as is
+                            String labelS = targetLabel;
+                            if(nodeInfo.length != 1) {
                                 labelS = lc.getTargetModels().get(nodeInfo[0]).getTitle(nodeInfo[1]);
                                 // Set subtree info of node
                                 b.setSubtreeInfo(lc.getTargetModels().get(nodeInfo[0]).getStressRatings(nodeInfo[1]));
                             }
-                            nodeLabel.setText(labelS);
+                            // Only lay the label out again if its text has actually changed
+                            if(!nodeLabel.textEquals(labelS)) {
+                                nodeLabel.setText(labelS);
+                            }
                             uiController.nodeOnEnter(lc.getTargetModels().get(nodeInfo[0]), nodeLabel, b);
                         }
                     },
@@ -602,25 +704,140 @@ public class GameController implements Screen{
 
     /**
      * This method switches the level based on the number inputted
+     *
+     * The level is parsed on the asset loader thread, and its actors are then built a few targets
+     * at a time, so switching never holds up a frame for long. Until the level is ready, a progress
+     * screen is shown in place of the game. Asking for another level before then abandons the one
+     * being loaded.
+     *
+     * If the level is the one that was prefetched, it is taken over as is, along with its assets,
+     * and is usually ready straight away. Otherwise the prefetched level is dropped, unless it comes next after the new
+     * level, so that at most the current and next levels are ever held.
+     *
      * @param newLevel the level that the game needs to be switched to
      */
     public void loadLevel(int newLevel) {
-        //levelController = levelControllers.get(newLevel);
-        levelController = new LevelController(levelJsons.get(newLevel));
-        tutorialPaths = levelController.getTutorialPaths();
-
-        if(!init) {
-            exitScreen(2);
+        loadStart = StartupTrace.begin();
+        if (loadingPath != null && directory.contains(loadingPath)) {
+            directory.unload(loadingPath);
+        }
+        String path = levelJsons.get(newLevel);
+        String next = isLastLevel(newLevel) ? null : levelJsons.get(newLevel + 1);
+        if (path.equals(prefetchPath)) {
+            prefetchPath = null;
         } else {
-            init = !init;
+            if (prefetchPath != null && !prefetchPath.equals(next)) {
+                dropPrefetch();
+            }
+            directory.load(path, LevelController.class);
         }
+        // The prefetched level's assets are only kept while that level is still wanted
+        if (prefetchScope != null && !prefetchScope.equals(AssetDirectory.LEVEL_SCOPE + path)
+                && !prefetchScope.equals(AssetDirectory.LEVEL_SCOPE + prefetchPath)) {
+            directory.releaseScope(prefetchScope);
+            prefetchScope = null;
+        }
+
+        // The first level is loaded as the game is created, and has no tutorial
+        tutorialOnLoad = !init;
+        init = false;
 
+        loadingLevel = newLevel;
+        loadingPath = path;
+        buildIndex = -1;
+        loadingBar.setValue(0f);
+        // Nothing on the old level should respond while the new one loads
+        Gdx.input.setInputProcessor(loadingStage);
+    }
+
+    /**
+     * Advances the level being loaded by a single frame's worth of work.
+     *
+     * Waits for the level to be parsed, and then builds the actors for as many targets as fit into
+     * the frame budget. The level is swapped in as soon as it has been parsed, so that its actors
+     * can be built straight into the stage.
+     */
+    private void updateLoading() {
+        long deadline = System.nanoTime() + LOAD_BUDGET_MS * 1000000L;
+        if (buildIndex < 0) {
+            directory.update(LOAD_BUDGET_MS);
+            if (!directory.isLoaded(loadingPath, LevelController.class)) {
+                return;
+            }
+            levelController = directory.get(loadingPath, LevelController.class);
+            directory.unload(loadingPath);
+            beginLevel();
+            buildIndex = 0;
+        }
+
+        while (buildIndex < targets.size && System.nanoTime() < deadline) {
+            buildTarget(targets.get(buildIndex));
+            buildIndex++;
+        }
+        loadingBar.setValue(PARSE_PROGRESS + (1f - PARSE_PROGRESS) * buildIndex / Math.max(1, targets.size));
+
+        // Level assets load alongside the actors, and the level waits for them as well
+        if (buildIndex == targets.size && !isLevelAssetsLoaded()) {
+            directory.update(LOAD_BUDGET_MS);
+        }
+        if (buildIndex == targets.size && isLevelAssetsLoaded()) {
+            finishLevel();
+        }
+    }
+
+    /**
+     * Returns whether the assets the new level needs before it starts have finished loading.
+     *
+     * @return whether the level scope, and the tutorial scope if needed, are loaded
+     */
+    private boolean isLevelAssetsLoaded() {
+        return directory.isScopeLoaded(levelScope)
+                && (!tutorialHeld || directory.isScopeLoaded(AssetDirectory.TUTORIAL_SCOPE));
+    }
+
+    /**
+     * Resets the stage and game state for the level that has just been parsed.
+     *
+     * The assets of the new level are held before those of the old one are let go, so that
+     * anything they share stays loaded.
+     */
+    private void beginLevel() {
+        profiler.setLevel(loadingPath);
+        tutorialPaths = levelController.getTutorialPaths();
+
+        String scope = AssetDirectory.LEVEL_SCOPE + loadingPath;
+        directory.acquireScope(scope, tutorialPaths);
+        if (levelScope != null) {
+            directory.releaseScope(levelScope);
+        }
+        levelScope = scope;
+        // The level now holds the assets that were prefetched for it
+        if (scope.equals(prefetchScope)) {
+            directory.releaseScope(prefetchScope);
+            prefetchScope = null;
+        }
+        // Start loading the tutorial screen now, so that it is ready with the level
+        if (tutorialOnLoad != tutorialHeld) {
+            if (tutorialOnLoad) {
+                directory.acquireScope(AssetDirectory.TUTORIAL_SCOPE);
+            } else {
+                directory.releaseScope(AssetDirectory.TUTORIAL_SCOPE);
+            }
+            tutorialHeld = tutorialOnLoad;
+        }
 
         ended = false;
         stage.clear();
+        // Connectors are drawn underneath everything else on the node map
+        connectorMesh.clearConnectors();
+        stage.addActor(connectorMesh);
+        // Nodes go above connectors and below target bars
+        nodeLayer.clearChildren();
+        stage.addActor(nodeLayer);
+        targetBars.clearBars();
+        stage.addActor(targetBars);
         targetStates = new Array<>();
         activeVerb = ActiveVerb.NONE;
-        targetBars = new HashMap<String, Array<FillBar>>();
         cleared = false;
 
         targets = new Array<>();
@@ -637,101 +854,277 @@ public class GameController implements Screen{
         canvas.drawIsometricGrid((int)gridSize.x, (int)gridSize.y);
         canvas.endDebug();
 
-        // Creating Nodes
         imageNodes = new HashMap<>();
+    }
 
-        for (TargetModel target: targets) {
-            Vector2 targetCoords = levelController.getTargetPos(target.getName());
-            Array<String> targetNodes = target.getNodes();
-            Array<Boolean> lockedNodes = new Array<>();
-            for (String nodeName: targetNodes ){
-                lockedNodes.add(levelController.getLocked(target.getName(), nodeName));
-            }
-            nodeView = new NodeView(stage, target, targetNodes, targetCoords, lockedNodes);
-            imageNodes.putAll(nodeView.getImageNodes());
-
-            Array<FillBar> bars = new Array<>();
-            FillBar stressBar_ = new FillBar(
-                    new Texture(Gdx.files.internal("UI/UI_TargetBarOutline_1.png")),
-                    new Texture(Gdx.files.internal("UI/UI_TargetStressFill_1.png")),
-                    true, 5, 5
-            );
-            targetCoords = levelController.getTargetPos(target.getName());
-//            targetCoords.add(0.5f,0.5f);
-//            System.out.println("target at " + targetCoords);
-            Vector2 pos = new Vector2(targetCoords.x-0.2f, targetCoords.y-0.4f+1f);
-            pos = NodeView.isometricToWorld(pos);
-            stressBar_.setPosition(pos.x, pos.y);
-//            System.out.println("stress bar " + stressBar_.getX() + ", " + stressBar_.getY());
-            bars.add(stressBar_);
-//            stressBar_.toFront();
-            stage.addActor(stressBar_);
-            FillBar susBar_ = new FillBar(
-                    new Texture(Gdx.files.internal("UI/UI_TargetBarOutline_1.png")),
-                    new Texture(Gdx.files.internal("UI/UI_TargetSuspicionFill_1.png")),
-                    true, 5, 5
-            );
-            targetCoords = levelController.getTargetPos(target.getName());
-            pos.set(targetCoords.x-0.2f, targetCoords.y+0.55f+1f);
-            pos = NodeView.isometricToWorld(pos);
-            susBar_.setPosition(pos.x, pos.y);
-//            System.out.println("susp bar " + susBar_.getX() + ", " + susBar_.getY());
-            bars.add(susBar_);
-//            susBar_.toFront();
-            stage.addActor(susBar_);
-            targetBars.put(target.getName(), bars);
-        }
-
-        addNodeListeners(imageNodes);
+    /**
+     * Creates the nodes and bars of a single target, along with the connections to its nodes
+     * that are visible at the beginning of the game.
+     *
+     * @param target    the target to build
+     */
+    private void buildTarget(TargetModel target) {
+        // Bars are indexed in the same order as targets
+        Vector2 targetCoords = levelController.getTargetPos(target.getName());
+        Vector2 stressPos = NodeView.isometricToWorld(new Vector2(targetCoords.x-0.2f, targetCoords.y-0.4f+1f));
+        Vector2 susPos = NodeView.isometricToWorld(new Vector2(targetCoords.x-0.2f, targetCoords.y+0.55f+1f));
+        int index = targetBars.addBars(stressPos.x, stressPos.y, susPos.x, susPos.y);
+
+        buildNodes(target, index);
+    }
 
+    /**
+     * Creates the nodes of a single target, along with the connections to its nodes that are
+     * visible at the beginning of the game.
+     *
+     * @param target    the target to build
+     * @param index     the index of the target in the level
+     */
+    private void buildNodes(TargetModel target, int index) {
+        // Creating Nodes
+        Vector2 targetCoords = levelController.getTargetPos(target.getName());
+        Array<String> targetNodes = target.getNodes();
+        Array<Boolean> lockedNodes = new Array<>();
+        for (String nodeName: targetNodes ){
+            lockedNodes.add(levelController.getLocked(target.getName(), nodeName));
+        }
+        nodeView = new NodeView(stage, target, targetNodes, targetCoords, lockedNodes);
+        imageNodes.putAll(nodeView.getImageNodes());
+        addNodeListeners(nodeView.getImageNodes());
 
         //This draws all the primary connections that are visible at the beginning of the game
         Vector2 connectorCoords = new Vector2();
-        for(TargetModel target: targets){
-            Vector2 targetCoords = levelController.getTargetPos(target.getName());
-            ArrayMap<String, Array<Connector>> firstConnections = levelController.getConnectorsOf(target.getName());
-
-            //for each target, extract the path from target to each individual node
-            for(int i = 0; i < firstConnections.size; i++){
-                Array<Connector> firstConnectors = firstConnections.getValueAt(i);
-                //draw each individual connector on the path
-                for(Connector connector : firstConnectors) {
-                    connectorCoords.set(connector.xcoord, connector.ycoord);
-                    connectorCoords.add(targetCoords);
-                    connectorCoords = isometricToWorld(connectorCoords);
-                    if(connector.type.contains("E")) {
-                        Image east = new Image(Connector.TX_EAST);
-                        east.setPosition(connectorCoords.x, connectorCoords.y);
-                        stage.addActor(east);
-                    }if(connector.type.contains("W")) {
-                        Image west = new Image(Connector.TX_WEST);
-                        west.setPosition(connectorCoords.x, connectorCoords.y);
-                        stage.addActor(west);
-                    }
-                    if(connector.type.contains("N")) {
-                        Image north = new Image(Connector.TX_NORTH);
-                        north.setPosition(connectorCoords.x, connectorCoords.y);
-                        stage.addActor(north);
-                    }
-                    if(connector.type.contains("S")) {
-                        Image south = new Image(Connector.TX_SOUTH);
-                        south.setPosition(connectorCoords.x, connectorCoords.y);
-                        stage.addActor(south);
-                    }
-                }
+        ArrayMap<String, Array<Connector>> firstConnections = levelController.getConnectorsOf(target.getName());
+
+        //for each target, extract the path from target to each individual node
+        for(int i = 0; i < firstConnections.size; i++){
+            Array<Connector> firstConnectors = firstConnections.getValueAt(i);
+            //draw each individual connector on the path
+            for(Connector connector : firstConnectors) {
+                connectorCoords.set(connector.xcoord, connector.ycoord);
+                connectorCoords.add(targetCoords);
+                connectorCoords = isometricToWorld(connectorCoords);
+                connectorMesh.addConnector(connector, connectorCoords, false, index);
+            }
+
+            String fact = firstConnections.getKeyAt(i);
+            nodeLayer.addActor(imageNodes.get(target.getName()+","+fact));
+        }
+        nodeLayer.addActor(imageNodes.get(target.getName()));
+    }
+
+    /**
+     * Hands control back to the player once every target of the new level has been built.
+     */
+    private void finishLevel() {
+        StartupTrace.end("loadLevel " + loadingPath, "level", loadStart);
+        currentLevel = loadingLevel;
+        loadingLevel = -1;
+        loadingPath = null;
+        targetBars.toFront();
+
+        // The toolbar shows player stats, so it waits for the first level
+        if (toolbarStage == null) {
+            createToolbar();
+        } else {
+            resetInputProcessor();
+        }
+        prefetchNextLevel();
+        if (tutorialOnLoad) {
+            exitScreen(2);
+            // The tutorial screen holds its own assets now
+            directory.releaseScope(AssetDirectory.TUTORIAL_SCOPE);
+            tutorialHeld = false;
+        }
+    }
+
+    /**
+     * Starts loading the level after the current one in the background, if there is one and it
+     * is not already loading.
+     *
+     * The level is parsed on the loader thread while the current level is played, and its own
+     * assets are then queued as well, so both are taken over by {@link #loadLevel} if the player
+     * moves on to it.
+     */
+    private void prefetchNextLevel() {
+        if (isLastLevel(currentLevel)) {
+            return;
+        }
+        String next = levelJsons.get(currentLevel + 1);
+        if (!next.equals(prefetchPath)) {
+            prefetchPath = next;
+            directory.load(prefetchPath, LevelController.class);
+        }
+    }
+
+    /**
+     * Moves the prefetch of the next level along, without waiting for it.
+     *
+     * Only a small slice of each frame is spent on it, as the current level is still being played.
+     * Once the level has been parsed, the assets in its scope are held and loaded too.
+     *
+     * A level that fails to load is dropped, and will fail again with its error if it is ever
+     * switched to. Any other asset that fails to load is an error as usual.
+     */
+    private void updatePrefetch() {
+        if (prefetchPath == null) {
+            return;
+        }
+        String scope = AssetDirectory.LEVEL_SCOPE + prefetchPath;
+        if (prefetchScope == null && directory.isLoaded(prefetchPath, LevelController.class)) {
+            directory.acquireScope(scope, directory.get(prefetchPath, LevelController.class).getTutorialPaths());
+            prefetchScope = scope;
+        }
+        if (scope.equals(prefetchScope) && directory.isScopeLoaded(scope)) {
+            return;
+        }
+        try {
+            directory.update(PREFETCH_BUDGET_MS);
+        } catch (GdxRuntimeException e) {
+            if (!isFailureOf(e, prefetchPath)) {
+                throw e;
+            }
+            Gdx.app.error("GameController", "Could not prefetch " + prefetchPath, e);
+            dropPrefetch();
+        }
+    }
 
-                String fact = firstConnections.getKeyAt(i);
-                stage.addActor(imageNodes.get(target.getName()+","+fact));
+    /**
+     * Returns whether an error from the asset directory was raised while loading the given file.
+     *
+     * The asset manager reports the failed file in the message of one of the causes.
+     *
+     * @param e     the error
+     * @param file  the asset name of the file
+     * @return      whether the error comes from loading the file
+     */
+    private static boolean isFailureOf(Throwable e, String file) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains(file)) {
+                return true;
             }
-            stage.addActor(imageNodes.get(target.getName()));
         }
-        currentLevel = newLevel;
-        for(Array<FillBar> targetBars : targetBars.values()){
-            targetBars.get(0).toFront();
-            targetBars.get(1).toFront();
+        return false;
+    }
+
+    /**
+     * Stops prefetching the next level, letting go of it and its assets if they have been loaded.
+     */
+    private void dropPrefetch() {
+        if (prefetchPath != null && directory.contains(prefetchPath)) {
+            directory.unload(prefetchPath);
+        }
+        if (prefetchScope != null && prefetchScope.equals(AssetDirectory.LEVEL_SCOPE + prefetchPath)) {
+            directory.releaseScope(prefetchScope);
+            prefetchScope = null;
+        }
+        prefetchPath = null;
+    }
+
+    /**
+     * Returns the index of a target in the current level.
+     *
+     * @param name  the name of the target
+     * @return      the index of the target, or -1 if the level has no such target
+     */
+    private int indexOfTarget(String name) {
+        for (int i = 0; i < targets.size; i++) {
+            if (targets.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Brings the level in line with a level file that has changed on disk, for hot reloading.
+     *
+     * A changed target is read again and rebuilt on its own, starting over from the beginning of
+     * the game, while every other target keeps its progress. A changed level file reloads the
+     * current level without showing its tutorial again. A change to the next level drops it from
+     * the prefetch, so that it is read again. The camera is left where it is in every case.
+     *
+     * @param file  the path of the file that changed, relative to the assets directory
+     * @return      whether the change affected anything that is loaded
+     */
+    public boolean reloadLevelFile(String file) {
+        // A level that is still loading is read after the change anyway
+        if (levelController == null || loadingLevel >= 0) {
+            return false;
+        }
+        String level = levelJsons.get(currentLevel);
+        if (file.equals(level)) {
+            init = true;
+            loadLevel(currentLevel);
+            return true;
+        }
+        if (file.startsWith(level.substring(0, level.lastIndexOf('/') + 1) + "targets/")) {
+            return reloadTarget(file);
+        }
+        if (prefetchPath != null
+                && file.startsWith(prefetchPath.substring(0, prefetchPath.lastIndexOf('/') + 1))) {
+            dropPrefetch();
+            prefetchNextLevel();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a target of the current level again, and rebuilds its nodes, bars and connectors.
+     *
+     * @param file  the path of the target file, relative to the assets directory
+     * @return      whether the level has the target, which it is matched to by name
+     */
+    private boolean reloadTarget(String file) {
+        TargetModel target = new TargetModel(file);
+        int index = indexOfTarget(target.getName());
+        if (index < 0 || !levelController.replaceTarget(target)) {
+            Gdx.app.log("GameController", "No target named " + target.getName() + " to reload from " + file);
+            return false;
+        }
+        targets.set(index, target);
+        targetStates.set(index, target.getState());
+
+        String prefix = target.getName() + ",";
+        Iterator<Map.Entry<String, Node>> nodes = imageNodes.entrySet().iterator();
+        while (nodes.hasNext()) {
+            Map.Entry<String, Node> node = nodes.next();
+            if (node.getKey().equals(target.getName()) || node.getKey().startsWith(prefix)) {
+                node.getValue().remove();
+                nodes.remove();
+            }
         }
+        connectorMesh.removeConnectors(index);
+        buildNodes(target, index);
+        return true;
     }
-    
+
+    /**
+     * Draws the progress screen shown while a level loads.
+     *
+     * @param delta Number of seconds since last animation frame
+     */
+    private void drawLoading(float delta) {
+        loadingStage.getViewport().apply();
+        loadingStage.act(delta);
+        loadingStage.draw();
+    }
+
+    /**
+     * Creates the progress screen shown while a level loads.
+     */
+    private void createLoadingStage() {
+        loadingStage = new Stage(new ExtendViewport(MINWORLDWIDTH, MINWORLDHEIGHT), canvas.getBatch());
+        Table table = new Table();
+        table.setFillParent(true);
+        table.add(new Label("LOADING LEVEL", skin)).padBottom(20f);
+        table.row();
+        loadingBar = new ProgressBar(0f, 1f, 0.01f, false, skin, "default-horizontal");
+        table.add(loadingBar).width(MINWORLDWIDTH / 3f);
+        loadingStage.addActor(table);
+    }
+
     public Array<String> getTutorialPaths() {
         return tutorialPaths;
     }
@@ -760,7 +1153,8 @@ public class GameController implements Screen{
             {
                 uiController.createDialogBox("You end the day after a long battle of psychological warfare.");
                 levelController.endDay();
-                GameConstants.END_DAY.play(.2f * GameConstants.global_sound);
+                RenderScheduler.requestActivity();
+                GameConstants.SoundEffect.END_DAY.play(.2f * GameConstants.global_sound);
             }
         });
         return end;
@@ -825,15 +1219,18 @@ public class GameController implements Screen{
      * This method creates an AP image which reflects how much AP the player has left
      * @return Array of images representing how much AP the player has
      */
-    private Image[] createAP(){
+    private TextureRegionDrawable[] createAP(){
 
-        Texture apBack = directory.getEntry("UI:AP", Texture.class);
+        Texture apBack = directory.getEntry(Assets.UI_AP);
 
-        Texture apTexture = directory.getEntry("UI:APCounter", Texture.class);
+        Texture apTexture = directory.getEntry(Assets.UI_AP_COUNTER);
         TextureRegion[][] apSplitTextures = new TextureRegion(apTexture).split(apTexture.getWidth()/9, apTexture.getHeight());
-        Image[] ap = new Image[apSplitTextures[0].length];
+        TextureCompositor compositor = canvas.getCompositor();
+        TextureRegionDrawable[] ap = new TextureRegionDrawable[apSplitTextures[0].length];
         for(int i = 0; i < ap.length; i++){
-            ap[i] = new Image(GameCanvas.combineTextures(new TextureRegion(apBack), apSplitTextures[0][i]));
+            ap[i] = new TextureCompositor.ComposedDrawable(compositor.compose("UI:AP:" + i,
+                    new TextureCompositor.Layer(new TextureRegion(apBack)),
+                    new TextureCompositor.Layer(apSplitTextures[0][i], 0, 10)));
         }
 
         return ap;
@@ -863,8 +1260,12 @@ public class GameController implements Screen{
      *
      */
     public void createToolbar() {
+        // The toolbar is rebuilt on resize and at the end of a level, so the old stage goes first
+        if (toolbarStage != null) {
+            toolbarStage.dispose();
+        }
         FitViewport toolbarViewPort = new FitViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        toolbarStage = new Stage(toolbarViewPort);
+        toolbarStage = new Stage(toolbarViewPort, canvas.getBatch());
 
         InputMultiplexer inputMultiplexer = new InputMultiplexer();
         inputMultiplexer.addProcessor(toolbarStage);
@@ -873,8 +1274,8 @@ public class GameController implements Screen{
 
 //        stressBar = new ProgressBar(0f, 100f, 1f, true, skin, "synthwave");
         stressBar = new FillBar(
-                directory.getEntry("UI:StressBar", Texture.class),
-                directory.getEntry("UI:StressBarFill", Texture.class),
+                directory.getEntry(Assets.UI_STRESS_BAR),
+                directory.getEntry(Assets.UI_STRESS_BAR_FILL),
                 true, 7, 7
         );
 //        stressBar.setValue(levelController.getPlayerStress());
@@ -892,7 +1293,7 @@ public class GameController implements Screen{
         end = createEndDay();
         settings = createSettings();
         notebook = createNotebook();
-        apImages = createAP();
+        apDrawables = createAP();
 
         Table toolbar = createToolbarTable(end, settings, notebook);
         toolbarStage.addActor(toolbar);
@@ -901,6 +1302,13 @@ public class GameController implements Screen{
 
         createDayGroup();
         toolbarStage.addActor(daysGroup);
+        toolbarStage.addActor(rightPanel);
+
+        // Force every stat widget to be filled in on the next update
+        shownAP = -1;
+        shownBitecoin = -1;
+        shownDays = -1;
+        shownStress = Float.NaN;
     }
 
     /**
@@ -922,19 +1330,29 @@ public class GameController implements Screen{
         Table leftSide = createLeftsideTable(toolbar);
         Table skillBar = uiController.createSkillBarTable(toolbar);
 
+        // Right side panel, drawn over the rest of the toolbar: AP counter, then menu back, then buttons
+        rightPanel = new Group();
+        rightPanel.setTransform(false);
+
+        displayedAP = new Image(apDrawables[levelController.getAP()]);
+        displayedAP.setPosition(Gdx.graphics.getWidth() - displayedAP.getWidth(), RIGHT_SIDE_HEIGHT);
+        displayedAP.setTouchable(Touchable.disabled);
+        rightPanel.addActor(displayedAP);
+
         // Add menu back
         menuBack = new Image(TX_MENU_BACK);
         menuBack.setPosition(Gdx.graphics.getWidth() - menuBack.getWidth(), 0);
-        toolbarStage.addActor(menuBack);
+        menuBack.setTouchable(Touchable.disabled);
+        rightPanel.addActor(menuBack);
 
 
-        toolbarStage.addActor(end);
+        rightPanel.addActor(end);
         end.setPosition(Gdx.graphics.getWidth() - menuBack.getWidth()+20, RIGHT_SIDE_HEIGHT);
 
-        toolbarStage.addActor(notebook);
+        rightPanel.addActor(notebook);
         notebook.setPosition(Gdx.graphics.getWidth() - menuBack.getWidth()+20, RIGHT_SIDE_HEIGHT-95);
 
-        toolbarStage.addActor(settings);
+        rightPanel.addActor(settings);
         settings.setPosition(Gdx.graphics.getWidth() - menuBack.getWidth()+25, 0);
 
         Table rightSide = new Table();
@@ -945,10 +1363,6 @@ public class GameController implements Screen{
         toolbar.add(skillBar).width(.67f*toolbar.getWidth()).height(.10f*toolbar.getWidth()).align(Align.bottom);
         toolbar.add(rightSide).right().width(.10f*toolbar.getWidth()).height(.10f*toolbar.getHeight()).align(Align.topRight);
 
-        displayedAP = apImages[levelController.getAP()];
-        displayedAP.setPosition(Gdx.graphics.getWidth() - displayedAP.getWidth(), RIGHT_SIDE_HEIGHT);
-        toolbarStage.addActor(displayedAP);
-
 
         return toolbar;
     }
@@ -996,7 +1410,7 @@ public class GameController implements Screen{
         Group bitecoinGroup = new Group();
 
         Image bitecoinCounter = new Image(new TextureRegionDrawable(new TextureRegion(
-                new Texture("UI/BitecoinCounter.png"))));
+                directory.getEntry(Assets.UI_BITCOIN_COUNTER))));
 
         bitecoinAmount = new Label(Integer.toString((int)levelController.getPlayerCurrency()), skin, "bitcoin");
 
@@ -1015,7 +1429,7 @@ public class GameController implements Screen{
         daysGroup = new Group();
 
         //Label daysText = new Label("Days Left: ", skin, "pink");
-        Image daysSign = new Image(directory.getEntry("UI:DaysLeft", Texture.class));
+        Image daysSign = new Image(directory.getEntry(Assets.UI_DAYS_LEFT));
         daysGroup.addActor(daysSign);
 
         Vector2 zeroLoc = new Vector2(Gdx.graphics.getWidth() -daysSign.getWidth() - 20, Gdx.graphics.getHeight() - daysSign.getHeight() - 20);
@@ -1121,6 +1535,8 @@ public class GameController implements Screen{
         if(ended || nodeFreeze) {
             return;
         }
+        // Keep drawing while the action plays out, when rendering on demand
+        RenderScheduler.requestActivity();
         switch (activeVerb) {
             case NONE:
                 if(!isTarget) {
@@ -1170,7 +1586,7 @@ public class GameController implements Screen{
                 if(hack == 1) {
                     button.changeState(Node.NodeState.UNSCANNED);
                     uiController.createDialogBox("You hacked the node successfully!");
-                    GameConstants.HACK.play(GameConstants.global_sound);
+                    GameConstants.SoundEffect.HACK.play(GameConstants.global_sound);
                 } else if(hack == -3) {
                     uiController.createDialogBox("Insufficient AP to hack this node.");
                 } else if(hack == -4) {
@@ -1182,7 +1598,7 @@ public class GameController implements Screen{
                 if(success) {
                     button.changeState(Node.NodeState.SCANNED);
                     addConnections(nodeInfo[0], nodeInfo[1]);
-                    GameConstants.SCAN.play(GameConstants.global_sound);
+                    GameConstants.SoundEffect.SCAN.play(GameConstants.global_sound);
                     uiController.createDialogBoxFact(
                             levelController.getTargetModels().get(nodeInfo[0]).getTitle(nodeInfo[1]) + " " +
                                     GameConstants.stressRatingToIndicator(levelController.getTargetModels().get(nodeInfo[0]).getStressRating(nodeInfo[1])),
@@ -1216,7 +1632,7 @@ public class GameController implements Screen{
         if(levelController.canHarass(targetName)) {
             uiController.getBlackmailFact("Select a fact to threaten the target with.", targetName,
                     levelController);
-            GameConstants.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
+            GameConstants.SoundEffect.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
         }
         else {
             uiController.createDialogBox("Insufficient AP to threaten the target.");
@@ -1232,7 +1648,7 @@ public class GameController implements Screen{
         if(levelController.canExpose(targetName)) {
             uiController.getBlackmailFact("Select a fact to expose the target with.", targetName,
                     levelController);
-            GameConstants.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
+            GameConstants.SoundEffect.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
         }
         else {
             uiController.createDialogBox("Insufficient AP to expose the target.");
@@ -1248,12 +1664,12 @@ public class GameController implements Screen{
         if(levelController.canGaslight(targetName)) {
             if(levelController.gaslight(targetName)){
                 uiController.createDialogBox("You manage to convince them that you're a figment of their imagination.");
-                GameConstants.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
+                GameConstants.SoundEffect.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
             }
 
             else {
                 uiController.createDialogBox("You fail to gaslight them, and only further arouse their suspicions.");
-                GameConstants.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
+                GameConstants.SoundEffect.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
             }
         }
         else {
@@ -1270,7 +1686,7 @@ public class GameController implements Screen{
         if(levelController.canDistract(targetName)){
             if(levelController.distract(targetName)){
                 uiController.createDialogBox("You manage to distract your target. They won't have time to deal with you for a while.");
-                GameConstants.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
+                GameConstants.SoundEffect.TARGET_CLICKED.play(0.1f * GameConstants.global_sound);
             }else{
                 uiController.createDialogBox("You fail to distract them, and only further arouse their suspicions.");
             }
@@ -1287,77 +1703,23 @@ public class GameController implements Screen{
      */
     public void addConnections(String target, String fact){
         ArrayMap<String, Array<Connector>> connectors = levelController.getConnectorsOf(target, fact);
-        //Vector2 connectorCoords = new Vector2();
+        Vector2 connectorCoords = new Vector2();
         Vector2 targetCoords = levelController.getTargetPos(target);
+        int index = indexOfTarget(target);
         for(int i = 0; i < connectors.size; i++){
             Array<Connector> firstConnectors = connectors.getValueAt(i);
             //draw each individual connector on the path
             for(Connector connector : firstConnectors) {
-                Vector2 connectorCoords = new Vector2();
                 connectorCoords.set(connector.xcoord, connector.ycoord).add(targetCoords);
-
                 connectorCoords = isometricToWorld(connectorCoords);
-                if(connector.type.contains("E")) {
-//                    System.out.println("East");
-                    ConnectorActor east = new ConnectorActor(EastConnectorAnimation, connectorCoords);
-                    east.setPosition(connectorCoords.x, connectorCoords.y);
-                    stage.addActor(east);
-                }if(connector.type.contains("W")) {
-//                    System.out.println("West");
-                    ConnectorActor west = new ConnectorActor(WestConnectorAnimation, connectorCoords);
-                    west.setPosition(connectorCoords.x, connectorCoords.y);
-                    stage.addActor(west);
-                }
-                if(connector.type.contains("N")) {
-//                    System.out.println("North");
-                    ConnectorActor north = new ConnectorActor(NorthConnectorAnimation, connectorCoords);
-                    north.setPosition(connectorCoords.x, connectorCoords.y);
-                    stage.addActor(north);
-                }
-                if(connector.type.contains("S")) {
-//                    System.out.println("South");
-                    ConnectorActor south = new ConnectorActor(SouthConnectorAnimation, connectorCoords);
-                    south.setPosition(connectorCoords.x, connectorCoords.y);
-                    stage.addActor(south);
-                }
-
-//                System.out.println("-------------");
-
+                connectorMesh.addConnector(connector, connectorCoords, true, index);
             }
 
             String newFact = connectors.getKeyAt(i);
-            stage.addActor(imageNodes.get(target+","+newFact));
+            nodeLayer.addActor(imageNodes.get(target+","+newFact));
         }
     }
 
-    /**
-     * Creates an animation that can be used to display connections being added between nodes
-     * @param tex the texture that is used for animation
-     * @return the animation of connections between nodes
-     */
-    public Animation<TextureRegion> connectorAnimation(Texture tex) {
-        TextureRegion[] connectorFrames = new TextureRegion[50];
-        int counter = 0;
-
-        for(int i = 2; i <= 100; i+=2) {
-
-            float percentile = i/100f;
-            float coordScaler = (1 - percentile) / 2;
-
-            connectorFrames[counter] = new TextureRegion(tex,
-                    (int)(tex.getWidth() * coordScaler),
-                    (int)(tex.getHeight() * coordScaler),
-                    (int)(tex.getWidth() * percentile),
-                    (int)(tex.getHeight() * percentile));
-
-            counter++;
-        }
-
-        Animation<TextureRegion> edgeAnimation = new Animation<TextureRegion>(0.025f, connectorFrames);
-        edgeAnimation.setPlayMode(Animation.PlayMode.NORMAL);
-        return edgeAnimation;
-    }
-
     /**
      * Displays a dialog based on what active verb was clicked.
      * @param s
@@ -1368,7 +1730,7 @@ public class GameController implements Screen{
             case "overwork":
                 success = levelController.overwork();
                 if(success) {
-                    GameConstants.OVERWORK.play(GameConstants.global_sound);
+                    GameConstants.SoundEffect.OVERWORK.play(GameConstants.global_sound);
                     uiController.createDialogBox("You chug an energy drink and work yourself late into the night.");
                 } else {
                     uiController.createDialogBox("You cannot overwork anymore today!");
@@ -1386,7 +1748,7 @@ public class GameController implements Screen{
             case "otherJobs":
                 float money = levelController.otherJobs();
                 if(money != -1f) {
-                    GameConstants.DO_OTHER_JOBS.play(GameConstants.global_sound);
+                    GameConstants.SoundEffect.DO_OTHER_JOBS.play(GameConstants.global_sound);
                     uiController.createDialogBox("You did some other jobs and earned some " + Integer.toString((int)money) +  " bitecoin for yourself!");
                 } else {
                     uiController.createDialogBox("Insufficient AP to do other jobs");
@@ -1405,40 +1767,42 @@ public class GameController implements Screen{
 
     /**
      * Updates the stats HUD with current values
+     *
+     * Widgets are created once in createToolbar, and each one is only touched here when the value
+     * it shows has actually changed.
      */
     public void updateStats(){
-//        stressBar.setValue(levelController.getPlayerStress());
-        stressBar.setFillAmount(1-levelController.getPlayerStress()/ GameConstants.MAX_STRESS);
-//        stressBar.setFillAmount(1f);
-        float bitecoinNum = levelController.getPlayerCurrency();
-        if(bitecoinNum < 0) {
-            bitecoinNum = 0;
+        boolean changed = false;
+        float stressNum = levelController.getPlayerStress();
+        if(stressNum != shownStress) {
+            stressBar.setFillAmount(1-stressNum/ GameConstants.MAX_STRESS);
+            shownStress = stressNum;
+            changed = true;
         }
 
+        int bitecoinNum = Math.max(0, (int) levelController.getPlayerCurrency());
+        if(bitecoinNum != shownBitecoin) {
+            bitecoinAmount.setText(Integer.toString(bitecoinNum));
+            shownBitecoin = bitecoinNum;
+            changed = true;
+        }
 
+        int apNum = levelController.getAP();
+        if(apNum != shownAP) {
+            displayedAP.setDrawable(apDrawables[apNum]);
+            shownAP = apNum;
+            changed = true;
+        }
 
-        String bitecoinAmt = Integer.toString((int) bitecoinNum);
-        bitecoinAmount.setText(bitecoinAmt);
-//        ap.setText("AP: " + Integer.toString(levelController.getAP()));
-        displayedAP.remove();
-        displayedAP = apImages[levelController.getAP()];
-        displayedAP.setPosition(SCREEN_WIDTH - displayedAP.getWidth(), RIGHT_SIDE_HEIGHT);
-        displayedAP.setTouchable(Touchable.disabled);
-        toolbarStage.addActor(displayedAP);
-
-        menuBack.remove();
-        menuBack = new Image(TX_MENU_BACK);
-        menuBack.setTouchable(Touchable.disabled);
-        toolbarStage.addActor(menuBack);
-        menuBack.setPosition(SCREEN_WIDTH - menuBack.getWidth(), 0);
-        end.toFront();
-        settings.toFront();
-        notebook.toFront();
-
-
-        daysLeft.setText(Integer.toString((int)levelController.getDaysLeft()));
-
-//        displayedAP.add(apImages[levelController.getAP()]).width(displayedAP.getWidth()).height(/*rightSide.getHeight*/70f).align(Align.center);
+        int daysNum = (int)levelController.getDaysLeft();
+        if(daysNum != shownDays) {
+            daysLeft.setText(Integer.toString(daysNum));
+            shownDays = daysNum;
+            changed = true;
+        }
+        if(changed) {
+            RenderScheduler.requestActivity();
+        }
     }
 
     public void playMusic() {
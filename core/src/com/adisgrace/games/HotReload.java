@@ -0,0 +1,97 @@
+package com.adisgrace.games;
+
+import com.adisgrace.games.util.AssetDirectory;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Applies changes to asset files to the running game, for development.
+ *
+ * Files are reported with {@link #post} as they change, from whichever thread watches them, and
+ * the changes are applied on the rendering thread at the start of the next frame. A changed PNG
+ * is uploaded again into the texture that was loaded from it. A changed node sheet is split again
+ * by {@link NodeView}, as only its neutral sprites are loaded. A changed level or target file is
+ * passed to the {@link GameController} while a level is being played, which rebuilds only what
+ * the file describes. Any other file is ignored.
+ *
+ * Nothing is reported unless {@link #enable} is called, which the desktop launcher does when
+ * given --hot-reload, along with starting a watcher on the asset folders.
+ */
+public final class HotReload {
+    /** Whether changes are being reported */
+    private static volatile boolean enabled;
+    /** Files that have changed since they were last applied, guarded by itself */
+    private static final Array<String> changed = new Array<String>();
+    /** Files being applied, only used on the rendering thread */
+    private static final Array<String> applying = new Array<String>();
+
+    /** Only accessed statically */
+    private HotReload() {}
+
+    /**
+     * Starts applying changes reported with {@link #post}.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Returns whether changes are being applied.
+     *
+     * @return whether changes are being applied
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reports that a file has changed. May be called from any thread.
+     *
+     * @param file  the path of the file, relative to the assets directory, with / as separator
+     */
+    public static void post(String file) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (changed) {
+            if (!changed.contains(file, false)) {
+                changed.add(file);
+            }
+        }
+        // Wake the game up if it is only rendering on demand
+        if (Gdx.graphics != null) {
+            Gdx.graphics.requestRendering();
+        }
+    }
+
+    /**
+     * Applies every change reported since the last call.
+     *
+     * @param directory the loaded asset directory, or null if it has not been loaded yet
+     * @param game      the game controller, or null if no level is being played
+     */
+    public static void apply(AssetDirectory directory, GameController game) {
+        synchronized (changed) {
+            if (changed.size == 0) {
+                return;
+            }
+            applying.addAll(changed);
+            changed.clear();
+        }
+        for (String file : applying) {
+            long start = System.nanoTime();
+            boolean applied = false;
+            if (file.endsWith(".png")) {
+                applied = NodeView.reloadSheet(file) || (directory != null && directory.reloadTexture(file));
+            } else if (file.startsWith("levels/") && file.endsWith(".json")) {
+                applied = game != null && game.reloadLevelFile(file);
+            }
+            if (applied) {
+                Gdx.app.log("HotReload", "Reloaded " + file + " in "
+                        + (System.nanoTime() - start) / 1000000f + " ms");
+            }
+        }
+        applying.clear();
+        RenderScheduler.requestActivity();
+    }
+}
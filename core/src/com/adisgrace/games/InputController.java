@@ -73,6 +73,9 @@ public class InputController {
 	/** Whether Z, the undo button, has been pressed */
 	private boolean zPressed;
 
+	/** Whether F3, the profiler overlay button, has been pressed */
+	private boolean f3Pressed;
+
 	/** Mouse coordinates */
 	private float mouseX;
 	private float mouseY;
@@ -172,6 +175,13 @@ public class InputController {
 	 */
 	public boolean didUndo() {return zPressed;}
 
+	/**
+	 * Returns true if the F3 key was pressed.
+	 *
+	 * @return true if the F3 key was pressed.
+	 */
+	public boolean didToggleProfiler() {return f3Pressed;}
+
 	/**
 	 * Returns the current mouse x-coordinate.
 	 *
@@ -250,6 +260,9 @@ public class InputController {
 		// Undo button (Z)
 		zPressed = Gdx.input.isKeyJustPressed(Input.Keys.Z) && !ignoreInput;
 
+		// Profiler overlay button (F3)
+		f3Pressed = Gdx.input.isKeyJustPressed(Input.Keys.F3);
+
 		leftPressed = Gdx.input.isKeyJustPressed(Input.Keys.LEFT);
 		rightPressed = Gdx.input.isKeyJustPressed(Input.Keys.RIGHT);
 
@@ -265,25 +278,35 @@ public class InputController {
 	 * @return the ClickListener for nodes
 	 */
 	public ClickListener addNodeListenerEnterExit(final Skin skin, final LevelController levelController) {
+		final Label hoverLabel = new Label("N/A", skin);
+		hoverLabel.setFontScale(2);
+		hoverLabel.setPosition(Gdx.graphics.getWidth() * .05f, Gdx.graphics.getHeight() * .85f);
+
 		return new ClickListener() {
-			Label hoverLabel = new Label("N/A", skin);
+			/** Reused to build the hover text without creating intermediate strings */
+			StringBuilder hoverText = new StringBuilder();
+			/** Stress and suspicion shown by the label, so it is only rebuilt when they change */
+			int shownStress = -1, shownSuspicion = -1;
 
 			@Override
 			public void enter(InputEvent event, float x, float y, int pointer, Actor fromActor) {
 
 				Actor cbutton = (Actor) event.getListenerActor();
 				String name = cbutton.getName();
-				String[] nodeInfo = name.split(",");
-
-				if (nodeInfo.length == 1) {
-					String hoverText = "Target Name: " + name + "\n" +
-							"Target Stress: " + levelController.getTargetStress(name) + "\n" +
-							"Target Suspicion: " + levelController.getTargetSuspicion(name) + "\n";
-					hoverLabel.setText(hoverText);
-					hoverLabel.setFontScale(2);
-					Vector2 zeroLoc = new Vector2(Gdx.graphics.getWidth() * .05f, Gdx.graphics.getHeight() * .85f);
-					hoverLabel.setX(zeroLoc.x);
-					hoverLabel.setY(zeroLoc.y);
+
+				// Only targets have names without a comma
+				if (name.indexOf(',') < 0) {
+					int stress = levelController.getTargetStress(name);
+					int suspicion = levelController.getTargetSuspicion(name);
+					if (stress != shownStress || suspicion != shownSuspicion) {
+						hoverText.setLength(0);
+						hoverText.append("Target Name: ").append(name).append('\n')
+								.append("Target Stress: ").append(stress).append('\n')
+								.append("Target Suspicion: ").append(suspicion).append('\n');
+						hoverLabel.setText(hoverText);
+						shownStress = stress;
+						shownSuspicion = suspicion;
+					}
 
 					GameController.toolbarStage.addActor(hoverLabel);
 
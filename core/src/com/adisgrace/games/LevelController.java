@@ -406,6 +406,16 @@ public class LevelController {
         return levelModel.getTargets();
     }
 
+    /**
+     * Replaces a target with a new copy of it, read again from its file
+     *
+     * @param target the new target, with the same name as the one it replaces
+     * @return whether the level has a target of that name to replace
+     */
+    public boolean replaceTarget(TargetModel target){
+        return levelModel.replaceTarget(target);
+    }
+
     /**
      *
      * @param target name of the target
@@ -1,6 +1,9 @@
 package com.adisgrace.games;
 
 import com.adisgrace.games.GameCanvas;
+import com.adisgrace.games.util.AssetDirectory;
+import com.adisgrace.games.util.Assets;
+import com.adisgrace.games.util.AssetHandle;
 import com.adisgrace.games.util.GameConstants;
 import com.adisgrace.games.leveleditor.FormFactory;
 import com.adisgrace.games.util.ScreenListener;
@@ -37,13 +40,20 @@ public class LevelSelection implements Screen {
     String levelToLoad;
 
     /** Assets for the main menu */
-    private static final Texture TITLE_ASSET = new Texture(Gdx.files.internal("mainmenu/MM_Title_1.png"));
+    private static final AssetHandle<Texture> TITLE_ASSET = Assets.MAIN_MENU_TITLE;
+    /** Background image, shared with the main menu */
+    private Texture background;
 
     /*********************************************** CONSTRUCTOR ***********************************************/
     /**
      * Constructor for a LevelEditorStart.
+     *
+     * The background is taken from the menu scope, so the main menu must still hold it.
+     *
+     * @param directory Asset directory holding the menu assets
      */
-    public LevelSelection() {
+    public LevelSelection(AssetDirectory directory) {
+        background = directory.getEntry(TITLE_ASSET);
         // Create canvas and set view and zoom
         canvas = new GameCanvas();
         // Set up camera
@@ -63,7 +73,7 @@ public class LevelSelection implements Screen {
 //        stage.addActor(label);
 //
 ////         New Level button
-//        TextButton newLevel = new TextButton("CREATE NEW LEVEL", GameConstants.SELECTION_SKIN);
+//        TextButton newLevel = new TextButton("CREATE NEW LEVEL", GameConstants.getSelectionSkin());
 //        newLevel.setWidth(200);
 //        newLevel.setPosition((GameConstants.SCREEN_WIDTH / 2f) - (3 * newLevel.getWidth() / 2), 300);
 //        stage.addActor(newLevel);
@@ -76,12 +86,12 @@ public class LevelSelection implements Screen {
 //        });
 
         // Load Level button
-        TextButton loadLevel = new TextButton("LOAD LEVEL", GameConstants.SELECTION_SKIN);
+        TextButton loadLevel = new TextButton("LOAD LEVEL", GameConstants.getSelectionSkin());
         loadLevel.setWidth(200);
         //loadLevel.setPosition((GameConstants.SCREEN_WIDTH / 2f) + (loadLevel.getWidth() / 2), 300);
         loadLevel.setPosition((Gdx.graphics.getWidth() / 2f) - (loadLevel.getWidth() / 2), 300);
 
-        System.out.println(GameConstants.SELECTION_SKIN);
+        System.out.println(GameConstants.getSelectionSkin());
 
         // Create list (lets you select one of a list of options) with the levels as options
         // Must be final so can be used in the load level listener
@@ -140,7 +150,7 @@ public class LevelSelection implements Screen {
         JsonValue levelsArr = json.get("names");
         JsonValue.JsonIterator itr = levelsArr.iterator();
         while (itr.hasNext()){temp.add(itr.next().asString());}
-        List list = new List(GameConstants.SELECTION_SKIN);
+        List list = new List(GameConstants.getSelectionSkin());
         list.setItems(temp);
 
         return list;
@@ -180,7 +190,7 @@ public class LevelSelection implements Screen {
 
         // Draw background image
         canvas.begin();
-        canvas.draw(TITLE_ASSET, -20, 0, GameConstants.SCREEN_WIDTH+20, GameConstants.SCREEN_HEIGHT);
+        canvas.draw(background, -20, 0, GameConstants.SCREEN_WIDTH+20, GameConstants.SCREEN_HEIGHT);
         canvas.end();
 
         // Draw buttons
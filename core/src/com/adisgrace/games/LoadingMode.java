@@ -46,6 +46,10 @@ public class LoadingMode implements Screen {
     private TextureRegion reg;
 
     private boolean buttonAdded;
+    /** Time that loading assets.json started, for the {@link StartupTrace} */
+    private long assetsStart;
+    /** Whether the menu assets have been asked for, which can only happen once the directory is read */
+    private boolean menuAcquired;
 
 
     public LoadingMode() {
@@ -58,9 +62,11 @@ public class LoadingMode implements Screen {
 
         Gdx.input.setInputProcessor(stage);
 
+        long start = StartupTrace.begin();
         internal = new AssetDirectory("loading.json");
         internal.loadAssets();
         internal.finishLoading();
+        StartupTrace.end("LoadingMode internal assets", "startup", start);
 
         torch = internal.getEntry("torch", Texture.class);
         TextureRegion[][] regions = new TextureRegion(torch).split(
@@ -108,10 +114,10 @@ public class LoadingMode implements Screen {
 
         //Gdx.input.setInputProcessor();
 
+        assetsStart = StartupTrace.begin();
         assets = new AssetDirectory("assets.json");
         assets.loadAssets();
         active = true;
-        NodeView.loadAnimations();
 
     }
 
@@ -139,13 +145,24 @@ public class LoadingMode implements Screen {
      */
     private void update(float delta) {
         assets.update(budget);
-        this.progress = assets.getProgress();
+        // Load the menu along with everything else, so that it is ready when play is pressed
+        if (!menuAcquired && assets.isLoaded(assets.getDirectory())) {
+            assets.acquireScope(AssetDirectory.MENU_SCOPE);
+            NodeView.acquireSheets(assets);
+            menuAcquired = true;
+        }
+        this.progress = menuAcquired ? assets.getProgress() : 0f;
 
         if (progress >= 1.0f) {
             if(!buttonAdded) {
+                StartupTrace.end("assets.json", "startup", assetsStart);
+                long start = StartupTrace.begin();
+                NodeView.loadAnimations(assets);
+                StartupTrace.end("NodeView.loadAnimations", "startup", start);
                 this.progress = 1.0f;
                 //playButton = internal.getEntry("play",Texture.class);
                 stage.addActor(playButton);
+                buttonAdded = true;
             }
         }
     }
@@ -212,6 +229,12 @@ public class LoadingMode implements Screen {
     public void dispose() {
         internal.unloadAssets();
         internal.dispose();
+        stage.dispose();
+        canvas.dispose();
+        // The main menu holds the menu assets itself by now
+        if (menuAcquired) {
+            assets.releaseScope(AssetDirectory.MENU_SCOPE);
+        }
     }
     public void setScreenListener(ScreenListener listener) {
         this.listener = listener;
@@ -1,7 +1,8 @@
 package com.adisgrace.games;
 
 import com.adisgrace.games.util.AssetDirectory;
-import com.adisgrace.games.leveleditor.LevelEditorConstants;
+import com.adisgrace.games.util.Assets;
+import com.adisgrace.games.util.AssetHandle;
 import com.adisgrace.games.util.GameConstants;
 import com.adisgrace.games.util.ScreenListener;
 import com.badlogic.gdx.Gdx;
@@ -38,15 +39,16 @@ public class MainMenu implements Screen {
 
     AssetDirectory directory;
 
-    private static final String TRD_BACK_BUTTON = "MainMenu:Back";
+    private static final AssetHandle<Texture> TRD_BACK_BUTTON = Assets.MAIN_MENU_BACK;
     /** Assets for the main menu */
-    private static final String TITLE_ASSET = "MainMenu:Title";
+    private static final AssetHandle<Texture> TITLE_ASSET = Assets.MAIN_MENU_TITLE;
     /** Assets for the main menu */
-    private static final String CREDIT_ASSET = "MainMenu:CreditsScreen";
-    private static final String[] MENU_BUTTON_ASSETS = new String[]{
-            "MainMenu:Play",
-            "MainMenu:Settings",
-            "MainMenu:Credits"
+    private static final AssetHandle<Texture> CREDIT_ASSET = Assets.MAIN_MENU_CREDITS_SCREEN;
+    @SuppressWarnings("unchecked")
+    private static final AssetHandle<Texture>[] MENU_BUTTON_ASSETS = new AssetHandle[]{
+            Assets.MAIN_MENU_PLAY,
+            Assets.MAIN_MENU_SETTINGS,
+            Assets.MAIN_MENU_CREDITS
     };
 
     /*********************************************** CONSTRUCTOR ***********************************************/
@@ -59,6 +61,9 @@ public class MainMenu implements Screen {
         canvas = new GameCanvas();
 
         this.directory = directory;
+        // Menu assets are only loaded while the menu exists
+        directory.acquireScope(AssetDirectory.MENU_SCOPE);
+        directory.finishLoadingScope(AssetDirectory.MENU_SCOPE);
         // Set up camera
 
         ExtendViewport viewport = new ExtendViewport(canvas.getWidth(), canvas.getHeight());
@@ -75,7 +80,7 @@ public class MainMenu implements Screen {
         inputMultiplexer.addProcessor(stage);
         Gdx.input.setInputProcessor(inputMultiplexer);
 
-        background = directory.getEntry(TITLE_ASSET, Texture.class);
+        background = directory.getEntry(TITLE_ASSET);
 
         // Create and place back button, initialized as hidden
         createBackButton();
@@ -118,7 +123,7 @@ public class MainMenu implements Screen {
                 // Hide main menu
                 menuButtons.setVisible(false);
                 // Show credits as background
-                background = directory.getEntry(CREDIT_ASSET, Texture.class);
+                background = directory.getEntry(CREDIT_ASSET);
                 // Show back button
                 back.setVisible(true);
             }
@@ -130,14 +135,14 @@ public class MainMenu implements Screen {
      */
     private void createSettings() {
         // Create labels for the sliders and add to table
-        final Label musicLabel = new Label("Music Volume", LevelEditorConstants.skin);
-        final Label sfxLabel = new Label("Sound Effects Volume", LevelEditorConstants.skin);
+        final Label musicLabel = new Label("Music Volume", GameConstants.getSelectionSkin());
+        final Label sfxLabel = new Label("Sound Effects Volume", GameConstants.getSelectionSkin());
         settings.addActor(musicLabel);
         settings.addActor(sfxLabel);
 
         // Create sliders for music and sound effects volume
-        final Slider musicVolume = new Slider(0,100,1,false, LevelEditorConstants.skin);
-        final Slider sfxVolume = new Slider(0,100,1,false, LevelEditorConstants.skin);
+        final Slider musicVolume = new Slider(0,100,1,false, GameConstants.getSelectionSkin());
+        final Slider sfxVolume = new Slider(0,100,1,false, GameConstants.getSelectionSkin());
         settings.addActor(musicVolume);
         settings.addActor(sfxVolume);
         // Initialize sliders at 100% volume
@@ -145,8 +150,8 @@ public class MainMenu implements Screen {
         sfxVolume.setValue(100);
 
         // Create labels for values of sliders and add to table
-        final Label musicValLabel = new Label("100", LevelEditorConstants.skin);
-        final Label sfxValLabel = new Label("100", LevelEditorConstants.skin);
+        final Label musicValLabel = new Label("100", GameConstants.getSelectionSkin());
+        final Label sfxValLabel = new Label("100", GameConstants.getSelectionSkin());
         settings.addActor(musicValLabel);
         settings.addActor(sfxValLabel);
 
@@ -170,7 +175,7 @@ public class MainMenu implements Screen {
         float height = (GameConstants.MENU_HEIGHT + 0.3f) * canvas.getHeight();
 
         // Place Settings title above just to make it clear what the page is
-        Image settingsTitle = new Image(directory.getEntry(MENU_BUTTON_ASSETS[1], Texture.class));
+        Image settingsTitle = new Image(directory.getEntry(MENU_BUTTON_ASSETS[1]));
         settingsTitle.setScale(1.7f);
         settingsTitle.setPosition(canvas.getWidth() / 2f - settingsTitle.getWidth() * settingsTitle.getScaleX() / 2f, height);
         settings.addActor(settingsTitle);
@@ -190,10 +195,118 @@ public class MainMenu implements Screen {
         sfxVolume.setPosition(canvas.getWidth() / 2f, height);
         sfxValLabel.setPosition(sfxVolume.getX() + sfxVolume.getWidth() + 20, height + 2);
 
+        height -= 0.07f * canvas.getHeight();
+
+        createGraphicsSettings(height);
+
         // Initialize settings as hidden
         settings.setVisible(false);
     }
 
+    /**
+     * Creates and arranges the graphics settings, starting at the given height and going down.
+     *
+     * @param height    Height of the first row of graphics settings
+     */
+    private void createGraphicsSettings(float height) {
+        // Create labels for the sliders and add to table
+        final Label frameCapLabel = new Label("Frame Cap", GameConstants.getSelectionSkin());
+        final Label idleCapLabel = new Label("Idle Frame Cap", GameConstants.getSelectionSkin());
+        final Label scaleLabel = new Label("Render Scale", GameConstants.getSelectionSkin());
+        settings.addActor(frameCapLabel);
+        settings.addActor(idleCapLabel);
+        settings.addActor(scaleLabel);
+
+        // Create sliders for the frame caps (0 meaning no cap) and the render scale percentage
+        final Slider frameCap = new Slider(0,240,10,false, GameConstants.getSelectionSkin());
+        final Slider idleCap = new Slider(0,60,5,false, GameConstants.getSelectionSkin());
+        final Slider scale = new Slider(RenderSettings.MIN_SCALE * 100,100,5,false, GameConstants.getSelectionSkin());
+        settings.addActor(frameCap);
+        settings.addActor(idleCap);
+        settings.addActor(scale);
+        // Initialize sliders at the current settings
+        frameCap.setValue(RenderSettings.getFrameCap());
+        idleCap.setValue(RenderSettings.getIdleFrameCap());
+        scale.setValue(RenderSettings.getRenderScale() * 100);
+
+        // Create labels for values of sliders and add to table
+        final Label frameCapValLabel = new Label(capText(RenderSettings.getFrameCap()), GameConstants.getSelectionSkin());
+        final Label idleCapValLabel = new Label(capText(RenderSettings.getIdleFrameCap()), GameConstants.getSelectionSkin());
+        final Label scaleValLabel = new Label((int) scale.getValue() + "%", GameConstants.getSelectionSkin());
+        settings.addActor(frameCapValLabel);
+        settings.addActor(idleCapValLabel);
+        settings.addActor(scaleValLabel);
+
+        // Create check boxes for vertical sync and adaptive render scale
+        final CheckBox vsync = new CheckBox(" Vertical Sync", GameConstants.getSelectionSkin());
+        final CheckBox adaptive = new CheckBox(" Lower Render Scale When Slow", GameConstants.getSelectionSkin());
+        vsync.setChecked(RenderSettings.isVSync());
+        adaptive.setChecked(RenderSettings.isAdaptive());
+        settings.addActor(vsync);
+        settings.addActor(adaptive);
+
+        // Add listeners so that the settings and value labels update when the controls change
+        frameCap.addListener(new ChangeListener() {
+            @Override
+            public void changed (ChangeEvent event, Actor actor) {
+                RenderSettings.setFrameCap((int) frameCap.getValue());
+                frameCapValLabel.setText(capText(RenderSettings.getFrameCap()));
+            }
+        });
+        idleCap.addListener(new ChangeListener() {
+            @Override
+            public void changed (ChangeEvent event, Actor actor) {
+                RenderSettings.setIdleFrameCap((int) idleCap.getValue());
+                idleCapValLabel.setText(capText(RenderSettings.getIdleFrameCap()));
+            }
+        });
+        scale.addListener(new ChangeListener() {
+            @Override
+            public void changed (ChangeEvent event, Actor actor) {
+                RenderSettings.setRenderScale(scale.getValue() / 100f);
+                scaleValLabel.setText((int) scale.getValue() + "%");
+            }
+        });
+        vsync.addListener(new ChangeListener() {
+            @Override
+            public void changed (ChangeEvent event, Actor actor) {
+                RenderSettings.setVSync(vsync.isChecked());
+            }
+        });
+        adaptive.addListener(new ChangeListener() {
+            @Override
+            public void changed (ChangeEvent event, Actor actor) {
+                RenderSettings.setAdaptive(adaptive.isChecked());
+            }
+        });
+
+        // Place sliders in the same column as the volume sliders
+        Label[] labels = {frameCapLabel, idleCapLabel, scaleLabel};
+        Slider[] sliders = {frameCap, idleCap, scale};
+        Label[] values = {frameCapValLabel, idleCapValLabel, scaleValLabel};
+        for (int i = 0; i < sliders.length; i++) {
+            labels[i].setPosition(canvas.getWidth() / 2f - labels[i].getWidth() - 20, height + 2);
+            sliders[i].setPosition(canvas.getWidth() / 2f, height);
+            values[i].setPosition(sliders[i].getX() + sliders[i].getWidth() + 20, height + 2);
+            height -= 0.07f * canvas.getHeight();
+        }
+
+        // Check boxes go beneath the sliders
+        vsync.setPosition(canvas.getWidth() / 2f, height);
+        height -= 0.07f * canvas.getHeight();
+        adaptive.setPosition(canvas.getWidth() / 2f, height);
+    }
+
+    /**
+     * Returns the text to show for a frame cap.
+     *
+     * @param fps   Frame cap, or 0 for no cap
+     * @return      Text describing the frame cap
+     */
+    private static String capText(int fps) {
+        return fps == 0 ? "Off" : Integer.toString(fps);
+    }
+
     /**
      * Creates and arranges the main menu on the screen.
      */
@@ -203,8 +316,8 @@ public class MainMenu implements Screen {
         float height = GameConstants.MENU_HEIGHT;
 
         // Go through array of assets for menu buttons and create a button for each
-        for (String buttonString : MENU_BUTTON_ASSETS) {
-            button = new ImageButton(new TextureRegionDrawable(directory.getEntry(buttonString, Texture.class)));
+        for (AssetHandle<Texture> buttonAsset : MENU_BUTTON_ASSETS) {
+            button = new ImageButton(new TextureRegionDrawable(directory.getEntry(buttonAsset)));
             // Set button position to be halfway across the screen horizontally
             button.setPosition(0.5f * canvas.getWidth() - (button.getWidth() * GameConstants.BUTTON_SCALE/ 2),
                     height * canvas.getHeight());
@@ -222,7 +335,7 @@ public class MainMenu implements Screen {
      */
     private void createBackButton() {
         // Create and place back button for when in a submenu, but don't show it yet
-        back = new ImageButton(new TextureRegionDrawable(directory.getEntry(TRD_BACK_BUTTON, Texture.class)));
+        back = new ImageButton(new TextureRegionDrawable(directory.getEntry(TRD_BACK_BUTTON)));
         back.setTransform(true);
         back.setScale(0.7f);
         back.setPosition(35,GameConstants.SCREEN_HEIGHT - 70);
@@ -236,10 +349,13 @@ public class MainMenu implements Screen {
                 // Show main menu
                 menuButtons.setVisible(true);
                 // Show title screen as background
-                background = directory.getEntry(TITLE_ASSET, Texture.class);
+                background = directory.getEntry(TITLE_ASSET);
                 // Hide back button
                 back.setVisible(false);
-                // Hide settings if they aren't already hidden
+                // Keep any graphics settings that were changed, then hide settings
+                if (settings.isVisible()) {
+                    RenderSettings.save();
+                }
                 settings.setVisible(false);
             }
         });
@@ -310,6 +426,8 @@ public class MainMenu implements Screen {
 
     @Override
     public void dispose() {
-
+        stage.dispose();
+        canvas.dispose();
+        directory.releaseScope(AssetDirectory.MENU_SCOPE);
     }
 }
@@ -3,7 +3,9 @@ package com.adisgrace.games;
 import com.adisgrace.games.NodeView;
 import com.adisgrace.games.util.GameConstants;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
@@ -25,27 +27,57 @@ public class Node extends Group {
         TARGET
     };
 
+    /**
+     * Level of detail used to draw a node, chosen from the camera zoom.
+     */
+    public enum Detail {
+        /** Animated top, bobbing, and subtree icons on hover */
+        FULL,
+        /** Still first frame of the top, no bobbing */
+        STATIC,
+        /** A single pre-composed region of the still base and top, with no subtree icons */
+        IMPOSTOR,
+        /** The impostor of the target node only, standing in for its pod */
+        POD
+    };
+
+    /** Camera zoom at and above which nodes stop animating */
+    public static final float STATIC_ZOOM = 2.5f;
+    /** Camera zoom at and above which nodes stop showing subtree icons */
+    public static final float IMPOSTOR_ZOOM = 3.25f;
+    /** Camera zoom at and above which only target nodes are drawn */
+    public static final float POD_ZOOM = 3.75f;
+    /** Scale that impostors are composed at, which gives about one texel per pixel at {@link #IMPOSTOR_ZOOM} */
+    private static final float IMPOSTOR_SCALE = 1f / IMPOSTOR_ZOOM;
+
     /** Name of target that this node belongs to */
     private String targetName;
     /** Name of node */
     private String nodeName;
 
-    private final int NODE_TOP_OFFSET = 10;
-    private final float OFFSET_INCREMENT = 1f;
-    private float offset;
-    private int counter;
-    private boolean up;
+    /** Phase of this node's animation and bob on the shared {@link AnimationClock} */
+    private float phase;
 
     private Vector2 position;
     private Animation<TextureRegion> topAnimation;
     private TextureRegion nodeBaseReg;
     private TextureRegion topRegion;
+    /** First frame of the top animation, drawn when the node is not animating */
+    private TextureRegion staticRegion;
+    /** Shades that color the neutral base, top and static sprites for this node's type */
+    private NodeView.Shade baseShade;
+    private NodeView.Shade topShade;
+    private NodeView.Shade staticShade;
+    /** Base and static top composed into one region, or null if it has not been composed yet */
+    private TextureRegion impostor;
+    /** Version of the node sheets that the impostor was composed from */
+    private int impostorVersion;
+    /** Scratch color for combining a sprite tint with the node's own color */
+    private static final Color TINT = new Color();
 
     private int nodeType;
     private NodeState nodeState;
-    
-    private float stateTime;
-    private TextureRegion reg;
+
     private boolean isFemale;
     private boolean isBoss;
 
@@ -113,11 +145,7 @@ public class Node extends Group {
         setBounds(x, y, nodeBaseReg.getRegionWidth(), nodeBaseReg.getRegionHeight());
         setTouchable(Touchable.enabled);
 
-        stateTime = 0f;
-        offset = 0f;
-        counter = 0;
-        up = true;
-        reg = nodeBaseReg;
+        phase = AnimationClock.phaseOf(getName());
     }
 
     public void isFemale(boolean female) {
@@ -163,107 +191,289 @@ public class Node extends Group {
     }
 
     private void changeTextures(NodeState nodeState, int nodeType) {
+        impostor = null;
         switch(nodeState) {
             case LOCKED:
                 topAnimation = null;
                 topRegion = null;
                 nodeBaseReg = NodeView.getLockedNode(nodeType);
+                staticRegion = nodeBaseReg;
+                baseShade = NodeView.getLockedShade(nodeType);
+                topShade = baseShade;
+                staticShade = baseShade;
                 break;
             case UNSCANNED:
                 topAnimation = NodeView.getUnscannedNode(nodeType);
                 topRegion = null;
+                staticRegion = topAnimation.getKeyFrame(0f);
                 nodeBaseReg = NodeView.getNodeBase(nodeType);
-                offset = 0f;
+                baseShade = NodeView.getNodeBaseShade(nodeType);
+                topShade = NodeView.getUnscannedShade(nodeType);
+                staticShade = topShade;
                 break;
             case SCANNED:
                 topAnimation = NodeView.getScannedNode(nodeType);
                 topRegion = null;
+                staticRegion = topAnimation.getKeyFrame(0f);
                 nodeBaseReg = NodeView.getNodeBase(nodeType);
-                offset = 0f;
+                baseShade = NodeView.getNodeBaseShade(nodeType);
+                topShade = NodeView.getScannedShade(nodeType);
+                staticShade = topShade;
                 break;
             case TARGET:
                 //topAnimation = NodeView.getTargetNode(nodeType);
                 topAnimation = null;
                 if (isBoss) {
                     topRegion = NodeView.getTargetBossNode(nodeType);
+                    topShade = NodeView.getTargetBossShade(nodeType);
                 }
                 else if(isFemale) {
                     topRegion = NodeView.getTargetFemaleNode(nodeType);
+                    topShade = NodeView.getTargetFemaleShade(nodeType);
                 } else {
                     topRegion = NodeView.getTargetNode(nodeType);
+                    topShade = NodeView.getTargetShade(nodeType);
                 }
                 nodeBaseReg = NodeView.getTargetBase(nodeType);
+                baseShade = NodeView.getTargetBaseShade(nodeType);
+                staticRegion = topRegion;
+                staticShade = topShade;
                 break;
         }
     }
 
 
+    /**
+     * Updates the node, composing its impostor if it is zoomed out far enough to need one.
+     *
+     * Impostors are composed here rather than in {@link #draw}, as the compositor cannot draw while
+     * the batch is active.
+     *
+     * @param delta Time since the last frame
+     */
     @Override
     public void act(float delta) {
         super.act(delta);
+        if (impostor != null && impostorVersion != NodeView.getSheetVersion()) {
+            impostor = null;
+        }
+        if (impostor == null && getParent() instanceof NodeLayer && getDetail().compareTo(Detail.IMPOSTOR) >= 0) {
+            impostor = composeImpostor((NodeLayer) getParent());
+            impostorVersion = NodeView.getSheetVersion();
+        }
+    }
+
+    /**
+     * Returns the base and static top of this node, tinted and composed into a single region.
+     *
+     * Compositions are shared by every node with the same state, type and target sprite.
+     *
+     * @param layer     Node layer to compose the impostor with
+     * @return          Region holding the impostor, with premultiplied alpha
+     */
+    private TextureRegion composeImpostor(NodeLayer layer) {
+        String key = "Impostor:" + NodeView.getSheetVersion() + ":" + nodeState + ":" + nodeType;
+        if (nodeState == NodeState.TARGET) {
+            key += isBoss ? ":Boss" : isFemale ? ":Female" : ":Male";
+        }
+        if (layer.getCompositor().contains(key)) {
+            return layer.getCompositor().compose(key);
+        }
+        TextureCompositor.Layer base = new TextureCompositor.Layer(nodeBaseReg, 0, 0, baseShade.toRampBits(1f));
+        if (staticRegion == nodeBaseReg) {
+            return layer.composeImpostor(key, IMPOSTOR_SCALE, base);
+        }
+        TextureCompositor.Layer top = new TextureCompositor.Layer(staticRegion, 0, 0, staticShade.toRampBits(1f));
+        return layer.composeImpostor(key, IMPOSTOR_SCALE, base, top);
+    }
 
+    /**
+     * Returns the level of detail that nodes should be drawn at for the given camera zoom.
+     *
+     * @param zoom  Current camera zoom
+     * @return      Level of detail for that zoom
+     */
+    public static Detail detailFor(float zoom) {
+        if (zoom >= POD_ZOOM) {
+            return Detail.POD;
+        } else if (zoom >= IMPOSTOR_ZOOM) {
+            return Detail.IMPOSTOR;
+        } else if (zoom >= STATIC_ZOOM) {
+            return Detail.STATIC;
+        }
+        return Detail.FULL;
+    }
+
+    /**
+     * Returns the level of detail this node should currently be drawn at, based on the zoom of
+     * the stage camera.
+     *
+     * @return  Current level of detail
+     */
+    private Detail getDetail() {
+        if (getStage() == null) {
+            return Detail.FULL;
+        }
+        Camera camera = getStage().getCamera();
+        if (!(camera instanceof OrthographicCamera)) {
+            return Detail.FULL;
+        }
+        return detailFor(((OrthographicCamera) camera).zoom);
+    }
+
+    /**
+     * Returns whether any part of this node lies inside the view of the stage camera.
+     *
+     * Nodes are children of the stage root, so their bounds are already in world coordinates.
+     *
+     * @return  Whether this node is on screen
+     */
+    private boolean isOnScreen() {
+        if (getStage() == null) {
+            return true;
+        }
+        float halfWidth = getWidth() * Math.abs(getScaleX()) / 2f;
+        float halfHeight = getHeight() * Math.abs(getScaleY()) / 2f;
+        return getStage().getCamera().frustum.boundsInFrustum(getX() + getWidth() / 2f,
+                getY() + getHeight() / 2f + AnimationClock.BOB_HEIGHT, 0f,
+                halfWidth, halfHeight + AnimationClock.BOB_HEIGHT, 0f);
     }
 
     /**
      * draws the node object onto the screen
+     *
+     * The amount of work done depends on the camera zoom: close up the top animates and bobs,
+     * further out it is frozen on its first frame, further still it is drawn as a single impostor
+     * region, and zoomed all the way out only the impostor of the target node of each pod is drawn. Animation and bobbing are sampled from the shared
+     * {@link AnimationClock}, and nothing is done at all for nodes that are off screen.
+     *
      * @param batch libGDX batch object
      * @param parentAlpha alpha value to draw
      */
     @Override
     public void draw(Batch batch, float parentAlpha) {
         super.draw(batch, parentAlpha);
-        if (nodeState != NodeState.TARGET && nodeState != NodeState.LOCKED) {
-            stateTime += Gdx.graphics.getDeltaTime();
-            reg = topAnimation.getKeyFrame(stateTime, true);
-        } else if (nodeState == NodeState.TARGET) {
-            reg = topRegion;
-        } else {
-            reg = nodeBaseReg;
+        if (!isOnScreen()) {
+            return;
+        }
+        Detail detail = getDetail();
+
+        // Zoomed all the way out, the target node stands in for its whole pod
+        if (detail == Detail.POD && nodeState != NodeState.TARGET) {
+            return;
         }
 
         Color color = getColor();
-        batch.setColor(color.r, color.g, color.b, color.a * parentAlpha);
-        if (nodeState != NodeState.TARGET && nodeState != NodeState.LOCKED) {
-            if(counter%10==0){
-                offset+=(up?1:-1)*OFFSET_INCREMENT;
-            }
-            batch.draw(nodeBaseReg, getX(), getY(), getWidth() / 2, getHeight() / 2, getWidth(), getHeight(), getScaleX(), getScaleY(), getRotation());
-            batch.draw(reg, getX(), getY() + offset, getWidth() / 2, getHeight() / 2, getWidth(), getHeight(), getScaleX(), getScaleY(), getRotation());
-            if(counter++>=100){
-                counter = 0;
-                up = !up;
+        float tint = Color.toFloatBits(color.r, color.g, color.b, color.a * parentAlpha);
+        // Inside a node layer, sprites are queued so that they can be gathered into texture runs
+        SpriteQueue queue = getParent() instanceof NodeLayer ? ((NodeLayer) getParent()).getQueue() : null;
+
+        if (detail == Detail.IMPOSTOR || detail == Detail.POD) {
+            if (impostor != null && queue != null) {
+                // Impostors hold premultiplied alpha, so the node's color has to be premultiplied too
+                float alpha = color.a * parentAlpha;
+                submit(batch, queue, SpriteQueue.Layer.IMPOSTOR, Color.toFloatBits(color.r * alpha, color.g * alpha,
+                        color.b * alpha, alpha), impostor, getY());
+                return;
             }
-        } else if(nodeState == NodeState.TARGET) {
-            if(counter%10==0){
-                offset+=(up?1:-1)*OFFSET_INCREMENT;
-            }
-            batch.draw(nodeBaseReg, getX(), getY(), getWidth() / 2, getHeight() / 2, getWidth(), getHeight(), getScaleX(), getScaleY(), getRotation());
-            batch.draw(reg, getX(), getY() + offset, getWidth() / 2, getHeight() / 2, getWidth(), getHeight(), getScaleX(), getScaleY(), getRotation());
-            if(counter++>=100){
-                counter = 0;
-                up = !up;
+            // Until the impostor is composed, the base has to be drawn as well as the still top
+            if (staticRegion != nodeBaseReg) {
+                submit(batch, queue, SpriteQueue.Layer.BASE, colorize(baseShade, queue, parentAlpha), nodeBaseReg, getY());
             }
+            submit(batch, queue, SpriteQueue.Layer.TOP, colorize(staticShade, queue, parentAlpha), staticRegion, getY());
+            return;
+        }
+
+        if (nodeState == NodeState.LOCKED) {
+            submit(batch, queue, SpriteQueue.Layer.BASE, colorize(baseShade, queue, parentAlpha), nodeBaseReg, getY());
         } else {
-            batch.draw(reg, getX(), getY(), getWidth() / 2, getHeight() / 2, getWidth(), getHeight(), getScaleX(), getScaleY(), getRotation());
-            //batch.draw(reg, getX(), getY(), getWidth() / 2, getHeight() / 2, getWidth(), getHeight(), getScaleX(), getScaleY(), getRotation());
+            TextureRegion reg = staticRegion;
+            float top = 0f;
+            if (detail == Detail.FULL) {
+                if (nodeState != NodeState.TARGET) {
+                    reg = topAnimation.getKeyFrame(AnimationClock.getTime(phase, topAnimation.getAnimationDuration()), true);
+                }
+                top = AnimationClock.getBobOffset(phase);
+            }
+            submit(batch, queue, SpriteQueue.Layer.BASE, colorize(baseShade, queue, parentAlpha), nodeBaseReg, getY());
+            submit(batch, queue, SpriteQueue.Layer.TOP, colorize(topShade, queue, parentAlpha), reg, getY() + top);
         }
 
         // If node is scanned and is currently being hovered over, draw node subtree info icons
         if (nodeState == NodeState.SCANNED && hover) {
-            System.out.println(nodeType);
-            batch.draw(SUBTREE_ICON_TEXTURES[0][(nodeType / 2) - (nodeType % 2)], getX(), getY(), getWidth() / 2, getHeight() / 2, getWidth(), getHeight(), getScaleX(), getScaleY(), getRotation());
+            submit(batch, queue, SpriteQueue.Layer.ICON, tint, getSubtreeIcon((nodeType / 2) - (nodeType % 2)), getY());
             // Display numbers for subtree info
             // Low
-            batch.draw(SUBTREE_TEXT_TEXTURES[0][subtreeInfo[1]], getX() - SUBTREE_TEXT_WIDTH / 2f + LOW_X,
-                    getY() - SUBTREE_TEXT_HEIGHT / 2f + LOW_Y, SUBTREE_TEXT_WIDTH, SUBTREE_TEXT_HEIGHT);
+            submitText(batch, queue, tint, getSubtreeDigit(subtreeInfo[1]), LOW_X, LOW_Y);
             // Medium
-            batch.draw(SUBTREE_TEXT_TEXTURES[0][subtreeInfo[2]], getX() - SUBTREE_TEXT_WIDTH / 2f + MED_X,
-                    getY() - SUBTREE_TEXT_HEIGHT / 2f + MED_Y, SUBTREE_TEXT_WIDTH, SUBTREE_TEXT_HEIGHT);
+            submitText(batch, queue, tint, getSubtreeDigit(subtreeInfo[2]), MED_X, MED_Y);
             // High
-            batch.draw(SUBTREE_TEXT_TEXTURES[0][subtreeInfo[3]], getX() - SUBTREE_TEXT_WIDTH / 2f + HIGH_X,
-                    getY() - SUBTREE_TEXT_HEIGHT / 2f + HIGH_Y, SUBTREE_TEXT_WIDTH, SUBTREE_TEXT_HEIGHT);
+            submitText(batch, queue, tint, getSubtreeDigit(subtreeInfo[3]), HIGH_X, HIGH_Y);
         }
 
     }
-}
 
+    /**
+     * Combines the shade of a node sprite with the node's own color.
+     *
+     * Node layers draw these sprites with a shader that colors them through their ramp, which only
+     * takes the alpha of the node's color. Outside a node layer there is no such shader, so the
+     * sprite is drawn with its flat tint instead, scaled up by {@link NodeView#TINT_GAIN}.
+     *
+     * @param shade         Shade of the sprite for this node's type
+     * @param queue         Queue of the node layer, or null if drawing straight away
+     * @param parentAlpha   alpha value to draw
+     * @return              Packed color to draw the sprite with
+     */
+    private float colorize(NodeView.Shade shade, SpriteQueue queue, float parentAlpha) {
+        Color color = getColor();
+        if (queue != null) {
+            return shade.toRampBits(color.a * parentAlpha);
+        }
+        TINT.set(shade.tint).mul(color.r, color.g, color.b, color.a * parentAlpha);
+        TINT.mul(NodeView.TINT_GAIN, NodeView.TINT_GAIN, NodeView.TINT_GAIN, 1f).clamp();
+        return TINT.toFloatBits();
+    }
+
+    /**
+     * Draws a region covering the whole node, with the node's origin, scale and rotation.
+     *
+     * The region is queued if the node is in a node layer, and drawn straight away otherwise.
+     *
+     * @param batch     libGDX batch object
+     * @param queue     Queue of the node layer, or null to draw straight away
+     * @param layer     Layer of the node map to queue the region on
+     * @param tint      Packed color to draw the region with
+     * @param region    Region to draw
+     * @param y         y-coordinate to draw the region at
+     */
+    private void submit(Batch batch, SpriteQueue queue, SpriteQueue.Layer layer, float tint, TextureRegion region, float y) {
+        if (queue != null) {
+            queue.draw(layer, tint, region, getX(), y, getWidth() / 2, getHeight() / 2, getWidth(), getHeight(), getScaleX(), getScaleY(), getRotation());
+        } else {
+            batch.setPackedColor(tint);
+            batch.draw(region, getX(), y, getWidth() / 2, getHeight() / 2, getWidth(), getHeight(), getScaleX(), getScaleY(), getRotation());
+        }
+    }
+
+    /**
+     * Draws a subtree info number centered on the given offset from the node's corner.
+     *
+     * @param batch     libGDX batch object
+     * @param queue     Queue of the node layer, or null to draw straight away
+     * @param tint      Packed color to draw the number with
+     * @param region    Region of the number to draw
+     * @param offsetX   x-offset of the center of the number from the node's corner
+     * @param offsetY   y-offset of the center of the number from the node's corner
+     */
+    private void submitText(Batch batch, SpriteQueue queue, float tint, TextureRegion region, float offsetX, float offsetY) {
+        float x = getX() - SUBTREE_TEXT_WIDTH / 2f + offsetX;
+        float y = getY() - SUBTREE_TEXT_HEIGHT / 2f + offsetY;
+        if (queue != null) {
+            queue.draw(SpriteQueue.Layer.ICON, tint, region, x, y, SUBTREE_TEXT_WIDTH, SUBTREE_TEXT_HEIGHT);
+        } else {
+            batch.setPackedColor(tint);
+            batch.draw(region, x, y, SUBTREE_TEXT_WIDTH, SUBTREE_TEXT_HEIGHT);
+        }
+    }
+}
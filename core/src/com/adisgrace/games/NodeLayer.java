@@ -0,0 +1,160 @@
+package com.adisgrace.games;
+
+import com.adisgrace.games.util.NodeSheets;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Group that holds every node on the node map, and draws them through a shared {@link SpriteQueue}.
+ *
+ * Nodes queue their sprites instead of drawing them, and the queue is submitted once all nodes have
+ * been visited. The group is positioned at the origin with no transform, so nodes keep using world
+ * coordinates.
+ *
+ * Node bases and tops are drawn from neutral grey sprites, and colored through the color ramps of
+ * {@link NodeView#getRamps()}. They are drawn with a shader that looks up the brightness of each
+ * grey pixel in the ramp that the red channel of the sprite's color selects, and leaves sprites
+ * with ramp 0 as they are.
+ *
+ * Zoomed out, each node is instead drawn as a single impostor, with its tinted base and top
+ * pre-composed by the layer's {@link TextureCompositor}. Impostors hold premultiplied alpha, and are
+ * drawn with the batch's own shader.
+ */
+public class NodeLayer extends Group implements Disposable {
+    /** Texture unit that the ramp texture is bound to, next to the sprite texture */
+    private static final int RAMP_UNIT = 1;
+
+    /** Vertex shader for tinted node sprites, the same as the default batch shader */
+    private static final String VERTEX_SHADER =
+            "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+            "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+            "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+            "uniform mat4 u_projTrans;\n" +
+            "varying vec4 v_color;\n" +
+            "varying vec2 v_texCoords;\n" +
+            "void main() {\n" +
+            "    v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+            "    v_color.a = v_color.a * (255.0 / 254.0);\n" +
+            "    v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+            "    gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+            "}\n";
+
+    /** Fragment shader for tinted node sprites, which colors them through their ramp */
+    private static final String FRAGMENT_SHADER =
+            "#ifdef GL_ES\n" +
+            "precision mediump float;\n" +
+            "#endif\n" +
+            "varying vec4 v_color;\n" +
+            "varying vec2 v_texCoords;\n" +
+            "uniform sampler2D u_texture;\n" +
+            "uniform sampler2D u_ramps;\n" +
+            "void main() {\n" +
+            "    vec4 texel = texture2D(u_texture, v_texCoords);\n" +
+            "    float row = floor(v_color.r * 255.0 + 0.5);\n" +
+            "    float brightness = dot(texel.rgb, vec3(1.0 / 3.0));\n" +
+            "    vec2 entry = vec2((brightness * " + (float) (NodeSheets.RAMP_SIZE - 1) + " + 0.5) / " + (float) NodeSheets.RAMP_SIZE + ",\n" +
+            "                      (row + 0.5) / " + (float) NodeSheets.RAMP_ROWS + ");\n" +
+            "    vec4 ramp = row < 0.5 ? vec4(texel.rgb, 1.0) : texture2D(u_ramps, entry);\n" +
+            "    gl_FragColor = vec4(ramp.rgb, texel.a * ramp.a * v_color.a);\n" +
+            "}\n";
+
+    /** Queue that child nodes submit their sprites to */
+    private SpriteQueue queue = new SpriteQueue();
+    /** Shader for the tinted base and top layers */
+    private ShaderProgram tintShader;
+    /** Compositor that node impostors are drawn into */
+    private TextureCompositor compositor;
+
+    /**
+     * Creates an empty node layer.
+     *
+     * @param compositor    Compositor to draw node impostors into
+     */
+    public NodeLayer(TextureCompositor compositor) {
+        this.compositor = compositor;
+        setTransform(false);
+        setTouchable(Touchable.childrenOnly);
+
+        tintShader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!tintShader.isCompiled()) {
+            throw new GdxRuntimeException("Could not compile node tint shader: " + tintShader.getLog());
+        }
+        queue.setShader(SpriteQueue.Layer.BASE, tintShader);
+        queue.setShader(SpriteQueue.Layer.TOP, tintShader);
+        tintShader.begin();
+        tintShader.setUniformi("u_ramps", RAMP_UNIT);
+        tintShader.end();
+        queue.setBlendFunction(SpriteQueue.Layer.IMPOSTOR, TextureCompositor.PREMULTIPLIED_SRC, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    /**
+     * Returns the queue that nodes in this layer should submit their sprites to.
+     *
+     * @return  Sprite queue for this layer
+     */
+    public SpriteQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Returns the compositor that nodes in this layer should draw their impostors into.
+     *
+     * @return  Compositor for node impostors
+     */
+    public TextureCompositor getCompositor() {
+        return compositor;
+    }
+
+    /**
+     * Returns the impostor with the given key, composing it from node sprites first if it has not
+     * been composed before.
+     *
+     * The sprites are drawn with the node shader, so their layers should be colored by their shades.
+     * The batch must not be active.
+     *
+     * @param key       Key identifying the impostor
+     * @param scale     Scale to compose the impostor at
+     * @param layers    Node sprites to compose, from bottom to top
+     * @return          Region holding the impostor, with premultiplied alpha
+     */
+    public TextureRegion composeImpostor(String key, float scale, TextureCompositor.Layer... layers) {
+        bindRamps();
+        return compositor.compose(key, scale, tintShader, layers);
+    }
+
+    /**
+     * Binds the ramp texture for the node shader, leaving the sprite texture unit active.
+     */
+    private void bindRamps() {
+        NodeView.getRamps().bind(RAMP_UNIT);
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+    }
+
+    /**
+     * Lets every node queue its sprites, and then draws them gathered into texture runs.
+     *
+     * @param batch         libGDX batch object
+     * @param parentAlpha   alpha value to draw
+     */
+    @Override
+    protected void drawChildren(Batch batch, float parentAlpha) {
+        super.drawChildren(batch, parentAlpha);
+        bindRamps();
+        queue.flush(batch);
+    }
+
+    /**
+     * Releases the tint shader. The compositor belongs to the canvas, and is not disposed.
+     */
+    @Override
+    public void dispose() {
+        tintShader.dispose();
+    }
+}
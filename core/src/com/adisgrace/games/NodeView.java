@@ -1,8 +1,15 @@
 package com.adisgrace.games;
 
 import com.adisgrace.games.models.TargetModel;
+import com.adisgrace.games.util.AssetDirectory;
+import com.adisgrace.games.util.AssetHandle;
+import com.adisgrace.games.util.Assets;
 import com.adisgrace.games.util.GameConstants;
+import com.adisgrace.games.util.NodeSheets;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
@@ -14,8 +21,10 @@ import com.badlogic.gdx.scenes.scene2d.utils.BaseDrawable;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
 
-import javax.swing.plaf.TextUI;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -47,6 +56,61 @@ public class NodeView {
     /** Array of sprites for target bases */
     public static Array<TextureRegion> targetBases;
 
+    /** Shades that color each sprite, indexed by node type */
+    public static Shade[] lockedShades;
+    public static Shade[] unscannedShades;
+    public static Shade[] scannedShades;
+    public static Shade[] targetShades;
+    public static Shade[] targetFemaleShades;
+    public static Shade[] targetBossShades;
+    public static Shade[] nodeBaseShades;
+    public static Shade[] targetBaseShades;
+
+    /** Gain that flat tints are scaled up by when drawn, so that tints can brighten as well as darken */
+    public static final float TINT_GAIN = NodeSheets.TINT_GAIN;
+
+    /** Texture holding the color ramp of every tinted sprite, a row each */
+    private static Texture ramps;
+    /** Tinting of every tinted sheet, in the order of their rows in the ramp texture */
+    private static Array<NodeSheets.Tinting> tinted;
+    /** Asset directory that holds the compiled node sheets, or null if none does */
+    private static AssetDirectory sheetDirectory;
+    /** Number of times the node sheets have been reloaded, so that impostors know to compose again */
+    private static int sheetVersion;
+
+    /**
+     * How a node sprite is colored for one node type.
+     */
+    public static class Shade {
+        /** Flat tint, scaled down by {@link #TINT_GAIN}, for drawing without the node shader */
+        public final Color tint;
+        /** Row of the sprite's color ramp in the ramp texture, or 0 if the sprite is drawn as it is */
+        public final int rampRow;
+
+        /**
+         * Creates a shade with the given tint and ramp.
+         *
+         * @param tint      Flat tint of the sprite
+         * @param rampRow   Row of the color ramp, or 0 for none
+         */
+        public Shade(Color tint, int rampRow) {
+            this.tint = tint;
+            this.rampRow = rampRow;
+        }
+
+        /**
+         * Returns the packed color that selects this shade in the node shader.
+         *
+         * The ramp row is carried in the red channel, so only the alpha of a color can be added.
+         *
+         * @param alpha Alpha to draw the sprite with
+         * @return      Packed color to draw the sprite with in the node shader
+         */
+        public float toRampBits(float alpha) {
+            return Color.toFloatBits((rampRow + 0.5f) / 255f, 0f, 0f, alpha);
+        }
+    }
+
     public NodeView(Stage stage, TargetModel target, Array<String> targetNodes, Vector2 targetCoords,
                     Array<Boolean> locked) {
         this.stage = stage;
@@ -195,207 +259,326 @@ public class NodeView {
     }
 
     /**
-     * Loads the animation frames from the spritesheet into Animation objects.
-     * There are 12 animations each for scanned and unscanned sprites, 6 different colors corresponding
-     * to the target state, each with a highlight and lowlight version.
+     * Starts loading the compiled node sheets with the rest of the asset directory, if the
+     * NodeSheetCompiler build tool has written them.
+     *
+     * The sheets are in their own scope, as they do not exist until the tool has run. They are held
+     * for as long as the directory is.
+     *
+     * @param directory Asset directory to load the sheets from
      */
-    public static void loadAnimations() {
-
-
-        // Locked Nodes
-
-        lockedNodes = new Array<>();
-        Texture lockedNode = new Texture("node/N_LockedNode_1.png");
-        TextureRegion[][] regions = new TextureRegion(lockedNode).split(
-                lockedNode.getWidth() / 6,
-                lockedNode.getHeight() / 2);
-
-        TextureRegion tRegion = regions[0][0];
-        TextureRegionDrawable drawable = new TextureRegionDrawable(tRegion);
-
-        for(int i = 0; i < 6; i++) {
-            tRegion = regions[0][i];
-            lockedNodes.add(tRegion);
+    public static void acquireSheets(AssetDirectory directory) {
+        if (sheetDirectory != directory && readTable() != null) {
+            directory.acquireScope(NodeSheets.SCOPE);
+            sheetDirectory = directory;
+        }
+    }
 
-            tRegion = regions[1][i];
-            drawable = new TextureRegionDrawable(tRegion);
-            lockedNodes.add(tRegion);
+    /**
+     * Loads the node sprites, keeping only the neutral (grey) variant of each colored sheet.
+     *
+     * Every node sheet has the same sprite in six colors, each with a lit and a dimmed version. Only
+     * the grey column (or row, for the animated sheets) is uploaded, which is a sixth of the texture
+     * memory. The other colors are recovered at draw time through the color ramps of each sprite,
+     * which are gathered into a single small texture. Sheets that cannot be tinted are loaded whole.
+     *
+     * The neutral sheets and their tints are split from the colored sheets by the NodeSheetCompiler
+     * build tool, and loaded through the asset directory, so only those are read here. If the tool
+     * has not been run, the colored sheets are split now instead, which is much slower.
+     *
+     * @param directory Asset directory to load the compiled sheets from
+     */
+    public static void loadAnimations(AssetDirectory directory) {
+        JsonValue table = readTable();
+        if (table == null) {
+            Gdx.app.log("NodeView", "No compiled node sheets; splitting the colored sheets at startup");
+        } else {
+            acquireSheets(directory);
+            directory.finishLoadingScope(NodeSheets.SCOPE);
         }
+        tinted = new Array<NodeSheets.Tinting>();
 
-//        System.out.println("Locked nodes done!");
-        // Unscanned Nodes
-        unscannedNodes = new Array<>();
+        lockedShades = new Shade[NodeSheets.TINTS];
+        lockedNodes = loadSheet(directory, Assets.NODE_SHEET_LOCKED, NodeSheets.SHEETS[0], table, lockedShades);
 
-        Texture node = new Texture("node/N_UnscannedNodeLow_1.png");
-        regions = new TextureRegion(node).split(
-                node.getWidth() / 10,
-                node.getHeight() / 6);
+        unscannedShades = new Shade[NodeSheets.TINTS];
+        unscannedNodes = loadAnimationSheets(directory, Assets.NODE_SHEET_UNSCANNED, NodeSheets.ANIMATIONS[0], table, unscannedShades);
 
-        node = new Texture("node/N_UnscannedNodeHigh_1.png");
-        TextureRegion [][] high_regions = new TextureRegion(node).split(
-                node.getWidth() / 10,
-                node.getHeight() / 6);
+        scannedShades = new Shade[NodeSheets.TINTS];
+        scannedNodes = loadAnimationSheets(directory, Assets.NODE_SHEET_SCANNED, NodeSheets.ANIMATIONS[1], table, scannedShades);
 
+        targetShades = new Shade[NodeSheets.TINTS];
+        targetNodes = loadSheet(directory, Assets.NODE_SHEET_TARGET, NodeSheets.SHEETS[1], table, targetShades);
 
-        Texture combined;
-        TextureRegion[] spinFrames = new TextureRegion[10];
+        targetFemaleShades = new Shade[NodeSheets.TINTS];
+        targetFemaleNodes = loadSheet(directory, Assets.NODE_SHEET_TARGET_FEMALE, NodeSheets.SHEETS[2], table, targetFemaleShades);
 
-        for(int j = 0; j < 6; j++) {
-            for (int i = 0; i < 10; i++) {
-                //combined = GameCanvas.combineTextures(regions[j][i], node_regions[0][j]);
-                //spinFrames[i] = new TextureRegion(combined);
-                spinFrames[i] = new TextureRegion(high_regions[j][i]);
-            }
+        targetBossShades = new Shade[NodeSheets.TINTS];
+        targetBossNodes = loadSheet(directory, Assets.NODE_SHEET_TARGET_BOSS, NodeSheets.SHEETS[3], table, targetBossShades);
 
-            Animation<TextureRegion> spinAnimation = new Animation<TextureRegion>(0.025f, spinFrames);
-            spinAnimation.setPlayMode(Animation.PlayMode.LOOP);
+        nodeBaseShades = new Shade[NodeSheets.TINTS];
+        nodeBases = loadSheet(directory, Assets.NODE_SHEET_BASE, NodeSheets.SHEETS[4], table, nodeBaseShades);
 
-            unscannedNodes.add(spinAnimation);
+        targetBaseShades = new Shade[NodeSheets.TINTS];
+        targetBases = loadSheet(directory, Assets.NODE_SHEET_TARGET_BASE, NodeSheets.SHEETS[5], table, targetBaseShades);
 
-            spinFrames = new TextureRegion[10];
-            for (int i = 0; i < 10; i++) {
-                //combined = GameCanvas.combineTextures(regions[j][i], node_regions[1][j]);
-                //spinFrames[i] = new TextureRegion(combined);
-                spinFrames[i] = new TextureRegion(regions[j][i]);
-            }
+        buildRamps();
+    }
 
-            spinAnimation = new Animation<TextureRegion>(0.025f, spinFrames);
-            unscannedNodes.add(spinAnimation);
-            spinFrames = new TextureRegion[10];
+    /**
+     * Splits a colored node sheet again after it has changed, updating its sprites and shades in place.
+     *
+     * The neutral sprites are drawn over the texture that they were loaded into, and the tints and
+     * ramps of the sheet are replaced, so nodes show the change without being rebuilt. A sheet that
+     * has changed size, or that can now be tinted when it could not before (or the other way around),
+     * is only picked up by restarting the game.
+     *
+     * @param file  Path of the changed file
+     * @return      whether the file is a node sheet, and was reloaded
+     */
+    public static boolean reloadSheet(String file) {
+        if (tinted == null) {
+            return false;
         }
-//        System.out.println("Unscanned nodes done!");
-        //Scanned Nodes!
-        scannedNodes = new Array<>();
-        node = new Texture("node/N_ScannedNodeLow_1.png");
-        regions = new TextureRegion(node).split(
-                node.getWidth() / 10,
-                node.getHeight() / 6);
-
-        node = new Texture("node/N_ScannedNodeHigh_1.png");
-        high_regions = new TextureRegion(node).split(
-                node.getWidth() / 10,
-                node.getHeight() / 6);
-
-
-        spinFrames = new TextureRegion[10];
-
-        for(int j = 0; j < 6; j++) {
-
-            for (int i = 0; i < 10; i++) {
-                //combined = GameCanvas.combineTextures(regions[j][i], node_regions[0][j]);
-                //spinFrames[i] = new TextureRegion(combined);
-                spinFrames[i] = new TextureRegion(high_regions[j][i]);
+        String[][] sheets = { { NodeSheets.SHEETS[0] }, { NodeSheets.SHEETS[1] }, { NodeSheets.SHEETS[2] },
+                { NodeSheets.SHEETS[3] }, { NodeSheets.SHEETS[4] }, { NodeSheets.SHEETS[5] },
+                NodeSheets.ANIMATIONS[0], NodeSheets.ANIMATIONS[1] };
+        TextureRegion[] sprites = { lockedNodes.get(0), targetNodes.get(0), targetFemaleNodes.get(0),
+                targetBossNodes.get(0), nodeBases.get(0), targetBases.get(0),
+                (TextureRegion) unscannedNodes.get(0).getKeyFrame(0f), (TextureRegion) scannedNodes.get(0).getKeyFrame(0f) };
+        Shade[][] shades = { lockedShades, targetShades, targetFemaleShades, targetBossShades, nodeBaseShades,
+                targetBaseShades, unscannedShades, scannedShades };
+        for (int sheet = 0; sheet < sheets.length; sheet++) {
+            for (String sheetFile : sheets[sheet]) {
+                if (sheetFile.equals(file)) {
+                    return reloadSheet(sheets[sheet], sprites[sheet].getTexture(), shades[sheet]);
+                }
             }
+        }
+        return false;
+    }
 
-            Animation<TextureRegion> spinAnimation = new Animation<TextureRegion>(0.025f, spinFrames);
-            spinAnimation.setPlayMode(Animation.PlayMode.LOOP);
-
-            scannedNodes.add(spinAnimation);
-            spinFrames = new TextureRegion[10];
-
-            for (int i = 0; i < 10; i++) {
-                //combined = GameCanvas.combineTextures(regions[j][i], node_regions[1][j]);
-                //spinFrames[i] = new TextureRegion(combined);
-                spinFrames[i] = new TextureRegion(regions[j][i]);
+    /**
+     * Splits a sheet, or a pair of animation sheets, into the texture that they were loaded into.
+     *
+     * @param files     Paths of the colored sheets, one for a sheet and two for animations
+     * @param texture   Texture holding the neutral sprites of the sheet
+     * @param shades    Shades of the sheet, indexed by node type
+     * @return          whether the sheet was reloaded
+     */
+    private static boolean reloadSheet(String[] files, Texture texture, Shade[] shades) {
+        NodeSheets.Tinting tinting = new NodeSheets.Tinting();
+        Pixmap neutral = splitPixmap(files, tinting);
+        try {
+            if (tinting.colored != (shades[0].rampRow == 0)
+                    || neutral.getWidth() != texture.getWidth() || neutral.getHeight() != texture.getHeight()) {
+                Gdx.app.log("NodeView", "Restart to reload " + files[0] + ", which no longer fits its texture");
+                return false;
             }
-
-            spinAnimation = new Animation<TextureRegion>(0.025f, spinFrames);
-            scannedNodes.add(spinAnimation);
-            spinFrames = new TextureRegion[10];
+            // Texture.draw refuses textures loaded from files, such as the compiled sheets, so the
+            // sprites are uploaded directly. A lost GL context brings back the compiled sheet.
+            texture.bind();
+            Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+            Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, 0, neutral.getWidth(), neutral.getHeight(),
+                    neutral.getGLFormat(), neutral.getGLType(), neutral.getPixels());
+            if (texture.getMinFilter().isMipMap()) {
+                Gdx.gl.glGenerateMipmap(GL20.GL_TEXTURE_2D);
+            }
+        } finally {
+            neutral.dispose();
         }
 
-//        System.out.println("Scanned nodes done!");
-        // Targets
-
-        targetNodes = new Array<>();
-
-        Texture target_Look = new Texture("node/N_TargetMale_1.png");
-        regions = new TextureRegion(target_Look).split(
-                target_Look.getWidth() / 6,
-                target_Look.getHeight() / 2);
-
-        for(int i = 0; i < 6; i++) {
-            //combined = GameCanvas.combineTextures(regions[0][i], node_regions[0][i]);
-            //drawable = new TextureRegionDrawable(new TextureRegion(combined));
-            targetNodes.add(new TextureRegion(regions[0][i]));
-
-            //combined = GameCanvas.combineTextures(regions[1][i], node_regions[1][i]);
-            //drawable = new TextureRegionDrawable(new TextureRegion(combined));
-            targetNodes.add(new TextureRegion(regions[1][i]));
-
+        for (int type = 0; type < NodeSheets.TINTS; type++) {
+            shades[type].tint.set(tinting.tints[type]);
         }
-
-        targetFemaleNodes = new Array<>();
-
-        target_Look = new Texture("node/N_TargetFemale_1.png");
-        regions = new TextureRegion(target_Look).split(
-                target_Look.getWidth() / 6,
-                target_Look.getHeight() / 2);
-
-        for(int i = 0; i < 6; i++) {
-            //combined = GameCanvas.combineTextures(regions[0][i], node_regions[0][i]);
-            //drawable = new TextureRegionDrawable(new TextureRegion(combined));
-            targetFemaleNodes.add(new TextureRegion(regions[0][i]));
-
-            //combined = GameCanvas.combineTextures(regions[1][i], node_regions[1][i]);
-            //drawable = new TextureRegionDrawable(new TextureRegion(combined));
-            targetFemaleNodes.add(new TextureRegion(regions[1][i]));
-
+        if (!tinting.colored) {
+            tinted.set((shades[0].rampRow - 1) / NodeSheets.TINTS, tinting);
+            buildRamps();
         }
+        sheetVersion++;
+        return true;
+    }
 
-        targetBossNodes = new Array<>();
-
-        target_Look = new Texture("node/N_TargetBoss_1.png");
-        regions = new TextureRegion(target_Look).split(
-                target_Look.getWidth() / 6,
-                target_Look.getHeight() / 2);
-
-        for(int i = 0; i < 6; i++) {
-            //combined = GameCanvas.combineTextures(regions[0][i], node_regions[0][i]);
-            //drawable = new TextureRegionDrawable(new TextureRegion(combined));
-            targetBossNodes.add(new TextureRegion(regions[0][i]));
+    /**
+     * Returns the number of times the node sheets have been reloaded.
+     *
+     * Anything composed from node sprites must be composed again once this changes.
+     *
+     * @return the number of times the node sheets have been reloaded
+     */
+    public static int getSheetVersion() {
+        return sheetVersion;
+    }
 
-            //combined = GameCanvas.combineTextures(regions[1][i], node_regions[1][i]);
-            //drawable = new TextureRegionDrawable(new TextureRegion(combined));
-            targetBossNodes.add(new TextureRegion(regions[1][i]));
+    /**
+     * Returns the texture holding the color ramp of every tinted sprite.
+     *
+     * @return the ramp texture, which the node shader samples by ramp row and brightness
+     */
+    public static Texture getRamps() {
+        return ramps;
+    }
 
+    /**
+     * Reads the tint table written by the NodeSheetCompiler tool.
+     *
+     * @return the parsed table, or null if the tool has not been run since the table last changed layout
+     */
+    private static JsonValue readTable() {
+        if (!Gdx.files.internal(NodeSheets.TINT_FILE).exists()) {
+            return null;
         }
+        JsonValue table = new JsonReader().parse(Gdx.files.internal(NodeSheets.TINT_FILE));
+        return NodeSheets.isReadable(table) ? table : null;
+    }
 
-
-//        System.out.println("Target nodes done!");
-
-        nodeBases = new Array<>();
-
-        Texture node_base = new Texture("node/N_NodeBase_1.png");
-        TextureRegion[][] node_regions = new TextureRegion(node_base).split(
-                node_base.getWidth() / 6,
-                node_base.getHeight() / 2);
-
-        for(int i = 0; i < 6; i++) {
-            nodeBases.add(new TextureRegion(node_regions[0][i]));
-
-            nodeBases.add(new TextureRegion(node_regions[1][i]));
-
+    /**
+     * Loads the sprites of a sheet with one column per color, and a row each for the lit and
+     * dimmed versions.
+     *
+     * @param directory Asset directory holding the compiled sheet
+     * @param handle    Handle of the compiled sheet
+     * @param file      Path of the colored sheet
+     * @param table     Compiled tints of every sheet, or null if the tool has not been run
+     * @param shades    Array of 12 shades to fill in, indexed by node type
+     * @return          The sprite of each node type
+     */
+    private static Array<TextureRegion> loadSheet(AssetDirectory directory, AssetHandle<Texture> handle, String file,
+                                                  JsonValue table, Shade[] shades) {
+        String[] files = { file };
+        NodeSheets.Tinting tinting = table == null ? null : NodeSheets.readTinting(table, file);
+        Texture texture = tinting != null ? directory.getEntry(handle) : splitSheets(files, tinting = new NodeSheets.Tinting());
+        fillShades(tinting, shades);
+
+        // A sheet kept in color has a sprite per type, and a neutral sheet has the lit and dimmed sprites
+        int columns = tinting.colored ? 6 : 1;
+        int width = texture.getWidth() / columns;
+        int height = texture.getHeight() / 2;
+        Array<TextureRegion> regions = new Array<>();
+        for (int type = 0; type < NodeSheets.TINTS; type++) {
+            int column = tinting.colored ? type / 2 : 0;
+            regions.add(new TextureRegion(texture, column * width, (type % 2) * height, width, height));
         }
+        return regions;
+    }
 
-//        System.out.println("Node Bases done!");
-
-        targetBases = new Array<>();
-
-        node_base = new Texture("node/N_TargetBase_1.png");
-        node_regions = new TextureRegion(node_base).split(
-                node_base.getWidth() / 6,
-                node_base.getHeight() / 2);
-
-        for(int i = 0; i < 6; i++) {
-            targetBases.add(new TextureRegion(node_regions[0][i]));
+    /**
+     * Loads the spin animations of a pair of sheets with one row per color and one column per frame.
+     *
+     * @param directory Asset directory holding the compiled sheet
+     * @param handle    Handle of the compiled sheet
+     * @param files     Paths of the colored sheets with the lit and the dimmed animations
+     * @param table     Compiled tints of every sheet, or null if the tool has not been run
+     * @param shades    Array of 12 shades to fill in, indexed by node type
+     * @return          The animation of each node type
+     */
+    private static Array<Animation> loadAnimationSheets(AssetDirectory directory, AssetHandle<Texture> handle,
+                                                        String[] files, JsonValue table, Shade[] shades) {
+        NodeSheets.Tinting tinting = table == null ? null : NodeSheets.readTinting(table, files[0]);
+        Texture texture = tinting != null ? directory.getEntry(handle) : splitSheets(files, tinting = new NodeSheets.Tinting());
+        fillShades(tinting, shades);
+
+        int width = texture.getWidth();
+        int height = texture.getHeight() / 2;
+        TextureRegion[][] frames = new TextureRegion(texture).split(width / 10, height);
+        Animation[] variants = new Animation[2];
+        for (int variant = 0; variant < 2; variant++) {
+            Animation<TextureRegion> spinAnimation = new Animation<TextureRegion>(0.025f, frames[variant]);
+            spinAnimation.setPlayMode(Animation.PlayMode.LOOP);
+            variants[variant] = spinAnimation;
+        }
+        Array<Animation> animations = new Array<>();
+        for (int type = 0; type < NodeSheets.TINTS; type++) {
+            animations.add(variants[type % 2]);
+        }
+        return animations;
+    }
 
-            targetBases.add(new TextureRegion(node_regions[1][i]));
+    /**
+     * Splits a sheet, or a pair of animation sheets, from the colored sheets, for when the tool
+     * has not been run.
+     *
+     * @param files     Paths of the colored sheets, one for a sheet and two for animations
+     * @param tinting   Tinting of the sheet to fill in
+     * @return          The neutral texture, with the lit sprites above the dimmed ones
+     */
+    private static Texture splitSheets(String[] files, NodeSheets.Tinting tinting) {
+        Pixmap neutral = splitPixmap(files, tinting);
+        Texture texture = new Texture(neutral);
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        neutral.dispose();
+        return texture;
+    }
 
+    /**
+     * Splits the neutral sprites of a sheet, or a pair of animation sheets, from the colored sheets.
+     *
+     * @param files     Paths of the colored sheets, one for a sheet and two for animations
+     * @param tinting   Tinting of the sheet to fill in
+     * @return          The neutral sprites, with the lit sprites above the dimmed ones
+     */
+    private static Pixmap splitPixmap(String[] files, NodeSheets.Tinting tinting) {
+        Pixmap neutral;
+        if (files.length == 1) {
+            Pixmap sheet = new Pixmap(Gdx.files.internal(files[0]));
+            neutral = NodeSheets.splitSheet(sheet, tinting);
+            sheet.dispose();
+        } else {
+            Pixmap high = new Pixmap(Gdx.files.internal(files[0]));
+            Pixmap low = new Pixmap(Gdx.files.internal(files[1]));
+            neutral = NodeSheets.splitAnimations(high, low, tinting);
+            high.dispose();
+            low.dispose();
         }
+        return neutral;
+    }
 
-//        System.out.println("Target Bases done!");
+    /**
+     * Fills in the shades of a sheet, giving it rows in the ramp texture if it is tinted.
+     *
+     * @param tinting   Tinting of the sheet
+     * @param shades    Array of 12 shades to fill in, indexed by node type
+     */
+    private static void fillShades(NodeSheets.Tinting tinting, Shade[] shades) {
+        int row = 0;
+        if (!tinting.colored) {
+            // Row 0 is left for sprites that are drawn as they are
+            row = 1 + tinted.size * NodeSheets.TINTS;
+            tinted.add(tinting);
+        }
+        for (int type = 0; type < NodeSheets.TINTS; type++) {
+            shades[type] = new Shade(tinting.tints[type], tinting.colored ? 0 : row + type);
+        }
+    }
 
+    /**
+     * Uploads the color ramps of every tinted sheet, one row per sprite.
+     *
+     * Each ramp is as transparent as the tint of its sprite, so that missing sprites draw nothing.
+     */
+    private static void buildRamps() {
+        if (1 + tinted.size * NodeSheets.TINTS > NodeSheets.RAMP_ROWS) {
+            throw new GdxRuntimeException("Too many tinted node sheets for the ramp texture");
+        }
+        Pixmap pixmap = new Pixmap(NodeSheets.RAMP_SIZE, NodeSheets.RAMP_ROWS, Pixmap.Format.RGBA8888);
+        pixmap.setBlending(Pixmap.Blending.None);
+        for (int sheet = 0; sheet < tinted.size; sheet++) {
+            NodeSheets.Tinting tinting = tinted.get(sheet);
+            for (int type = 0; type < NodeSheets.TINTS; type++) {
+                int alpha = Math.round(tinting.tints[type].a * 255);
+                for (int entry = 0; entry < NodeSheets.RAMP_SIZE; entry++) {
+                    int index = (type * NodeSheets.RAMP_SIZE + entry) * 3;
+                    int color = tinting.ramps[index] << 24 | tinting.ramps[index + 1] << 16 | tinting.ramps[index + 2] << 8 | alpha;
+                    pixmap.drawPixel(entry, 1 + sheet * NodeSheets.TINTS + type, color);
+                }
+            }
+        }
+        if (ramps != null) {
+            ramps.dispose();
+        }
+        ramps = new Texture(pixmap);
+        ramps.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        pixmap.dispose();
     }
 
     /**
@@ -414,7 +597,7 @@ public class NodeView {
      *             10 = Grey, Litup
      *             11 = Grey, Dimmed
      *
-     * @return Returns the node drawable based on the type specified
+     * @return Returns the node drawable for the type, to be colored with its shade
      */
     public static TextureRegion getLockedNode(int type) {
         return lockedNodes.get(type);
@@ -436,7 +619,7 @@ public class NodeView {
      *             10 = Grey, Litup
      *             11 = Grey, Dimmed
      *
-     * @return Returns the node drawable based on the type specified
+     * @return Returns the node drawable for the type, to be colored with its shade
      */
     public static Animation<TextureRegion> getUnscannedNode(int type) {
         return unscannedNodes.get(type);
@@ -458,7 +641,7 @@ public class NodeView {
      *             10 = Grey, Litup
      *             11 = Grey, Dimmed
      *
-     * @return Returns the node drawable based on the type specified
+     * @return Returns the node drawable for the type, to be colored with its shade
      */
     public static Animation<TextureRegion> getScannedNode(int type) {
         return scannedNodes.get(type);
@@ -480,7 +663,7 @@ public class NodeView {
      *             10 = Grey, Litup
      *             11 = Grey, Dimmed
      *
-     * @return Returns the node drawable based on the type specified
+     * @return Returns the node drawable for the type, to be colored with its shade
      */
     public static TextureRegion getTargetNode(int type) {
         return targetNodes.get(type);
@@ -502,7 +685,7 @@ public class NodeView {
      *             10 = Grey, Litup
      *             11 = Grey, Dimmed
      *
-     * @return Returns the node drawable based on the type specified
+     * @return Returns the node drawable for the type, to be colored with its shade
      */
     public static TextureRegion getTargetFemaleNode(int type) {
         return targetFemaleNodes.get(type);
@@ -524,7 +707,7 @@ public class NodeView {
      *             10 = Grey, Litup
      *             11 = Grey, Dimmed
      *
-     * @return Returns the node drawable based on the type specified
+     * @return Returns the node drawable for the type, to be colored with its shade
      */
     public static TextureRegion getTargetBossNode(int type) {
         return targetBossNodes.get(type);
@@ -546,7 +729,7 @@ public class NodeView {
      *             10 = Grey, Litup
      *             11 = Grey, Dimmed
      *
-     * @return Returns the node drawable based on the type specified
+     * @return Returns the node drawable for the type, to be colored with its shade
      */
     public static TextureRegion getNodeBase(int type) {
         return nodeBases.get(type);
@@ -568,10 +751,82 @@ public class NodeView {
      *             10 = Grey, Litup
      *             11 = Grey, Dimmed
      *
-     * @return Returns the node drawable based on the type specified
+     * @return Returns the node drawable for the type, to be colored with its shade
      */
     public static TextureRegion getTargetBase(int type) {
         return targetBases.get(type);
     }
 
+    /**
+     * Returns the shade for a locked node, with type as in {@link #getLockedNode(int)}.
+     *
+     * @return Returns the shade to draw the sprite with
+     */
+    public static Shade getLockedShade(int type) {
+        return lockedShades[type];
+    }
+
+    /**
+     * Returns the shade for an unscanned node, with type as in {@link #getUnscannedNode(int)}.
+     *
+     * @return Returns the shade to draw the sprite with
+     */
+    public static Shade getUnscannedShade(int type) {
+        return unscannedShades[type];
+    }
+
+    /**
+     * Returns the shade for a scanned node, with type as in {@link #getScannedNode(int)}.
+     *
+     * @return Returns the shade to draw the sprite with
+     */
+    public static Shade getScannedShade(int type) {
+        return scannedShades[type];
+    }
+
+    /**
+     * Returns the shade for a target node, with type as in {@link #getTargetNode(int)}.
+     *
+     * @return Returns the shade to draw the sprite with
+     */
+    public static Shade getTargetShade(int type) {
+        return targetShades[type];
+    }
+
+    /**
+     * Returns the shade for a female target node, with type as in {@link #getTargetFemaleNode(int)}.
+     *
+     * @return Returns the shade to draw the sprite with
+     */
+    public static Shade getTargetFemaleShade(int type) {
+        return targetFemaleShades[type];
+    }
+
+    /**
+     * Returns the shade for a boss target node, with type as in {@link #getTargetBossNode(int)}.
+     *
+     * @return Returns the shade to draw the sprite with
+     */
+    public static Shade getTargetBossShade(int type) {
+        return targetBossShades[type];
+    }
+
+    /**
+     * Returns the shade for a node base, with type as in {@link #getNodeBase(int)}.
+     *
+     * @return Returns the shade to draw the sprite with
+     */
+    public static Shade getNodeBaseShade(int type) {
+        return nodeBaseShades[type];
+    }
+
+    /**
+     * Returns the shade for a target base, with type as in {@link #getTargetBase(int)}.
+     *
+     * @return Returns the shade to draw the sprite with
+     */
+    public static Shade getTargetBaseShade(int type) {
+        return targetBaseShades[type];
+    }
+
 }
@@ -0,0 +1,108 @@
+package com.adisgrace.games;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws part of a frame at a reduced resolution, and then scales it up to fill the window.
+ *
+ * Everything drawn between {@link #begin()} and {@link #end(Batch)} goes to an off-screen buffer
+ * sized by {@link RenderSettings#getEffectiveScale()}, which is then stretched over the whole
+ * window. At full scale nothing is redirected, and drawing goes straight to the window as usual.
+ *
+ * The buffer is reallocated only when the window size or the scale changes.
+ */
+public class RenderScaler implements Disposable {
+    /** Off-screen buffer for the scaled pass, or null if none has been needed yet */
+    private FrameBuffer buffer;
+    /** Whether the current pass is being drawn to the buffer */
+    private boolean scaling;
+    /** Projection for stretching the buffer over the window */
+    private Matrix4 projection = new Matrix4();
+    /** Saved batch projection, restored after stretching the buffer */
+    private Matrix4 saved = new Matrix4();
+
+    /**
+     * Starts a scaled pass, redirecting drawing to the off-screen buffer if the scale is below 1.
+     *
+     * The buffer is cleared to opaque black, as the window would be.
+     */
+    public void begin() {
+        float scale = RenderSettings.getEffectiveScale();
+        scaling = scale < 1f;
+        if (!scaling) {
+            return;
+        }
+
+        int width = Math.max(1, Math.round(Gdx.graphics.getBackBufferWidth() * scale));
+        int height = Math.max(1, Math.round(Gdx.graphics.getBackBufferHeight() * scale));
+        if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+            if (buffer != null) {
+                buffer.dispose();
+            }
+            buffer = new FrameBuffer(Pixmap.Format.RGB888, width, height, false);
+            buffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        }
+        buffer.begin();
+        Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+    }
+
+    /**
+     * Points the GL viewport back at the off-screen buffer.
+     *
+     * Applying a scene2d viewport sets the GL viewport to the window, so this must be called after
+     * doing so during a scaled pass. Does nothing at full scale.
+     */
+    public void applyViewport() {
+        if (scaling) {
+            Gdx.gl.glViewport(0, 0, buffer.getWidth(), buffer.getHeight());
+        }
+    }
+
+    /**
+     * Ends the scaled pass, and stretches the off-screen buffer over the whole window.
+     *
+     * The batch must not be active. Its projection is restored afterwards.
+     *
+     * @param batch     Batch to draw the buffer with
+     */
+    public void end(Batch batch) {
+        if (!scaling) {
+            return;
+        }
+        buffer.end();
+        scaling = false;
+
+        int width = Gdx.graphics.getWidth();
+        int height = Gdx.graphics.getHeight();
+        Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+        saved.set(batch.getProjectionMatrix());
+        projection.setToOrtho2D(0, 0, width, height);
+        batch.setProjectionMatrix(projection);
+        batch.disableBlending();
+        batch.begin();
+        // Frame buffer rows start at the bottom, so v runs upwards from the bottom edge
+        batch.draw(buffer.getColorBufferTexture(), 0, 0, width, height, 0, 0, 1, 1);
+        batch.end();
+        batch.enableBlending();
+        batch.setProjectionMatrix(saved);
+    }
+
+    /**
+     * Releases the off-screen buffer.
+     */
+    @Override
+    public void dispose() {
+        if (buffer != null) {
+            buffer.dispose();
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.adisgrace.games;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Decides when the game screen needs to draw a new frame.
+ *
+ * By default the game renders continuously. When on-demand rendering is enabled, the game screen
+ * turns off continuous rendering while it is shown, and a frame is only drawn when:
+ * <ul>
+ *     <li>the backend receives input (libGDX requests a frame for every input event),</li>
+ *     <li>a scene2d action is running (stages request a frame while actions run), or</li>
+ *     <li>something has asked for frames here, such as a connector reveal or recent input.</li>
+ * </ul>
+ * Otherwise the backend sleeps between idle ticks, and the node map is left as it was last drawn.
+ *
+ * All state is static, as there is only ever one window to draw to.
+ */
+public final class RenderScheduler {
+    /** Seconds to keep ambient animation running after the last input or model change */
+    public static final float ACTIVITY_LINGER = 2f;
+    /** Longest time step passed on after the game has been idle, in seconds */
+    public static final float MAX_FRAME_DELTA = 1f / 30f;
+
+    /** Whether on-demand rendering has been chosen */
+    private static boolean onDemand = false;
+    /** Whether the game screen currently owns the render loop */
+    private static boolean active = false;
+    /** Seconds left during which every frame should be followed by another */
+    private static float busyTime = 0f;
+    /** Whether the last frame left the game idle, so that the next one follows a sleep */
+    private static boolean wasIdle = false;
+
+    /** The scheduler is only accessed statically */
+    private RenderScheduler() {}
+
+    /**
+     * Sets whether the game screen should only render on demand.
+     *
+     * May be called before the application is created.
+     *
+     * @param value     Whether to render on demand
+     */
+    public static void setOnDemand(boolean value) {
+        onDemand = value;
+        if (active) {
+            apply();
+        }
+    }
+
+    /**
+     * Returns whether the game screen only renders on demand.
+     *
+     * @return  Whether on-demand rendering is enabled
+     */
+    public static boolean isOnDemand() {
+        return onDemand;
+    }
+
+    /**
+     * Hands the render loop to the game screen, turning off continuous rendering if enabled.
+     *
+     * Should be called when the game screen is shown.
+     */
+    public static void begin() {
+        active = true;
+        busyTime = ACTIVITY_LINGER;
+        apply();
+    }
+
+    /**
+     * Returns the render loop to continuous rendering for the other screens.
+     *
+     * Should be called when the game screen is hidden.
+     */
+    public static void end() {
+        active = false;
+        Gdx.graphics.setContinuousRendering(true);
+    }
+
+    /**
+     * Asks for frames to be drawn continuously for at least the given number of seconds.
+     *
+     * Used for animations that are not driven by scene2d actions.
+     *
+     * @param seconds   How long frames are needed for
+     */
+    public static void requestFrames(float seconds) {
+        busyTime = Math.max(busyTime, seconds);
+        if (active && onDemand) {
+            Gdx.graphics.requestRendering();
+        }
+    }
+
+    /**
+     * Asks for frames while the player is interacting with the game, so that ambient animation
+     * plays for a short time after each input or model change.
+     */
+    public static void requestActivity() {
+        requestFrames(ACTIVITY_LINGER);
+    }
+
+    /**
+     * Returns whether the game screen is shown and nothing has asked for frames recently.
+     *
+     * @return  Whether the game screen is idle
+     */
+    public static boolean isIdle() {
+        return active && busyTime <= 0f;
+    }
+
+    /**
+     * Returns the time step to advance the game by for a frame.
+     *
+     * After an idle period the backend reports the whole time spent sleeping, which would make
+     * animations jump, so the step of the first frame after it is capped. Every other frame
+     * advances by the time that actually passed, so slow machines do not run in slow motion.
+     *
+     * @param delta     Number of seconds since the last frame, as reported by the backend
+     * @return          Number of seconds to advance animations by
+     */
+    public static float step(float delta) {
+        if (wasIdle) {
+            wasIdle = false;
+            return Math.min(delta, MAX_FRAME_DELTA);
+        }
+        return delta;
+    }
+
+    /**
+     * Finishes a frame, requesting another one if anything still needs drawing.
+     *
+     * Should be called once at the end of every frame drawn by the game screen.
+     *
+     * @param delta     Number of seconds since the last frame
+     */
+    public static void endFrame(float delta) {
+        busyTime = Math.max(0f, busyTime - delta);
+        if (active && onDemand && busyTime > 0f) {
+            Gdx.graphics.requestRendering();
+        }
+        // Nothing more is drawn until something wakes the game up
+        wasIdle = active && onDemand && busyTime <= 0f;
+    }
+
+    /**
+     * Applies the current rendering mode to the backend.
+     */
+    private static void apply() {
+        Gdx.graphics.setContinuousRendering(!onDemand);
+        Gdx.graphics.requestRendering();
+    }
+}
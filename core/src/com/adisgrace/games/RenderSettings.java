@@ -0,0 +1,293 @@
+package com.adisgrace.games;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+
+/**
+ * Player settings for frame pacing and rendering resolution.
+ *
+ * The settings are:
+ * <ul>
+ *     <li>a frame cap, which limits how often frames are drawn (0 for no limit),</li>
+ *     <li>vertical sync,</li>
+ *     <li>an idle frame cap, used instead of the frame cap while the game screen is idle,</li>
+ *     <li>a render scale, the fraction of the window resolution that the node map is drawn at, and</li>
+ *     <li>whether the render scale may be lowered automatically when frames take too long.</li>
+ * </ul>
+ *
+ * Frames are limited here rather than by the backend, so that the cap can change at runtime. The
+ * adaptive scale is driven by how long each frame takes to produce, not counting time spent
+ * waiting for the cap or for vertical sync, so that it only reacts to frames that are actually
+ * over budget.
+ *
+ * All state is static, as there is only ever one window to draw to. Settings are stored in the
+ * {@link #PREFERENCES} preferences file.
+ */
+public final class RenderSettings {
+    /** Name of the preferences file that settings are stored in */
+    public static final String PREFERENCES = "FreeHim.render";
+    /** Lowest render scale, whether chosen or adaptive */
+    public static final float MIN_SCALE = 0.5f;
+    /** Frame rate used as the budget for the adaptive scale when there is no frame cap */
+    private static final int DEFAULT_BUDGET_FPS = 60;
+    /** Amount the adaptive scale changes by in a single step */
+    private static final float SCALE_STEP = 0.1f;
+    /** Fraction of the budget that smoothed frame times must exceed for the scale to go down */
+    private static final float OVER_BUDGET = 1.15f;
+    /** Fraction of the budget that smoothed frame times must stay under for the scale to go up */
+    private static final float UNDER_BUDGET = 0.7f;
+    /** Seconds that frames must be over budget before the scale goes down */
+    private static final float LOWER_AFTER = 1f;
+    /** Seconds that frames must be under budget before the scale goes back up */
+    private static final float RAISE_AFTER = 4f;
+    /** Weight of the newest frame in the smoothed frame time */
+    private static final float SMOOTHING = 0.1f;
+
+    /** Maximum frames per second, or 0 for no limit */
+    private static int frameCap = 60;
+    /** Maximum frames per second while idle, or 0 to use the frame cap */
+    private static int idleFrameCap = 30;
+    /** Whether vertical sync is enabled */
+    private static boolean vsync = true;
+    /** Fraction of the window resolution that the node map is drawn at */
+    private static float renderScale = 1f;
+    /** Whether the render scale is lowered automatically when frames are over budget */
+    private static boolean adaptive = false;
+
+    /** Render scale chosen by the adaptive controller, never above the render scale */
+    private static float adaptiveScale = 1f;
+    /** Smoothed time taken to produce a frame, in seconds */
+    private static float smoothedWork = 0f;
+    /** Seconds that frames have been continuously over or under budget */
+    private static float overTime = 0f;
+    private static float underTime = 0f;
+    /** Time at which the last frame was released by the limiter, in nanoseconds */
+    private static long lastFrame = 0L;
+
+    /** The settings are only accessed statically */
+    private RenderSettings() {}
+
+    /**
+     * Loads the settings from preferences and applies them.
+     *
+     * Must be called once the application has been created.
+     */
+    public static void load() {
+        Preferences prefs = Gdx.app.getPreferences(PREFERENCES);
+        frameCap = prefs.getInteger("frameCap", frameCap);
+        idleFrameCap = prefs.getInteger("idleFrameCap", idleFrameCap);
+        vsync = prefs.getBoolean("vsync", vsync);
+        renderScale = clampScale(prefs.getFloat("renderScale", renderScale));
+        adaptive = prefs.getBoolean("adaptive", adaptive);
+        adaptiveScale = renderScale;
+        Gdx.graphics.setVSync(vsync);
+    }
+
+    /**
+     * Stores the current settings in preferences.
+     */
+    public static void save() {
+        Preferences prefs = Gdx.app.getPreferences(PREFERENCES);
+        prefs.putInteger("frameCap", frameCap);
+        prefs.putInteger("idleFrameCap", idleFrameCap);
+        prefs.putBoolean("vsync", vsync);
+        prefs.putFloat("renderScale", renderScale);
+        prefs.putBoolean("adaptive", adaptive);
+        prefs.flush();
+    }
+
+    /**
+     * Returns the maximum number of frames per second.
+     *
+     * @return  Frame cap, or 0 for no limit
+     */
+    public static int getFrameCap() {
+        return frameCap;
+    }
+
+    /**
+     * Sets the maximum number of frames per second.
+     *
+     * @param fps   Frame cap, or 0 for no limit
+     */
+    public static void setFrameCap(int fps) {
+        frameCap = Math.max(0, fps);
+    }
+
+    /**
+     * Returns the maximum number of frames per second while the game screen is idle.
+     *
+     * @return  Idle frame cap, or 0 to use the frame cap
+     */
+    public static int getIdleFrameCap() {
+        return idleFrameCap;
+    }
+
+    /**
+     * Sets the maximum number of frames per second while the game screen is idle.
+     *
+     * @param fps   Idle frame cap, or 0 to use the frame cap
+     */
+    public static void setIdleFrameCap(int fps) {
+        idleFrameCap = Math.max(0, fps);
+    }
+
+    /**
+     * Returns whether vertical sync is enabled.
+     *
+     * @return  Whether vertical sync is enabled
+     */
+    public static boolean isVSync() {
+        return vsync;
+    }
+
+    /**
+     * Enables or disables vertical sync.
+     *
+     * @param value     Whether to enable vertical sync
+     */
+    public static void setVSync(boolean value) {
+        vsync = value;
+        Gdx.graphics.setVSync(value);
+    }
+
+    /**
+     * Returns the chosen fraction of the window resolution that the node map is drawn at.
+     *
+     * @return  Render scale, from {@link #MIN_SCALE} to 1
+     */
+    public static float getRenderScale() {
+        return renderScale;
+    }
+
+    /**
+     * Sets the fraction of the window resolution that the node map is drawn at.
+     *
+     * @param scale     Render scale, clamped to between {@link #MIN_SCALE} and 1
+     */
+    public static void setRenderScale(float scale) {
+        renderScale = clampScale(scale);
+        adaptiveScale = renderScale;
+    }
+
+    /**
+     * Returns whether the render scale is lowered automatically when frames are over budget.
+     *
+     * @return  Whether the render scale is adaptive
+     */
+    public static boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Sets whether the render scale is lowered automatically when frames are over budget.
+     *
+     * @param value     Whether the render scale should be adaptive
+     */
+    public static void setAdaptive(boolean value) {
+        adaptive = value;
+        adaptiveScale = renderScale;
+        overTime = 0f;
+        underTime = 0f;
+    }
+
+    /**
+     * Returns the fraction of the window resolution that the node map should be drawn at this frame.
+     *
+     * @return  The adaptive scale if enabled, and the chosen render scale otherwise
+     */
+    public static float getEffectiveScale() {
+        return adaptive ? adaptiveScale : renderScale;
+    }
+
+    /**
+     * Finishes a frame, adjusting the adaptive scale and then waiting out the rest of the frame
+     * under the current cap.
+     *
+     * Should be called once at the end of every frame.
+     *
+     * @param work  Seconds taken to produce the frame, not counting any waiting
+     * @param idle  Whether the game is idle, and should use the idle frame cap
+     */
+    public static void endFrame(float work, boolean idle) {
+        if (adaptive) {
+            adapt(work);
+        }
+        int cap = idle && idleFrameCap > 0 ? idleFrameCap : frameCap;
+        if (cap > 0) {
+            sync(cap);
+        } else {
+            lastFrame = System.nanoTime();
+        }
+    }
+
+    /**
+     * Lowers the adaptive scale while frames are over budget, and raises it back towards the chosen
+     * render scale once they have been comfortably under budget for a while.
+     *
+     * @param work  Seconds taken to produce the last frame
+     */
+    private static void adapt(float work) {
+        float budget = 1f / (frameCap > 0 ? frameCap : DEFAULT_BUDGET_FPS);
+        smoothedWork += (work - smoothedWork) * SMOOTHING;
+
+        if (smoothedWork > budget * OVER_BUDGET) {
+            overTime += work;
+            underTime = 0f;
+            if (overTime >= LOWER_AFTER) {
+                adaptiveScale = Math.max(MIN_SCALE, adaptiveScale - SCALE_STEP);
+                overTime = 0f;
+            }
+        } else if (smoothedWork < budget * UNDER_BUDGET) {
+            underTime += Math.max(work, budget);
+            overTime = 0f;
+            if (underTime >= RAISE_AFTER) {
+                adaptiveScale = Math.min(renderScale, adaptiveScale + SCALE_STEP);
+                underTime = 0f;
+            }
+        } else {
+            overTime = 0f;
+            underTime = 0f;
+        }
+    }
+
+    /**
+     * Waits until a full frame at the given rate has passed since the last frame.
+     *
+     * Sleeps for most of the wait and yields for the rest, since sleeping is not precise enough
+     * on its own. If the frame is already late, the schedule is reset instead of trying to catch up.
+     *
+     * @param fps   Frames per second to hold to
+     */
+    private static void sync(int fps) {
+        long frameNanos = 1000000000L / fps;
+        long deadline = lastFrame + frameNanos;
+        long now = System.nanoTime();
+        if (now >= deadline) {
+            lastFrame = now;
+            return;
+        }
+        try {
+            while (deadline - now > 2000000L) {
+                Thread.sleep(1);
+                now = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        while (System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+        lastFrame = deadline;
+    }
+
+    /**
+     * Returns a render scale clamped to the allowed range.
+     *
+     * @param scale     Render scale
+     * @return          Render scale, from {@link #MIN_SCALE} to 1
+     */
+    private static float clampScale(float scale) {
+        return Math.max(MIN_SCALE, Math.min(1f, scale));
+    }
+}
@@ -0,0 +1,341 @@
+package com.adisgrace.games;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Deferred list of world-space sprites, submitted to a batch in as few texture runs as possible.
+ *
+ * A batch has to flush every time the texture changes, so drawing each node in turn (base from one
+ * sheet, top from another, then subtree icons from a third) flushes several times per node. Sprites
+ * queued here are instead gathered into runs that share a texture and a shader, which are bound
+ * once per run rather than once per sprite.
+ *
+ * Sprites are queued in painter's order, and a sprite only joins an earlier run if it does not
+ * overlap anything queued between that run and itself. Overlapping sprites from different nodes
+ * are therefore still drawn back to front, and sprites that do not overlap are free to share runs.
+ *
+ * Each layer can also have its own blend function, which is switched between runs like the shader.
+ */
+public class SpriteQueue {
+    /**
+     * Kinds of sprite on the node map, each of which can have its own shader.
+     */
+    public enum Layer {
+        /** Node bases, which sit flat on the map */
+        BASE,
+        /** Node tops, which float above their bases */
+        TOP,
+        /** Icons and text drawn over nodes */
+        ICON,
+        /** Whole nodes pre-composed into a single region, when zoomed out */
+        IMPOSTOR
+    }
+
+    /**
+     * A single queued sprite, with the same parameters as {@link Batch#draw(TextureRegion, float, float,
+     * float, float, float, float, float, float, float)}.
+     */
+    private static class Sprite {
+        TextureRegion region;
+        ShaderProgram shader;
+        int blendSrc, blendDst;
+        float x, y, originX, originY, width, height, scaleX, scaleY, rotation;
+        float color;
+        /** Bounding box of the sprite as drawn */
+        float left, bottom, right, top;
+    }
+
+    /**
+     * Sprites that share a texture, a shader and a blend function, drawn one after the other.
+     */
+    private static class Run {
+        Texture texture;
+        ShaderProgram shader;
+        int blendSrc, blendDst;
+        Array<Sprite> sprites = new Array<Sprite>();
+        /** Bounding box of every sprite in the run */
+        float left, bottom, right, top;
+
+        /**
+         * Returns whether any sprite in the run overlaps the given sprite.
+         *
+         * @param sprite    Sprite to check
+         * @return          Whether the sprite overlaps the run
+         */
+        boolean overlaps(Sprite sprite) {
+            if (!overlaps(sprite, left, bottom, right, top)) {
+                return false;
+            }
+            for (Sprite other : sprites) {
+                if (overlaps(sprite, other.left, other.bottom, other.right, other.top)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns whether a sprite overlaps the given box.
+         *
+         * @param sprite    Sprite to check
+         * @param left      Left edge of the box
+         * @param bottom    Bottom edge of the box
+         * @param right     Right edge of the box
+         * @param top       Top edge of the box
+         * @return          Whether the sprite overlaps the box
+         */
+        private static boolean overlaps(Sprite sprite, float left, float bottom, float right, float top) {
+            return sprite.left < right && left < sprite.right && sprite.bottom < top && bottom < sprite.top;
+        }
+
+        /**
+         * Adds a sprite to the end of the run.
+         *
+         * @param sprite    Sprite to add
+         */
+        void add(Sprite sprite) {
+            if (sprites.size == 0) {
+                left = sprite.left;
+                bottom = sprite.bottom;
+                right = sprite.right;
+                top = sprite.top;
+            } else {
+                left = Math.min(left, sprite.left);
+                bottom = Math.min(bottom, sprite.bottom);
+                right = Math.max(right, sprite.right);
+                top = Math.max(top, sprite.top);
+            }
+            sprites.add(sprite);
+        }
+    }
+
+    /** Queued sprites, in the order they were queued */
+    private Array<Sprite> sprites = new Array<Sprite>();
+    /** Runs that the sprites are gathered into while flushing */
+    private Array<Run> runs = new Array<Run>();
+    /** Shader for each layer, or null to use the batch's own shader */
+    private ShaderProgram[] shaders = new ShaderProgram[Layer.values().length];
+    /** Source and destination blend factors for each layer, or -1 to use the batch's own */
+    private int[] blendSrcs = new int[Layer.values().length];
+    private int[] blendDsts = new int[Layer.values().length];
+    /** Pool of sprites, so that queueing does not allocate once warmed up */
+    private Pool<Sprite> spritePool = new Pool<Sprite>() {
+        @Override
+        protected Sprite newObject() {
+            return new Sprite();
+        }
+    };
+    /** Pool of runs, so that flushing does not allocate once warmed up */
+    private Pool<Run> runPool = new Pool<Run>() {
+        @Override
+        protected Run newObject() {
+            return new Run();
+        }
+    };
+
+    /**
+     * Creates an empty queue, with every layer drawn with the batch's own shader and blend function.
+     */
+    public SpriteQueue() {
+        for (Layer layer : Layer.values()) {
+            setBlendFunction(layer, -1, -1);
+        }
+    }
+
+    /**
+     * Sets the shader that a layer is drawn with.
+     *
+     * @param layer     Layer to set the shader of
+     * @param shader    Shader to draw the layer with, or null to use the batch's own shader
+     */
+    public void setShader(Layer layer, ShaderProgram shader) {
+        shaders[layer.ordinal()] = shader;
+    }
+
+    /**
+     * Sets the blend function that a layer is drawn with.
+     *
+     * @param layer     Layer to set the blend function of
+     * @param src       Source blend factor, or -1 to use the batch's own blend function
+     * @param dst       Destination blend factor, or -1 to use the batch's own blend function
+     */
+    public void setBlendFunction(Layer layer, int src, int dst) {
+        blendSrcs[layer.ordinal()] = src;
+        blendDsts[layer.ordinal()] = dst;
+    }
+
+    /**
+     * Queues a region to be drawn with the given color on the given layer.
+     *
+     * @param layer     Layer to draw the region on
+     * @param color     Packed color to tint the region with
+     * @param region    Region to draw
+     * @param x         x-coordinate of the lower-left corner
+     * @param y         y-coordinate of the lower-left corner
+     * @param originX   x-coordinate of the origin for scaling and rotation, relative to the corner
+     * @param originY   y-coordinate of the origin for scaling and rotation, relative to the corner
+     * @param width     Width to draw the region at
+     * @param height    Height to draw the region at
+     * @param scaleX    Horizontal scale about the origin
+     * @param scaleY    Vertical scale about the origin
+     * @param rotation  Rotation about the origin, in degrees
+     */
+    public void draw(Layer layer, float color, TextureRegion region, float x, float y, float originX, float originY,
+                     float width, float height, float scaleX, float scaleY, float rotation) {
+        Sprite sprite = spritePool.obtain();
+        sprite.region = region;
+        sprite.color = color;
+        sprite.x = x;
+        sprite.y = y;
+        sprite.originX = originX;
+        sprite.originY = originY;
+        sprite.width = width;
+        sprite.height = height;
+        sprite.scaleX = scaleX;
+        sprite.scaleY = scaleY;
+        sprite.rotation = rotation;
+        sprite.shader = shaders[layer.ordinal()];
+        sprite.blendSrc = blendSrcs[layer.ordinal()];
+        sprite.blendDst = blendDsts[layer.ordinal()];
+        setBounds(sprite);
+        sprites.add(sprite);
+    }
+
+    /**
+     * Queues a region to be drawn unscaled and unrotated with the given color on the given layer.
+     *
+     * @param layer     Layer to draw the region on
+     * @param color     Packed color to tint the region with
+     * @param region    Region to draw
+     * @param x         x-coordinate of the lower-left corner
+     * @param y         y-coordinate of the lower-left corner
+     * @param width     Width to draw the region at
+     * @param height    Height to draw the region at
+     */
+    public void draw(Layer layer, float color, TextureRegion region, float x, float y, float width, float height) {
+        draw(layer, color, region, x, y, 0f, 0f, width, height, 1f, 1f, 0f);
+    }
+
+    /**
+     * Sets the bounding box of a sprite, from where it is drawn and how it is transformed.
+     *
+     * Rotated sprites are given the box of the circle that they turn within.
+     *
+     * @param sprite    Sprite to set the bounds of
+     */
+    private static void setBounds(Sprite sprite) {
+        float centerX = sprite.x + sprite.originX;
+        float centerY = sprite.y + sprite.originY;
+        if (sprite.rotation == 0f) {
+            float x1 = centerX - sprite.originX * sprite.scaleX;
+            float x2 = centerX + (sprite.width - sprite.originX) * sprite.scaleX;
+            float y1 = centerY - sprite.originY * sprite.scaleY;
+            float y2 = centerY + (sprite.height - sprite.originY) * sprite.scaleY;
+            sprite.left = Math.min(x1, x2);
+            sprite.right = Math.max(x1, x2);
+            sprite.bottom = Math.min(y1, y2);
+            sprite.top = Math.max(y1, y2);
+        } else {
+            float reachX = Math.max(sprite.originX, sprite.width - sprite.originX) * Math.abs(sprite.scaleX);
+            float reachY = Math.max(sprite.originY, sprite.height - sprite.originY) * Math.abs(sprite.scaleY);
+            float radius = (float) Math.sqrt(reachX * reachX + reachY * reachY);
+            sprite.left = centerX - radius;
+            sprite.right = centerX + radius;
+            sprite.bottom = centerY - radius;
+            sprite.top = centerY + radius;
+        }
+    }
+
+    /**
+     * Draws every queued sprite to the batch, run by run, and empties the queue.
+     *
+     * The batch must be active. Its color, shader and blend function are restored afterwards.
+     *
+     * @param batch     Batch to draw to
+     */
+    public void flush(Batch batch) {
+        if (sprites.size == 0) {
+            return;
+        }
+        for (Sprite sprite : sprites) {
+            runFor(sprite).add(sprite);
+        }
+
+        float previous = batch.getPackedColor();
+        ShaderProgram batchShader = batch.getShader();
+        int srcRGB = batch.getBlendSrcFunc();
+        int dstRGB = batch.getBlendDstFunc();
+        int srcAlpha = batch.getBlendSrcFuncAlpha();
+        int dstAlpha = batch.getBlendDstFuncAlpha();
+        for (Run run : runs) {
+            ShaderProgram shader = run.shader == null ? batchShader : run.shader;
+            if (batch.getShader() != shader) {
+                batch.setShader(shader);
+            }
+            if (run.blendSrc == -1) {
+                if (batch.getBlendSrcFunc() != srcRGB || batch.getBlendDstFunc() != dstRGB
+                        || batch.getBlendSrcFuncAlpha() != srcAlpha || batch.getBlendDstFuncAlpha() != dstAlpha) {
+                    batch.setBlendFunctionSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+                }
+            } else if (batch.getBlendSrcFunc() != run.blendSrc || batch.getBlendDstFunc() != run.blendDst) {
+                batch.setBlendFunction(run.blendSrc, run.blendDst);
+            }
+            for (Sprite sprite : run.sprites) {
+                batch.setPackedColor(sprite.color);
+                batch.draw(sprite.region, sprite.x, sprite.y, sprite.originX, sprite.originY,
+                        sprite.width, sprite.height, sprite.scaleX, sprite.scaleY, sprite.rotation);
+                sprite.region = null;
+                sprite.shader = null;
+            }
+            run.sprites.clear();
+            run.texture = null;
+            run.shader = null;
+        }
+        if (batch.getShader() != batchShader) {
+            batch.setShader(batchShader);
+        }
+        batch.setBlendFunctionSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+        batch.setPackedColor(previous);
+
+        runPool.freeAll(runs);
+        runs.clear();
+        spritePool.freeAll(sprites);
+        sprites.clear();
+    }
+
+    /**
+     * Returns the earliest run that a sprite can join without being drawn before anything it overlaps
+     * that was queued ahead of it, starting a new run at the end if there is none.
+     *
+     * @param sprite    Sprite to find a run for
+     * @return          Run to add the sprite to
+     */
+    private Run runFor(Sprite sprite) {
+        Texture texture = sprite.region.getTexture();
+        Run best = null;
+        for (int i = runs.size - 1; i >= 0; i--) {
+            Run run = runs.get(i);
+            if (run.texture == texture && run.shader == sprite.shader
+                    && run.blendSrc == sprite.blendSrc && run.blendDst == sprite.blendDst) {
+                best = run;
+            }
+            if (run.overlaps(sprite)) {
+                break;
+            }
+        }
+        if (best == null) {
+            best = runPool.obtain();
+            best.texture = texture;
+            best.shader = sprite.shader;
+            best.blendSrc = sprite.blendSrc;
+            best.blendDst = sprite.blendDst;
+            runs.add(best);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,179 @@
+package com.adisgrace.games;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.IOException;
+
+/**
+ * Timeline of startup, screen transitions and level loads, written as a Chrome trace.
+ *
+ * Spans are recorded with {@link #end} from a start time taken with {@link #begin}, on whichever
+ * thread they happen, and single moments with {@link #mark}. Times are measured from the start of
+ * the JVM, so the time spent before the game is even created shows up as well. Asset loads are
+ * recorded by the {@link com.adisgrace.games.util.AssetDirectory}, split into the part run on the
+ * loader thread and the part run on the rendering thread.
+ *
+ * Nothing is recorded unless {@link #enable} is called, which the desktop launcher does when
+ * given --trace-startup. The timeline is written to {@link #TRACE_FILE} once the main menu has
+ * drawn its first frame, and again when the game closes, and can be opened in chrome://tracing
+ * or any other viewer of the format.
+ */
+public class StartupTrace {
+    /** File that the timeline is written to, relative to the local storage directory */
+    public static final String TRACE_FILE = "startup-trace.json";
+
+    /**
+     * A single span or moment of the timeline.
+     */
+    private static class Event {
+        /** What happened */
+        String name;
+        /** Kind of thing that happened, which trace viewers can filter by */
+        String category;
+        /** Start since the JVM started, and length, in microseconds */
+        long start, duration;
+        /** Whether this is a single moment rather than a span */
+        boolean instant;
+        /** Thread that it happened on */
+        long thread;
+    }
+
+    /** Whether anything is being recorded */
+    private static volatile boolean enabled;
+    /** Value of {@link System#nanoTime} when the JVM started */
+    private static long origin;
+    /** Everything recorded so far, guarded by itself */
+    private static final Array<Event> events = new Array<Event>();
+    /** Names of the threads that events were recorded on, guarded by {@link #events} */
+    private static final LongMap<String> threads = new LongMap<String>();
+
+    /** Only accessed statically */
+    private StartupTrace() {}
+
+    /**
+     * Starts recording, with times measured from the given start of the JVM.
+     *
+     * The time between the start of the JVM and this call is recorded as a span of its own, so
+     * this should be called as early as possible.
+     *
+     * @param jvmStart  Time that the JVM started, in milliseconds since the epoch
+     */
+    public static void enable(long jvmStart) {
+        long now = System.nanoTime();
+        origin = now - (System.currentTimeMillis() - jvmStart) * 1000000L;
+        enabled = true;
+        end("JVM start", "startup", origin);
+    }
+
+    /**
+     * Returns whether anything is being recorded.
+     *
+     * @return whether anything is being recorded
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the start time of a span, to be passed to {@link #end} once it is over.
+     *
+     * @return the start time of a span
+     */
+    public static long begin() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a span that started at the given time and ends now.
+     *
+     * @param name      What happened during the span
+     * @param category  Kind of thing that happened
+     * @param start     Start time returned by {@link #begin}
+     */
+    public static void end(String name, String category, long start) {
+        if (enabled) {
+            record(name, category, start, System.nanoTime() - start, false);
+        }
+    }
+
+    /**
+     * Records a single moment.
+     *
+     * @param name      What happened
+     * @param category  Kind of thing that happened
+     */
+    public static void mark(String name, String category) {
+        if (enabled) {
+            record(name, category, System.nanoTime(), 0, true);
+        }
+    }
+
+    /**
+     * Adds an event to the timeline.
+     *
+     * @param name      What happened
+     * @param category  Kind of thing that happened
+     * @param start     Start time, in nanoseconds
+     * @param duration  Length, in nanoseconds
+     * @param instant   Whether this is a single moment
+     */
+    private static void record(String name, String category, long start, long duration, boolean instant) {
+        Event event = new Event();
+        event.name = name;
+        event.category = category;
+        event.start = (start - origin) / 1000;
+        event.duration = duration / 1000;
+        event.instant = instant;
+        Thread thread = Thread.currentThread();
+        event.thread = thread.getId();
+        synchronized (events) {
+            events.add(event);
+            if (!threads.containsKey(event.thread)) {
+                threads.put(event.thread, thread.getName());
+            }
+        }
+    }
+
+    /**
+     * Writes everything recorded so far to {@link #TRACE_FILE}, replacing what was written before.
+     */
+    public static void write() {
+        if (!enabled) {
+            return;
+        }
+        FileHandle file = Gdx.files.local(TRACE_FILE);
+        JsonWriter json = new JsonWriter(file.writer(false, "UTF-8"));
+        try {
+            json.object().array("traceEvents");
+            synchronized (events) {
+                for (LongMap.Entry<String> thread : threads) {
+                    json.object()
+                            .set("name", "thread_name").set("ph", "M").set("pid", 1).set("tid", thread.key)
+                            .object("args").set("name", thread.value).pop()
+                            .pop();
+                }
+                for (Event event : events) {
+                    json.object()
+                            .set("name", event.name).set("cat", event.category)
+                            .set("ph", event.instant ? "i" : "X").set("ts", event.start);
+                    if (event.instant) {
+                        json.set("s", "g");
+                    } else {
+                        json.set("dur", event.duration);
+                    }
+                    json.set("pid", 1).set("tid", event.thread).pop();
+                }
+            }
+            json.pop().set("displayTimeUnit", "ms").pop();
+        } catch (IOException e) {
+            Gdx.app.error("StartupTrace", "Could not write " + TRACE_FILE, e);
+        } finally {
+            StreamUtils.closeQuietly(json);
+        }
+    }
+}
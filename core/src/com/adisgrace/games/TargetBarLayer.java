@@ -0,0 +1,225 @@
+package com.adisgrace.games;
+
+import com.adisgrace.games.util.AssetDirectory;
+import com.adisgrace.games.util.AssetHandle;
+import com.adisgrace.games.util.Assets;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
+
+/**
+ * Draws the stress and suspicion bars of every target in a single pass.
+ *
+ * The outline and both fills are composed onto the same atlas page once, so every bar on the map
+ * is drawn from that one texture without flushing the batch in between. Each bar is kept as a few
+ * entries in primitive arrays rather than as its own actors, and only recalculated when the stress
+ * or suspicion of its target actually changes.
+ *
+ * Bars are drawn the same way as a {@link FillBar}: the fill is cropped from the top, down to the
+ * current amount, and drawn underneath the outline.
+ */
+public class TargetBarLayer extends Actor {
+    /** Distance from 0% fill to the bottom of the fill, in pixels */
+    private static final int EMPTY_BORDER = 5;
+    /** Distance from 100% fill to the top of the fill, in pixels */
+    private static final int FULL_BORDER = 5;
+    /** Initial number of targets that there is room for */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Regions for the bar outline and fills, all on the same page */
+    private TextureRegion outline;
+    private TextureRegion stressFill;
+    private TextureRegion suspicionFill;
+    /** Size of each bar, which is the same for the outline and both fills */
+    private int width, height;
+
+    /** Number of targets with bars */
+    private int size;
+    /** Bottom left corners of each target's bars, as {stressX, stressY, suspicionX, suspicionY} */
+    private float[] positions = new float[INITIAL_CAPACITY * 4];
+    /** Fill amounts of each target's bars, as {stress, suspicion} */
+    private float[] fills = new float[INITIAL_CAPACITY * 2];
+    /** Rows cropped from the top of each target's fills, as {stress, suspicion} */
+    private int[] crops = new int[INITIAL_CAPACITY * 2];
+    /** Stress, maximum stress and suspicion that each target's bars were last updated for */
+    private int[] shown = new int[INITIAL_CAPACITY * 3];
+
+    /**
+     * Creates an empty bar layer, composing the bar regions with the given compositor.
+     *
+     * The compositor's batch must not be active.
+     *
+     * @param directory     Asset directory to take the bar images from
+     * @param compositor    Compositor to place the bar regions on a shared page
+     */
+    public TargetBarLayer(AssetDirectory directory, TextureCompositor compositor) {
+        setTouchable(Touchable.disabled);
+        outline = compose(directory, compositor, Assets.UI_TARGET_BAR_OUTLINE);
+        stressFill = compose(directory, compositor, Assets.UI_TARGET_STRESS_FILL);
+        suspicionFill = compose(directory, compositor, Assets.UI_TARGET_SUSPICION_FILL);
+        width = outline.getRegionWidth();
+        height = outline.getRegionHeight();
+    }
+
+    /**
+     * Returns a composition holding a single image from the asset directory.
+     *
+     * The composition is keyed by the image's directory key, so it is only drawn once.
+     *
+     * @param directory     Asset directory holding the image
+     * @param compositor    Compositor to compose with
+     * @param handle        Handle of the image
+     * @return              Region containing the image
+     */
+    private static TextureRegion compose(AssetDirectory directory, TextureCompositor compositor, AssetHandle<Texture> handle) {
+        if (compositor.contains(handle.getKey())) {
+            return compositor.compose(handle.getKey());
+        }
+        Texture texture = directory.getEntry(handle);
+        return compositor.compose(handle.getKey(), new TextureCompositor.Layer(new TextureRegion(texture)));
+    }
+
+    /**
+     * Removes every bar.
+     */
+    public void clearBars() {
+        size = 0;
+    }
+
+    /**
+     * Adds bars for a new target, both empty until it is first updated.
+     *
+     * @param stressX       Left edge of the stress bar
+     * @param stressY       Bottom edge of the stress bar
+     * @param suspicionX    Left edge of the suspicion bar
+     * @param suspicionY    Bottom edge of the suspicion bar
+     * @return              Index of the target, for updating its bars
+     */
+    public int addBars(float stressX, float stressY, float suspicionX, float suspicionY) {
+        if (size * 2 == fills.length) {
+            grow();
+        }
+        int i = size++;
+        positions[i * 4] = stressX;
+        positions[i * 4 + 1] = stressY;
+        positions[i * 4 + 2] = suspicionX;
+        positions[i * 4 + 3] = suspicionY;
+        // Force the first update through
+        shown[i * 3] = -1;
+        shown[i * 3 + 1] = -1;
+        shown[i * 3 + 2] = -1;
+        setFill(i * 2, 0f);
+        setFill(i * 2 + 1, 0f);
+        return i;
+    }
+
+    /**
+     * Updates a target's bars, doing nothing if its stress and suspicion have not changed.
+     *
+     * The stress bar shows how much stress the target can still take, and the suspicion bar shows
+     * suspicion out of 100.
+     *
+     * @param index         Index of the target, as returned by {@link #addBars}
+     * @param stress        Current stress of the target
+     * @param maxStress     Maximum stress of the target
+     * @param suspicion     Current suspicion of the target
+     */
+    public void update(int index, int stress, int maxStress, int suspicion) {
+        int s = index * 3;
+        if (shown[s] == stress && shown[s + 1] == maxStress && shown[s + 2] == suspicion) {
+            return;
+        }
+        shown[s] = stress;
+        shown[s + 1] = maxStress;
+        shown[s + 2] = suspicion;
+        setFill(index * 2, 1f - ((float) stress) / maxStress);
+        setFill(index * 2 + 1, suspicion / 100f);
+        RenderScheduler.requestActivity();
+    }
+
+    /**
+     * Sets a single fill amount, and the number of rows cropped from the top of its fill.
+     *
+     * @param slot      Index of the fill in {@link #fills}
+     * @param amount    Proportion of the bar that is filled
+     */
+    private void setFill(int slot, float amount) {
+        fills[slot] = Math.min(Math.max(amount, 0f), 1f);
+        crops[slot] = FULL_BORDER + (int) ((1 - fills[slot]) * (height - FULL_BORDER - EMPTY_BORDER));
+    }
+
+    /**
+     * Doubles the room for targets.
+     */
+    private void grow() {
+        float[] newPositions = new float[positions.length * 2];
+        System.arraycopy(positions, 0, newPositions, 0, positions.length);
+        positions = newPositions;
+        float[] newFills = new float[fills.length * 2];
+        System.arraycopy(fills, 0, newFills, 0, fills.length);
+        fills = newFills;
+        int[] newCrops = new int[crops.length * 2];
+        System.arraycopy(crops, 0, newCrops, 0, crops.length);
+        crops = newCrops;
+        int[] newShown = new int[shown.length * 2];
+        System.arraycopy(shown, 0, newShown, 0, shown.length);
+        shown = newShown;
+    }
+
+    /**
+     * Draws every bar that is on screen, each fill underneath its outline.
+     *
+     * @param batch         Batch to draw with
+     * @param parentAlpha   Alpha of the parent
+     */
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        if (size == 0) {
+            return;
+        }
+        Frustum frustum = getStage().getCamera().frustum;
+        float halfWidth = width / 2f;
+        float halfHeight = height / 2f;
+
+        // The bars are composed regions, which hold premultiplied alpha
+        int srcRGB = batch.getBlendSrcFunc();
+        int dstRGB = batch.getBlendDstFunc();
+        int srcAlpha = batch.getBlendSrcFuncAlpha();
+        int dstAlpha = batch.getBlendDstFuncAlpha();
+        float color = batch.getPackedColor();
+        batch.setBlendFunction(TextureCompositor.PREMULTIPLIED_SRC, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.setColor(parentAlpha, parentAlpha, parentAlpha, parentAlpha);
+        for (int i = 0; i < size; i++) {
+            for (int bar = 0; bar < 2; bar++) {
+                float x = positions[i * 4 + bar * 2];
+                float y = positions[i * 4 + bar * 2 + 1];
+                if (!frustum.boundsInFrustum(x + halfWidth, y + halfHeight, 0, halfWidth, halfHeight, 0)) {
+                    continue;
+                }
+                drawFill(batch, bar == 0 ? stressFill : suspicionFill, x, y, crops[i * 2 + bar]);
+                batch.draw(outline, x, y);
+            }
+        }
+        batch.setBlendFunctionSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+        batch.setPackedColor(color);
+    }
+
+    /**
+     * Draws a fill with rows cropped from its top, leaving the rest where it would have been.
+     *
+     * @param batch     Batch to draw with
+     * @param fill      Region of the fill
+     * @param x         Left edge of the bar
+     * @param y         Bottom edge of the bar
+     * @param crop      Number of rows cropped from the top
+     */
+    private void drawFill(Batch batch, TextureRegion fill, float x, float y, int crop) {
+        // v runs from the top row to the bottom row, whichever way up the region is stored
+        float v = fill.getV() + (fill.getV2() - fill.getV()) * crop / height;
+        batch.draw(fill.getTexture(), x, y, width, height - crop, fill.getU(), fill.getV2(), fill.getU2(), v);
+    }
+}
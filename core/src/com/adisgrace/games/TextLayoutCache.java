@@ -0,0 +1,195 @@
+package com.adisgrace.games;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pools;
+
+/**
+ * Cache of laid out text, keyed by font, string, wrap width, font scale and font color.
+ *
+ * Laying out text walks every glyph and allocates runs, so doing it each frame for text that has
+ * not changed produces a steady stream of garbage. This cache keeps the layouts for recently drawn
+ * text, and only lays text out again when the text (or how it is drawn) actually changes. When it
+ * is full, the layout that has gone unused the longest is replaced, and its layout and key are
+ * reused, so replacing entries does not allocate either.
+ *
+ * Layouts returned by this cache are owned by it, and must not be modified or kept past the frame.
+ */
+public class TextLayoutCache {
+    /** Default number of layouts to keep */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Identifies a single layout, and links it into the list of entries from least to most recently
+     * used.
+     */
+    private static class Key {
+        BitmapFont font;
+        String text;
+        float width;
+        float scale;
+        float color;
+        /** Layout of a cached entry, or null for the lookup key */
+        GlyphLayout layout;
+        /** Neighbouring entries, used less and more recently than this one */
+        Key previous, next;
+
+        Key set(BitmapFont font, String text, float width) {
+            this.font = font;
+            this.text = text;
+            this.width = width;
+            this.scale = font.getScaleX();
+            this.color = font.getColor().toFloatBits();
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return font == other.font && width == other.width && scale == other.scale
+                    && color == other.color && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(font);
+            result = 31 * result + text.hashCode();
+            result = 31 * result + Float.floatToIntBits(width);
+            result = 31 * result + Float.floatToIntBits(scale);
+            result = 31 * result + Float.floatToIntBits(color);
+            return result;
+        }
+    }
+
+    /** Maximum number of layouts to keep */
+    private int capacity;
+    /** Cached entries, each mapped to itself */
+    private ObjectMap<Key, Key> entries;
+    /** Least recently used entry, which is evicted first */
+    private Key oldest;
+    /** Most recently used entry */
+    private Key newest;
+    /** Key reused for lookups, so that hits do not allocate */
+    private Key probe = new Key();
+    /** Pool of layouts shared with the rest of libGDX */
+    private Pool<GlyphLayout> layoutPool = Pools.get(GlyphLayout.class);
+
+    /**
+     * Creates a text layout cache with the default capacity.
+     */
+    public TextLayoutCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a text layout cache that keeps up to the given number of layouts.
+     *
+     * @param capacity  Maximum number of layouts to keep
+     */
+    public TextLayoutCache(int capacity) {
+        this.capacity = capacity;
+        entries = new ObjectMap<Key, Key>(capacity);
+    }
+
+    /**
+     * Returns the layout of the given text on a single line, at the font's current scale and color.
+     *
+     * @param font  Font to lay the text out with
+     * @param text  Text to lay out
+     * @return      Layout of the text
+     */
+    public GlyphLayout get(BitmapFont font, String text) {
+        return get(font, text, 0f);
+    }
+
+    /**
+     * Returns the layout of the given text at the font's current scale and color, wrapped to the
+     * given width.
+     *
+     * @param font      Font to lay the text out with
+     * @param text      Text to lay out
+     * @param width     Width to wrap the text to, or 0 to not wrap it
+     * @return          Layout of the text
+     */
+    public GlyphLayout get(BitmapFont font, String text, float width) {
+        Key entry = entries.get(probe.set(font, text, width));
+        if (entry != null) {
+            unlink(entry);
+            append(entry);
+            return entry.layout;
+        }
+
+        if (entries.size >= capacity) {
+            // Reuse the least recently used entry, layout and all
+            entry = oldest;
+            unlink(entry);
+            entries.remove(entry);
+        } else {
+            entry = new Key();
+            entry.layout = layoutPool.obtain();
+        }
+        entry.set(font, text, width);
+        entry.layout.setText(font, text, font.getColor(), width, Align.left, width > 0f);
+        entries.put(entry, entry);
+        append(entry);
+        return entry.layout;
+    }
+
+    /**
+     * Removes an entry from the list of entries by use.
+     *
+     * @param entry Entry to remove
+     */
+    private void unlink(Key entry) {
+        if (entry.previous == null) {
+            oldest = entry.next;
+        } else {
+            entry.previous.next = entry.next;
+        }
+        if (entry.next == null) {
+            newest = entry.previous;
+        } else {
+            entry.next.previous = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+    }
+
+    /**
+     * Adds an entry to the list of entries by use, as the most recently used.
+     *
+     * @param entry Entry to add
+     */
+    private void append(Key entry) {
+        entry.previous = newest;
+        if (newest == null) {
+            oldest = entry;
+        } else {
+            newest.next = entry;
+        }
+        newest = entry;
+    }
+
+    /**
+     * Drops every cached layout, returning them to the pool.
+     *
+     * Should be called if a font is disposed or its glyphs change.
+     */
+    public void clear() {
+        for (Key entry : entries.values()) {
+            layoutPool.free(entry.layout);
+            entry.layout = null;
+            entry.previous = null;
+            entry.next = null;
+        }
+        entries.clear();
+        oldest = null;
+        newest = null;
+    }
+}
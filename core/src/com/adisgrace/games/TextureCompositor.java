@@ -0,0 +1,356 @@
+package com.adisgrace.games;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Composes layered texture regions into single regions on the GPU.
+ *
+ * Layers are drawn into a shared {@link FrameBuffer} page, and the result is returned as a region of
+ * that page. Results are cached by key, so asking for the same composition twice draws nothing and
+ * allocates nothing. Pages are packed shelf by shelf, and a new page is started when one fills up.
+ *
+ * This replaces merging regions through Pixmaps on the CPU, which had to decode both source images,
+ * copy them, upload a brand new texture for every result, and never released any of them.
+ *
+ * Pages hold premultiplied alpha, which is the only way to layer regions with soft edges onto a
+ * transparent page without darkening those edges. Composed regions must therefore be drawn with
+ * {@link #PREMULTIPLIED_SRC} blending, and a tint premultiplied by its alpha, as
+ * {@link ComposedDrawable} does.
+ */
+public class TextureCompositor implements Disposable {
+    /** Width and height of each atlas page */
+    private static final int PAGE_SIZE = 1024;
+    /** Empty pixels left around each composed region, to avoid bleeding when filtered */
+    private static final int PADDING = 2;
+    /** Source blend factor for drawing composed regions, with the usual GL_ONE_MINUS_SRC_ALPHA */
+    public static final int PREMULTIPLIED_SRC = GL20.GL_ONE;
+
+    /**
+     * A drawable for a composed region, which blends it as premultiplied alpha.
+     */
+    public static class ComposedDrawable extends TextureRegionDrawable {
+        /**
+         * Creates a drawable for a region returned by {@link #compose}.
+         *
+         * @param region    Composed region
+         */
+        public ComposedDrawable(TextureRegion region) {
+            super(region);
+        }
+
+        @Override
+        public void draw(Batch batch, float x, float y, float width, float height) {
+            int srcRGB = batch.getBlendSrcFunc();
+            int dstRGB = batch.getBlendDstFunc();
+            int srcAlpha = batch.getBlendSrcFuncAlpha();
+            int dstAlpha = batch.getBlendDstFuncAlpha();
+            float color = batch.getPackedColor();
+
+            Color tint = batch.getColor();
+            batch.setColor(tint.r * tint.a, tint.g * tint.a, tint.b * tint.a, tint.a);
+            batch.setBlendFunction(PREMULTIPLIED_SRC, GL20.GL_ONE_MINUS_SRC_ALPHA);
+            super.draw(batch, x, y, width, height);
+            batch.setBlendFunctionSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+            batch.setPackedColor(color);
+        }
+    }
+
+    /**
+     * A single region to draw into a composition, offset from the top-left corner.
+     */
+    public static class Layer {
+        /** Region to draw */
+        public final TextureRegion region;
+        /** Distance from the left edge of the composition to the left edge of the region */
+        public final int x;
+        /** Distance from the top edge of the composition to the top edge of the region */
+        public final int y;
+        /** Packed color to tint the region with */
+        public final float color;
+
+        /**
+         * Creates a tinted layer drawn at the given offset from the top-left corner.
+         *
+         * @param region    Region to draw
+         * @param x         Offset to the right, in pixels
+         * @param y         Offset downwards, in pixels
+         * @param color     Packed color to tint the region with
+         */
+        public Layer(TextureRegion region, int x, int y, float color) {
+            this.region = region;
+            this.x = x;
+            this.y = y;
+            this.color = color;
+        }
+
+        /**
+         * Creates a tinted layer drawn at the given offset from the top-left corner.
+         *
+         * @param region    Region to draw
+         * @param x         Offset to the right, in pixels
+         * @param y         Offset downwards, in pixels
+         * @param tint      Color to tint the region with
+         */
+        public Layer(TextureRegion region, int x, int y, Color tint) {
+            this(region, x, y, tint.toFloatBits());
+        }
+
+        /**
+         * Creates a layer drawn at the given offset from the top-left corner.
+         *
+         * @param region    Region to draw
+         * @param x         Offset to the right, in pixels
+         * @param y         Offset downwards, in pixels
+         */
+        public Layer(TextureRegion region, int x, int y) {
+            this(region, x, y, Color.WHITE);
+        }
+
+        /**
+         * Creates a layer drawn at the top-left corner.
+         *
+         * @param region    Region to draw
+         */
+        public Layer(TextureRegion region) {
+            this(region, 0, 0);
+        }
+    }
+
+    /**
+     * An atlas page, filled shelf by shelf from the bottom.
+     */
+    private static class Page {
+        /** Frame buffer that the compositions are drawn into */
+        FrameBuffer buffer;
+        /** Left edge of the next free slot on the current shelf */
+        int cursorX;
+        /** Bottom edge of the current shelf */
+        int shelfY;
+        /** Height of the tallest region on the current shelf */
+        int shelfHeight;
+
+        Page(int size) {
+            buffer = new FrameBuffer(Pixmap.Format.RGBA8888, size, size, false);
+            buffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+            // Start from a transparent page
+            buffer.begin();
+            Gdx.gl.glClearColor(0, 0, 0, 0);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+            buffer.end();
+        }
+
+        int getSize() {
+            return buffer.getWidth();
+        }
+    }
+
+    /** Batch used for drawing into pages, shared with the canvas */
+    private Batch batch;
+    /** Projection for drawing into a page */
+    private Matrix4 projection = new Matrix4();
+    /** All pages allocated so far, the last of which is being filled */
+    private Array<Page> pages = new Array<Page>();
+    /** Composed regions, by key */
+    private ObjectMap<String, TextureRegion> cache = new ObjectMap<String, TextureRegion>();
+
+    /**
+     * Creates an empty compositor. Pages are only allocated once something is composed.
+     *
+     * The batch is only borrowed while composing, and must not be active at the time.
+     *
+     * @param batch     Batch used to draw into pages
+     */
+    public TextureCompositor(Batch batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Returns the composition with the given key, drawing it first if it has not been drawn before.
+     *
+     * The composition is the size of the first layer. Layers after the first are drawn over it in
+     * order, each with its own tint, and anything outside the first layer is clipped. The region holds
+     * premultiplied alpha.
+     *
+     * @param key       Key identifying the composition, such as the names of the layers
+     * @param layers    Layers to draw, from bottom to top
+     * @return          Region containing the composition
+     */
+    public TextureRegion compose(String key, Layer... layers) {
+        return compose(key, 1f, layers);
+    }
+
+    /**
+     * Returns the composition with the given key, drawing it first at the given scale if it has not
+     * been drawn before.
+     *
+     * This is the same as {@link #compose(String, Layer...)}, except that the layers and their offsets
+     * are all scaled. Sources without mipmaps are filtered linearly while they are scaled down.
+     *
+     * @param key       Key identifying the composition, such as the names of the layers
+     * @param scale     Scale to draw the layers at
+     * @param layers    Layers to draw, from bottom to top
+     * @return          Region containing the composition
+     */
+    public TextureRegion compose(String key, float scale, Layer... layers) {
+        return compose(key, scale, null, layers);
+    }
+
+    /**
+     * Returns the composition with the given key, drawing it first at the given scale and with the
+     * given shader if it has not been drawn before.
+     *
+     * This is the same as {@link #compose(String, float, Layer...)}, except that the layers are
+     * drawn with the given shader, which must output straight alpha like the default one.
+     *
+     * @param key       Key identifying the composition, such as the names of the layers
+     * @param scale     Scale to draw the layers at
+     * @param shader    Shader to draw the layers with, or null for the batch's own
+     * @param layers    Layers to draw, from bottom to top
+     * @return          Region containing the composition
+     */
+    public TextureRegion compose(String key, float scale, ShaderProgram shader, Layer... layers) {
+        TextureRegion result = cache.get(key);
+        if (result != null) {
+            return result;
+        }
+        if (layers.length == 0) {
+            throw new IllegalArgumentException("Composition " + key + " has no layers");
+        }
+
+        int width = Math.max(1, Math.round(layers[0].region.getRegionWidth() * scale));
+        int height = Math.max(1, Math.round(layers[0].region.getRegionHeight() * scale));
+        Page page = reserve(width, height);
+        int left = page.cursorX;
+        int bottom = page.shelfY;
+
+        int srcRGB = batch.getBlendSrcFunc();
+        int dstRGB = batch.getBlendDstFunc();
+        int srcAlpha = batch.getBlendSrcFuncAlpha();
+        int dstAlpha = batch.getBlendDstFuncAlpha();
+        float color = batch.getPackedColor();
+        ShaderProgram batchShader = batch.getShader();
+
+        projection.setToOrtho2D(0, 0, page.getSize(), page.getSize());
+        page.buffer.begin();
+        Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
+        Gdx.gl.glScissor(left, bottom, width, height);
+        batch.setProjectionMatrix(projection);
+        // Blend the straight alpha layers "over" each other, which leaves premultiplied color on the page
+        batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        Array<Texture> filtered = smoothSources(layers, scale);
+        if (shader != null) {
+            batch.setShader(shader);
+        }
+        batch.begin();
+        for (Layer layer : layers) {
+            TextureRegion region = layer.region;
+            float regionWidth = region.getRegionWidth() * scale;
+            float regionHeight = region.getRegionHeight() * scale;
+            float y = bottom + height - layer.y * scale - regionHeight;
+            batch.setPackedColor(layer.color);
+            batch.draw(region, left + layer.x * scale, y, regionWidth, regionHeight);
+        }
+        batch.end();
+        for (Texture texture : filtered) {
+            texture.setFilter(Texture.TextureFilter.Nearest, texture.getMagFilter());
+        }
+        Gdx.gl.glDisable(GL20.GL_SCISSOR_TEST);
+        page.buffer.end();
+        batch.setBlendFunctionSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+        batch.setPackedColor(color);
+        if (shader != null) {
+            batch.setShader(batchShader);
+        }
+
+        page.cursorX += width + PADDING;
+        page.shelfHeight = Math.max(page.shelfHeight, height);
+
+        // Frame buffer contents are upside down relative to ordinary textures
+        result = new TextureRegion(page.buffer.getColorBufferTexture(), left, bottom, width, height);
+        result.flip(false, true);
+        cache.put(key, result);
+        return result;
+    }
+
+    /**
+     * Switches the source textures of the layers to linear filtering if they are about to be scaled
+     * down without mipmaps, so that the composition averages their texels rather than skipping them.
+     *
+     * @param layers    Layers about to be drawn
+     * @param scale     Scale they are drawn at
+     * @return          Textures that were switched, which must be switched back to nearest filtering
+     */
+    private static Array<Texture> smoothSources(Layer[] layers, float scale) {
+        Array<Texture> filtered = new Array<Texture>();
+        if (scale >= 1f) {
+            return filtered;
+        }
+        for (Layer layer : layers) {
+            Texture texture = layer.region.getTexture();
+            if (texture.getMinFilter() == Texture.TextureFilter.Nearest && !filtered.contains(texture, true)) {
+                texture.setFilter(Texture.TextureFilter.Linear, texture.getMagFilter());
+                filtered.add(texture);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Returns whether a composition with the given key has already been drawn.
+     *
+     * @param key   Key identifying the composition
+     * @return      Whether the composition is cached
+     */
+    public boolean contains(String key) {
+        return cache.containsKey(key);
+    }
+
+    /**
+     * Returns a page with room for a region of the given size, moving to a new shelf or a new page
+     * as needed. The region goes at the cursor of the returned page.
+     *
+     * @param width     Width of the region
+     * @param height    Height of the region
+     * @return          Page to draw the region into
+     */
+    private Page reserve(int width, int height) {
+        Page page = pages.size == 0 ? null : pages.peek();
+        if (page != null && page.cursorX + width > page.getSize()) {
+            page.shelfY += page.shelfHeight + PADDING;
+            page.cursorX = 0;
+            page.shelfHeight = 0;
+        }
+        if (page == null || page.cursorX + width > page.getSize() || page.shelfY + height > page.getSize()) {
+            page = new Page(Math.max(PAGE_SIZE, Math.max(width, height)));
+            pages.add(page);
+        }
+        return page;
+    }
+
+    /**
+     * Releases every page. Any region returned by this compositor becomes invalid.
+     *
+     * The batch belongs to the canvas, and is not disposed.
+     */
+    @Override
+    public void dispose() {
+        for (Page page : pages) {
+            page.buffer.dispose();
+        }
+        pages.clear();
+        cache.clear();
+    }
+}
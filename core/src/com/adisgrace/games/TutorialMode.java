@@ -1,6 +1,7 @@
 package com.adisgrace.games;
 
 import com.adisgrace.games.util.AssetDirectory;
+import com.adisgrace.games.util.Assets;
 import com.adisgrace.games.util.GameConstants;
 import com.adisgrace.games.util.ScreenListener;
 import com.badlogic.gdx.Gdx;
@@ -69,13 +70,16 @@ public class TutorialMode implements Screen {
 
         canvas = new GameCanvas();
         this.directory = directory;
+        // Tutorial assets are only loaded while a tutorial is shown
+        directory.acquireScope(AssetDirectory.TUTORIAL_SCOPE);
+        directory.finishLoadingScope(AssetDirectory.TUTORIAL_SCOPE);
         ExtendViewport viewport = new ExtendViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         viewport.setCamera(canvas.getCamera());
         stage = new Stage(viewport);
 
         Gdx.input.setInputProcessor(stage);
 
-        torch = directory.getEntry("torch", Texture.class);
+        torch = directory.getEntry(Assets.TORCH);
         TextureRegion[][] regions = new TextureRegion(torch).split(
                 torch.getWidth() / 6,
                 torch.getHeight() / 1);
@@ -91,7 +95,7 @@ public class TutorialMode implements Screen {
         torchAnimation.setPlayMode(Animation.PlayMode.LOOP);
 
 
-        playButton = new Label("Start", GameConstants.SELECTION_SKIN, "VCR");
+        playButton = new Label("Start", GameConstants.getSelectionSkin(), "VCR");
         playButton.setPosition(Gdx.graphics.getWidth()/2 - playButton.getWidth()/2,
                 Gdx.graphics.getHeight()*.05f- playButton.getHeight()/2);
 
@@ -117,7 +121,7 @@ public class TutorialMode implements Screen {
         //stage.addActor(playButton);
 
         tutorialImages = new Array<>();
-        background = directory.getEntry("background", Texture.class);
+        background = directory.getEntry(Assets.BACKGROUND);
 
         if(tutorialPaths.size > 0) {
             for(int i = 0; i < tutorialPaths.size; i++) {
@@ -131,7 +135,7 @@ public class TutorialMode implements Screen {
             }
 
 
-            nextButton = new Image(directory.getEntry("Tutorial:Next", Texture.class));
+            nextButton = new Image(directory.getEntry(Assets.TUTORIAL_NEXT));
             nextButton.setPosition(Gdx.graphics.getWidth()*.67f - nextButton.getWidth()/2,
                     Gdx.graphics.getHeight()*.15f- nextButton.getHeight()/2);
 
@@ -168,7 +172,7 @@ public class TutorialMode implements Screen {
             });
             stage.addActor(nextButton);
 
-            prevButton = new Image(directory.getEntry("Tutorial:Prev", Texture.class));
+            prevButton = new Image(directory.getEntry(Assets.TUTORIAL_PREV));
             prevButton.setPosition(Gdx.graphics.getWidth()*.33f - prevButton.getWidth()/2,
                     Gdx.graphics.getHeight()*.15f- prevButton.getHeight()/2);
 
@@ -201,7 +205,7 @@ public class TutorialMode implements Screen {
             stage.addActor(prevButton);
 
 
-            numPic = new Label("1/"+tutorialImages.size, GameConstants.SELECTION_SKIN, "tutorial-text");
+            numPic = new Label("1/"+tutorialImages.size, GameConstants.getSelectionSkin(), "tutorial-text");
             numPic.setPosition(Gdx.graphics.getWidth()*.5f - numPic.getWidth()/2,
                     Gdx.graphics.getHeight()*.17f- numPic.getHeight()/2);
             stage.addActor(numPic);
@@ -213,7 +217,7 @@ public class TutorialMode implements Screen {
         }
 
 
-        //Label tutorialTex = new Label(tutorialText, GameConstants.SELECTION_SKIN, "tutorial-text");
+        //Label tutorialTex = new Label(tutorialText, GameConstants.getSelectionSkin(), "tutorial-text");
 //        if(tutorialText.length() > 30) {
 //            tutorialTex.setWidth(600);
 //        }
@@ -297,7 +301,9 @@ public class TutorialMode implements Screen {
 
     @Override
     public void dispose() {
-
+        stage.dispose();
+        canvas.dispose();
+        directory.releaseScope(AssetDirectory.TUTORIAL_SCOPE);
     }
     public void setScreenListener(ScreenListener listener) {
         this.listener = listener;
@@ -2,6 +2,7 @@ package com.adisgrace.games;
 
 import com.adisgrace.games.models.TargetModel;
 import com.adisgrace.games.util.AssetDirectory;
+import com.adisgrace.games.util.Assets;
 import com.adisgrace.games.util.ButtonFactory;
 import com.adisgrace.games.util.GameConstants;
 import com.badlogic.gdx.Game;
@@ -58,7 +59,7 @@ public class UIController {
         Table skillBar = new Table();
         skillBar.setSize(toolbar.getWidth()*.60f, toolbar.getHeight()*.3f);
         skillBar.setBackground(new TextureRegionDrawable(new TextureRegion(
-                directory.getEntry("UI:SkillBar", Texture.class))));
+                directory.getEntry(Assets.UI_SKILL_BAR))));
 
         // numSkills is equal to the number of skill buttons + 1
         int numSkills = 7+1;
@@ -191,7 +192,7 @@ public class UIController {
     public void confirmDialog(String s, final Runnable confirmFunction) {
         Dialog dialog = new Dialog("", skin) {
             public void result(Object obj) {
-                GameConstants.CLICK_ON.play(GameConstants.global_sound);
+                GameConstants.SoundEffect.CLICK_ON.play(GameConstants.global_sound);
                 if((boolean)obj) {
                     confirmFunction.run();
                 }
@@ -210,8 +211,17 @@ public class UIController {
         float bottomPad = getDialogButtonBottomPadding(300);
         dialog.button("Yes", true).pad(0f,0f,bottomPad,0f); //sends "true" as the result
         dialog.button("No", false).pad(0f,0f,bottomPad,0f);  //sends "false" as the result
-        dialog.show(GameController.toolbarStage);
+        showDialog(dialog);
+
+    }
 
+    /**
+     * Shows a dialog on the toolbar stage, waking the game up if it is rendering on demand
+     * @param dialog the dialog to show
+     */
+    private void showDialog(Dialog dialog) {
+        dialog.show(GameController.toolbarStage);
+        RenderScheduler.requestActivity();
     }
 
 
@@ -223,7 +233,7 @@ public class UIController {
         Dialog dialog = new Dialog("", skin) {
             public void result(Object obj) {
                 GameController.nodeFreeze = false;
-                GameConstants.CLICK_ON.play(GameConstants.global_sound);
+                GameConstants.SoundEffect.CLICK_ON.play(GameConstants.global_sound);
             }
         };
         TextureRegion tRegion = new TextureRegion(new Texture(Gdx.files.internal("skins/win-95.png")));
@@ -249,7 +259,7 @@ public class UIController {
         float bottomPad = getDialogButtonBottomPadding(GameConstants.DIALOG_HEIGHT);
         dialog.button("Ok", true).pad(0f,0f,bottomPad,0f); //sends "true" as the result
         dialog.key(Input.Keys.ENTER, true); //sends "true" when the ENTER key is pressed
-        dialog.show(GameController.toolbarStage);
+        showDialog(dialog);
         GameController.nodeFreeze = true;
     }
 
@@ -262,7 +272,7 @@ public class UIController {
         Dialog dialog = new Dialog("", skin) {
             public void result(Object obj) {
                 GameController.nodeFreeze = false;
-                GameConstants.CLICK_ON.play(GameConstants.global_sound);
+                GameConstants.SoundEffect.CLICK_ON.play(GameConstants.global_sound);
             }
         };
         TextureRegion tRegion = new TextureRegion(new Texture(Gdx.files.internal("skins/win-95.png")));
@@ -289,7 +299,7 @@ public class UIController {
         float bottomPad = getDialogButtonBottomPadding(GameConstants.DIALOG_HEIGHT);
         dialog.button("Ok", true).pad(0f,0f,bottomPad,0f); //sends "true" as the result
         dialog.key(Input.Keys.ENTER, true); //sends "true" when the ENTER key is pressed
-        dialog.show(GameController.toolbarStage);
+        showDialog(dialog);
         GameController.nodeFreeze = true;
     }
 
@@ -303,7 +313,7 @@ public class UIController {
         Dialog dialog = new Dialog("", skin) {
             public void result(Object obj) {
                 GameController.nodeFreeze = false;
-                GameConstants.CLICK_ON.play(GameConstants.global_sound);
+                GameConstants.SoundEffect.CLICK_ON.play(GameConstants.global_sound);
             }
         };
         TextureRegion tRegion = new TextureRegion(new Texture(Gdx.files.internal("skins/win-95.png")));
@@ -354,7 +364,7 @@ public class UIController {
         dialog.setLayoutEnabled(true);
         dialog.button("Ok", true).pad(0f,0f,bottomPad,0f); //sends "true" as the result
         dialog.key(Input.Keys.ENTER, true); //sends "true" when the ENTER key is pressed
-        dialog.show(GameController.toolbarStage);
+        showDialog(dialog);
 
         GameController.nodeFreeze = true;
     }
@@ -407,7 +417,7 @@ public class UIController {
         dialog.button("Main Menu", 1).pad(0f,0f,bottomPad,0f);
         dialog.button("Restart Level", 2).pad(0f,0f,bottomPad,0f);
         dialog.button("Next Level", 3).pad(0f,0f,bottomPad,0f); //sends "true" as the result
-        dialog.show(GameController.toolbarStage);
+        showDialog(dialog);
     }
 
     /**
@@ -454,7 +464,7 @@ public class UIController {
 
         dialog.button("Main Menu", 1).pad(0f,0f,bottomPad,0f);
         dialog.button("Restart Level", 2).pad(0f,0f,bottomPad,0f);
-        dialog.show(GameController.toolbarStage);
+        showDialog(dialog);
     }
 
     /**
@@ -467,7 +477,7 @@ public class UIController {
                                              final LevelController levelController) {
         Dialog dialog = new Dialog("", skin) {
             public void result(Object obj) {
-                GameConstants.CLICK_ON.play(GameConstants.global_sound);
+                GameConstants.SoundEffect.CLICK_ON.play(GameConstants.global_sound);
                 GameController.nodeFreeze = false;
 
                 if(obj.getClass() == Boolean.class) {
@@ -499,7 +509,7 @@ public class UIController {
             dialog.button(targets.get(i).getName(), i).pad(0f,0f,bottomPad,0f);
         }
         dialog.button("Cancel", true).pad(0f,0f,bottomPad,0f); //sends "true" as the result
-        dialog.show(GameController.toolbarStage);
+        showDialog(dialog);
     }
 
     /**
@@ -510,16 +520,16 @@ public class UIController {
      */
     public ImageButton createHarass(InputController ic, final Runnable confirmFunction){
         harass = ButtonFactory.makeImageButton(
-                directory.getEntry("Skills:HarassDown", Texture.class),
-                directory.getEntry("Skills:HarassUp", Texture.class),
-                directory.getEntry("Skills:HarassSelect", Texture.class));
+                directory.getEntry(Assets.SKILLS_HARASS_DOWN),
+                directory.getEntry(Assets.SKILLS_HARASS_UP),
+                directory.getEntry(Assets.SKILLS_HARASS_SELECT));
         final Label  harassLabel = createHoverLabel(GameController.getHoverText(GameController.ActiveVerb.HARASS));
         final String s = "harass";
         harass.addListener(ic.getButtonListener(
                 new Runnable() {
                     @Override
                     public void run() {
-                        GameConstants.SKILL_ACTIVE.play(0.2f * GameConstants.global_sound);
+                        GameConstants.SoundEffect.SKILL_ACTIVE.play(0.2f * GameConstants.global_sound);
                         toolbarOnClick(harass, s, GameController.ActiveVerb.HARASS, confirmFunction);
                     }
                 }, new Runnable() {
@@ -545,16 +555,16 @@ public class UIController {
      */
     public ImageButton createExpose(InputController ic, final Runnable confirmFunction){
         expose = ButtonFactory.makeImageButton(
-                directory.getEntry("Skills:ExposeDown", Texture.class),
-                directory.getEntry("Skills:ExposeUp", Texture.class),
-                directory.getEntry("Skills:ExposeSelect", Texture.class));
+                directory.getEntry(Assets.SKILLS_EXPOSE_DOWN),
+                directory.getEntry(Assets.SKILLS_EXPOSE_UP),
+                directory.getEntry(Assets.SKILLS_EXPOSE_SELECT));
         final Label exposeLabel = createHoverLabel(GameController.getHoverText(GameController.ActiveVerb.EXPOSE));
         final String s = "expose";
         expose.addListener(ic.getButtonListener(
                 new Runnable() {
                     @Override
                     public void run() {
-                        GameConstants.SKILL_ACTIVE.play(.2f * GameConstants.global_sound);
+                        GameConstants.SoundEffect.SKILL_ACTIVE.play(.2f * GameConstants.global_sound);
                         toolbarOnClick(expose, s, GameController.ActiveVerb.EXPOSE,  confirmFunction);
                     }
                 }, new Runnable() {
@@ -580,16 +590,16 @@ public class UIController {
      */
     public ImageButton createDistract(InputController ic, final Runnable confirmFunction){
         distract = ButtonFactory.makeImageButton( //TODO
-                directory.getEntry("Skills:DistractDown", Texture.class),
-                directory.getEntry("Skills:DistractUp", Texture.class),
-                directory.getEntry("Skills:DistractSelect", Texture.class));
+                directory.getEntry(Assets.SKILLS_DISTRACT_DOWN),
+                directory.getEntry(Assets.SKILLS_DISTRACT_UP),
+                directory.getEntry(Assets.SKILLS_DISTRACT_SELECT));
         final Label distractLabel = createHoverLabel(GameController.getHoverText(GameController.ActiveVerb.DISTRACT));
         final String s = "distract";
         distract.addListener(ic.getButtonListener(
                 new Runnable() {
                     @Override
                     public void run() {
-                        GameConstants.SKILL_ACTIVE.play(.2f * GameConstants.global_sound);
+                        GameConstants.SoundEffect.SKILL_ACTIVE.play(.2f * GameConstants.global_sound);
                         toolbarOnClick(distract, s, GameController.ActiveVerb.DISTRACT,  confirmFunction);
                     }
                 }, new Runnable() {
@@ -615,16 +625,16 @@ public class UIController {
      */
     public ImageButton createGaslight(InputController ic, final Runnable confirmFunction){
         gaslight = ButtonFactory.makeImageButton( //TODO
-                directory.getEntry("Skills:GaslightDown", Texture.class),
-                directory.getEntry("Skills:GaslightUp", Texture.class),
-                directory.getEntry("Skills:GaslightSelect", Texture.class));
+                directory.getEntry(Assets.SKILLS_GASLIGHT_DOWN),
+                directory.getEntry(Assets.SKILLS_GASLIGHT_UP),
+                directory.getEntry(Assets.SKILLS_GASLIGHT_SELECT));
         final Label gaslightLabel = createHoverLabel(GameController.getHoverText(GameController.ActiveVerb.GASLIGHT));
         final String s = "gaslight";
         gaslight.addListener(ic.getButtonListener(
                 new Runnable() {
                     @Override
                     public void run() {
-                        GameConstants.SKILL_ACTIVE.play(.2f * GameConstants.global_sound);
+                        GameConstants.SoundEffect.SKILL_ACTIVE.play(.2f * GameConstants.global_sound);
                         toolbarOnClick(gaslight, s, GameController.ActiveVerb.GASLIGHT,  confirmFunction);
                     }
                 }, new Runnable() {
@@ -650,9 +660,9 @@ public class UIController {
      */
     public ImageButton createOverwork(InputController ic, final Runnable confirmFunction){
         overwork = ButtonFactory.makeImageButton(
-                directory.getEntry("Skills:OverworkDown", Texture.class),
-                directory.getEntry("Skills:OverworkUp", Texture.class),
-                directory.getEntry("Skills:OverworkSelect", Texture.class));
+                directory.getEntry(Assets.SKILLS_OVERWORK_DOWN),
+                directory.getEntry(Assets.SKILLS_OVERWORK_UP),
+                directory.getEntry(Assets.SKILLS_OVERWORK_SELECT));
         final Label overworkLabel = createHoverLabel(GameController.getHoverText(GameController.ActiveVerb.OVERWORK));
         final String s = "overwork";
         overwork.addListener(ic.getButtonListener(
@@ -684,9 +694,9 @@ public class UIController {
      */
     public ImageButton createOtherJobs(InputController ic, final Runnable confirmFunction){
         otherJobs = ButtonFactory.makeImageButton(
-                directory.getEntry("Skills:OtherJobsDown", Texture.class),
-                directory.getEntry("Skills:OtherJobsUp", Texture.class),
-                directory.getEntry("Skills:OtherJobsSelect", Texture.class));
+                directory.getEntry(Assets.SKILLS_OTHER_JOBS_DOWN),
+                directory.getEntry(Assets.SKILLS_OTHER_JOBS_UP),
+                directory.getEntry(Assets.SKILLS_OTHER_JOBS_SELECT));
         final Label otherJobLabel = createHoverLabel(GameController.getHoverText(GameController.ActiveVerb.OTHER_JOBS));
         final String s = "other jobs";
         otherJobs.addListener(ic.getButtonListener(
@@ -725,9 +735,9 @@ public class UIController {
      */
     public ImageButton createRelax(InputController ic, final Runnable confirmFunction){
         relax = ButtonFactory.makeImageButton(
-                directory.getEntry("Skills:RelaxDown", Texture.class),
-                directory.getEntry("Skills:RelaxUp", Texture.class),
-                directory.getEntry("Skills:RelaxSelect", Texture.class));
+                directory.getEntry(Assets.SKILLS_RELAX_DOWN),
+                directory.getEntry(Assets.SKILLS_RELAX_UP),
+                directory.getEntry(Assets.SKILLS_RELAX_SELECT));
         final Label  relaxLabel = createHoverLabel(GameController.getHoverText(GameController.ActiveVerb.RELAX));
         final String s = "relax";
         relax.addListener(ic.getButtonListener(
@@ -811,7 +821,7 @@ public class UIController {
         float bottomPad = getDialogButtonBottomPadding(GameConstants.DIALOG_HEIGHT);
         GameController.blackmailDialog.button("Cancel", true).pad(0f,0f,bottomPad,0f);; //sends "true" as the result
         GameController.blackmailDialog.key(Input.Keys.ENTER, true); //sends "true" when the ENTER key is pressed
-        GameController.blackmailDialog.show(GameController.toolbarStage);
+        showDialog(GameController.blackmailDialog);
         //Make sure nothing else is able to be clicked while blackmail dialog is shown
         GameController.nodeFreeze = true;
     }
@@ -950,8 +960,8 @@ public class UIController {
         node.setHover(true);
 
         // Play sound
-        GameConstants.NODE_HOVER.stop();
-        GameConstants.NODE_HOVER.play(.25f * GameConstants.global_sound);
+        GameConstants.SoundEffect.NODE_HOVER.getSound().stop();
+        GameConstants.SoundEffect.NODE_HOVER.play(.25f * GameConstants.global_sound);
     }
 
     /**
@@ -63,7 +63,7 @@ public final class FormFactory {
     private static TextField newTextFieldOrArea(String name, float height, float width, String initialText,
                                                 boolean isArea, boolean doDisableInput) {
         // Create text field, or text area if that's what's asked for
-        TextField field = isArea ? new TextArea("", skin) : new TextField("", skin);
+        TextField field = isArea ? new TextArea("", getSkin()) : new TextField("", getSkin());
 
         // Set name of field
         field.setMessageText(name);
@@ -133,7 +133,7 @@ public final class FormFactory {
      * @return          The constructed SelectBox
      */
     public static SelectBox newSelectBox(Object[] options, float height, float width, Object selected) {
-        SelectBox box = new SelectBox(skin);
+        SelectBox box = new SelectBox(getSkin());
         box.setItems(options);
         box.setPosition(FORM_X_OFFSET, height);
         box.setWidth(width);
@@ -159,7 +159,7 @@ public final class FormFactory {
      * @return          The constructed List
      */
     public static <T> List newListBox(Object[] options, float height, float width, Array<T> selected) {
-        List box = new List(skin);
+        List box = new List(getSkin());
         box.setItems(options);
         box.setPosition(FORM_X_OFFSET, height);
         box.setHeight(7.5f * FORM_GAP);
@@ -193,7 +193,7 @@ public final class FormFactory {
      * @return          The constructed Label
      */
     public static Label newLabel(String labelName, float height) {
-        Label label = new Label(labelName, skin);
+        Label label = new Label(labelName, getSkin());
         label.setPosition(FORM_X_OFFSET, height);
         return label;
     }
@@ -207,7 +207,7 @@ public final class FormFactory {
      * @return          The constructed CheckBox
      */
     public static CheckBox newCheckBox(String name, float height, boolean checked) {
-        CheckBox checkBox = new CheckBox(name, skin);
+        CheckBox checkBox = new CheckBox(name, getSkin());
         checkBox.setPosition(FORM_X_OFFSET + 215, height-2);
         checkBox.setChecked(checked);
 
@@ -1,5 +1,7 @@
 package com.adisgrace.games.leveleditor;
 
+import com.adisgrace.games.util.AssetDirectory;
+import com.adisgrace.games.util.GameConstants;
 import com.adisgrace.games.util.ScreenListener;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Screen;
@@ -11,9 +13,20 @@ public class FreeHimEditor extends Game implements ScreenListener {
     private LevelEditorStart start;
     /** Primary controller for the level editor (CONTROLLER CLASS) */
     private LevelEditorController editor;
+    /** Assets shared with the game, along with those only used by the editor */
+    private AssetDirectory directory;
 
     @Override
     public void create () {
+        // The editor has no loading screen, so its assets are loaded up front
+        directory = new AssetDirectory("assets.json");
+        directory.loadAssets();
+        directory.finishLoading();
+        directory.acquireScope(AssetDirectory.MENU_SCOPE);
+        directory.acquireScope(AssetDirectory.EDITOR_SCOPE);
+        directory.finishLoading();
+        GameConstants.setAssets(directory);
+
         // Create level editor start screen and initialize as first screen
         start = new LevelEditorStart();
         start.setScreenListener(this);
@@ -22,7 +35,9 @@ public class FreeHimEditor extends Game implements ScreenListener {
 
     @Override
     public void dispose () {
-
+        GameConstants.setAssets(null);
+        directory.unloadAssets();
+        directory.dispose();
     }
 
     /**
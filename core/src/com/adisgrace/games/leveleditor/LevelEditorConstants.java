@@ -1,5 +1,7 @@
 package com.adisgrace.games.leveleditor;
 
+import com.adisgrace.games.util.AssetHandle;
+import com.adisgrace.games.util.Assets;
 import com.adisgrace.games.util.Connector;
 import static com.adisgrace.games.util.GameConstants.*;
 import com.adisgrace.games.models.TraitModel.Trait;
@@ -21,32 +23,24 @@ public final class LevelEditorConstants {
     public static final int SCREEN_WIDTH = 1280;
     public static final int SCREEN_HEIGHT = 720;
 
-    /** Skin for Scene2D elements */
-    public static final Skin skin = new Skin(Gdx.files.internal("skins/neon-ui.json"));
 
     /** Order of connectors (N,E,S,W) */
     public static final Connector.Direction[] CONN_ORDER = {Connector.Direction.N, Connector.Direction.E, Connector.Direction.S, Connector.Direction.W};
     public static final String[] CONN_NAME_ORDER = {"N","E","S","W"};
     /** Constants to get the correct indices for node textures */
     public static final int TARGET_LOW = 0, UNLOCKED_LOW = 1, LOCKED_LOW = 2, TARGET_HIGH = 3, UNLOCKED_HIGH = 4, LOCKED_HIGH = 5;
-    /** Array of all textures for nodes */
-    public static final Texture[] NODE_TEXTURES = new Texture[]{
-            new Texture(Gdx.files.internal("leveleditor/N_TargetMaleIndividualLow_1.png")),
-            new Texture(Gdx.files.internal("leveleditor/N_UnlockedIndividualLow_1.png")),
-            new Texture(Gdx.files.internal("leveleditor/N_LockedIndividualLow_1.png")),
-            new Texture(Gdx.files.internal("leveleditor/N_TargetMaleIndividual_1.png")),
-            new Texture(Gdx.files.internal("leveleditor/N_UnlockedIndividual_1.png")),
-            new Texture(Gdx.files.internal("leveleditor/N_LockedIndividual_2.png"))
-    };
-    /** Array of all TextureRegionDrawables for nodes */
-    public static final TextureRegionDrawable[] NODE_TRDS = new TextureRegionDrawable[]{
-            new TextureRegionDrawable(NODE_TEXTURES[TARGET_LOW]),
-            new TextureRegionDrawable(NODE_TEXTURES[UNLOCKED_LOW]),
-            new TextureRegionDrawable(NODE_TEXTURES[LOCKED_LOW]),
-            new TextureRegionDrawable(NODE_TEXTURES[TARGET_HIGH]),
-            new TextureRegionDrawable(NODE_TEXTURES[UNLOCKED_HIGH]),
-            new TextureRegionDrawable(NODE_TEXTURES[LOCKED_HIGH])
+    /** Asset handles of all textures for nodes, in the order of the indices above */
+    @SuppressWarnings("unchecked")
+    private static final AssetHandle<Texture>[] NODE_TEXTURES = new AssetHandle[]{
+            Assets.EDITOR_TARGET_LOW,
+            Assets.EDITOR_UNLOCKED_LOW,
+            Assets.EDITOR_LOCKED_LOW,
+            Assets.EDITOR_TARGET_HIGH,
+            Assets.EDITOR_UNLOCKED_HIGH,
+            Assets.EDITOR_LOCKED_HIGH
     };
+    /** TextureRegionDrawables for nodes, created on first use */
+    private static final TextureRegionDrawable[] NODE_TRDS = new TextureRegionDrawable[NODE_TEXTURES.length];
 
     /** Array of TextureRegionDrawables of all node creation buttons, in order */
     public static final TextureRegionDrawable[] ADD_NODE_TRD_ORDER = new TextureRegionDrawable[]{
@@ -252,4 +246,36 @@ public final class LevelEditorConstants {
         // Return index of next entry in order
         return (find(curr, order) + 1) % order.length;
     }
+
+    /**
+     * Returns the skin for Scene2D elements.
+     *
+     * @return  The skin for Scene2D elements
+     */
+    public static Skin getSkin() {
+        return getSelectionSkin();
+    }
+
+    /**
+     * Returns the texture for a type of node.
+     *
+     * @param type  One of the node texture indices, such as TARGET_LOW
+     * @return      The texture for the node
+     */
+    public static Texture getNodeTexture(int type) {
+        return getAsset(NODE_TEXTURES[type]);
+    }
+
+    /**
+     * Returns the TextureRegionDrawable for a type of node.
+     *
+     * @param type  One of the node texture indices, such as TARGET_LOW
+     * @return      The TextureRegionDrawable for the node
+     */
+    public static TextureRegionDrawable getNodeDrawable(int type) {
+        if (NODE_TRDS[type] == null) {
+            NODE_TRDS[type] = new TextureRegionDrawable(getNodeTexture(type));
+        }
+        return NODE_TRDS[type];
+    }
 }
@@ -276,8 +276,8 @@ public class LevelEditorController implements Screen {
         toolStage.addActor(levelDimY);
 
         // Create labels for what these text fields are and add to stage
-        Label levelDimXLabel = new Label("Width", skin);
-        Label levelDimYLabel = new Label("Height", skin);
+        Label levelDimXLabel = new Label("Width", getSkin());
+        Label levelDimYLabel = new Label("Height", getSkin());
         toolStage.addActor(levelDimXLabel);
         toolStage.addActor(levelDimYLabel);
 
@@ -289,7 +289,7 @@ public class LevelEditorController implements Screen {
         levelDimY.setX(levelDimYLabel.getX() + levelDimYLabel.getWidth());
 
         // Create and place label and text field for level time limit
-        Label levelTimeLimitLabel = new Label("Time Limit", skin);
+        Label levelTimeLimitLabel = new Label("Time Limit", getSkin());
         toolStage.addActor(levelTimeLimitLabel);
         levelTimeLimit = FormFactory.newTextField("Time Limit", 10,
                 FORM_WIDTH * canvas.getWidth() / 5, "20");
@@ -520,7 +520,7 @@ public class LevelEditorController implements Screen {
      */
     private void addNode(int nodeType) {
         // Create image for the node
-        Image im = new Image(NODE_TEXTURES[nodeType]);
+        Image im = new Image(getNodeTexture(nodeType));
         // Set node name, which is the node type, the string "Node," and a unique number
         im.setName(nodeType + "Node" + model.imgCount);
 
@@ -593,8 +593,8 @@ public class LevelEditorController implements Screen {
         int nodeType = Character.getNumericValue(im.getName().charAt(0));
 
         // Get relevant low and high textures for this node
-        final TextureRegionDrawable nodeLow = NODE_TRDS[nodeType];
-        final TextureRegionDrawable nodeHigh = NODE_TRDS[nodeType + 3];
+        final TextureRegionDrawable nodeLow = getNodeDrawable(nodeType);
+        final TextureRegionDrawable nodeHigh = getNodeDrawable(nodeType + 3);
 
         // Add listeners, which change their behavior depending on the editor mode
         // Add drag listener that does something during a drag
@@ -1050,7 +1050,7 @@ public class LevelEditorController implements Screen {
         // If no node is currently selected, do nothing
         if (selectedNode == null) return;
         // First digit of node name gives the node type, so set node image to be low version of itself
-        selectedNode.setDrawable(NODE_TRDS[Character.getNumericValue(selectedNode.getName().charAt(0))]);
+        selectedNode.setDrawable(getNodeDrawable(Character.getNumericValue(selectedNode.getName().charAt(0))));
         // Actually deselect node
         selectedNode = null;
     }
@@ -110,7 +110,7 @@ public class LevelEditorModel {
             this.isMale = isMale;
 
             // Set target image to the default target image
-            im = new Image(NODE_TEXTURES[TARGET_LOW]);
+            im = new Image(getNodeTexture(TARGET_LOW));
             // Ensure image name is in correct format
             im.setName("0" + name + imgCount);
             tileType = TileType.TARGET;
@@ -218,7 +218,7 @@ public class LevelEditorModel {
             this.isGeneric = isGeneric;
 
             // Set image to the default image for the relevant node
-            im = new Image(NODE_TEXTURES[locked ? LOCKED_LOW : UNLOCKED_LOW]);
+            im = new Image(getNodeTexture(locked ? LOCKED_LOW : UNLOCKED_LOW));
             // Set image name to be the node type, the string "Node," and a unique number
             // Can't reuse the old name in case multiple targets have nodes with the same name
             im.setName((locked ? 2 : 1) + "Node" + imgCount);
@@ -1,16 +1,15 @@
 package com.adisgrace.games.leveleditor;
 
+import com.adisgrace.games.models.LevelModel;
+import com.adisgrace.games.models.TargetModel;
 import com.adisgrace.games.util.Connector;
 import com.adisgrace.games.util.Connector.Direction;
 import static com.adisgrace.games.util.GameConstants.*;
 import com.adisgrace.games.leveleditor.LevelEditorModel.*;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ArrayMap;
-import com.badlogic.gdx.utils.JsonReader;
-import com.badlogic.gdx.utils.JsonValue;
 
 import java.io.*;
 import java.util.*;
@@ -552,30 +551,22 @@ public class LevelEditorParser {
         // Initialize model for level that's being loaded
         LevelEditorModel model = new LevelEditorModel();
 
-        // Create JSON reader to parse through the level JSON
-        JsonValue leveljson = new JsonReader().parse(Gdx.files.internal("levels/" + levelfolder + "/" + levelname));
+        // Load the level as the game would, which reads it from the level cache unless it has been edited
+        LevelModel level = new LevelModel("levels/" + levelfolder + "/" + levelname);
 
         // Get and store level name
-        model.setLevelName(leveljson.get("name").asString());
+        model.setLevelName(level.getName());
         // Get and store level dimensions
-        int[] dims = leveljson.get("dims").asIntArray();
-        model.setLevelDimensions(dims[0], dims[1]);
+        model.setLevelDimensions(level.getWidth(), level.getHeight());
         // Get and store level time limit
-        model.setLevelTimeLimit(leveljson.getInt("timeLimit"));
+        model.setLevelTimeLimit(level.getDaysLeft());
 
-        // Get iterator for locations of targets in level
-        JsonValue locations = leveljson.get("targetLocs");
-        JsonValue.JsonIterator itr = locations.iterator();
-        // Initialize int array for location of each target in level
-        int[] loc;
-
-        // Go through array of targets, stored as filenames in the JSON
-        String[] targetJsons = leveljson.get("targets").asStringArray();
-        for(String targetfile : targetJsons){
+        // Go through targets of the level
+        for (TargetModel target : level.getTargets().values()) {
             // Get location of target
-            loc = itr.next().asIntArray();
-            // Parse each target and load into level
-            model = parseTarget(loc[0], loc[1], targetfile, model, levelfolder);
+            int[] loc = level.getTargetLoc(target.getName());
+            // Load each target into level
+            model = parseTarget(loc[0], loc[1], target, model);
         }
 
         // Return filled model
@@ -583,44 +574,24 @@ public class LevelEditorParser {
     }
 
     /**
-     * Helper function that parses the connectors in a JSON and adds them to the given level model.
-     *
-     * This function takes in the connector coordinates and types as JsonValues.
+     * Helper function that adds the connectors in the given paths to the given level model.
      *
      * Note that the connector must add the target's coordinates to the stored location to get the true
      * isometric coordinates.
      *
      * @param targetX           x-coordinate of target that this connector belongs to
      * @param targetY           y-coordinate of target tat this connector belongs to
-     * @param connectorCoords   JSON array of coordinates of connectors.
-     * @param connectorTypes    JSON array of types of connectors.
+     * @param paths             Names of children mapped to the paths of connectors to them.
      * @param model             The level model to add the connectors to.
      * @return                  The level model with the connectors added.
      */
-    private LevelEditorModel parseConnectors(int targetX, int targetY, JsonValue connectorCoords,
-                                             JsonValue connectorTypes, LevelEditorModel model) {
-        // Create iterators for connector coordinates and types
-        JsonValue.JsonIterator coordItr = connectorCoords.iterator();
-        JsonValue.JsonIterator typeItr = connectorTypes.iterator();
-
-        // Initialize int array for location of a connector
-        int[] loc;
-        // Initialize iterator for subarray of coordinates
-        JsonValue.JsonIterator citr;
-        // Initialize iterator for subarray of types
-        JsonValue.JsonIterator titr;
+    private LevelEditorModel parseConnectors(int targetX, int targetY, ArrayMap<String, Array<Connector>> paths,
+                                             LevelEditorModel model) {
         // Go through each connector given and add it to the model
-        while (coordItr.hasNext()) {
-            // This is now an array of int arrays
-            citr = coordItr.next().iterator();
-            // This is now an array of types
-            titr = typeItr.next().iterator();
-            // Go through subarrays of coordinates/types
-            while (citr.hasNext()) {
-                // Get connector location
-                loc = citr.next().asIntArray();
+        for (Array<Connector> path : paths.values()) {
+            for (Connector connector : path) {
                 // Load connector into level model
-                model.loadConnector(loc[0] + targetX, loc[1] + targetY, titr.next().asString());
+                model.loadConnector(connector.xcoord + targetX, connector.ycoord + targetY, connector.type);
             }
         }
 
@@ -628,86 +599,40 @@ public class LevelEditorParser {
     }
 
     /**
-     * Helper function that loads a target into the level editor, parsing a target JSON
-     * with the given name and storing the data in the given model.
+     * Helper function that loads a target into the level editor, storing the data of the given
+     * target in the given model.
      *
      * @param x             The x-coordinate of the target in the level.
      * @param y             The y-coordinate of the target in the level.
-     * @param targetfile    The name of the file that the target's data is stored in.
-     * @param model         The model to store the parsed target data in.
-     * @param levelfolder   The name of the level that this target belongs to.
+     * @param target        The target, as loaded by the game.
+     * @param model         The model to store the target data in.
      * @return              The model with the target's data included.
      */
-    private LevelEditorModel parseTarget(int x, int y, String targetfile, LevelEditorModel model, String levelfolder) {
-        // Get parser for JSON
-        JsonValue json = new JsonReader().parse(Gdx.files.internal("levels/" + levelfolder + "/targets/" + targetfile));
-        // Initialize iterator for arrays
-        JsonValue.JsonIterator itr;
-
+    private LevelEditorModel parseTarget(int x, int y, TargetModel target, LevelEditorModel model) {
         // Get whether target, and therefore its network, is generic
-        boolean isGeneric = json.getBoolean("isGeneric");
+        boolean isGeneric = target.isGeneric();
 
         // Get main properties of target and load into the level editor
-        model.loadTarget(x, y, json.getString("targetName"), json.getInt("paranoia"),
-                json.getInt("maxStress"), isGeneric, json.getBoolean("isMale"));
+        model.loadTarget(x, y, target.getName(), target.getParanoia(),
+                target.getMaxStress(), isGeneric, target.isMale());
 
         // Load first connectors of this target into the level editor
-        model = parseConnectors(x, y, json.get("firstConnectors"), json.get("firstConnectorTypes"), model);
-
-        // Get nodes
-        JsonValue nodesArr = json.get("pod");
-        itr = nodesArr.iterator();
-
-        // Initializations for parsing of each node
-        // The node itself as a JSON object
-        JsonValue node;
-        // Int array for location of node
-        int[] loc;
-
-        // Iterate through nodes in pod and load them into the level as NodeTiles
-        while (itr.hasNext()) {
-            // Get next node
-            node = itr.next();
-            // Get coordinates
-            loc = node.get("coords").asIntArray();
+        model = parseConnectors(x, y, target.getFirstNodes(), model);
+
+        // Load nodes in pod into the level as NodeTiles
+        for (String node : target.getNodes()) {
             // Load node into level
-            model.loadNode(loc[0]+x, loc[1]+y, node.getString("title"), node.getBoolean("locked"),
-                    node.getString("content"), node.getString("summary"),
-                    intToStressRating(node.getInt("targetStressDamage")),
-                    intToStressRating(node.getInt("playerStressDamage")), isGeneric);
+            Vector2 loc = target.getNodeCoords(node);
+            model.loadNode((int)loc.x+x, (int)loc.y+y, target.getTitle(node), target.getLocked(node),
+                    target.getContent(node), target.getSummary(node),
+                    intToStressRating(target.getTargetStressDamage(node)),
+                    intToStressRating(target.getStressCost(node)), isGeneric);
 
             // Now, need to handle connectors that are the children of this node
-            model = parseConnectors(x, y, node.get("connectorCoords"), node.get("connectorTypes"), model);
+            model = parseConnectors(x, y, target.getChildren(node), model);
         }
 
-        return model;
-
-        /**
         // TODO: get combos working when they're added to the level editor
-        // Get combos
-        // Initializations
-        combos = new Array<TargetModel.Combo>();
-        JsonValue combosArr = json.get("combos");
-        itr = combosArr.iterator();
-        TargetModel.Combo combo;
-        Array<String> relatedFacts = new Array<>();
-
-        // Iterate through combos, create each as a Combo, then add to array of combos
-        while (itr.hasNext()) {
-            node = itr.next();
-
-            // Get related facts
-            nodeArr = node.get("relatedFacts");
-            nodeItr = nodeArr.iterator();
-            relatedFacts.clear();
-            while (nodeItr.hasNext()) {relatedFacts.add(nodeItr.next().asString());}
-            relatedFacts.sort();
-
-            // Construct and store combo
-            combo = new TargetModel.Combo(new Array<>(relatedFacts), node.getString("overwrite"),
-                    node.getString("comboSummary"), node.getInt("comboStressDamage"));
-            combos.add(combo);
-        }
-         */
+        return model;
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,9 @@ package com.adisgrace.games.leveleditor;
 import com.adisgrace.games.GameCanvas;
 import static com.adisgrace.games.leveleditor.LevelEditorConstants.*;
 
+import com.adisgrace.games.util.AssetHandle;
+import com.adisgrace.games.util.Assets;
+import com.adisgrace.games.util.GameConstants;
 import com.adisgrace.games.util.ScreenListener;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputMultiplexer;
@@ -34,13 +37,16 @@ public class LevelEditorStart implements Screen {
     String levelToLoad;
 
     /** Assets for the main menu */
-    private static final Texture TITLE_ASSET = new Texture(Gdx.files.internal("mainmenu/MM_Title_1.png"));
+    private static final AssetHandle<Texture> TITLE_ASSET = Assets.MAIN_MENU_TITLE;
+    /** Background image, shared with the main menu */
+    private Texture background;
 
     /*********************************************** CONSTRUCTOR ***********************************************/
     /**
      * Constructor for a LevelEditorStart.
      */
     public LevelEditorStart() {
+        background = GameConstants.getAsset(TITLE_ASSET);
         // Create canvas and set view and zoom
         canvas = new GameCanvas();
         // Set up camera
@@ -60,7 +66,7 @@ public class LevelEditorStart implements Screen {
         stage.addActor(label);
 
         // New Level button
-        TextButton newLevel = new TextButton("CREATE NEW LEVEL", skin);
+        TextButton newLevel = new TextButton("CREATE NEW LEVEL", getSkin());
         newLevel.setWidth(200);
         newLevel.setPosition((SCREEN_WIDTH / 2f) - (3 * newLevel.getWidth() / 2), 300);
         stage.addActor(newLevel);
@@ -73,13 +79,13 @@ public class LevelEditorStart implements Screen {
         });
 
         // Load Level button
-        TextButton loadLevel = new TextButton("LOAD SAVED LEVEL", skin);
+        TextButton loadLevel = new TextButton("LOAD SAVED LEVEL", getSkin());
         loadLevel.setWidth(200);
         loadLevel.setPosition((SCREEN_WIDTH / 2f) + (loadLevel.getWidth() / 2), 300);
 
         // Create list (lets you select one of a list of options) with the levels as options
         // Must be final so can be used in the load level listener
-        final List levelsList = new List(skin);
+        final List levelsList = new List(getSkin());
         levelsList.setItems(LEVEL_DIRECTORY.list());
 
         // Create scroll pane to ensure list will be scrollable
@@ -157,7 +163,7 @@ public class LevelEditorStart implements Screen {
 
         // Draw background image
         canvas.begin();
-        canvas.draw(TITLE_ASSET, -20, 0, SCREEN_WIDTH+20, SCREEN_HEIGHT);
+        canvas.draw(background, -20, 0, SCREEN_WIDTH+20, SCREEN_HEIGHT);
         canvas.end();
 
         // Draw buttons
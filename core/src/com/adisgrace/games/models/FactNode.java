@@ -100,6 +100,28 @@ public class FactNode {
 
 	}
 
+	/**
+	 * Creates a FactNode whose subtree stress ratings have already been tallied.
+	 *
+	 * @param name 		Name
+	 * @param title		Title
+	 * @param content	Content
+	 * @param summary	Summary
+	 * @param children  Children of the node
+	 * @param x			X-coordinate
+	 * @param y			Y-coordinate
+	 * @param locked	Whether the node is locked or not
+	 * @param tsDmg		Target stress damage
+	 * @param psDmg		Player stress damage
+	 * @param subTree	Amount of {NONE, LOW, MED, HIGH} stress ratings in the subtree of this node
+	 */
+	public FactNode(String name, String title, String content, String summary, ArrayMap<String, Array<Connector>> children,
+					int x, int y, boolean locked, int tsDmg, int psDmg, int[] subTree) {
+		this(name, title, content, summary, children, x, y, locked, tsDmg, psDmg);
+		System.arraycopy(subTree, 0, stressRatingsInSubTree, 0, stressRatingsInSubTree.length);
+		subTreeProcessed = true;
+	}
+
 	/************************************************* GETTERS/SETTERS *************************************************/
 
 	/**
@@ -2,12 +2,24 @@ package com.adisgrace.games.models;
 
 import java.util.*;
 
+import com.adisgrace.games.util.ByteBufferInput;
+import com.adisgrace.games.util.CompiledLevels;
 import com.adisgrace.games.util.GameConstants;
+import com.adisgrace.games.util.LevelCache;
+import com.badlogic.gdx.Files;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
 
 /**
  * "Level" representation.
@@ -38,7 +50,7 @@ public class LevelModel {
     // Player object
     private PlayerModel player;
 
-    // Map of targets and their names
+    // Map of targets and their names, in the order of the level file
     private Map<String, TargetModel> targets;
 
     // Locations of each target in isometric coordinates
@@ -107,9 +119,22 @@ public class LevelModel {
      * @param levelJson Array of target json filenames
      */
     public LevelModel(String levelJson) {
+        this(levelJson, false);
+    }
+
+    /**
+     * Constructs a LevelModel from a list of targets, optionally from the JSON files alone.
+     *
+     * The LevelChecker build tool reads levels from their JSON files this way, to compare them
+     * with the compiled levels.
+     *
+     * @param levelJson Array of target json filenames
+     * @param fromJson  Whether to read the JSON files even if the level is compiled or cached
+     */
+    public LevelModel(String levelJson, boolean fromJson) {
 
         player = new PlayerModel();
-        targets = new HashMap<String, TargetModel>();
+        targets = new LinkedHashMap<String, TargetModel>();
         visibleFacts = new HashMap<String, Array<String>>();
         hackedFacts = new HashMap<String, Array<String>>();
         exposableFacts = new HashMap<String, Array<String>>();
@@ -117,6 +142,39 @@ public class LevelModel {
         contents = new HashMap<String, Map<String, String>>();
 //        TargetModel target;
 
+        // Prefer the compiled level, unless it is missing or out of date, and then the cached one
+        FileHandle compiled = fromJson ? null : CompiledLevels.find(levelJson);
+        if (compiled != null) {
+            readCompiled(compiled);
+        } else {
+            FileHandle cached = fromJson ? null : LevelCache.find(levelJson);
+            if (cached == null || !readCached(cached)) {
+                readJson(levelJson);
+            }
+        }
+
+//        System.out.println("Bosses in level file " + json.get("bosses"));
+//        if(json.get("bosses") != null && json.get("bosses").asStringArray().length > 0)
+//            bosses = new HashSet<>(Arrays.asList(json.get("bosses").asStringArray()));
+//        else bosses = new HashSet<>(targets.keySet());
+        bosses = new HashSet<>();
+        for (String targetname : targets.keySet())
+            if(!targets.get(targetname).isGeneric())
+                bosses.add(targetname);
+        if (bosses.size() == 0)
+            for (String targetname : targets.keySet())
+                bosses.add(targetname);
+
+        n_days = 0;
+        rng = new Random();
+    }
+
+    /**
+     * Reads the level and its targets from their JSON files.
+     *
+     * @param levelJson Path of the level file
+     */
+    private void readJson(String levelJson) {
         JsonValue json = new JsonReader().parse(Gdx.files.internal(levelJson));
         String[] targetJsons = json.get("targets").asStringArray();
         name = json.get("name").asString();
@@ -141,7 +199,7 @@ public class LevelModel {
         //binds each target string to a location in the level
         JsonValue locations = json.get("targetLocs");
         itr = locations.iterator();
-        targetLocs = new HashMap<>();
+        targetLocs = new LinkedHashMap<>();
 
         //binds each target string to a targetModel
         //This for loop assumes that there is an equal amount of targets and targetLocations
@@ -150,29 +208,77 @@ public class LevelModel {
         String[] splitBySlash = levelJson.split("/");
         for(String targetJson: targetJsons){
 //            targets.put(t.getName(), t);
-            TargetModel t = addTarget(splitBySlash[0] + "/" + splitBySlash[1] + "/" + "targets/" + targetJson);
+            TargetModel t = addTarget(new TargetModel(splitBySlash[0] + "/" + splitBySlash[1] + "/" + "targets/" + targetJson));
             targetLocs.put(t.getName(), itr.next().asIntArray());
-            for(String fact: t.getNodes()) {
-                if(!t.getLocked(fact)) {
-                    hackedFacts.get(t.getName()).add(fact);
-                }
-            }
         }
+    }
 
-//        System.out.println("Bosses in level file " + json.get("bosses"));
-//        if(json.get("bosses") != null && json.get("bosses").asStringArray().length > 0)
-//            bosses = new HashSet<>(Arrays.asList(json.get("bosses").asStringArray()));
-//        else bosses = new HashSet<>(targets.keySet());
-        bosses = new HashSet<>();
-        for (String targetname : targets.keySet())
-            if(!targets.get(targetname).isGeneric())
-                bosses.add(targetname);
-        if (bosses.size() == 0)
-            for (String targetname : targets.keySet())
-                bosses.add(targetname);
+    /**
+     * Reads the level and its targets from a compiled level.
+     *
+     * See {@link CompiledLevels} for the format. Levels in local storage, such as those in the
+     * {@link LevelCache}, are memory-mapped rather than streamed.
+     *
+     * @param file  The compiled level
+     */
+    private void readCompiled(FileHandle file) {
+        DataInputStream stream = null;
+        try {
+            DataInput in;
+            if (file.type() == Files.FileType.Local) {
+                in = new ByteBufferInput(file.map());
+            } else {
+                stream = new DataInputStream(new BufferedInputStream(file.read()));
+                in = stream;
+            }
 
-        n_days = 0;
-        rng = new Random();
+            String[] strings = CompiledLevels.readHeader(in);
+            name = CompiledLevels.readString(in, strings);
+            daysLeft = in.readInt();
+            n_cols = in.readInt();
+            n_rows = in.readInt();
+            tutorialPaths = new Array<String>(CompiledLevels.readStrings(in, strings));
+
+            int targetCount = in.readUnsignedShort();
+            targetLocs = new LinkedHashMap<>();
+            for (int i = 0; i < targetCount; i++) {
+                int[] loc = {in.readInt(), in.readInt()};
+                TargetModel t = addTarget(new TargetModel(in, strings));
+                targetLocs.put(t.getName(), loc);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read compiled level " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Reads the level and its targets from an entry of the {@link LevelCache}.
+     *
+     * An entry that cannot be read, such as one that was cut short, would otherwise be found again
+     * on every load. It is deleted instead, and anything read from it is dropped, so that the
+     * level can be read from its JSON files and cached again next time.
+     *
+     * @param file  The cached level
+     *
+     * @return true if the level was read, and false if it should be read from its JSON files
+     */
+    private boolean readCached(FileHandle file) {
+        try {
+            readCompiled(file);
+            return true;
+        } catch (RuntimeException e) {
+            Gdx.app.error("LevelModel", "Discarding unreadable cached level " + file, e);
+            file.delete();
+            targets.clear();
+            targetLocs = null;
+            summaries.clear();
+            contents.clear();
+            hackedFacts.clear();
+            exposableFacts.clear();
+            return false;
+        }
     }
 
     public Map<String, TargetModel> getTargets() {
@@ -374,19 +480,42 @@ public class LevelModel {
     /**
      * Adds target to model.
      * New target world coords are 0,0, but does not change existing coordinates.
-     * @param targetJson name of json file containing target data
+     * Nodes of the target that start unlocked are marked as hacked.
+     * @param target the target to add
      */
-    private TargetModel addTarget(String targetJson){
-        TargetModel target = new TargetModel(targetJson);
+    private TargetModel addTarget(TargetModel target){
         String t = target.getName();
         targets.put(t, target);
         summaries.put(t, new HashMap<String, String>());
         contents.put(t, new HashMap<String, String>());
         hackedFacts.put(t, new Array<String>());
         exposableFacts.put(t, new Array<String>());
+        for(String fact: target.getNodes()) {
+            if(!target.getLocked(fact)) {
+                hackedFacts.get(t).add(fact);
+            }
+        }
         return target;
     }
 
+    /**
+     * Replaces a target of the level with a new copy of it, such as one read again after its
+     * file has changed.
+     *
+     * The target keeps its place in the level, but starts over with only the nodes that begin
+     * unlocked having been hacked. Nothing else in the level is affected.
+     *
+     * @param target the new target, with the same name as the one it replaces
+     * @return whether the level has a target of that name to replace
+     */
+    public boolean replaceTarget(TargetModel target){
+        if (!targets.containsKey(target.getName())) {
+            return false;
+        }
+        addTarget(target);
+        return true;
+    }
+
 
     /**
      * Returns PlayerModel
@@ -1,9 +1,12 @@
 package com.adisgrace.games.models;
 
+import java.io.DataInput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
 
+import com.adisgrace.games.util.CompiledLevels;
 import com.adisgrace.games.util.Connector;
 import com.adisgrace.games.util.GameConstants;
 import com.badlogic.gdx.Gdx;
@@ -11,7 +14,6 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ArrayMap;
 import com.badlogic.gdx.utils.JsonValue;
-import com.badlogic.gdx.utils.JsonReader;
 
 /**
  * "Enemy" representation.
@@ -101,8 +103,42 @@ public class TargetModel {
 	 * @param targetJson		Name of the JSON with all the target's data.
 	 */
 	public TargetModel(String targetJson) {
-		// Get parser for JSON
-		JsonValue json = new JsonReader().parse(Gdx.files.internal(targetJson));
+		// Main properties of the target, which are few enough to gather before reading them
+		final JsonValue json = new JsonValue(JsonValue.ValueType.object);
+		final Array<String> temp = new Array<String>();
+		podDict = new HashMap<>();
+		combos = new Array<Combo>();
+
+		// Nodes and combos are built as soon as they are read, rather than from a parsed copy of the JSON
+		new TargetReader().read(Gdx.files.internal(targetJson), new TargetReader.Listener() {
+			@Override
+			public void property(String key, JsonValue value) {
+				json.addChild(key, value);
+			}
+
+			@Override
+			public void trait(String trait) {
+				temp.add(trait);
+			}
+
+			@Override
+			public void node(TargetReader.Node node) {
+				// Store FactNode in podDict, mapped to name
+				podDict.put(node.nodeName, new FactNode(node.nodeName, node.title, node.content, node.summary,
+						node.children, node.x, node.y, node.locked, node.targetStressDamage, node.playerStressDamage));
+			}
+
+			@Override
+			public void combo(Array<String> relatedFacts, String overwrite, String comboSummary, int comboStressDamage) {
+				relatedFacts.sort();
+				combos.add(new Combo(relatedFacts, overwrite, comboSummary, comboStressDamage));
+			}
+
+			@Override
+			public void firstNodes(ArrayMap<String, Array<Connector>> nodes) {
+				firstNodes = nodes;
+			}
+		});
 
 		// Get main properties of target
 		name = json.getString("targetName");
@@ -113,102 +149,88 @@ public class TargetModel {
 
 		gaslight_reduction = json.getInt("gaslightReduction", 8);
 
-		// Initialize iterator for arrays
-		JsonValue.JsonIterator itr;
-
-		// Get firstNodes
-		firstNodes = mapChildrenToPaths(json.get("firstNodes"), json.get("firstConnectors"),
-				json.get("firstConnectorTypes"));
+		// Get traits
+		traits = new TraitModel(temp);
 
-		// Get nodes
-		JsonValue nodesArr = json.get("pod");
-		itr = nodesArr.iterator();
+		//processes the node tree and gives each node information about its subtree in terms of stress ratings
+		processSubTrees(firstNodes);
 
-		// Initializations for parsing of each node
-		// Dictionary of node names mapped to the relevant FactNode object
-		podDict = new HashMap<>();
-		// Array cache to be used in node parsing
-		JsonValue nodeArr;
-		// The node itself as a JSON object
-		JsonValue node;
-		// Coordinates of node
-		int nodeX;
-		int nodeY;
-		// Children of node, mapped to the paths to them
-		ArrayMap<String, Array<Connector>> children = new ArrayMap<>();
-		// Node converted to a FactNode
-		FactNode fn;
-		// Name of node
-		String nodeName;
-		// Iterator used to iterate through lists within a node
-		JsonValue.JsonIterator nodeItr;
-
-		// Iterate through nodes in pod and map them to their names in podDict
-		while (itr.hasNext()) {
-			// Get next node
-			node = itr.next();
-
-			// Get name
-			nodeName = node.getString("nodeName");
-			// Get coordinates
-			nodeArr = node.get("coords");
-			nodeItr = nodeArr.iterator();
-			nodeX = nodeItr.next().asInt();
-			nodeY = nodeItr.next().asInt();
-
-			// Construct children with children names and paths to those children
-			children = mapChildrenToPaths(node.get("children"), node.get("connectorCoords"), node.get("connectorTypes"));
-
-			// Create FactNode
-			fn = new FactNode(nodeName, node.getString("title"), node.getString("content"),
-					node.getString("summary"), children, nodeX, nodeY, node.getBoolean("locked"),
-					node.getInt("targetStressDamage"), node.getInt("playerStressDamage"));
-
-			// Store FactNode in podDict, mapped to name
-			podDict.put(nodeName, fn);
+		// Initialize other values
+		initState(json.getInt("startingStress", 0), json.getInt("startingSuspicion", 0),
+				json.getString("defeatMessage", null));
+	}
 
-		}
+	/**
+	 * Creates a new Target from its section of a compiled level.
+	 *
+	 * The compiled level holds the same data as the target's JSON, with the subtree stress
+	 * ratings of each node already tallied. See {@link CompiledLevels} for the format.
+	 *
+	 * @param in		The compiled level, positioned at the start of the target
+	 * @param strings	The string table of the compiled level
+	 */
+	public TargetModel(DataInput in, String[] strings) throws IOException {
+		// Get main properties of target
+		name = CompiledLevels.readString(in, strings);
+		paranoia = in.readInt();
+		maxStress = in.readInt();
+		isGeneric = in.readBoolean();
+		isMale = in.readBoolean();
+		gaslight_reduction = in.readInt();
+		int startingStress = in.readInt();
+		int startingSuspicion = in.readInt();
+		String message = CompiledLevels.readString(in, strings);
+		traits = new TraitModel(new Array<String>(CompiledLevels.readStrings(in, strings)));
 
-		// Get traits, UNCOMMENT when traits finished in json
-		Array<String> temp = new Array<String>();
-		JsonValue traitsArr = json.get("traits");
-		itr = traitsArr.iterator();
-		while (itr.hasNext()){temp.add(itr.next().asString());}
-		traits = new TraitModel(temp);
+		// Get firstNodes
+		firstNodes = readChildren(in, strings);
 
-		//processes the node tree and gives each node information about its subtree in terms of stress ratings
-		processSubTrees(firstNodes);
+		// Get nodes, whose subtree ratings were tallied when the level was compiled
+		int podSize = in.readUnsignedShort();
+		podDict = new HashMap<>();
+		for (int i = 0; i < podSize; i++) {
+			String nodeName = CompiledLevels.readString(in, strings);
+			String title = CompiledLevels.readString(in, strings);
+			String content = CompiledLevels.readString(in, strings);
+			String summary = CompiledLevels.readString(in, strings);
+			int nodeX = in.readInt();
+			int nodeY = in.readInt();
+			boolean locked = in.readBoolean();
+			int targetStressDamage = in.readInt();
+			int playerStressDamage = in.readInt();
+			ArrayMap<String, Array<Connector>> children = readChildren(in, strings);
+			int[] subTree = new int[4];
+			for (int k = 0; k < subTree.length; k++) {
+				subTree[k] = in.readInt();
+			}
+			podDict.put(nodeName, new FactNode(nodeName, title, content, summary, children, nodeX, nodeY,
+					locked, targetStressDamage, playerStressDamage, subTree));
+		}
 
-		// Get combos
-		// Initializations
-		combos = new Array<Combo>();
-		JsonValue combosArr = json.get("combos");
-		itr = combosArr.iterator();
-		Combo combo;
-		Array<String> relatedFacts = new Array<>();
-		// Iterate through combos, create each as a Combo, then add to array of combos
-		itr = json.get("combos").iterator();
-		while (itr.hasNext()) {
-			node = itr.next();
-
-			// Get related facts
-			nodeArr = node.get("relatedFacts");
-			nodeItr = nodeArr.iterator();
-			relatedFacts.clear();
-			while (nodeItr.hasNext()) {relatedFacts.add(nodeItr.next().asString());}
-			relatedFacts.sort();
-
-			// Construct and store combo
-			combo = new Combo(new Array<>(relatedFacts), node.getString("overwrite"),
-					node.getString("comboSummary"), node.getInt("comboStressDamage"));
-			System.out.println("Read combo " + relatedFacts + " " + node.getString("overwrite"));
-			combos.add(combo);
+		// Get combos, whose related facts were sorted when the level was compiled
+		int comboCount = in.readUnsignedShort();
+		combos = new Array<Combo>(comboCount);
+		for (int i = 0; i < comboCount; i++) {
+			Array<String> relatedFacts = new Array<>(CompiledLevels.readStrings(in, strings));
+			String overwrite = CompiledLevels.readString(in, strings);
+			String comboSummary = CompiledLevels.readString(in, strings);
+			combos.add(new Combo(relatedFacts, overwrite, comboSummary, in.readInt()));
 		}
 
-		// Initialize other values
-		stress = json.getInt("startingStress", 0);
-		suspicion = json.getInt("startingSuspicion", 0);
-		defeatMessage = json.getString("defeatMessage", name + " breaks under the pressure.");
+		initState(startingStress, startingSuspicion, message);
+	}
+
+	/**
+	 * Sets up the state that a target starts the level in.
+	 *
+	 * @param startingStress	Stress that the target starts with
+	 * @param startingSuspicion	Suspicion that the target starts with
+	 * @param message			Message to display when the target is defeated, or null for the default
+	 */
+	private void initState(int startingStress, int startingSuspicion, String message) {
+		stress = startingStress;
+		suspicion = startingSuspicion;
+		defeatMessage = message != null ? message : name + " breaks under the pressure.";
 		naturallySuspiciousCheck = false;
 		state = TargetState.UNAWARE;
 		distractedTurns = 0;
@@ -217,6 +239,28 @@ public class TargetModel {
 		rand = new Random();
 	}
 
+	/**
+	 * Helper function that reads child names mapped to the paths to them from a compiled level.
+	 *
+	 * @param in		The compiled level
+	 * @param strings	The string table of the compiled level
+	 * @return			Hashmap of child names mapped to the path to them
+	 */
+	private static ArrayMap<String, Array<Connector>> readChildren(DataInput in, String[] strings) throws IOException {
+		int count = in.readUnsignedShort();
+		ArrayMap<String, Array<Connector>> childrenToPaths = new ArrayMap<>(count);
+		for (int i = 0; i < count; i++) {
+			String child = CompiledLevels.readString(in, strings);
+			int length = in.readUnsignedShort();
+			Array<Connector> path = new Array<>(length);
+			for (int j = 0; j < length; j++) {
+				path.add(CompiledLevels.unpackConnector(in.readInt()));
+			}
+			childrenToPaths.put(child, path);
+		}
+		return childrenToPaths;
+	}
+
 	/**
 	 * helper function that processes the array of nodes and assigns subtree stress rating values to the array of nodes and all its children
 	 * @param nodes the array of nodes to update. Namely firstNodes
@@ -241,81 +285,6 @@ public class TargetModel {
 		}
 	}
 
-	/**
-	 * Helper function that constructs a hashmap of child names mapped to the path to that child.
-	 *
-	 * @param childNames		Names of the child nodes
-	 * @param childPathCoords	Coordinates of the connectors in the paths to each child
-	 * @param childPathTypes	Types of the connectors in the paths to each child
-	 * @return					Hashmap of child names mapped to the path to them
-	 */
-	private ArrayMap<String, Array<Connector>> mapChildrenToPaths(JsonValue childNames, JsonValue childPathCoords,
-																  JsonValue childPathTypes) {
-		// First, get names of child nodes
-		JsonValue.JsonIterator itr = childNames.iterator();
-		// Now get paths that lead to those child nodes
-		Array<Array<Connector>> paths = readPaths(childPathCoords, childPathTypes);
-		// Construct and store hashmap of child nodes mapped to the paths to them
-		int k=0;
-		ArrayMap<String, Array<Connector>> childrenToPaths = new ArrayMap<>();
-		while (itr.hasNext()){
-			childrenToPaths.put(itr.next().asString(), paths.get(k));
-			k++;
-		}
-
-		return childrenToPaths;
-	}
-
-	/**
-	 * Helper function that reads a JSON value for connector coords and returns them in the correct format
-	 *
-	 * @param connectorCoordsArr	The JSON value to parse
-	 * @return						The JSON value, correctly parsed
-	 */
-	private Array<Array<Connector>> readPaths(JsonValue connectorCoordsArr, JsonValue connectorTypesArr) {
-		// Initialize iterators for connector coordinates
-		JsonValue.JsonIterator coordPathItr = connectorCoordsArr.iterator();
-		JsonValue.JsonIterator coordConnItr;
-		// Initialize JSON array of coordinates in a path
-		JsonValue coordPathArr;
-		// Initialize array for a single coordinate
-		int[] coordArr;
-
-		// Initialize iterators for connector types
-		JsonValue.JsonIterator typePathItr = connectorTypesArr.iterator();
-		JsonValue.JsonIterator typeConnItr;
-		// Initialize JSON array of connector types in a path
-		JsonValue typePathArr;
-
-		// Initialize array of connectors representing a path
-		Array<Connector> path;
-		// Initialize array of all paths that are read
-		Array<Array<Connector>> allPaths = new Array<>();
-
-		// Iterate through JSON array of paths
-		while (coordPathItr.hasNext()){
-			// Create new path
-			path = new Array<>();
-
-			// Go through connectors in in path
-			coordPathArr = coordPathItr.next();
-			coordConnItr = coordPathArr.iterator();
-			typePathArr = typePathItr.next();
-			typeConnItr = typePathArr.iterator();
-			while (coordConnItr.hasNext()) {
-				// Get coordinate from JSON
-				coordArr = coordConnItr.next().asIntArray();
-				// Construct connector and store in path
-				path.add(new Connector(coordArr[0],coordArr[1],typeConnItr.next().asString()));
-			}
-
-			// Add completed path to array of paths
-			allPaths.add(path);
-		}
-
-		return allPaths;
-	}
-
 	/************************************************* TARGET METHODS *************************************************/
 
 	/**
@@ -373,6 +342,18 @@ public class TargetModel {
 		return maxStress;
 	}
 
+	/**
+	 * Returns the current paranoia of this target.
+	 *
+	 * Paranoia is the number of turns between each increase in suspicion, and may be changed
+	 * over the course of the level by paranoiac targets.
+	 *
+	 * @return the target's current paranoia.
+	 */
+	public int getParanoia() {
+		return paranoia;
+	}
+
 	/**
 	 * Returns the current suspicion level of this target.
 	 * 
@@ -771,6 +752,16 @@ public class TargetModel {
 		return getFactNode(name).getPlayerStressDmg();
 	}
 
+	/**
+	 * Returns the target stress damage of the node with the given name.
+	 *
+	 * @param name	Name of the node whose stress damage we want
+	 * @return 		Stress damage
+	 */
+	public int getTargetStressDamage(String name) {
+		return getFactNode(name).getTargetStressDmg();
+	}
+
 	/**
 	 * Returns the target stress damage rating of the node with the given name
 	 * @param name  Name of the node whose summary we want
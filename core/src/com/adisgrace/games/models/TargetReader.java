@@ -0,0 +1,311 @@
+package com.adisgrace.games.models;
+
+import com.adisgrace.games.util.Connector;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ArrayMap;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * Reads a target JSON as a stream of events, without building a {@link JsonValue} tree of it.
+ *
+ * The tokens of the file are handed over one at a time by {@link JsonReader}, and gathered here
+ * into the parts of a target as soon as each is complete: every node of the pod is passed on as
+ * it is closed, along with the paths to its children, and so is every combo. Only the node or
+ * combo currently being read is held on to, so reading a target takes little more memory than
+ * whatever the {@link Listener} builds from it.
+ *
+ * Keys may appear in any order. Properties of the target itself are passed on as they are read,
+ * and so may arrive after its nodes. The paths to the first nodes are passed on last, once the
+ * whole file has been read.
+ */
+public class TargetReader extends JsonReader {
+    /**
+     * Receives the parts of a target as they are read.
+     */
+    public interface Listener {
+        /**
+         * Called for each property of the target itself, such as "targetName" or "paranoia".
+         *
+         * @param key   Name of the property
+         * @param value Value of the property
+         */
+        void property(String key, JsonValue value);
+
+        /**
+         * Called for each trait of the target.
+         *
+         * @param trait Name of the trait
+         */
+        void trait(String trait);
+
+        /**
+         * Called for each node of the pod, once all of it has been read.
+         *
+         * @param node  The node, which is not reused afterwards
+         */
+        void node(Node node);
+
+        /**
+         * Called for each combo of the target, once all of it has been read.
+         *
+         * @param relatedFacts      Names of the facts that form the combo, in the order given
+         * @param overwrite         Name of the fact that the combo overwrites
+         * @param comboSummary      Summary that replaces that of the overwritten fact
+         * @param comboStressDamage Stress damage that replaces that of the overwritten fact
+         */
+        void combo(Array<String> relatedFacts, String overwrite, String comboSummary, int comboStressDamage);
+
+        /**
+         * Called once the whole target has been read, with the nodes first shown and the paths to them.
+         *
+         * @param firstNodes    Names of the first nodes, mapped to the paths from the target to them
+         */
+        void firstNodes(ArrayMap<String, Array<Connector>> firstNodes);
+    }
+
+    /**
+     * A single node of a pod, as it is stored in the JSON.
+     */
+    public static class Node {
+        /** Name of the node */
+        public String nodeName;
+        /** Title, content and summary of the node */
+        public String title, content, summary;
+        /** Coordinates of the node relative to the target */
+        public int x, y;
+        /** Whether the node starts locked */
+        public boolean locked;
+        /** Stress damage dealt to the target and to the player */
+        public int targetStressDamage, playerStressDamage;
+        /** Names of the children of the node, mapped to the paths to them */
+        public ArrayMap<String, Array<Connector>> children;
+    }
+
+    /**
+     * Paths to children, gathered from the three arrays that they are split over.
+     */
+    private static class Paths {
+        /** Names of the children */
+        Array<String> names = new Array<String>();
+        /** Coordinates of the connectors of each path, as x and y in turn */
+        Array<IntArray> coords = new Array<IntArray>();
+        /** Types of the connectors of each path */
+        Array<Array<String>> types = new Array<Array<String>>();
+
+        /**
+         * Returns the children mapped to the paths to them, and clears the gathered arrays.
+         *
+         * @return the children mapped to the paths to them
+         */
+        ArrayMap<String, Array<Connector>> build() {
+            ArrayMap<String, Array<Connector>> children = new ArrayMap<String, Array<Connector>>(names.size);
+            for (int i = 0; i < names.size; i++) {
+                IntArray pathCoords = coords.get(i);
+                Array<String> pathTypes = types.get(i);
+                Array<Connector> path = new Array<Connector>(pathTypes.size);
+                for (int j = 0; j < pathTypes.size; j++) {
+                    path.add(new Connector(pathCoords.get(j * 2), pathCoords.get(j * 2 + 1), pathTypes.get(j)));
+                }
+                children.put(names.get(i), path);
+            }
+            names.clear();
+            coords.clear();
+            types.clear();
+            return children;
+        }
+    }
+
+    /** Depth of the values of the target itself */
+    private static final int TARGET = 1;
+    /** Depth of the elements of a top level array */
+    private static final int ELEMENT = 2;
+    /** Depth of the values of a node or combo */
+    private static final int ENTRY = 3;
+
+    /** Receiver of the parts of the target */
+    private Listener listener;
+    /** Names of the objects and arrays enclosing the current token, null for array elements */
+    private Array<String> path = new Array<String>();
+    /** Paths to the first nodes */
+    private Paths firstPaths = new Paths();
+    /** Paths to the children of the node being read */
+    private Paths nodePaths = new Paths();
+    /** The node being read */
+    private Node node;
+    /** Coordinates of the node being read */
+    private IntArray nodeCoords = new IntArray(2);
+    /** The combo being read */
+    private Array<String> relatedFacts;
+    private String overwrite, comboSummary;
+    private int comboStressDamage;
+
+    /**
+     * Reads a target file, passing its parts to the given listener.
+     *
+     * @param file      The target JSON
+     * @param listener  Receiver of the parts of the target
+     */
+    public void read(FileHandle file, Listener listener) {
+        this.listener = listener;
+        path.clear();
+        try {
+            parse(file);
+        } finally {
+            this.listener = null;
+        }
+    }
+
+    @Override
+    protected void startObject(String name) {
+        path.add(name);
+        if (path.size == ENTRY && inSection("pod")) {
+            node = new Node();
+            nodeCoords.clear();
+        } else if (path.size == ENTRY && inSection("combos")) {
+            relatedFacts = new Array<String>();
+            overwrite = null;
+            comboSummary = null;
+            comboStressDamage = 0;
+        }
+    }
+
+    @Override
+    protected void startArray(String name) {
+        path.add(name);
+        if (path.size == ENTRY && inSection("firstConnectors")) {
+            firstPaths.coords.add(new IntArray());
+        } else if (path.size == ENTRY && inSection("firstConnectorTypes")) {
+            firstPaths.types.add(new Array<String>());
+        } else if (path.size == ENTRY + 2 && inNode("connectorCoords")) {
+            nodePaths.coords.add(new IntArray());
+        } else if (path.size == ENTRY + 2 && inNode("connectorTypes")) {
+            nodePaths.types.add(new Array<String>());
+        }
+    }
+
+    @Override
+    protected void pop() {
+        if (path.size == ENTRY && inSection("pod")) {
+            node.x = nodeCoords.size > 0 ? nodeCoords.get(0) : 0;
+            node.y = nodeCoords.size > 1 ? nodeCoords.get(1) : 0;
+            node.children = nodePaths.build();
+            listener.node(node);
+            node = null;
+        } else if (path.size == ENTRY && inSection("combos")) {
+            listener.combo(relatedFacts, overwrite, comboSummary, comboStressDamage);
+            relatedFacts = null;
+        } else if (path.size == TARGET) {
+            listener.firstNodes(firstPaths.build());
+        }
+        path.pop();
+    }
+
+    @Override
+    protected void string(String name, String value) {
+        if (path.size == TARGET) {
+            listener.property(name, new JsonValue(value));
+        } else if (path.size == ELEMENT && inSection("traits")) {
+            listener.trait(value);
+        } else if (path.size == ELEMENT && inSection("firstNodes")) {
+            firstPaths.names.add(value);
+        } else if (path.size == ENTRY && inSection("firstConnectorTypes")) {
+            firstPaths.types.peek().add(value);
+        } else if (path.size == ENTRY && inSection("pod")) {
+            if ("nodeName".equals(name)) {
+                node.nodeName = value;
+            } else if ("title".equals(name)) {
+                node.title = value;
+            } else if ("content".equals(name)) {
+                node.content = value;
+            } else if ("summary".equals(name)) {
+                node.summary = value;
+            }
+        } else if (path.size == ENTRY + 1 && inNode("children")) {
+            nodePaths.names.add(value);
+        } else if (path.size == ENTRY + 2 && inNode("connectorTypes")) {
+            nodePaths.types.peek().add(value);
+        } else if (path.size == ENTRY && inSection("combos")) {
+            if ("overwrite".equals(name)) {
+                overwrite = value;
+            } else if ("comboSummary".equals(name)) {
+                comboSummary = value;
+            }
+        } else if (path.size == ENTRY + 1 && inSection("combos") && "relatedFacts".equals(path.get(ENTRY))) {
+            relatedFacts.add(value);
+        }
+    }
+
+    @Override
+    protected void number(String name, double value, String stringValue) {
+        if (path.size == TARGET) {
+            listener.property(name, new JsonValue(value, stringValue));
+        } else {
+            integer(name, (int) value);
+        }
+    }
+
+    @Override
+    protected void number(String name, long value, String stringValue) {
+        if (path.size == TARGET) {
+            listener.property(name, new JsonValue(value, stringValue));
+        } else {
+            integer(name, (int) value);
+        }
+    }
+
+    @Override
+    protected void bool(String name, boolean value) {
+        if (path.size == TARGET) {
+            listener.property(name, new JsonValue(value));
+        } else if (path.size == ENTRY && inSection("pod") && "locked".equals(name)) {
+            node.locked = value;
+        }
+    }
+
+    /**
+     * Handles a number inside the target, all of which are read as ints.
+     *
+     * @param name  Name of the number, or null for an array element
+     * @param value The number
+     */
+    private void integer(String name, int value) {
+        if (path.size == ENTRY + 1 && inSection("firstConnectors")) {
+            firstPaths.coords.peek().add(value);
+        } else if (path.size == ENTRY && inSection("pod")) {
+            if ("targetStressDamage".equals(name)) {
+                node.targetStressDamage = value;
+            } else if ("playerStressDamage".equals(name)) {
+                node.playerStressDamage = value;
+            }
+        } else if (path.size == ENTRY + 1 && inNode("coords")) {
+            nodeCoords.add(value);
+        } else if (path.size == ENTRY + 3 && inNode("connectorCoords")) {
+            nodePaths.coords.peek().add(value);
+        } else if (path.size == ENTRY && inSection("combos") && "comboStressDamage".equals(name)) {
+            comboStressDamage = value;
+        }
+    }
+
+    /**
+     * Returns true if the current token is inside the given top level value of the target.
+     *
+     * @param key   Name of the top level value
+     * @return      true if the current token is inside it
+     */
+    private boolean inSection(String key) {
+        return path.size > TARGET && key.equals(path.get(TARGET));
+    }
+
+    /**
+     * Returns true if the current token is inside the given value of a node.
+     *
+     * @param key   Name of the value of the node
+     * @return      true if the current token is inside it
+     */
+    private boolean inNode(String key) {
+        return path.size > ENTRY && inSection("pod") && key.equals(path.get(ENTRY));
+    }
+}
@@ -16,6 +16,10 @@
  */
 package com.adisgrace.games.util;
 
+import com.adisgrace.games.LevelController;
+import com.adisgrace.games.StartupTrace;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.*;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
@@ -23,14 +27,20 @@ import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
 import com.badlogic.gdx.graphics.g2d.*;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
 import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import java.util.Arrays;
 
 /**
  * An asset manager that uses a JSON file to define its assets.
@@ -44,8 +54,7 @@ import com.badlogic.gdx.utils.ObjectMap;
  * objects.  However, it also requires {@link AssetParser} objects.  An asset parser
  * takes an JSON entry in the directory and instructs the appropriate loader how to
  * load that file.  This class has built in parsers for the classes {@link Texture}, 
- * {@link TextureRegion},  {@link BitmapFont},
- * and {@link JsonValue}.
+ * {@link TextureRegion}, {@link Sound} and {@link Skin}.
  *
  * If you wish to add custom assets, you need to add BOTH a custom {@link AssetLoader}
  * and a custom {@link AssetParser} to this manager.  While a type can only have one
@@ -56,8 +65,28 @@ import com.badlogic.gdx.utils.ObjectMap;
  * audio assets, fonts, and other JSON files.  To add more assets, you will need to
  * extend this class.
  *
+ * Assets may also be grouped into named scopes, listed in the "scopes" section of the
+ * JSON as arrays of keys (a key ending in * matches every key starting with the rest).
+ * Assets in a scope are not loaded by {@link #loadAssets}, but only while the scope
+ * is held with {@link #acquireScope}, and are unloaded once every holder has called
+ * {@link #releaseScope}.  Everything else is global, and stays loaded throughout.
+ * Holding counts are kept per file by the underlying {@link AssetManager}, so an
+ * asset shared between scopes stays loaded while any of them is held.
+ *
+ * The "level" scope is never acquired by name.  It lists the keys that belong to
+ * individual levels, which are held through scopes named {@link #LEVEL_SCOPE} followed
+ * by the level, each with just the keys that its level needs.
  */
 public class AssetDirectory extends AssetManager {
+    /** The scope of assets only needed by the main menu */
+    public static final String MENU_SCOPE = "menu";
+    /** The scope of assets only needed by the tutorial screen */
+    public static final String TUTORIAL_SCOPE = "tutorial";
+    /** The scope of assets only needed by the level editor */
+    public static final String EDITOR_SCOPE = "editor";
+    /** The prefix of the scopes of assets only needed by a single level */
+    public static final String LEVEL_SCOPE = "level:";
+
     /** The resolver (converting strings to file handles) */
     protected FileHandleResolver resolver;
     /** The asset directory of this asset manager */
@@ -66,6 +95,20 @@ public class AssetDirectory extends AssetManager {
     protected Index contents;
     /** The dedicated loader for the {@link Index} class */
     protected DirectoryLoader topLoader;
+    /** The chooser for compiled texture variants */
+    protected CompressedTextures compressed;
+    /** The descriptor each file was last queued with, so that scoped assets can be loaded later */
+    protected ObjectMap<String, AssetDescriptor<?>> descriptors = new ObjectMap<String, AssetDescriptor<?>>();
+    /** The files that are only loaded while a scope holds them */
+    protected ObjectSet<String> scoped = new ObjectSet<String>();
+    /** The files held by each acquired scope */
+    protected ObjectMap<String, Array<String>> heldFiles = new ObjectMap<String, Array<String>>();
+    /** The number of holders of each acquired scope */
+    protected ObjectIntMap<String> holders = new ObjectIntMap<String>();
+    /** The assets looked up by {@link AssetHandle}, by the index of the handle */
+    protected Object[] slots = new Object[0];
+    /** The file that the asset in each slot was loaded from */
+    protected String[] slotFiles = new String[0];
 
     /**
      * This class represents the top level index of an asset directory.
@@ -104,6 +147,7 @@ public class AssetDirectory extends AssetManager {
         @Override
         public void finishedLoading(AssetManager manager, String fileName, Class type) {
             contents = manager.get( fileName, Index.class );
+            deferScopedAssets();
         }
     };
 
@@ -149,14 +193,34 @@ public class AssetDirectory extends AssetManager {
         setLoader( TextureRegion.class, new TextureRegionLoader( resolver ) );
 
         setLoader( JsonValue.class, new JsonValueLoader( resolver ) );
+        setLoader( LevelController.class, new LevelLoader( resolver ) );
         // Why not?
         setLoader( Skin.class, new SkinLoader( resolver ) );
         setLoader( ParticleEffect.class, new ParticleEffectLoader( resolver ) );
         setLoader( PolygonRegion.class, new PolygonRegionLoader( resolver ) );
 
         // And now the default parsers
-        topLoader.addParser( new TextureParser() );
+        compressed = new CompressedTextures( resolver );
+        topLoader.addParser( new TextureParser( compressed ) );
         topLoader.addParser( new TextureRegionParser() );
+        topLoader.addParser( new SoundParser() );
+        topLoader.addParser( new SkinParser() );
+    }
+
+    /**
+     * Sets the loader for the given type and file suffix.
+     *
+     * While the {@link StartupTrace} is recording, the loader is wrapped so that every asset it
+     * loads is recorded as well.
+     *
+     * @param type      the type of the asset
+     * @param suffix    the suffix the filename must have for this loader to be used
+     * @param loader    the loader
+     */
+    @Override
+    public synchronized <T, P extends AssetLoaderParameters<T>> void setLoader(Class<T> type, String suffix,
+                                                                               AssetLoader<T, P> loader) {
+        super.setLoader( type, suffix, StartupTrace.isEnabled() ? TracedLoaders.wrap( loader ) : loader );
     }
 
     /**
@@ -170,6 +234,263 @@ public class AssetDirectory extends AssetManager {
         return (float)getLoadedAssets()/(getLoadedAssets()+getQueuedAssets());
     }
 
+    /**
+     * Queues an asset for loading, remembering how it was queued.
+     *
+     * Directory parsers queue every asset through here, so the same parameters can be
+     * used when a scoped asset is loaded later on.
+     *
+     * @param fileName  the file name (interpretation depends on {@link AssetLoader})
+     * @param type      the type of the asset
+     * @param parameter parameters for the AssetLoader
+     */
+    @Override
+    public synchronized <T> void load(String fileName, Class<T> type, AssetLoaderParameters<T> parameter) {
+        descriptors.put( fileName, new AssetDescriptor<T>( fileName, type, parameter ) );
+        super.load( fileName, type, parameter );
+    }
+
+    /**
+     * Unloads an asset, forgetting it wherever it was looked up by {@link AssetHandle}.
+     *
+     * The asset is only disposed once nothing else holds it, but its slots are cleared either
+     * way, as are the slots of any dependencies that were unloaded with it.  They are filled
+     * again on the next lookup of each handle.
+     *
+     * @param fileName  the file name of the asset
+     */
+    @Override
+    public synchronized void unload(String fileName) {
+        super.unload( fileName );
+        for (int ii = 0; ii < slots.length; ii++) {
+            if (slotFiles[ii] != null && (slotFiles[ii].equals( fileName ) || !isLoaded( slotFiles[ii] ))) {
+                slots[ii] = null;
+                slotFiles[ii] = null;
+            }
+        }
+    }
+
+    /**
+     * Takes scoped assets back out of the loading queue, once the directory has been read.
+     *
+     * A file is only left out if no global key refers to it.
+     */
+    private void deferScopedAssets() {
+        JsonValue scopes = contents.directory.get( "scopes" );
+        if (scopes == null) {
+            return;
+        }
+        Array<String> patterns = new Array<String>();
+        for (JsonValue scope : scopes) {
+            patterns.addAll( scope.asStringArray() );
+        }
+
+        ObjectSet<String> global = new ObjectSet<String>();
+        for (ObjectMap<String, String> category : contents.keymap.values()) {
+            for (ObjectMap.Entry<String, String> entry : category.entries()) {
+                if (matches( entry.key, patterns )) {
+                    scoped.add( entry.value );
+                } else {
+                    global.add( entry.value );
+                }
+            }
+        }
+        for (String file : global) {
+            scoped.remove( file );
+        }
+        for (String file : scoped) {
+            if (contains( file )) {
+                unload( file );
+            }
+        }
+    }
+
+    /**
+     * Returns true if the key matches any of the given scope keys.
+     *
+     * @param key       the asset directory key
+     * @param patterns  the scope keys, each either a key or a prefix followed by *
+     *
+     * @return true if the key matches any of the given scope keys
+     */
+    private static boolean matches(String key, Array<String> patterns) {
+        for (String pattern : patterns) {
+            if (pattern.endsWith( "*" ) ? key.startsWith( pattern.substring( 0, pattern.length() - 1 ) )
+                                        : key.equals( pattern )) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Holds a scope listed in the asset directory, queueing its assets if it was not held.
+     *
+     * The assets load along with any others on the following updates. Use
+     * {@link #finishLoadingScope} to wait for them.
+     *
+     * @param scope the scope name
+     */
+    public void acquireScope(String scope) {
+        JsonValue patterns = contents.directory.has( "scopes" ) ? contents.directory.get( "scopes" ).get( scope ) : null;
+        if (patterns == null) {
+            throw new GdxRuntimeException( "Unknown asset scope: " + scope );
+        }
+        Array<String> prefixes = new Array<String>( patterns.asStringArray() );
+        Array<String> keys = new Array<String>();
+        for (ObjectMap<String, String> category : contents.keymap.values()) {
+            for (String key : category.keys()) {
+                if (matches( key, prefixes )) {
+                    keys.add( key );
+                }
+            }
+        }
+        acquireScope( scope, keys );
+    }
+
+    /**
+     * Holds a scope made up of the given directory keys, queueing them if it was not held.
+     *
+     * This is used for scopes that are not listed in the directory, such as those of levels.
+     * The keys are only read the first time the scope is acquired.
+     *
+     * @param scope the scope name
+     * @param keys  the asset directory keys in the scope
+     */
+    public void acquireScope(String scope, Array<String> keys) {
+        if (holders.getAndIncrement( scope, 0, 1 ) > 0) {
+            return;
+        }
+        Array<String> files = new Array<String>();
+        for (String key : keys) {
+            String file = getFile( key );
+            if (file == null) {
+                throw new GdxRuntimeException( "Asset scope " + scope + " has unknown key: " + key );
+            }
+            files.add( file );
+            load( descriptors.get( file ) );
+        }
+        heldFiles.put( scope, files );
+    }
+
+    /**
+     * Lets go of a scope, unloading any of its assets that nothing else holds.
+     *
+     * @param scope the scope name
+     */
+    public void releaseScope(String scope) {
+        int count = holders.get( scope, 0 );
+        if (count == 0) {
+            throw new GdxRuntimeException( "Asset scope not held: " + scope );
+        }
+        if (count > 1) {
+            holders.put( scope, count - 1 );
+            return;
+        }
+        holders.remove( scope, 0 );
+        for (String file : heldFiles.remove( scope )) {
+            unload( file );
+        }
+    }
+
+    /**
+     * Returns true if every asset of a held scope has been loaded.
+     *
+     * @param scope the scope name
+     *
+     * @return true if every asset of a held scope has been loaded
+     */
+    public boolean isScopeLoaded(String scope) {
+        Array<String> files = heldFiles.get( scope );
+        if (files == null) {
+            return false;
+        }
+        for (String file : files) {
+            if (!isLoaded( file )) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Blocks until every asset of a held scope has been loaded.
+     *
+     * @param scope the scope name
+     */
+    public void finishLoadingScope(String scope) {
+        Array<String> files = heldFiles.get( scope );
+        if (files == null) {
+            throw new GdxRuntimeException( "Asset scope not held: " + scope );
+        }
+        for (String file : files) {
+            finishLoadingAsset( file );
+        }
+    }
+
+    /**
+     * Returns the file name for the given directory key, of any type.
+     *
+     * @param key   the asset directory key
+     *
+     * @return the file name for the given directory key, or null if there is none
+     */
+    private String getFile(String key) {
+        for (ObjectMap<String, String> category : contents.keymap.values()) {
+            String file = category.get( key, null );
+            if (file != null) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets whether textures should be loaded from their compiled variants when possible.
+     *
+     * Compiled variants are written by the desktop TextureCompiler tool, and are skipped if the
+     * tool has not been run. This only affects assets loaded after the call.
+     *
+     * @param enabled   Whether to use compiled texture variants
+     */
+    public void setCompressedTextures(boolean enabled) {
+        compressed.setEnabled( enabled );
+    }
+
+    /**
+     * Uploads a loaded texture again from its file, after the file has changed.
+     *
+     * The texture is loaded again in place, so that everything holding it, including the
+     * slots of {@link AssetHandle}s, shows the new image straight away.  If a compiled variant
+     * was loaded instead, it is out of date, and the changed file itself is read.
+     *
+     * @param file  the texture file name, as given in the asset directory
+     *
+     * @return true if a loaded texture was read from the file
+     */
+    public boolean reloadTexture(String file) {
+        ObjectMap<String, String> keys = contents == null ? null : contents.keymap.get( Texture.class, null );
+        if (keys == null) {
+            return false;
+        }
+        for (String loaded : keys.values()) {
+            if (!loaded.equals( file ) && !loaded.equals( CompressedTextures.etc1Path( file ) )
+                    && !loaded.equals( CompressedTextures.rgbPath( file ) )
+                    && !loaded.equals( CompressedTextures.rgbaPath( file ) )) {
+                continue;
+            }
+            if (!isLoaded( loaded, Texture.class )) {
+                return false;
+            }
+            Texture texture = get( loaded, Texture.class );
+            TextureData data = texture.getTextureData();
+            Pixmap.Format format = CompressedTextures.isCompiled( loaded ) ? Pixmap.Format.RGBA8888 : data.getFormat();
+            texture.load( TextureData.Factory.loadFromFile( resolver.resolve( file ), format, data.useMipMaps() ) );
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Returns the file name for the asset directory.
      *
@@ -199,17 +520,29 @@ public class AssetDirectory extends AssetManager {
      * Unloads all assets previously loaded by {@link #loadAssets}.
      *
      * Assets loaded manually (e.g. not via the asset directory JSON) will not be
-     * affected and will remain in this asset manager.
+     * affected and will remain in this asset manager.  Any scopes still held are
+     * released.
      */
     public void unloadAssets() {
         if (contents == null) {
             return;
         }
+        // Each scope loads its files once, however many holders it has
+        for (Array<String> files : heldFiles.values()) {
+            for (String filename : files) {
+                unload( filename );
+            }
+        }
+        heldFiles.clear();
+        holders.clear();
         for (ObjectMap<String, String> category : contents.keymap.values()) {
             for (String filename : category.values()) {
-                unload( filename );
+                if (!scoped.contains( filename )) {
+                    unload( filename );
+                }
             }
         }
+        scoped.clear();
         contents = null;
     }
     
@@ -294,6 +627,41 @@ public class AssetDirectory extends AssetManager {
         return get( filename, type );
     }
 
+    /**
+     * Returns the asset associated with the given handle
+     *
+     * The asset is looked up by its key the first time, and is kept in the slot of the
+     * handle from then on, until its file is unloaded.  As with {@link #getEntry(String, Class)},
+     * the method {@link #loadAssets} must have been called for this method to return a value.
+     *
+     * @param handle    the handle of the asset, from {@link Assets}
+     *
+     * @return the asset associated with the given handle
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getEntry(AssetHandle<T> handle) {
+        int index = handle.getIndex();
+        if (index < slots.length && slots[index] != null) {
+            return (T)slots[index];
+        }
+        ObjectMap<String, String> keys = contents.keymap.get( handle.getType(), null );
+        String filename = keys == null ? null : keys.get( handle.getKey(), null );
+        if (filename == null) {
+            return null;
+        }
+        T asset = get( filename, handle.getType() );
+        if (asset != null) {
+            if (index >= slots.length) {
+                int length = Math.max( index + 1, slots.length * 2 );
+                slots = Arrays.copyOf( slots, length );
+                slotFiles = Arrays.copyOf( slotFiles, length );
+            }
+            slots[index] = asset;
+            slotFiles[index] = filename;
+        }
+        return asset;
+    }
+
     /**
      * Returns true if there is an asset associated with the given directory key
      * 
@@ -0,0 +1,66 @@
+package com.adisgrace.games.util;
+
+/**
+ * A typed reference to an entry of an asset directory.
+ *
+ * Handles are not made by hand. Every entry of assets.json has one in the generated
+ * {@link Assets} class, numbered by the order of the directory, and
+ * {@link AssetDirectory#getEntry(AssetHandle)} keeps each loaded asset in the slot of that
+ * number. Looking an asset up by its handle is then an array access, rather than a search by
+ * type and key, and a handle whose entry has been removed from the directory no longer compiles.
+ *
+ * @param <T>   The type that the entry is loaded as
+ */
+public final class AssetHandle<T> {
+    /** The slot of this entry */
+    private final int index;
+    /** The asset directory key */
+    private final String key;
+    /** The type that the entry is loaded as */
+    private final Class<T> type;
+
+    /**
+     * Creates a handle for an entry of the asset directory.
+     *
+     * @param index The slot of the entry
+     * @param key   The asset directory key
+     * @param type  The type that the entry is loaded as
+     */
+    public AssetHandle(int index, String key, Class<T> type) {
+        this.index = index;
+        this.key = key;
+        this.type = type;
+    }
+
+    /**
+     * Returns the slot of this entry.
+     *
+     * @return the slot of this entry
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the asset directory key.
+     *
+     * @return the asset directory key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the type that the entry is loaded as.
+     *
+     * @return the type that the entry is loaded as
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return key + " (" + type.getSimpleName() + ")";
+    }
+}
@@ -0,0 +1,193 @@
+package com.adisgrace.games.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Finds, reads and writes the compiled levels that the desktop LevelCompiler tool writes.
+ *
+ * A compiled level holds a level file together with every target file it refers to, so loading
+ * it reads one small file instead of parsing several large JSON files. It lives under
+ * {@link CompressedTextures#DIRECTORY}, at the path of the level file with {@link #SUFFIX} added.
+ *
+ * The file starts with {@link #MAGIC} and {@link #VERSION}, followed by a table of every distinct
+ * string in the level. Everything after that refers to strings by their index in the table, as an
+ * unsigned short, with {@link #NO_STRING} standing for a missing string. Connectors are each
+ * packed into a single int by {@link #packConnector}.
+ *
+ * If there is no compiled level, or it is older than any of its sources, the JSON files are used
+ * instead, so that levels can still be edited without running the tool.
+ */
+public class CompiledLevels {
+    /** Suffix of compiled levels */
+    public static final String SUFFIX = ".lvl";
+    /** Identifier at the start of every compiled level */
+    public static final int MAGIC = 0x46484C56;
+    /** Version of the format, changed whenever the layout does */
+    public static final int VERSION = 1;
+    /** String index standing for a missing string */
+    public static final int NO_STRING = 0xFFFF;
+    /** Largest number of distinct strings a compiled level can hold */
+    public static final int MAX_STRINGS = NO_STRING;
+
+    /** Connector types already built, by the low bits of their packed connector */
+    private static final IntMap<String> TYPES = new IntMap<String>();
+
+    /** Only accessed statically */
+    private CompiledLevels() {}
+
+    /**
+     * Returns the path of the compiled variant of the given level.
+     *
+     * @param levelJson The level file name
+     *
+     * @return the path of the compiled variant
+     */
+    public static String compiledPath(String levelJson) {
+        return CompressedTextures.DIRECTORY + levelJson + SUFFIX;
+    }
+
+    /**
+     * Returns the compiled variant of the given level, if it exists and is up to date.
+     *
+     * A compiled level is up to date if it is no older than the level file and every file in the
+     * targets directory next to it.
+     *
+     * @param levelJson The level file name
+     *
+     * @return the compiled level, or null if the JSON files should be used
+     */
+    public static FileHandle find(String levelJson) {
+        FileHandle compiled = Gdx.files.internal(compiledPath(levelJson));
+        if (!compiled.exists()) {
+            return null;
+        }
+        FileHandle source = Gdx.files.internal(levelJson);
+        long newest = source.lastModified();
+        for (FileHandle target : source.sibling("targets").list()) {
+            newest = Math.max(newest, target.lastModified());
+        }
+        return compiled.lastModified() >= newest ? compiled : null;
+    }
+
+    /**
+     * Reads the header and string table of a compiled level.
+     *
+     * @param in    The compiled level
+     *
+     * @return the string table
+     */
+    public static String[] readHeader(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new GdxRuntimeException("Not a compiled level");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new GdxRuntimeException("Compiled level has version " + version + ", expected " + VERSION);
+        }
+        String[] strings = new String[in.readUnsignedShort()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readUTF();
+        }
+        return strings;
+    }
+
+    /**
+     * Reads a string from a compiled level.
+     *
+     * @param in        The compiled level
+     * @param strings   The string table
+     *
+     * @return the string, or null if it is missing
+     */
+    public static String readString(DataInput in, String[] strings) throws IOException {
+        int index = in.readUnsignedShort();
+        return index == NO_STRING ? null : strings[index];
+    }
+
+    /**
+     * Reads an array of strings from a compiled level.
+     *
+     * @param in        The compiled level
+     * @param strings   The string table
+     *
+     * @return the strings
+     */
+    public static String[] readStrings(DataInput in, String[] strings) throws IOException {
+        String[] result = new String[in.readUnsignedShort()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = readString(in, strings);
+        }
+        return result;
+    }
+
+    /**
+     * Writes a string index to a compiled level.
+     *
+     * @param out   The compiled level
+     * @param index The index of the string in the string table, or {@link #NO_STRING}
+     */
+    public static void writeString(DataOutput out, int index) throws IOException {
+        out.writeShort(index);
+    }
+
+    /**
+     * Packs a connector into a single int.
+     *
+     * The coordinates take a signed byte each, followed by the number of directions and then
+     * each direction in two bits, so that the order of the directions is kept.
+     *
+     * @param connector The connector to pack
+     *
+     * @return the packed connector
+     */
+    public static int packConnector(Connector connector) {
+        int x = connector.xcoord;
+        int y = connector.ycoord;
+        String type = connector.type;
+        if (x < Byte.MIN_VALUE || x > Byte.MAX_VALUE || y < Byte.MIN_VALUE || y > Byte.MAX_VALUE) {
+            throw new GdxRuntimeException("Connector is too far from its target: " + x + ", " + y);
+        }
+        if (type.length() > 4) {
+            throw new GdxRuntimeException("Connector has too many directions: " + type);
+        }
+        int directions = 0;
+        for (int i = 0; i < type.length(); i++) {
+            directions |= Connector.toDir(type.charAt(i)).ordinal() << (i * 2);
+        }
+        return (x & 0xFF) << 24 | (y & 0xFF) << 16 | type.length() << 8 | directions;
+    }
+
+    /**
+     * Unpacks a connector packed by {@link #packConnector}.
+     *
+     * Connectors with the same type share the same type string.
+     *
+     * @param packed    The packed connector
+     *
+     * @return the connector
+     */
+    public static Connector unpackConnector(int packed) {
+        int key = packed & 0xFFFF;
+        String type;
+        synchronized (TYPES) {
+            type = TYPES.get(key);
+            if (type == null) {
+                Connector.Direction[] dirs = Connector.Direction.values();
+                StringBuilder builder = new StringBuilder(4);
+                for (int i = 0; i < (key >> 8); i++) {
+                    builder.append(Connector.dirToString(dirs[(key >> (i * 2)) & 3]));
+                }
+                type = builder.toString();
+                TYPES.put(key, type);
+            }
+        }
+        return new Connector(packed >> 24, (packed << 8) >> 24, type);
+    }
+}
@@ -0,0 +1,163 @@
+package com.adisgrace.games.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+
+/**
+ * Chooses between a texture file and the compiled variants that the desktop TextureCompiler tool
+ * writes for it.
+ *
+ * Compiled variants live under {@link #DIRECTORY}, mirroring the layout of the asset tree, and
+ * always include a full chain of mipmaps:
+ * <ul>
+ *     <li>Opaque images are ETC1 compressed, at a sixth of the size of RGBA in video memory.
+ *     Used only if the driver can sample ETC1 directly.</li>
+ *     <li>Opaque images also have an uncompressed RGB variant, for drivers without ETC1.</li>
+ *     <li>Images with alpha are stored as RGBA, as ETC1 has no alpha channel.</li>
+ * </ul>
+ *
+ * The uncompressed variants are there for their mipmaps, so that images do not alias when the
+ * map is zoomed out, and take a third more video memory than the original images for them.
+ *
+ * If there is no usable variant, the original file is used, so the game still runs from a tree
+ * where the tool has never been run.
+ */
+public class CompressedTextures {
+    /** Directory that compiled variants are written to, relative to the asset root */
+    public static final String DIRECTORY = "compiled/";
+    /** Suffix of ETC1 compressed variants */
+    public static final String ETC1_SUFFIX = ".etc1.zktx";
+    /** Suffix of uncompressed variants of opaque images, for drivers without ETC1 */
+    public static final String RGB_SUFFIX = ".rgb.zktx";
+    /** Suffix of uncompressed variants of images with alpha */
+    public static final String RGBA_SUFFIX = ".rgba.zktx";
+    /** Extension that drivers report when they can sample ETC1 textures */
+    private static final String ETC1_EXTENSION = "GL_OES_compressed_ETC1_RGB8_texture";
+
+    /** Resolver used to check whether a variant exists */
+    private FileHandleResolver resolver;
+    /** Whether the driver can sample ETC1 textures without decoding them first */
+    private boolean etc1Supported;
+    /** Whether compiled variants should be used at all */
+    private boolean enabled = true;
+
+    /**
+     * Creates a chooser that finds variants through the given resolver.
+     *
+     * Must be called on the rendering thread, so that the driver can be queried.
+     *
+     * @param resolver  The file handle resolver
+     */
+    public CompressedTextures(FileHandleResolver resolver) {
+        this.resolver = resolver;
+        etc1Supported = Gdx.graphics != null && Gdx.graphics.supportsExtension(ETC1_EXTENSION);
+    }
+
+    /**
+     * Sets whether compiled variants should be used, or always the original files.
+     *
+     * @param enabled   Whether to use compiled variants
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns whether compiled variants are used.
+     *
+     * @return whether compiled variants are used
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the file to load for the given texture.
+     *
+     * This is the ETC1 variant if it exists and the driver supports it, then whichever uncompressed
+     * variant exists, and the original file otherwise. ETC1 is never decoded on load, as the RGB
+     * variant already holds the same image without the compression artifacts.
+     *
+     * @param file  The texture file name, as given in the asset directory
+     *
+     * @return the file to load for the given texture
+     */
+    public String resolve(String file) {
+        if (!enabled) {
+            return file;
+        }
+        if (etc1Supported) {
+            String etc1 = etc1Path(file);
+            if (resolver.resolve(etc1).exists()) {
+                return etc1;
+            }
+        }
+        String rgb = rgbPath(file);
+        if (resolver.resolve(rgb).exists()) {
+            return rgb;
+        }
+        String rgba = rgbaPath(file);
+        if (resolver.resolve(rgba).exists()) {
+            return rgba;
+        }
+        return file;
+    }
+
+    /**
+     * Returns whether the given file is a compiled variant, and so has its own mipmaps.
+     *
+     * @param file  The file name
+     *
+     * @return whether the given file is a compiled variant
+     */
+    public static boolean isCompiled(String file) {
+        return file.startsWith(DIRECTORY) && file.endsWith(".zktx");
+    }
+
+    /**
+     * Returns the path of the ETC1 variant of the given texture.
+     *
+     * @param file  The texture file name
+     *
+     * @return the path of the ETC1 variant
+     */
+    public static String etc1Path(String file) {
+        return compiledPath(file) + ETC1_SUFFIX;
+    }
+
+    /**
+     * Returns the path of the RGB variant of the given texture.
+     *
+     * @param file  The texture file name
+     *
+     * @return the path of the RGB variant
+     */
+    public static String rgbPath(String file) {
+        return compiledPath(file) + RGB_SUFFIX;
+    }
+
+    /**
+     * Returns the path of the RGBA variant of the given texture.
+     *
+     * @param file  The texture file name
+     *
+     * @return the path of the RGBA variant
+     */
+    public static String rgbaPath(String file) {
+        return compiledPath(file) + RGBA_SUFFIX;
+    }
+
+    /**
+     * Returns the path that variants of the given texture are named after.
+     *
+     * Textures that are themselves written by a build tool are already under {@link #DIRECTORY},
+     * and their variants sit next to them.
+     *
+     * @param file  The texture file name
+     *
+     * @return the path of the texture under the compiled directory
+     */
+    private static String compiledPath(String file) {
+        return file.startsWith(DIRECTORY) ? file : DIRECTORY + file;
+    }
+}
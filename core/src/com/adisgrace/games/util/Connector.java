@@ -1,6 +1,5 @@
 package com.adisgrace.games.util;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
@@ -40,16 +39,11 @@ public class Connector {
     /** The string of directions representing the type of connector */
     public String type;
 
-    /** Paths for each type of connector */
-    private static final String C_NORTH = "leveleditor/connectors/C_N_6.png";
-    private static final String C_EAST = "leveleditor/connectors/C_E_6.png";
-    private static final String C_SOUTH = "leveleditor/connectors/C_S_6.png";
-    private static final String C_WEST = "leveleditor/connectors/C_W_6.png";
-
-    /** Textures for each type of connector */
-    public static final Texture TX_NORTH = new Texture(Gdx.files.internal(C_NORTH)),
-            TX_EAST = new Texture(Gdx.files.internal(C_EAST)), TX_SOUTH = new Texture(Gdx.files.internal(C_SOUTH)),
-            TX_WEST = new Texture(Gdx.files.internal(C_WEST));
+    /** Asset handles for each type of connector */
+    private static final AssetHandle<Texture> C_NORTH = Assets.CONNECTOR_N;
+    private static final AssetHandle<Texture> C_EAST = Assets.CONNECTOR_E;
+    private static final AssetHandle<Texture> C_SOUTH = Assets.CONNECTOR_S;
+    private static final AssetHandle<Texture> C_WEST = Assets.CONNECTOR_W;
 
     /** Constants for steps taken in the various direction a connector can go */
     private static final Vector2 N_STEP = new Vector2(0,1);
@@ -109,19 +103,22 @@ public class Connector {
     /**
      * Returns the texture for a connector with the given direction.
      *
+     * Textures are taken from the shared assets, so connectors themselves can be created and
+     * parsed without OpenGL.
+     *
      * @param dir   A connector direction to get the texture for
      * @return      The texture for a connector with the given direction
      */
     public static Texture getTexture(Direction dir) {
         switch(dir) {
             case N:
-                return TX_NORTH;
+                return GameConstants.getAsset(C_NORTH);
             case E:
-                return TX_EAST;
+                return GameConstants.getAsset(C_EAST);
             case S:
-                return TX_SOUTH;
+                return GameConstants.getAsset(C_SOUTH);
             case W:
-                return TX_WEST;
+                return GameConstants.getAsset(C_WEST);
             default:
                 throw new RuntimeException("Connector can only be NESW");
         }
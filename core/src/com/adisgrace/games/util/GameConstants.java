@@ -1,10 +1,10 @@
 package com.adisgrace.games.util;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
 import java.io.File;
 
@@ -12,8 +12,8 @@ public final class GameConstants {
     /************************************************* LevelSelection **************************************************/
     /** Directory where levels are stored */
     public static final File LEVEL_DIRECTORY = new File("levels/");
-    /** Skin for Scene2D elements */
-    public static final Skin SELECTION_SKIN = new Skin(Gdx.files.internal("skins/neon-ui.json"));
+    /** Asset handle of the skin for Scene2D elements */
+    private static final AssetHandle<Skin> SELECTION_SKIN = Assets.SKIN_NEON;
     /** How far the form entries should be spaced apart vertically */
     public static final int GC_FORM_GAP = 30;
     /************************************************* LevelModel **************************************************/
@@ -111,21 +111,50 @@ public final class GameConstants {
     public static float global_music = 1f;
     public static float global_sound = 1f;
 
-    public static final Sound CLICK_OFF = Gdx.audio.newSound(Gdx.files.internal("sounds/Click_Off.ogg"));
-    public static final Sound CLICK_ON = Gdx.audio.newSound(Gdx.files.internal("sounds/Click_On.ogg"));
-    public static final Sound DAMAGE = Gdx.audio.newSound(Gdx.files.internal("sounds/damage.ogg"));
-    public static final Sound DO_OTHER_JOBS = Gdx.audio.newSound(Gdx.files.internal("sounds/Do_Other_Jobs.ogg"));
-    public static final Sound ELIMINATED = Gdx.audio.newSound(Gdx.files.internal("sounds/eliminated.ogg"));
-    public static final Sound END_DAY = Gdx.audio.newSound(Gdx.files.internal("sounds/EndDay.ogg"));
-    public static final Sound HACK = Gdx.audio.newSound(Gdx.files.internal("sounds/Hack.ogg"));
-    public static final Sound NODE_HOVER = Gdx.audio.newSound(Gdx.files.internal("sounds/Node_Hover.ogg"));
-    public static final Sound OVERWORK = Gdx.audio.newSound(Gdx.files.internal("sounds/Overwork.ogg"));
-    public static final Sound SCAN = Gdx.audio.newSound(Gdx.files.internal("sounds/Scan.ogg"));
-    public static final Sound SKILL_ACTIVE = Gdx.audio.newSound(Gdx.files.internal("sounds/Skill_Active.ogg"));
-    public static final Sound SKILL_CANCELED = Gdx.audio.newSound(Gdx.files.internal("sounds/Skill_Canceled.ogg"));
-    public static final Sound TARGET_SKILL = Gdx.audio.newSound(Gdx.files.internal("sounds/Target_Skill.ogg"));
-    public static final Sound TARGET_STATE_CHANGE = Gdx.audio.newSound(Gdx.files.internal("sounds/Target_State_Change.ogg"));
-    public static final Sound TARGET_CLICKED = Gdx.audio.newSound(Gdx.files.internal("sounds/TargetClicked.ogg"));
+    /** Sound effects, each loaded from the asset directory by its handle */
+    public enum SoundEffect {
+        CLICK_OFF(Assets.SOUND_CLICK_OFF),
+        CLICK_ON(Assets.SOUND_CLICK_ON),
+        DAMAGE(Assets.SOUND_DAMAGE),
+        DO_OTHER_JOBS(Assets.SOUND_DO_OTHER_JOBS),
+        ELIMINATED(Assets.SOUND_ELIMINATED),
+        END_DAY(Assets.SOUND_END_DAY),
+        HACK(Assets.SOUND_HACK),
+        NODE_HOVER(Assets.SOUND_NODE_HOVER),
+        OVERWORK(Assets.SOUND_OVERWORK),
+        SCAN(Assets.SOUND_SCAN),
+        SKILL_ACTIVE(Assets.SOUND_SKILL_ACTIVE),
+        SKILL_CANCELED(Assets.SOUND_SKILL_CANCELED),
+        TARGET_SKILL(Assets.SOUND_TARGET_SKILL),
+        TARGET_STATE_CHANGE(Assets.SOUND_TARGET_STATE_CHANGE),
+        TARGET_CLICKED(Assets.SOUND_TARGET_CLICKED);
+
+        /** Asset handle of the sound */
+        private final AssetHandle<Sound> handle;
+
+        SoundEffect(AssetHandle<Sound> handle) {
+            this.handle = handle;
+        }
+
+        /**
+         * Returns the loaded sound.
+         *
+         * @return the sound
+         */
+        public Sound getSound() {
+            return getAsset(handle);
+        }
+
+        /**
+         * Plays the sound once.
+         *
+         * @param volume    the volume in the range [0,1]
+         * @return          the id of the sound instance
+         */
+        public long play(float volume) {
+            return getSound().play(volume);
+        }
+    }
 
 
     /************************************************* STRESS RATING **************************************************/
@@ -204,19 +233,86 @@ public final class GameConstants {
     }
 
     /********************************************** SUBTREE ICON ASSETS ***********************************************/
-    /** Texture that contains node subtree icons */
-    private static final Texture SUBTREE_ICONS = new Texture(Gdx.files.internal("node/N_SubtreeIcons_1.png"));
-    /** Array of textures for node subtree icons */
-    public static final TextureRegion[][] SUBTREE_ICON_TEXTURES = new TextureRegion(SUBTREE_ICONS).split(
-            SUBTREE_ICONS.getWidth() / 6, SUBTREE_ICONS.getHeight() / 2);
-    /** Texture that contains node subtree text */
-    private static final Texture SUBTREE_TEXT = new Texture(Gdx.files.internal("node/N_SubtreeIconsText_1.png"));
-    /** Array of textures for node subtree text */
-    public static final TextureRegion[][] SUBTREE_TEXT_TEXTURES = new TextureRegion(SUBTREE_TEXT).split(
-            SUBTREE_TEXT.getWidth() / 10, SUBTREE_TEXT.getHeight());
+    /** Asset handles of the textures that contain node subtree icons and text */
+    private static final AssetHandle<Texture> SUBTREE_ICONS = Assets.NODE_SUBTREE_ICONS;
+    private static final AssetHandle<Texture> SUBTREE_TEXT = Assets.NODE_SUBTREE_TEXT;
+    /** Node subtree icons and digits, split from their textures on first use */
+    private static TextureRegion[][] subtreeIconTextures;
+    private static TextureRegion[][] subtreeTextTextures;
     /** Width and height of each node subtree digit */
     public static final int SUBTREE_TEXT_WIDTH = 30;
     public static final int SUBTREE_TEXT_HEIGHT = 60;
     /** Locations of where the numbers should go on the subtree info display */
     public static final int LOW_X = 110, LOW_Y = 245, MED_X = 230, MED_Y = 360, HIGH_X = 350, HIGH_Y = 245;
+
+    /**
+     * Returns a node subtree icon.
+     *
+     * @param index the index of the icon in the top row of the icon texture
+     * @return      the icon
+     */
+    public static TextureRegion getSubtreeIcon(int index) {
+        if (subtreeIconTextures == null) {
+            Texture icons = getAsset(SUBTREE_ICONS);
+            subtreeIconTextures = new TextureRegion(icons).split(icons.getWidth() / 6, icons.getHeight() / 2);
+        }
+        return subtreeIconTextures[0][index];
+    }
+
+    /**
+     * Returns a node subtree digit.
+     *
+     * @param digit the digit, from 0 to 9
+     * @return      the digit
+     */
+    public static TextureRegion getSubtreeDigit(int digit) {
+        if (subtreeTextTextures == null) {
+            Texture text = getAsset(SUBTREE_TEXT);
+            subtreeTextTextures = new TextureRegion(text).split(text.getWidth() / 10, text.getHeight());
+        }
+        return subtreeTextTextures[0][digit];
+    }
+
+    /************************************************* SHARED ASSETS **************************************************/
+
+    /** Directory that shared assets are taken from, or null if it has not been loaded */
+    private static AssetDirectory assets;
+
+    /**
+     * Sets the directory that shared assets are taken from.
+     *
+     * Assets are only looked up when first used, so nothing here is loaded when this class is,
+     * and models that refer to these constants never touch OpenGL or audio. The directory must
+     * have finished loading before any of the shared assets are used.
+     *
+     * @param directory the loaded asset directory, or null once it has been unloaded
+     */
+    public static void setAssets(AssetDirectory directory) {
+        assets = directory;
+        subtreeIconTextures = null;
+        subtreeTextTextures = null;
+    }
+
+    /**
+     * Returns a shared asset from the asset directory.
+     *
+     * @param handle  the asset handle, from {@link Assets}
+     * @return        the asset
+     */
+    public static <T> T getAsset(AssetHandle<T> handle) {
+        T asset = assets == null ? null : assets.getEntry(handle);
+        if (asset == null) {
+            throw new GdxRuntimeException("Shared asset is not loaded: " + handle.getKey());
+        }
+        return asset;
+    }
+
+    /**
+     * Returns the skin for Scene2D elements.
+     *
+     * @return the skin
+     */
+    public static Skin getSelectionSkin() {
+        return getAsset(SELECTION_SKIN);
+    }
 }
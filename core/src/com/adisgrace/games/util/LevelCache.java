@@ -0,0 +1,141 @@
+package com.adisgrace.games.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Cache of parsed levels in local storage, keyed by the contents of their JSON files.
+ *
+ * Each entry is a level compiled by a {@link LevelWriter}, named after the level file and a hash
+ * of the level file, every file in the targets directory next to it, and the version of the
+ * compiled format. A level whose files hash to an existing entry is read from that entry instead
+ * of being parsed, and a level without one is compiled into a new entry the first time it is
+ * loaded. Editing any of its files changes the hash, so the level is parsed again on its next
+ * load, and the entry it replaces is deleted.
+ *
+ * Unlike the compiled levels shipped under {@link CompressedTextures#DIRECTORY}, nothing has to
+ * be run by hand for the cache to fill, so repeated launches while playtesting or switching levels
+ * in the editor only parse levels that have changed since they were last loaded.
+ */
+public class LevelCache {
+    /** Directory that entries are written to, relative to local storage */
+    public static final String DIRECTORY = "cache/levels/";
+    /** Digest used to hash the level files */
+    private static final String DIGEST = "SHA-1";
+    /** Digits of the hexadecimal hash */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Whether the cache should be used at all */
+    private static volatile boolean enabled = true;
+
+    /** Only accessed statically */
+    private LevelCache() {}
+
+    /**
+     * Sets whether the cache should be used, or levels always parsed from their JSON files.
+     *
+     * @param enabled   Whether to use the cache
+     */
+    public static void setEnabled(boolean enabled) {
+        LevelCache.enabled = enabled;
+    }
+
+    /**
+     * Returns whether the cache is used.
+     *
+     * @return whether the cache is used
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached form of the given level, compiling it first if it is not yet cached.
+     *
+     * This may be called from any thread, and for the same level from several at once.
+     *
+     * @param levelJson The level file name
+     *
+     * @return the cached level, or null if the JSON files should be parsed instead
+     */
+    public static FileHandle find(String levelJson) {
+        if (!enabled || !Gdx.files.isLocalStorageAvailable()) {
+            return null;
+        }
+        String prefix = levelJson.replace('/', '_') + "-";
+        String name = prefix + hash(levelJson) + CompiledLevels.SUFFIX;
+        FileHandle cached = Gdx.files.local(DIRECTORY + name);
+        if (cached.exists()) {
+            return cached;
+        }
+
+        // Written to a file of its own first, so that no other thread reads it half written
+        FileHandle partial = Gdx.files.local(DIRECTORY + name + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            new LevelWriter().write(levelJson, partial);
+            partial.moveTo(cached);
+        } catch (Exception e) {
+            partial.delete();
+            Gdx.app.error("LevelCache", "Could not cache " + levelJson, e);
+            return null;
+        }
+
+        // Earlier entries for the same level are out of date
+        for (FileHandle entry : Gdx.files.local(DIRECTORY).list(CompiledLevels.SUFFIX)) {
+            if (entry.name().startsWith(prefix) && !entry.name().equals(name)) {
+                entry.delete();
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the hash of the given level and its targets.
+     *
+     * Target files are hashed by name as well as contents, in order of name, so the hash does not
+     * depend on the order that files are listed in.
+     *
+     * @param levelJson The level file name
+     *
+     * @return the hash, in hexadecimal
+     */
+    private static String hash(String levelJson) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST + " is always available", e);
+        }
+        Charset utf8 = Charset.forName("UTF-8");
+        digest.update((byte) CompiledLevels.VERSION);
+
+        FileHandle source = Gdx.files.internal(levelJson);
+        digest.update(source.readBytes());
+        FileHandle[] targets = source.sibling("targets").list();
+        Arrays.sort(targets, new Comparator<FileHandle>() {
+            @Override
+            public int compare(FileHandle a, FileHandle b) {
+                return a.name().compareTo(b.name());
+            }
+        });
+        for (FileHandle target : targets) {
+            digest.update(target.name().getBytes(utf8));
+            digest.update((byte) 0);
+            digest.update(target.readBytes());
+        }
+
+        byte[] bytes = digest.digest();
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
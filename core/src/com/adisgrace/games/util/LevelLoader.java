@@ -0,0 +1,97 @@
+package com.adisgrace.games.util;
+
+import com.adisgrace.games.LevelController;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AssetLoader;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * This class is an {@link AssetLoader} to load levels as {@link LevelController} assets.
+ *
+ * The level file and every target file it refers to are read and parsed on the loader thread, so
+ * the render thread is never held up by JSON. Nothing about a level needs OpenGL, so the main
+ * thread part only hands the finished controller over.
+ *
+ * Each level asset is a fresh game in progress, so it should be unloaded as soon as it has been
+ * retrieved. Loading the same level again then starts it from the beginning.
+ */
+public class LevelLoader extends AsynchronousAssetLoader<LevelController, LevelLoader.LevelParameters> {
+    /** The asynchronously parsed level */
+    protected LevelController cachedData;
+
+    /**
+     * The definable parameters for a {@link LevelController}.
+     */
+    public static class LevelParameters extends AssetLoaderParameters<LevelController> {
+        // Since everything is defined in the file, nothing to do here
+    }
+
+    /**
+     * Creates a new LevelLoader with an internal file resolver
+     */
+    public LevelLoader() {
+        this(new InternalFileHandleResolver());
+    }
+
+    /**
+     * Creates a new LevelLoader with the given file resolver
+     *
+     * @param resolver    The file resolver
+     */
+    public LevelLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    /**
+     * Parses the level and all of its targets.
+     *
+     * This is run on the loader thread. Target files are found relative to the level file, so the
+     * file name is passed on as is rather than resolved.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset
+     */
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, LevelParameters params) {
+        cachedData = new LevelController(fileName);
+    }
+
+    /**
+     * Returns the level parsed by {@link #loadAsync}.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset
+     */
+    @Override
+    public LevelController loadSync(AssetManager manager, String fileName, FileHandle file, LevelParameters params) {
+        LevelController level = cachedData;
+        cachedData = null;
+        return level;
+    }
+
+    /**
+     * Returns the other assets this asset requires to be loaded first.
+     *
+     * Levels have no dependencies, so this returns null.
+     *
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params parameters for loading the asset
+     *
+     * @return null, as there are no dependencies
+     */
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, LevelParameters params) {
+        return null;
+    }
+}
@@ -0,0 +1,205 @@
+package com.adisgrace.games.util;
+
+import com.adisgrace.games.models.TargetModel;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes a level, along with its targets, in the format read by {@link CompiledLevels}.
+ *
+ * Every string is written once, to the string table, and connectors are packed into an int each.
+ * The subtree stress ratings of each node are tallied by building the target as the game would,
+ * so they never have to be worked out on load.
+ *
+ * Used both by the desktop LevelCompiler tool and by {@link LevelCache}. Each writer holds the
+ * string table of a single level, so a new one is needed for every level written.
+ */
+public class LevelWriter {
+    /** Distinct strings of the level being written, in the order they were first written */
+    private Array<String> strings = new Array<String>();
+    /** Index of each string in {@link #strings} */
+    private ObjectIntMap<String> indices = new ObjectIntMap<String>();
+    /** Everything after the string table */
+    private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private DataOutputStream out = new DataOutputStream(bytes);
+
+    /**
+     * Compiles a single level and writes it to the given file.
+     *
+     * @param levelJson The level file name
+     * @param compiled  The file to write the compiled level to
+     */
+    public void write(String levelJson, FileHandle compiled) throws IOException {
+        JsonReader reader = new JsonReader();
+        JsonValue json = reader.parse(Gdx.files.internal(levelJson));
+        String[] targetJsons = json.get("targets").asStringArray();
+        JsonValue locations = json.get("targetLocs");
+        int[] dims = json.has("dims") ? json.get("dims").asIntArray()
+                : new int[]{GameConstants.DEFAULT_LEVEL_DIM, GameConstants.DEFAULT_LEVEL_DIM};
+
+        writeString(json.getString("name"));
+        out.writeInt(json.getInt("timeLimit"));
+        out.writeInt(dims[0]);
+        out.writeInt(dims[1]);
+        writeStrings(json.get("tutorialImages").asStringArray());
+
+        out.writeShort(checkCount(targetJsons.length, "targets"));
+        FileHandle targetDir = Gdx.files.internal(levelJson).sibling("targets");
+        for (int i = 0; i < targetJsons.length; i++) {
+            int[] loc = locations.get(i).asIntArray();
+            out.writeInt(loc[0]);
+            out.writeInt(loc[1]);
+            String targetJson = targetDir.path() + "/" + targetJsons[i];
+            writeTarget(reader.parse(Gdx.files.internal(targetJson)), new TargetModel(targetJson));
+        }
+        out.flush();
+
+        DataOutputStream file = new DataOutputStream(compiled.write(false));
+        try {
+            file.writeInt(CompiledLevels.MAGIC);
+            file.writeInt(CompiledLevels.VERSION);
+            file.writeShort(strings.size);
+            for (String s : strings) {
+                file.writeUTF(s);
+            }
+            bytes.writeTo(file);
+        } finally {
+            StreamUtils.closeQuietly(file);
+        }
+    }
+
+    /**
+     * Writes a single target, in the order that {@link TargetModel} reads it.
+     *
+     * @param json      The target's JSON
+     * @param target    The target built from the same JSON, for its subtree stress ratings
+     */
+    private void writeTarget(JsonValue json, TargetModel target) throws IOException {
+        writeString(json.getString("targetName"));
+        out.writeInt(json.getInt("paranoia"));
+        out.writeInt(json.getInt("maxStress"));
+        out.writeBoolean(json.getBoolean("isGeneric"));
+        out.writeBoolean(json.getBoolean("isMale"));
+        out.writeInt(json.getInt("gaslightReduction", 8));
+        out.writeInt(json.getInt("startingStress", 0));
+        out.writeInt(json.getInt("startingSuspicion", 0));
+        writeString(json.getString("defeatMessage", null));
+        writeStrings(json.get("traits").asStringArray());
+        writeChildren(json.get("firstNodes"), json.get("firstConnectors"), json.get("firstConnectorTypes"));
+
+        JsonValue pod = json.get("pod");
+        out.writeShort(checkCount(pod.size, "nodes"));
+        for (JsonValue node : pod) {
+            String nodeName = node.getString("nodeName");
+            int[] coords = node.get("coords").asIntArray();
+            writeString(nodeName);
+            writeString(node.getString("title"));
+            writeString(node.getString("content"));
+            writeString(node.getString("summary"));
+            out.writeInt(coords[0]);
+            out.writeInt(coords[1]);
+            out.writeBoolean(node.getBoolean("locked"));
+            out.writeInt(node.getInt("targetStressDamage"));
+            out.writeInt(node.getInt("playerStressDamage"));
+            writeChildren(node.get("children"), node.get("connectorCoords"), node.get("connectorTypes"));
+
+            // The target leaves the node itself out of its subtree ratings, so it is added back
+            int[] subTree = target.getStressRatings(nodeName);
+            subTree[target.getStressRating(nodeName).ordinal()]++;
+            for (int rating : subTree) {
+                out.writeInt(rating);
+            }
+        }
+
+        JsonValue combos = json.get("combos");
+        out.writeShort(checkCount(combos.size, "combos"));
+        for (JsonValue combo : combos) {
+            Array<String> relatedFacts = new Array<String>(combo.get("relatedFacts").asStringArray());
+            relatedFacts.sort();
+            writeStrings(relatedFacts.toArray(String.class));
+            writeString(combo.getString("overwrite"));
+            writeString(combo.getString("comboSummary"));
+            out.writeInt(combo.getInt("comboStressDamage"));
+        }
+    }
+
+    /**
+     * Writes child names along with the packed connectors of the paths to them.
+     *
+     * @param names     Names of the children
+     * @param coords    Coordinates of the connectors in the paths to each child
+     * @param types     Types of the connectors in the paths to each child
+     */
+    private void writeChildren(JsonValue names, JsonValue coords, JsonValue types) throws IOException {
+        out.writeShort(checkCount(names.size, "children"));
+        for (int i = 0; i < names.size; i++) {
+            writeString(names.get(i).asString());
+            JsonValue pathCoords = coords.get(i);
+            JsonValue pathTypes = types.get(i);
+            out.writeShort(checkCount(pathCoords.size, "connectors"));
+            for (int j = 0; j < pathCoords.size; j++) {
+                int[] coord = pathCoords.get(j).asIntArray();
+                out.writeInt(CompiledLevels.packConnector(new Connector(coord[0], coord[1], pathTypes.get(j).asString())));
+            }
+        }
+    }
+
+    /**
+     * Writes an array of strings as their indices in the string table.
+     *
+     * @param values    The strings to write
+     */
+    private void writeStrings(String[] values) throws IOException {
+        out.writeShort(checkCount(values.length, "strings"));
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    /**
+     * Writes a string as its index in the string table, adding it to the table if it is new.
+     *
+     * @param value The string to write, or null
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            CompiledLevels.writeString(out, CompiledLevels.NO_STRING);
+            return;
+        }
+        int index = indices.get(value, -1);
+        if (index < 0) {
+            if (strings.size == CompiledLevels.MAX_STRINGS) {
+                throw new GdxRuntimeException("Too many distinct strings");
+            }
+            index = strings.size;
+            strings.add(value);
+            indices.put(value, index);
+        }
+        CompiledLevels.writeString(out, index);
+    }
+
+    /**
+     * Returns a count, if it fits in the unsigned short that counts are written as.
+     *
+     * @param count The count
+     * @param what  What is being counted, for the error
+     *
+     * @return the count
+     */
+    private static int checkCount(int count, String what) {
+        if (count > 0xFFFF) {
+            throw new GdxRuntimeException("Too many " + what + ": " + count);
+        }
+        return count;
+    }
+}
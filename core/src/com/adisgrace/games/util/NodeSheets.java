@@ -0,0 +1,388 @@
+package com.adisgrace.games.util;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * Neutral (grey) node sheets, and the tints that color them, split from the colored node sheets.
+ *
+ * Every node sheet has the same sprite in six colors, each with a lit and a dimmed version. The
+ * game only uploads the grey sprites, and recovers the other colors at draw time by tinting them.
+ * The neutral sheets and the table of tints are written ahead of time by the desktop
+ * NodeSheetCompiler tool, to the paths given here, so that the game does not decode the colored
+ * sheets at all. The methods that split the sheets are shared with the game, which falls back to
+ * them if the tool has not been run.
+ *
+ * Colored sprites are not just the grey sprite in another hue: a glowing outline is saturated
+ * while the fill is pale, for instance. Each colored sprite is therefore recovered through a color
+ * ramp, which maps the brightness of a grey pixel to the average color of the colored pixels of
+ * that brightness. Every sprite also has a flat tint, the ratio between its average color and that
+ * of the grey sprite, for drawing without the node shader.
+ *
+ * A few colored sprites are missing from their sheets. Their tints, and so their ramps, are
+ * transparent, so that they are drawn as nothing, as they would be from the colored sheet.
+ *
+ * Some sheets cannot be tinted at all, such as target bases, which have a different shape in each
+ * color. Those are kept whole, and their sprites drawn as they are.
+ */
+public class NodeSheets {
+    /** Sheets with one column per color, and a row each for the lit and dimmed versions */
+    public static final String[] SHEETS = {
+            "node/N_LockedNode_1.png",
+            "node/N_TargetMale_1.png",
+            "node/N_TargetFemale_1.png",
+            "node/N_TargetBoss_1.png",
+            "node/N_NodeBase_1.png",
+            "node/N_TargetBase_1.png"
+    };
+    /** Pairs of lit and dimmed animation sheets, with one row per color and one column per frame */
+    public static final String[][] ANIMATIONS = {
+            { "node/N_UnscannedNodeHigh_1.png", "node/N_UnscannedNodeLow_1.png" },
+            { "node/N_ScannedNodeHigh_1.png", "node/N_ScannedNodeLow_1.png" }
+    };
+    /** File holding the tints of every sheet, by the name of the sheet (the lit one, for animations) */
+    public static final String TINT_FILE = CompressedTextures.DIRECTORY + "node/tints.json";
+    /** Version of the layout of the tint table, which is bumped whenever it changes */
+    public static final int TABLE_VERSION = 2;
+    /** Asset directory scope holding the compiled sheets, which only exist once the tool has run */
+    public static final String SCOPE = "nodes";
+    /** Number of tints for each sheet, indexed by node type */
+    public static final int TINTS = 12;
+    /** Number of entries in each color ramp, evenly spaced from black to white */
+    public static final int RAMP_SIZE = 32;
+    /** Number of rows in the texture of color ramps, which has room for a row per sprite of every sheet */
+    public static final int RAMP_ROWS = 128;
+
+    /** Gain that flat tints are scaled up by when drawn, so that tints can brighten as well as darken */
+    public static final float TINT_GAIN = 2f;
+    /** Column (or row, for animations) of each colored sheet holding the grey sprites kept as neutral */
+    private static final int NEUTRAL = 5;
+    /** Distance between sampled pixels when measuring the color of a sprite */
+    private static final int SAMPLE_STEP = 4;
+    /** Average error per color channel, out of 255, above which a sheet is kept in color */
+    private static final float MAX_RAMP_ERROR = 12f;
+
+    /**
+     * How each node type of a sheet is colored.
+     */
+    public static class Tinting {
+        /** Flat tint of each node type, scaled down by {@link #TINT_GAIN}, and transparent if it has no sprite */
+        public final Color[] tints = new Color[TINTS];
+        /** Color ramp of each node type, as {@link #RAMP_SIZE} red, green and blue values from 0 to 255 */
+        public final int[] ramps = new int[TINTS * RAMP_SIZE * 3];
+        /** Whether the sheet is kept in color, in which case its sprites are not tinted at all */
+        public boolean colored;
+
+        /**
+         * Marks the sheet as kept in color, with tints and ramps that leave its sprites unchanged.
+         */
+        void keepColored() {
+            colored = true;
+            for (int i = 0; i < TINTS; i++) {
+                tints[i] = new Color(1f / TINT_GAIN, 1f / TINT_GAIN, 1f / TINT_GAIN, 1);
+                for (int entry = 0; entry < RAMP_SIZE; entry++) {
+                    int value = Math.round(entry * 255f / (RAMP_SIZE - 1));
+                    int index = (i * RAMP_SIZE + entry) * 3;
+                    ramps[index] = value;
+                    ramps[index + 1] = value;
+                    ramps[index + 2] = value;
+                }
+            }
+        }
+    }
+
+    /** Only accessed statically */
+    private NodeSheets() {}
+
+    /**
+     * Returns the path of the compiled sheet split from the given sheet.
+     *
+     * This holds the neutral sprites, or a copy of the colored sheet if it is kept in color.
+     *
+     * @param file  The colored sheet (the lit one, for animations)
+     *
+     * @return the path of the compiled sheet
+     */
+    public static String neutralPath(String file) {
+        return CompressedTextures.DIRECTORY + file.substring(0, file.length() - ".png".length()) + ".neutral.png";
+    }
+
+    /**
+     * Splits the neutral lit and dimmed sprites from a sheet with one column per color.
+     *
+     * If the colored sprites are too far from any ramp of the grey ones, the sheet is kept in
+     * color instead, and a copy of the whole sheet is returned.
+     *
+     * @param sheet     The colored sheet
+     * @param tinting   Tinting of the sheet to fill in
+     *
+     * @return a sheet with the neutral lit sprite above the neutral dimmed sprite, or a copy of the sheet
+     */
+    public static Pixmap splitSheet(Pixmap sheet, Tinting tinting) {
+        int width = sheet.getWidth() / 6;
+        int height = sheet.getHeight() / 2;
+
+        float error = 0;
+        for (int row = 0; row < 2; row++) {
+            Color grey = averageColor(sheet, NEUTRAL * width, row * height, width, height);
+            for (int col = 0; col < 6; col++) {
+                int type = 2 * col + row;
+                tinting.tints[type] = tintFor(averageColor(sheet, col * width, row * height, width, height), grey);
+                error = Math.max(error, measureRamp(sheet, col * width, row * height, NEUTRAL * width, row * height,
+                        width, height, tinting.ramps, type));
+            }
+        }
+
+        if (error > MAX_RAMP_ERROR) {
+            tinting.keepColored();
+            Pixmap copy = new Pixmap(sheet.getWidth(), sheet.getHeight(), sheet.getFormat());
+            copy.setBlending(Pixmap.Blending.None);
+            copy.drawPixmap(sheet, 0, 0);
+            return copy;
+        }
+        Pixmap neutral = new Pixmap(width, 2 * height, sheet.getFormat());
+        neutral.setBlending(Pixmap.Blending.None);
+        neutral.drawPixmap(sheet, 0, 0, NEUTRAL * width, 0, width, 2 * height);
+        return neutral;
+    }
+
+    /**
+     * Splits the neutral lit and dimmed animations from a pair of sheets with one row per color.
+     *
+     * Animations are always tinted, as keeping every color would be too large a texture.
+     *
+     * @param high      The sheet with the lit animations
+     * @param low       The sheet with the dimmed animations
+     * @param tinting   Tinting of the sheets to fill in
+     *
+     * @return a sheet with the neutral lit frames above the neutral dimmed frames
+     */
+    public static Pixmap splitAnimations(Pixmap high, Pixmap low, Tinting tinting) {
+        Pixmap[] sheets = { high, low };
+        int width = high.getWidth();
+        int height = high.getHeight() / 6;
+
+        Pixmap neutral = new Pixmap(width, 2 * height, high.getFormat());
+        neutral.setBlending(Pixmap.Blending.None);
+        for (int variant = 0; variant < 2; variant++) {
+            Pixmap sheet = sheets[variant];
+            Color grey = averageColor(sheet, 0, NEUTRAL * height, width, height);
+            for (int row = 0; row < 6; row++) {
+                int type = 2 * row + variant;
+                tinting.tints[type] = tintFor(averageColor(sheet, 0, row * height, width, height), grey);
+                measureRamp(sheet, 0, row * height, 0, NEUTRAL * height, width, height, tinting.ramps, type);
+            }
+            neutral.drawPixmap(sheet, 0, variant * height, 0, NEUTRAL * height, width, height);
+        }
+        return neutral;
+    }
+
+    /**
+     * Returns whether a tint table was written in the layout that this version of the game reads.
+     *
+     * @param table The parsed {@link #TINT_FILE}
+     *
+     * @return whether the table can be read
+     */
+    public static boolean isReadable(JsonValue table) {
+        return table.getInt("version", 1) == TABLE_VERSION;
+    }
+
+    /**
+     * Reads the tinting of a sheet from the table written by the tool.
+     *
+     * @param table The parsed {@link #TINT_FILE}
+     * @param file  The colored sheet (the lit one, for animations)
+     *
+     * @return the tinting of the sheet, or null if the table does not have it
+     */
+    public static Tinting readTinting(JsonValue table, String file) {
+        JsonValue entry = table.get(file);
+        if (entry == null || !entry.isObject()) {
+            return null;
+        }
+        JsonValue tints = entry.get("tints");
+        JsonValue ramps = entry.get("ramps");
+        if (tints == null || tints.size != TINTS * 4 || ramps == null || ramps.size != TINTS * RAMP_SIZE * 3) {
+            return null;
+        }
+        Tinting tinting = new Tinting();
+        tinting.colored = entry.getBoolean("colored", false);
+        float[] channels = tints.asFloatArray();
+        for (int i = 0; i < TINTS; i++) {
+            tinting.tints[i] = new Color(channels[i * 4], channels[i * 4 + 1], channels[i * 4 + 2], channels[i * 4 + 3]);
+        }
+        System.arraycopy(ramps.asIntArray(), 0, tinting.ramps, 0, tinting.ramps.length);
+        return tinting;
+    }
+
+    /**
+     * Returns the average color of the mostly opaque pixels in an area of a pixmap.
+     *
+     * Only every few pixels are sampled, which is plenty for the large flat areas of a node sprite.
+     *
+     * @param pixmap    Pixmap to sample
+     * @param x         x-coordinate of the top-left corner of the area
+     * @param y         y-coordinate of the top-left corner of the area
+     * @param width     Width of the area
+     * @param height    Height of the area
+     *
+     * @return the average color, or transparent black if the area is empty
+     */
+    private static Color averageColor(Pixmap pixmap, int x, int y, int width, int height) {
+        float r = 0, g = 0, b = 0;
+        int count = 0;
+        for (int py = y; py < y + height; py += SAMPLE_STEP) {
+            for (int px = x; px < x + width; px += SAMPLE_STEP) {
+                int pixel = pixmap.getPixel(px, py);
+                if ((pixel & 0xff) < 128) {
+                    continue;
+                }
+                r += (pixel >>> 24) & 0xff;
+                g += (pixel >>> 16) & 0xff;
+                b += (pixel >>> 8) & 0xff;
+                count++;
+            }
+        }
+        if (count == 0) {
+            return new Color(0, 0, 0, 0);
+        }
+        return new Color(r / (255f * count), g / (255f * count), b / (255f * count), 1);
+    }
+
+    /**
+     * Fills in the color ramp that maps a grey sprite to a colored one, and returns how far the
+     * colored sprite is from the grey one seen through that ramp.
+     *
+     * Each entry of the ramp is the average color of the colored pixels whose grey pixels are of
+     * that brightness. Entries that no pixel falls in are interpolated from their neighbours. A
+     * pixel that is opaque in only one of the two sprites counts as entirely wrong, so sprites of
+     * different shapes are far apart. A colored sprite that is missing altogether is not measured.
+     *
+     * @param sheet     Pixmap holding both sprites
+     * @param x         x-coordinate of the top-left corner of the colored sprite
+     * @param y         y-coordinate of the top-left corner of the colored sprite
+     * @param greyX     x-coordinate of the top-left corner of the grey sprite
+     * @param greyY     y-coordinate of the top-left corner of the grey sprite
+     * @param width     Width of the sprites
+     * @param height    Height of the sprites
+     * @param ramps     Color ramps of every node type, to fill in
+     * @param type      Node type whose ramp to fill in
+     *
+     * @return the average error per color channel, out of 255
+     */
+    private static float measureRamp(Pixmap sheet, int x, int y, int greyX, int greyY, int width, int height,
+                                     int[] ramps, int type) {
+        float[] sums = new float[RAMP_SIZE * 3];
+        int[] counts = new int[RAMP_SIZE];
+        for (int py = 0; py < height; py += SAMPLE_STEP) {
+            for (int px = 0; px < width; px += SAMPLE_STEP) {
+                int pixel = sheet.getPixel(x + px, y + py);
+                int grey = sheet.getPixel(greyX + px, greyY + py);
+                if ((pixel & 0xff) < 128 || (grey & 0xff) < 128) {
+                    continue;
+                }
+                int entry = rampEntry(grey);
+                sums[entry * 3] += (pixel >>> 24) & 0xff;
+                sums[entry * 3 + 1] += (pixel >>> 16) & 0xff;
+                sums[entry * 3 + 2] += (pixel >>> 8) & 0xff;
+                counts[entry]++;
+            }
+        }
+
+        int offset = type * RAMP_SIZE * 3;
+        for (int entry = 0; entry < RAMP_SIZE; entry++) {
+            int below = entry;
+            while (below >= 0 && counts[below] == 0) {
+                below--;
+            }
+            int above = entry;
+            while (above < RAMP_SIZE && counts[above] == 0) {
+                above++;
+            }
+            for (int channel = 0; channel < 3; channel++) {
+                float value;
+                if (below < 0 && above == RAMP_SIZE) {
+                    value = 0;
+                } else if (below < 0) {
+                    value = sums[above * 3 + channel] / counts[above];
+                } else if (above == RAMP_SIZE || below == above) {
+                    value = sums[below * 3 + channel] / counts[below];
+                } else {
+                    float t = (entry - below) / (float) (above - below);
+                    value = (1 - t) * sums[below * 3 + channel] / counts[below] + t * sums[above * 3 + channel] / counts[above];
+                }
+                ramps[offset + entry * 3 + channel] = Math.round(value);
+            }
+        }
+
+        float error = 0;
+        int count = 0;
+        int colored = 0;
+        for (int py = 0; py < height; py += SAMPLE_STEP) {
+            for (int px = 0; px < width; px += SAMPLE_STEP) {
+                int pixel = sheet.getPixel(x + px, y + py);
+                int grey = sheet.getPixel(greyX + px, greyY + py);
+                boolean opaque = (pixel & 0xff) >= 128;
+                if (opaque) {
+                    colored++;
+                }
+                if (opaque != (grey & 0xff) >= 128) {
+                    error += 255;
+                } else if (opaque) {
+                    int index = offset + rampEntry(grey) * 3;
+                    error += (Math.abs(((pixel >>> 24) & 0xff) - ramps[index])
+                            + Math.abs(((pixel >>> 16) & 0xff) - ramps[index + 1])
+                            + Math.abs(((pixel >>> 8) & 0xff) - ramps[index + 2])) / 3f;
+                } else {
+                    continue;
+                }
+                count++;
+            }
+        }
+        return colored == 0 ? 0 : error / count;
+    }
+
+    /**
+     * Returns the ramp entry for the brightness of a grey pixel, matching the node shader.
+     *
+     * @param grey  Grey pixel, as RGBA8888
+     *
+     * @return the nearest ramp entry
+     */
+    private static int rampEntry(int grey) {
+        float brightness = (((grey >>> 24) & 0xff) + ((grey >>> 16) & 0xff) + ((grey >>> 8) & 0xff)) / (3f * 255f);
+        return Math.round(brightness * (RAMP_SIZE - 1));
+    }
+
+    /**
+     * Returns the tint that turns a grey sprite into a colored one, given their average colors.
+     *
+     * The tint is scaled down by {@link #TINT_GAIN}, which is scaled back up when drawing, so that
+     * colors brighter than the grey sprite can still be reached.
+     *
+     * @param color     Average color of the colored sprite
+     * @param grey      Average color of the grey sprite
+     *
+     * @return the tint to draw the grey sprite with, transparent if the colored sprite is empty
+     */
+    private static Color tintFor(Color color, Color grey) {
+        return new Color(channelTint(color.r, grey.r), channelTint(color.g, grey.g), channelTint(color.b, grey.b), color.a);
+    }
+
+    /**
+     * Returns the tint for a single color channel.
+     *
+     * @param color     Channel of the colored sprite
+     * @param grey      Same channel of the grey sprite
+     *
+     * @return the tint for that channel, between 0 and 1
+     */
+    private static float channelTint(float color, float grey) {
+        if (grey <= 0) {
+            return 0;
+        }
+        return Math.min(1f, color / (grey * TINT_GAIN));
+    }
+}
@@ -0,0 +1,79 @@
+package com.adisgrace.games.util;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * This class parses a JSON entry into a {@link Skin}.
+ *
+ * The asset is only specified by file name.  There are no special parameters.
+ *
+ * The texture atlas of a skin is loaded along with it, and must have the same name as
+ * the skin file with the extension .atlas.
+ */
+public class SkinParser implements AssetParser<Skin> {
+    /** The current skin entry in the JSON directory */
+    private JsonValue root;
+
+    /**
+     * Returns the asset type generated by this parser
+     *
+     * @return the asset type generated by this parser
+     */
+    public Class<Skin> getType() {
+        return Skin.class;
+    }
+
+    /**
+     * Resets the parser iterator for the given directory.
+     *
+     * The value directory is assumed to be the root of a larger JSON structure.
+     * The individual assets are defined by subtrees in this structure.
+     *
+     * @param directory    The JSON representation of the asset directory
+     */
+    public void reset(JsonValue directory) {
+        root = directory;
+        root = root.getChild( "skins" );
+    }
+
+    /**
+     * Returns true if there are still assets left to generate
+     *
+     * @return true if there are still assets left to generate
+     */
+    public boolean hasNext() {
+        return root != null;
+    }
+
+    /**
+     * Processes the next available skin, loading it into the asset manager
+     *
+     * {@link Skin} objects have no additional loader properties.  They are
+     * specified key : filename.
+     *
+     * This method fails silently if there are no available assets to process.
+     *
+     * @param manager    The asset manager to load an asset
+     * @param keymap    The mapping of JSON keys to asset file names
+     */
+    public void processNext(AssetManager manager, ObjectMap<String,String> keymap) {
+        String file = root.asString();
+        keymap.put(root.name(), file);
+        manager.load( file, Skin.class, null );
+        root = root.next();
+    }
+
+    /**
+     * Returns true if o is another SkinParser
+     *
+     * @return true if o is another SkinParser
+     */
+    public boolean equals(Object o) {
+        return o instanceof SkinParser;
+    }
+
+
+}
@@ -0,0 +1,76 @@
+package com.adisgrace.games.util;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * This class parses a JSON entry into a {@link Sound}.
+ *
+ * The asset is only specified by file name.  There are no special parameters.
+ */
+public class SoundParser implements AssetParser<Sound> {
+    /** The current sound entry in the JSON directory */
+    private JsonValue root;
+
+    /**
+     * Returns the asset type generated by this parser
+     *
+     * @return the asset type generated by this parser
+     */
+    public Class<Sound> getType() {
+        return Sound.class;
+    }
+
+    /**
+     * Resets the parser iterator for the given directory.
+     *
+     * The value directory is assumed to be the root of a larger JSON structure.
+     * The individual assets are defined by subtrees in this structure.
+     *
+     * @param directory    The JSON representation of the asset directory
+     */
+    public void reset(JsonValue directory) {
+        root = directory;
+        root = root.getChild( "sounds" );
+    }
+
+    /**
+     * Returns true if there are still assets left to generate
+     *
+     * @return true if there are still assets left to generate
+     */
+    public boolean hasNext() {
+        return root != null;
+    }
+
+    /**
+     * Processes the next available sound, loading it into the asset manager
+     *
+     * {@link Sound} objects have no additional loader properties.  They are
+     * specified key : filename.
+     *
+     * This method fails silently if there are no available assets to process.
+     *
+     * @param manager    The asset manager to load an asset
+     * @param keymap    The mapping of JSON keys to asset file names
+     */
+    public void processNext(AssetManager manager, ObjectMap<String,String> keymap) {
+        String file = root.asString();
+        keymap.put(root.name(), file);
+        manager.load( file, Sound.class, null );
+        root = root.next();
+    }
+
+    /**
+     * Returns true if o is another SoundParser
+     *
+     * @return true if o is another SoundParser
+     */
+    public boolean equals(Object o) {
+        return o instanceof SoundParser;
+    }
+
+
+}
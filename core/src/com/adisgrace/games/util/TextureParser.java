@@ -27,10 +27,32 @@ import com.badlogic.gdx.utils.ObjectMap;
  * used on loading.
  * 
  * all properties) are stored in the file.
+ *
+ * If the parser has a {@link CompressedTextures}, a compiled variant of the file is loaded
+ * instead whenever there is one. Compiled variants carry their own mipmaps, so they are
+ * filtered with mipmaps unless the entry gives its own minFilter.
  */
 public class TextureParser implements AssetParser<Texture> {
     /** The current font entry in the JSON directory */
     private JsonValue root;
+    /** The chooser for compiled texture variants (may be null) */
+    private CompressedTextures compressed;
+
+    /**
+     * Creates a parser that always loads the files named in the directory.
+     */
+    public TextureParser() {
+        this( null );
+    }
+
+    /**
+     * Creates a parser that loads compiled variants of textures where possible.
+     *
+     * @param compressed    The chooser for compiled variants (or null for none)
+     */
+    public TextureParser(CompressedTextures compressed) {
+        this.compressed = compressed;
+    }
 
     /**
      * Returns the asset type generated by this parser
@@ -87,7 +109,10 @@ public class TextureParser implements AssetParser<Texture> {
             params.wrapU = Texture.TextureWrap.ClampToEdge;
             params.wrapV = Texture.TextureWrap.ClampToEdge;
             params.format = Pixmap.Format.RGBA8888;
-            String file = root.asString();
+            String file = resolve( root.asString() );
+            if (CompressedTextures.isCompiled( file )) {
+                params.minFilter = Texture.TextureFilter.MipMapLinearLinear;
+            }
             keymap.put(root.name(),file);
             manager.load( file,Texture.class, params );
 		} else {
@@ -99,6 +124,10 @@ public class TextureParser implements AssetParser<Texture> {
             params.format = root.getBoolean( "alpha",true ) ? Pixmap.Format.RGBA8888 : Pixmap.Format.RGB888;
             String file = root.getString( "file", null );
             if (file != null) {
+                file = resolve( file );
+                if (CompressedTextures.isCompiled( file ) && !root.has( "minFilter" )) {
+                    params.minFilter = Texture.TextureFilter.MipMapLinearLinear;
+                }
                 keymap.put(root.name(),file);
                 manager.load( file,Texture.class, params );
             }
@@ -106,6 +135,17 @@ public class TextureParser implements AssetParser<Texture> {
         root = root.next();
     }
 
+    /**
+     * Returns the file to load for the given texture file
+     *
+     * @param file  The file named in the directory
+     *
+     * @return the file to load for the given texture file
+     */
+    private String resolve(String file) {
+        return compressed == null ? file : compressed.resolve( file );
+    }
+
     /**
      * Returns true if o is another TextureParser
      *
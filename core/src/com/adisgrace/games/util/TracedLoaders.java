@@ -0,0 +1,118 @@
+package com.adisgrace.games.util;
+
+import com.adisgrace.games.StartupTrace;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AssetLoader;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Wraps {@link AssetLoader}s so that every asset they load is recorded by {@link StartupTrace}.
+ *
+ * For an asynchronous loader, the part run on the loader thread is recorded as "decode", and the
+ * part run on the rendering thread, which for textures is the upload to the GPU, as "upload".
+ * A synchronous loader does everything on the rendering thread, which is recorded as "load".
+ */
+public class TracedLoaders {
+    /** Category of the recorded spans */
+    private static final String CATEGORY = "asset";
+
+    /** Only accessed statically */
+    private TracedLoaders() {}
+
+    /**
+     * Returns a loader that records every asset loaded by the given one.
+     *
+     * @param loader    The loader to wrap
+     *
+     * @return the wrapping loader, or the given one if it is neither synchronous nor asynchronous
+     */
+    public static <T, P extends AssetLoaderParameters<T>> AssetLoader<T, P> wrap(AssetLoader<T, P> loader) {
+        if (loader instanceof AsynchronousAssetLoader) {
+            return new Async<T, P>((AsynchronousAssetLoader<T, P>) loader);
+        } else if (loader instanceof SynchronousAssetLoader) {
+            return new Sync<T, P>((SynchronousAssetLoader<T, P>) loader);
+        }
+        return loader;
+    }
+
+    /**
+     * Returns a resolver that resolves file names as the given loader does.
+     *
+     * @param loader    The loader being wrapped
+     *
+     * @return a resolver that resolves file names as the given loader does
+     */
+    private static FileHandleResolver resolverOf(final AssetLoader<?, ?> loader) {
+        return new FileHandleResolver() {
+            @Override
+            public FileHandle resolve(String fileName) {
+                return loader.resolve( fileName );
+            }
+        };
+    }
+
+    /**
+     * Wraps an asynchronous loader.
+     */
+    private static class Async<T, P extends AssetLoaderParameters<T>> extends AsynchronousAssetLoader<T, P> {
+        /** The loader that does the work */
+        private AsynchronousAssetLoader<T, P> loader;
+
+        Async(AsynchronousAssetLoader<T, P> loader) {
+            super( resolverOf( loader ) );
+            this.loader = loader;
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file, P params) {
+            long start = StartupTrace.begin();
+            loader.loadAsync( manager, fileName, file, params );
+            StartupTrace.end( "decode " + fileName, CATEGORY, start );
+        }
+
+        @Override
+        public T loadSync(AssetManager manager, String fileName, FileHandle file, P params) {
+            long start = StartupTrace.begin();
+            T asset = loader.loadSync( manager, fileName, file, params );
+            StartupTrace.end( "upload " + fileName, CATEGORY, start );
+            return asset;
+        }
+
+        @Override
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, P params) {
+            return loader.getDependencies( fileName, file, params );
+        }
+    }
+
+    /**
+     * Wraps a synchronous loader.
+     */
+    private static class Sync<T, P extends AssetLoaderParameters<T>> extends SynchronousAssetLoader<T, P> {
+        /** The loader that does the work */
+        private SynchronousAssetLoader<T, P> loader;
+
+        Sync(SynchronousAssetLoader<T, P> loader) {
+            super( resolverOf( loader ) );
+            this.loader = loader;
+        }
+
+        @Override
+        public T load(AssetManager manager, String fileName, FileHandle file, P params) {
+            long start = StartupTrace.begin();
+            T asset = loader.load( manager, fileName, file, params );
+            StartupTrace.end( "load " + fileName, CATEGORY, start );
+            return asset;
+        }
+
+        @Override
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, P params) {
+            return loader.getDependencies( fileName, file, params );
+        }
+    }
+}
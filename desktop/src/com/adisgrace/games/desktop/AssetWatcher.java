@@ -0,0 +1,163 @@
+package com.adisgrace.games.desktop;
+
+import com.adisgrace.games.HotReload;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the asset folders while the game runs, and reports every file that changes to
+ * {@link HotReload}.
+ *
+ * Every folder under the asset root is watched, including the levels and the art, except for
+ * those written by the game and the build tools themselves. Folders created while the game runs
+ * are watched as well. Editors often write a file in several steps, so changes are only reported
+ * once the folders have been quiet for {@link #QUIET_MS}, and each file only once.
+ */
+public class AssetWatcher implements Runnable {
+    /** Folders directly under the asset root that are not watched */
+    private static final String[] SKIPPED = { "compiled", "cache", "levels-old" };
+    /** Time without changes after which the changes so far are reported, in milliseconds */
+    private static final long QUIET_MS = 50;
+
+    /** The asset root, which reported paths are relative to */
+    private Path root;
+    /** The service that the folders are registered with */
+    private WatchService watcher;
+    /** The folder of each registration */
+    private Map<WatchKey, Path> folders = new HashMap<WatchKey, Path>();
+
+    /**
+     * Starts watching the given asset root on a background thread.
+     *
+     * @param root  The asset root
+     *
+     * @throws IOException if the folders could not be watched
+     */
+    public static void start(Path root) throws IOException {
+        Thread thread = new Thread(new AssetWatcher(root.toAbsolutePath()), "AssetWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Creates a watcher with every folder under the given asset root registered.
+     *
+     * @param root  The asset root
+     *
+     * @throws IOException if the folders could not be watched
+     */
+    private AssetWatcher(Path root) throws IOException {
+        this.root = root;
+        watcher = FileSystems.getDefault().newWatchService();
+        register(root);
+    }
+
+    /**
+     * Registers the given folder and every folder under it, other than the skipped ones.
+     *
+     * @param start The folder to register
+     *
+     * @throws IOException if a folder could not be registered
+     */
+    private void register(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (isSkipped(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey key = dir.register(watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                folders.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Returns whether the given folder is one that is not watched.
+     *
+     * @param dir   The folder
+     *
+     * @return whether the folder is not watched
+     */
+    private boolean isSkipped(Path dir) {
+        if (!root.equals(dir.getParent())) {
+            return false;
+        }
+        for (String skipped : SKIPPED) {
+            if (dir.getFileName().toString().equals(skipped)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports changes until the game exits.
+     */
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                Set<String> changed = new LinkedHashSet<String>();
+                WatchKey key = watcher.take();
+                while (key != null) {
+                    collect(key, changed);
+                    key = watcher.poll(QUIET_MS, TimeUnit.MILLISECONDS);
+                }
+                for (String file : changed) {
+                    HotReload.post(file);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds the files changed in the events of the given registration, and watches any new folders.
+     *
+     * @param key       The registration with events
+     * @param changed   The changed files, relative to the asset root
+     */
+    private void collect(WatchKey key, Set<String> changed) {
+        Path folder = folders.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (folder == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+            Path path = folder.resolve((Path) event.context());
+            if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    try {
+                        register(path);
+                    } catch (IOException e) {
+                        System.err.println("Could not watch " + path + ": " + e.getMessage());
+                    }
+                }
+            } else {
+                changed.add(root.relativize(path).toString().replace(File.separatorChar, '/'));
+            }
+        }
+        if (!key.reset()) {
+            folders.remove(key);
+        }
+    }
+}
@@ -3,13 +3,48 @@ package com.adisgrace.games.desktop;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import com.adisgrace.games.FreeHim;
+import com.adisgrace.games.HotReload;
+import com.adisgrace.games.RenderScheduler;
+import com.adisgrace.games.StartupTrace;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
 
 public class DesktopLauncher {
 	public static void main (String[] arg) {
+		// Record startup as early as possible, so that only JVM startup comes before it
+		for (String a : arg) {
+			if (a.equals("--trace-startup")) {
+				StartupTrace.enable(ManagementFactory.getRuntimeMXBean().getStartTime());
+			}
+		}
+
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		config.width = 1280;
 		config.height = 720;
 		config.title = "Free Him";
+		// Frames are capped by RenderSettings instead, so that the cap can change while running
+		config.foregroundFPS = 0;
+
+		// Only redraw the node map when something changes
+		for (String a : arg) {
+			if (a.equals("--on-demand")) {
+				RenderScheduler.setOnDemand(true);
+			}
+		}
+
+		// Apply changes to levels and art while the game runs, from the asset folder it runs in
+		for (String a : arg) {
+			if (a.equals("--hot-reload")) {
+				try {
+					AssetWatcher.start(Paths.get(""));
+					HotReload.enable();
+				} catch (IOException e) {
+					System.err.println("Could not watch the asset folders: " + e.getMessage());
+				}
+			}
+		}
 
 
 //		config.width = 300;
@@ -0,0 +1,194 @@
+package com.adisgrace.games.desktop;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Audio;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * Stand-in for the libGDX application, graphics, audio and GL that needs no window, GPU or
+ * sound device.
+ *
+ * Every GL call does nothing, apart from handing out object handles and reporting shaders as
+ * compiled and frame buffers as complete, so textures, meshes, shaders and frame buffers can all
+ * be created as usual. Draw calls, vertices and
+ * texture binds are counted instead of drawn, so the CPU side of rendering can be measured on
+ * machines with no display. Sounds can be created, but play silently. Files are read from the
+ * working directory, as on the desktop.
+ */
+public class HeadlessGL {
+    /** Draw calls made since the counters were reset */
+    public static int drawCalls;
+    /** Vertices submitted since the counters were reset */
+    public static long vertices;
+    /** Texture binds since the counters were reset */
+    public static int textureBinds;
+
+    /** Next handle to give out for a GL object, never 0 */
+    private static int nextHandle = 1;
+
+    /**
+     * Installs the stand-ins as the current libGDX application.
+     *
+     * @param width     Width of the pretend window
+     * @param height    Height of the pretend window
+     */
+    public static void install(final int width, final int height) {
+        Gdx.files = new LwjglFiles();
+        Gdx.gl = Gdx.gl20 = proxy(GL20.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return invokeGL(method, args);
+            }
+        });
+        Gdx.graphics = proxy(Graphics.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("getWidth") || name.equals("getBackBufferWidth")) {
+                    return width;
+                } else if (name.equals("getHeight") || name.equals("getBackBufferHeight")) {
+                    return height;
+                } else if (name.equals("getDeltaTime") || name.equals("getRawDeltaTime")) {
+                    return 1f / 60f;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+        Gdx.audio = proxy(Audio.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("newSound")) {
+                    return proxy(Sound.class, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            return defaultValue(proxy, method, args);
+                        }
+                    });
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+        Gdx.app = proxy(Application.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("getType")) {
+                    return Application.ApplicationType.HeadlessDesktop;
+                } else if (name.equals("getGraphics")) {
+                    return Gdx.graphics;
+                } else if (name.equals("getFiles")) {
+                    return Gdx.files;
+                } else if (name.equals("getAudio")) {
+                    return Gdx.audio;
+                } else if (name.equals("log") || name.equals("error")) {
+                    System.out.println(args[0] + ": " + args[1]);
+                    return null;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * Clears the draw call, vertex and texture bind counters.
+     */
+    public static void resetCounters() {
+        drawCalls = 0;
+        vertices = 0;
+        textureBinds = 0;
+    }
+
+    /**
+     * Handles a single GL call.
+     *
+     * @param method    The GL method called
+     * @param args      The arguments of the call
+     *
+     * @return the value the call should return
+     */
+    private static Object invokeGL(Method method, Object[] args) {
+        String name = method.getName();
+        if (name.startsWith("glGen") || name.startsWith("glCreate")) {
+            return nextHandle++;
+        } else if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+            // Report shaders as compiled and linked, with no active attributes or uniforms
+            int pname = (Integer) args[1];
+            boolean ok = pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_LINK_STATUS;
+            ((IntBuffer) args[2]).put(0, ok ? 1 : 0);
+            return null;
+        } else if (name.equals("glCheckFramebufferStatus")) {
+            return GL20.GL_FRAMEBUFFER_COMPLETE;
+        } else if (name.equals("glDrawElements")) {
+            // Quads are drawn as two triangles, sharing four vertices between six indices
+            drawCalls++;
+            vertices += (Integer) args[1] * 2 / 3;
+            return null;
+        } else if (name.equals("glDrawArrays")) {
+            drawCalls++;
+            vertices += (Integer) args[2];
+            return null;
+        } else if (name.equals("glBindTexture")) {
+            textureBinds++;
+            return null;
+        }
+        return defaultValue(null, method, args);
+    }
+
+    /**
+     * Returns the value that a call that does nothing should return.
+     *
+     * @param proxy     The proxy the call was made on
+     * @param method    The method called
+     * @param args      The arguments of the call
+     *
+     * @return zero, false or null, depending on the return type
+     */
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (name.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        } else if (name.equals("equals")) {
+            return proxy == args[0];
+        } else if (name.equals("toString")) {
+            return "HeadlessGL";
+        }
+
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == double.class) {
+            return 0.0;
+        } else if (type == String.class) {
+            return "";
+        }
+        return null;
+    }
+
+    /**
+     * Creates a proxy for an interface.
+     *
+     * @param type      The interface to implement
+     * @param handler   The handler for every call
+     *
+     * @return the proxy
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(HeadlessGL.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
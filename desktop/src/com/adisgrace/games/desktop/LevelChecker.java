@@ -0,0 +1,200 @@
+package com.adisgrace.games.desktop;
+
+import com.adisgrace.games.models.LevelModel;
+import com.adisgrace.games.models.TargetModel;
+import com.adisgrace.games.util.CompiledLevels;
+import com.adisgrace.games.util.Connector;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ArrayMap;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Build tool that checks every compiled level against the JSON files that it was compiled from.
+ *
+ * Each level is read twice, once from its compiled file and once from its JSON files, as the game
+ * would read it. The two models must describe the same level, down to the text, connectors and
+ * stress ratings of every node. The time taken to read the matching levels both ways is reported
+ * as well. Combos are not compared, as the models do not expose them. Levels whose JSON files
+ * cannot be read are skipped, as the {@link LevelCompiler} skips them too.
+ *
+ * Run through the checkLevels Gradle task, which compiles the levels first, or from the asset
+ * directory with the levels directory as the only argument. Exits with an error if any level
+ * is missing its compiled file or does not match.
+ */
+public class LevelChecker {
+    /** Number of times each level is read each way before timing, so that the reads are compiled */
+    private static final int WARMUP_READS = 10;
+    /** Number of times each level is read each way when timing */
+    private static final int TIMED_READS = 50;
+
+    public static void main (String[] arg) {
+        String directory = arg.length > 0 ? arg[0] : "levels";
+        Gdx.files = new LwjglFiles();
+
+        Array<String> matched = new Array<String>();
+        int failed = 0;
+        int skipped = 0;
+        for (FileHandle level : Gdx.files.internal(directory).list()) {
+            String levelJson = directory + "/" + level.name() + "/" + level.name() + ".json";
+            if (!level.isDirectory() || !Gdx.files.internal(levelJson).exists()) {
+                continue;
+            }
+            String expected;
+            try {
+                expected = describe(new LevelModel(levelJson, true));
+            } catch (RuntimeException e) {
+                System.err.println("Skipping " + levelJson + ": " + e.getMessage());
+                skipped++;
+                continue;
+            }
+            if (CompiledLevels.find(levelJson) == null) {
+                System.err.println(levelJson + " has no up to date compiled level");
+                failed++;
+                continue;
+            }
+            String actual = describe(new LevelModel(levelJson));
+            if (!expected.equals(actual)) {
+                System.err.println(levelJson + " does not match its compiled level:");
+                System.err.println(firstDifference(expected, actual));
+                failed++;
+                continue;
+            }
+            matched.add(levelJson);
+        }
+
+        System.out.println("Checked " + (matched.size + failed) + " levels, " + failed + " failed, "
+                + skipped + " skipped");
+        if (matched.size > 0) {
+            readAll(matched, WARMUP_READS, true);
+            readAll(matched, WARMUP_READS, false);
+            long jsonTime = readAll(matched, TIMED_READS, true);
+            long compiledTime = readAll(matched, TIMED_READS, false);
+            System.out.println(String.format("Read from JSON in %.2f ms a level, compiled in %.2f ms (%.1fx faster)",
+                    jsonTime / 1e6 / TIMED_READS / matched.size,
+                    compiledTime / 1e6 / TIMED_READS / matched.size,
+                    (double) jsonTime / compiledTime));
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads every given level a number of times, and returns how long it took.
+     *
+     * @param levels    The level files
+     * @param reads     The number of times to read each level
+     * @param fromJson  Whether to read the JSON files rather than the compiled levels
+     *
+     * @return the time taken, in nanoseconds
+     */
+    private static long readAll(Array<String> levels, int reads, boolean fromJson) {
+        long start = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            for (String levelJson : levels) {
+                new LevelModel(levelJson, fromJson);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Returns a description of everything that a level is read with, one property per line.
+     *
+     * @param level The level
+     *
+     * @return the description of the level
+     */
+    private static String describe(LevelModel level) {
+        StringBuilder out = new StringBuilder();
+        line(out, "name", level.getName());
+        line(out, "size", level.getWidth() + "x" + level.getHeight());
+        line(out, "days", level.getDaysLeft());
+        line(out, "tutorials", level.getTutorialPaths());
+        for (Map.Entry<String, TargetModel> entry : level.getTargets().entrySet()) {
+            TargetModel target = entry.getValue();
+            String prefix = entry.getKey() + ".";
+            line(out, prefix + "location", Arrays.toString(level.getTargetLoc(entry.getKey())));
+            line(out, prefix + "name", target.getName());
+            line(out, prefix + "stress", target.getStress() + "/" + target.getMaxStress());
+            line(out, prefix + "paranoia", target.getParanoia());
+            line(out, prefix + "suspicion", target.getSuspicion());
+            line(out, prefix + "position", target.getX() + "," + target.getY());
+            line(out, prefix + "state", target.getState());
+            line(out, prefix + "male", target.isMale());
+            line(out, prefix + "generic", target.isGeneric());
+            line(out, prefix + "defeat", target.getDefeatMessage());
+            line(out, prefix + "traits", target.getTraits().get_traits());
+            line(out, prefix + "first", describe(target.getFirstNodes()));
+            for (String fact : target.getNodes()) {
+                String node = prefix + fact + ".";
+                line(out, node + "title", target.getTitle(fact));
+                line(out, node + "content", target.getContent(fact));
+                line(out, node + "summary", target.getSummary(fact));
+                line(out, node + "position", target.getNodeCoords(fact));
+                line(out, node + "locked", target.getLocked(fact));
+                line(out, node + "cost", target.getStressCost(fact));
+                line(out, node + "damage", target.getTargetStressDamage(fact));
+                line(out, node + "rating", target.getStressRating(fact));
+                line(out, node + "subtree", Arrays.toString(target.getStressRatings(fact)));
+                line(out, node + "children", describe(target.getChildren(fact)));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Returns a description of nodes and the connectors leading to them, in order.
+     *
+     * @param paths Names of nodes, mapped to the connectors leading to them
+     *
+     * @return the description of the paths
+     */
+    private static String describe(ArrayMap<String, Array<Connector>> paths) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < paths.size; i++) {
+            out.append(paths.getKeyAt(i)).append(" via");
+            for (Connector connector : paths.getValueAt(i)) {
+                out.append(" (").append(connector.xcoord).append(",").append(connector.ycoord)
+                        .append(" ").append(connector.type).append(")");
+            }
+            out.append("; ");
+        }
+        return out.toString();
+    }
+
+    /**
+     * Appends a single property to a description.
+     *
+     * @param out   The description so far
+     * @param key   The name of the property
+     * @param value The value of the property
+     */
+    private static void line(StringBuilder out, String key, Object value) {
+        out.append(key).append(" = ").append(value).append("\n");
+    }
+
+    /**
+     * Returns the first line that differs between two descriptions.
+     *
+     * @param expected  The description read from the JSON files
+     * @param actual    The description read from the compiled level
+     *
+     * @return the differing lines, as read from each
+     */
+    private static String firstDifference(String expected, String actual) {
+        String[] expectedLines = expected.split("\n");
+        String[] actualLines = actual.split("\n");
+        for (int i = 0; i < Math.min(expectedLines.length, actualLines.length); i++) {
+            if (!expectedLines[i].equals(actualLines[i])) {
+                return "  JSON:     " + expectedLines[i] + "\n  compiled: " + actualLines[i];
+            }
+        }
+        return "  JSON has " + expectedLines.length + " lines, compiled has " + actualLines.length;
+    }
+}
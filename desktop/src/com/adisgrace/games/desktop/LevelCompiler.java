@@ -0,0 +1,44 @@
+package com.adisgrace.games.desktop;
+
+import com.adisgrace.games.util.CompiledLevels;
+import com.adisgrace.games.util.LevelWriter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.IOException;
+
+/**
+ * Build tool that compiles every level, along with its targets, into a single compiled level.
+ *
+ * Levels are found as levels/Level/Level.json, with their targets in levels/Level/targets, and
+ * are written by a {@link LevelWriter} at the paths given by {@link CompiledLevels}. Compiled
+ * levels that are newer than all of their sources are skipped.
+ *
+ * Run through the compileLevels Gradle task, or from the asset directory with the levels
+ * directory as the only argument.
+ */
+public class LevelCompiler {
+    public static void main (String[] arg) throws IOException {
+        String directory = arg.length > 0 ? arg[0] : "levels";
+        Gdx.files = new LwjglFiles();
+
+        int written = 0;
+        for (FileHandle level : Gdx.files.internal(directory).list()) {
+            String levelJson = directory + "/" + level.name() + "/" + level.name() + ".json";
+            if (!level.isDirectory() || !Gdx.files.internal(levelJson).exists()) {
+                continue;
+            }
+            if (CompiledLevels.find(levelJson) != null) {
+                continue;
+            }
+            try {
+                new LevelWriter().write(levelJson, Gdx.files.local(CompiledLevels.compiledPath(levelJson)));
+                written++;
+            } catch (RuntimeException e) {
+                System.err.println("Couldn't compile " + levelJson + ": " + e.getMessage());
+            }
+        }
+        System.out.println("Compiled " + written + " levels");
+    }
+}
@@ -0,0 +1,141 @@
+package com.adisgrace.games.desktop;
+
+import com.adisgrace.games.util.NodeSheets;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.JsonReader;
+
+/**
+ * Build tool that splits the neutral node sheets and their tints from the colored node sheets.
+ *
+ * Each neutral sheet is written as a PNG, and the tints and color ramps of every sheet to a single
+ * JSON table, at the paths given by {@link NodeSheets}. A sheet that cannot be tinted is copied
+ * whole instead. The game then loads only these, rather than decoding and
+ * measuring all of the colored sheets at startup. Nothing is written if the table is newer than
+ * every colored sheet.
+ *
+ * Run through the compileNodeSheets Gradle task, or with the asset root as an argument.
+ */
+public class NodeSheetCompiler {
+
+    public static void main (String[] arg) {
+        FileHandle root = new FileHandle(arg.length > 0 ? arg[0] : ".");
+        FileHandle table = root.child(NodeSheets.TINT_FILE);
+        if (isCurrent(root, table)) {
+            System.out.println("Node sheets are up to date");
+            return;
+        }
+        GdxNativesLoader.load();
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("    \"version\": ").append(NodeSheets.TABLE_VERSION).append(",\n");
+        for (String file : NodeSheets.SHEETS) {
+            NodeSheets.Tinting tinting = new NodeSheets.Tinting();
+            Pixmap sheet = new Pixmap(root.child(file));
+            write(root, file, NodeSheets.splitSheet(sheet, tinting));
+            sheet.dispose();
+            appendTinting(json, file, tinting);
+        }
+        for (String[] files : NodeSheets.ANIMATIONS) {
+            NodeSheets.Tinting tinting = new NodeSheets.Tinting();
+            Pixmap high = new Pixmap(root.child(files[0]));
+            Pixmap low = new Pixmap(root.child(files[1]));
+            write(root, files[0], NodeSheets.splitAnimations(high, low, tinting));
+            high.dispose();
+            low.dispose();
+            appendTinting(json, files[0], tinting);
+        }
+        json.setLength(json.length() - 2);
+        json.append("\n}\n");
+        table.writeString(json.toString(), false, "UTF-8");
+        System.out.println("Compiled " + (NodeSheets.SHEETS.length + NodeSheets.ANIMATIONS.length) + " node sheets");
+    }
+
+    /**
+     * Returns true if the tint table is in the current layout, and it and every neutral sheet are
+     * newer than all of the colored sheets.
+     *
+     * @param root  The asset root
+     * @param table The tint table
+     *
+     * @return true if nothing needs to be written
+     */
+    private static boolean isCurrent(FileHandle root, FileHandle table) {
+        if (!table.exists() || !NodeSheets.isReadable(new JsonReader().parse(table))) {
+            return false;
+        }
+        for (String file : NodeSheets.SHEETS) {
+            if (!isCurrent(root, table, file, file)) {
+                return false;
+            }
+        }
+        for (String[] files : NodeSheets.ANIMATIONS) {
+            if (!isCurrent(root, table, files[0], files[0]) || !isCurrent(root, table, files[0], files[1])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the tint table and a neutral sheet are newer than one of its colored sheets.
+     *
+     * @param root      The asset root
+     * @param table     The tint table
+     * @param neutral   The sheet that names the neutral sheet
+     * @param file      The colored sheet to compare against
+     *
+     * @return true if the neutral sheet and table are up to date with the colored sheet
+     */
+    private static boolean isCurrent(FileHandle root, FileHandle table, String neutral, String file) {
+        FileHandle compiled = root.child(NodeSheets.neutralPath(neutral));
+        long source = root.child(file).lastModified();
+        return compiled.exists() && compiled.lastModified() >= source && table.lastModified() >= source;
+    }
+
+    /**
+     * Writes a neutral sheet as a PNG, and disposes of it.
+     *
+     * @param root      The asset root
+     * @param file      The colored sheet that the neutral sheet was split from
+     * @param neutral   The neutral sheet
+     */
+    private static void write(FileHandle root, String file, Pixmap neutral) {
+        try {
+            PixmapIO.writePNG(root.child(NodeSheets.neutralPath(file)), neutral);
+        } finally {
+            neutral.dispose();
+        }
+    }
+
+    /**
+     * Appends the tinting of a sheet to the tint table, with the tints as a flat array of red, green,
+     * blue and alpha, and the ramps as a flat array of red, green and blue.
+     *
+     * @param json      The tint table so far
+     * @param file      The colored sheet
+     * @param tinting   The tinting of the sheet
+     */
+    private static void appendTinting(StringBuilder json, String file, NodeSheets.Tinting tinting) {
+        json.append("    \"").append(file).append("\": {\n");
+        json.append("        \"colored\": ").append(tinting.colored).append(",\n");
+        json.append("        \"tints\": [");
+        for (int i = 0; i < tinting.tints.length; i++) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            json.append(tinting.tints[i].r).append(", ").append(tinting.tints[i].g).append(", ")
+                    .append(tinting.tints[i].b).append(", ").append(tinting.tints[i].a);
+        }
+        json.append("],\n        \"ramps\": [");
+        for (int i = 0; i < tinting.ramps.length; i++) {
+            if (i > 0) {
+                json.append(i % (NodeSheets.RAMP_SIZE * 3) == 0 ? ",\n            " : ", ");
+            }
+            json.append(tinting.ramps[i]);
+        }
+        json.append("]\n    },\n");
+    }
+}
@@ -0,0 +1,54 @@
+package com.adisgrace.games.desktop;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Sprite batch that counts the decisions it makes about when to flush.
+ *
+ * Vertices are generated exactly as by an ordinary sprite batch, so the CPU cost being measured is
+ * the real one. Every call to flush is counted, whether or not there was anything to flush, along
+ * with every change of texture, since those are what split a frame into separate draw calls.
+ */
+public class RecordingBatch extends SpriteBatch {
+    /** Calls to flush since the counters were reset, including implicit ones */
+    public int flushes;
+    /** Changes of texture since the counters were reset */
+    public int textureSwitches;
+    /** Calls to begin since the counters were reset */
+    public int begins;
+
+    /**
+     * Creates a recording batch with the default size and shader.
+     */
+    public RecordingBatch() {
+        super();
+    }
+
+    /**
+     * Clears the flush, texture switch and begin counters.
+     */
+    public void resetCounters() {
+        flushes = 0;
+        textureSwitches = 0;
+        begins = 0;
+    }
+
+    @Override
+    public void begin() {
+        begins++;
+        super.begin();
+    }
+
+    @Override
+    public void flush() {
+        flushes++;
+        super.flush();
+    }
+
+    @Override
+    protected void switchTexture(Texture texture) {
+        textureSwitches++;
+        super.switchTexture(texture);
+    }
+}
@@ -0,0 +1,239 @@
+package com.adisgrace.games.desktop;
+
+import com.adisgrace.games.AnimationClock;
+import com.adisgrace.games.ConnectorMesh;
+import com.adisgrace.games.Node;
+import com.adisgrace.games.NodeLayer;
+import com.adisgrace.games.NodeView;
+import com.adisgrace.games.TargetBarLayer;
+import com.adisgrace.games.TextureCompositor;
+import com.adisgrace.games.util.AssetDirectory;
+import com.adisgrace.games.util.Connector;
+import com.adisgrace.games.util.GameConstants;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.viewport.ExtendViewport;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the CPU cost of drawing the node map, with no window or GPU.
+ *
+ * Builds the same stage that GameController draws (connectors, then nodes, then target bars) for a
+ * generated level, and flies the camera over it along a fixed path that pans across the whole
+ * level and zooms all the way in and out. Each frame is drawn through a {@link RecordingBatch} on
+ * top of {@link HeadlessGL}, and the report gives the time taken to draw each frame along with
+ * the vertices, draw calls, flushes and texture switches it took.
+ *
+ * The level and camera path depend only on the arguments, so results can be compared between
+ * runs. Must be run from the asset directory. Arguments:
+ * <ul>
+ *     <li>--nodes N: number of nodes in the level (default 2000)</li>
+ *     <li>--frames N: number of frames to measure (default 600)</li>
+ *     <li>--warmup N: number of frames to draw before measuring (default 120)</li>
+ *     <li>--seed N: seed for generating the level (default 1)</li>
+ * </ul>
+ */
+public class RenderBenchmark {
+    /** Size of the pretend window */
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    /** Length of a frame, in seconds */
+    private static final float FRAME_TIME = 1f / 60f;
+    /** Tile offsets of each node in a pod from its target, which comes first */
+    private static final int[][] POD_OFFSETS = {
+            {0, 0}, {-1, -1}, {0, -1}, {1, -1}, {-1, 0}, {1, 0}, {-1, 1}, {0, 1}, {1, 1}, {0, 2}
+    };
+    /** Number of nodes in each target's pod, including the target */
+    private static final int POD_SIZE = POD_OFFSETS.length;
+    /** Frames taken to zoom in and back out once along the camera path */
+    private static final int ZOOM_PERIOD = 300;
+    /** Closest and furthest zoom along the camera path */
+    private static final float MIN_ZOOM = 1f;
+    private static final float MAX_ZOOM = 4f;
+
+    public static void main (String[] arg) {
+        int nodes = intArg(arg, "--nodes", 2000);
+        int frames = intArg(arg, "--frames", 600);
+        int warmup = intArg(arg, "--warmup", 120);
+        long seed = intArg(arg, "--seed", 1);
+
+        GdxNativesLoader.load();
+        HeadlessGL.install(WIDTH, HEIGHT);
+
+        long setupStart = System.nanoTime();
+        AssetDirectory directory = new AssetDirectory("assets.json");
+        directory.loadAssets();
+        directory.finishLoading();
+        GameConstants.setAssets(directory);
+        NodeView.loadAnimations(directory);
+        RecordingBatch batch = new RecordingBatch();
+        ExtendViewport viewport = new ExtendViewport(WIDTH, HEIGHT);
+        Stage stage = new Stage(viewport, batch);
+        ConnectorMesh connectorMesh = new ConnectorMesh();
+        TextureCompositor compositor = new TextureCompositor(batch);
+        NodeLayer nodeLayer = new NodeLayer(compositor);
+        TargetBarLayer targetBars = new TargetBarLayer(directory, compositor);
+        stage.addActor(connectorMesh);
+        stage.addActor(nodeLayer);
+        stage.addActor(targetBars);
+        float[] bounds = generateLevel(nodes, new Random(seed), connectorMesh, nodeLayer, targetBars);
+        long setupNanos = System.nanoTime() - setupStart;
+
+        OrthographicCamera camera = (OrthographicCamera) viewport.getCamera();
+        long[] frameNanos = new long[frames];
+        long vertices = 0, drawCalls = 0, flushes = 0, textureSwitches = 0, textureBinds = 0;
+        for (int frame = -warmup; frame < frames; frame++) {
+            moveCamera(camera, frame + warmup, bounds);
+            AnimationClock.update(FRAME_TIME);
+            stage.act(FRAME_TIME);
+
+            HeadlessGL.resetCounters();
+            batch.resetCounters();
+            long start = System.nanoTime();
+            stage.draw();
+            long elapsed = System.nanoTime() - start;
+            if (frame < 0) {
+                continue;
+            }
+
+            frameNanos[frame] = elapsed;
+            vertices += HeadlessGL.vertices;
+            drawCalls += HeadlessGL.drawCalls;
+            textureBinds += HeadlessGL.textureBinds;
+            flushes += batch.flushes;
+            textureSwitches += batch.textureSwitches;
+        }
+
+        long total = 0;
+        for (long nanos : frameNanos) {
+            total += nanos;
+        }
+        long[] sorted = Arrays.copyOf(frameNanos, frames);
+        Arrays.sort(sorted);
+
+        System.out.println("Render benchmark: " + nodes + " nodes, " + frames + " frames, seed " + seed);
+        System.out.println("  setup ms        " + setupNanos / 1000000);
+        System.out.println("  ns/frame mean   " + total / Math.max(1, frames));
+        System.out.println("  ns/frame p50    " + percentile(sorted, 0.5f));
+        System.out.println("  ns/frame p95    " + percentile(sorted, 0.95f));
+        System.out.println("  ns/frame p99    " + percentile(sorted, 0.99f));
+        System.out.println("  ns/frame max    " + percentile(sorted, 1f));
+        System.out.println("  vertices/frame  " + vertices / Math.max(1, frames));
+        System.out.println("  draws/frame     " + drawCalls / Math.max(1, frames));
+        System.out.println("  flushes/frame   " + flushes / Math.max(1, frames));
+        System.out.println("  switches/frame  " + textureSwitches / Math.max(1, frames));
+        System.out.println("  binds/frame     " + textureBinds / Math.max(1, frames));
+
+        stage.dispose();
+        connectorMesh.dispose();
+        nodeLayer.dispose();
+        compositor.dispose();
+        batch.dispose();
+    }
+
+    /**
+     * Fills the stage with pods of nodes laid out on a square of tiles, each pod joined to its
+     * target by connectors. Every target gets its bars, filled at random.
+     *
+     * @param count         Number of nodes to create
+     * @param random        Source of node states and colors
+     * @param connectorMesh Mesh to add connectors to
+     * @param nodeLayer     Layer to add nodes to
+     * @param targetBars    Layer to add target bars to
+     *
+     * @return the world bounds of the level, as {minX, minY, maxX, maxY}
+     */
+    private static float[] generateLevel(int count, Random random, ConnectorMesh connectorMesh, NodeLayer nodeLayer,
+                                         TargetBarLayer targetBars) {
+        Node.NodeState[] states = { Node.NodeState.LOCKED, Node.NodeState.UNSCANNED, Node.NodeState.SCANNED };
+        int pods = (count + POD_SIZE - 1) / POD_SIZE;
+        int podsPerRow = (int) Math.ceil(Math.sqrt(pods));
+        float[] bounds = { Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE };
+        Vector2 pos = new Vector2();
+
+        for (int i = 0; i < count; i++) {
+            int pod = i / POD_SIZE;
+            int member = i % POD_SIZE;
+            // Pods sit on a 4x4 block of tiles, with the target near the middle
+            int x = (pod % podsPerRow) * 4 + 1 + POD_OFFSETS[member][0];
+            int y = (pod / podsPerRow) * 4 + 1 + POD_OFFSETS[member][1];
+
+            int type = random.nextInt(12);
+            Node.NodeState state = member == 0 ? Node.NodeState.TARGET : states[random.nextInt(states.length)];
+            NodeView.isometricToWorld(pos.set(x, y));
+            Node node = new Node(pos.x, pos.y, "Target" + pod, "Node" + member, type, state);
+            nodeLayer.addActor(node);
+
+            bounds[0] = Math.min(bounds[0], pos.x);
+            bounds[1] = Math.min(bounds[1], pos.y);
+            bounds[2] = Math.max(bounds[2], pos.x);
+            bounds[3] = Math.max(bounds[3], pos.y);
+
+            if (member == 0) {
+                int bars = targetBars.addBars(pos.x, pos.y, pos.x, pos.y + 100);
+                targetBars.update(bars, random.nextInt(10), 10, random.nextInt(101));
+            } else {
+                connectorMesh.addConnector(new Connector(x, y, random.nextBoolean() ? "NE" : "SW"), pos, false, 0);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Moves the camera to where it should be on the given frame of the camera path.
+     *
+     * The camera sweeps back and forth across the level, and zooms in and out, on different periods
+     * so that every part of the level is seen at every zoom.
+     *
+     * @param camera    The camera to move
+     * @param frame     The frame number, counting from the start of the warmup
+     * @param bounds    The world bounds of the level
+     */
+    private static void moveCamera(OrthographicCamera camera, int frame, float[] bounds) {
+        float t = frame / (float) ZOOM_PERIOD;
+        float sweepX = 0.5f - 0.5f * MathUtils.cos(t * MathUtils.PI2 * 0.37f);
+        float sweepY = 0.5f - 0.5f * MathUtils.cos(t * MathUtils.PI2 * 0.23f);
+        camera.position.set(MathUtils.lerp(bounds[0], bounds[2], sweepX), MathUtils.lerp(bounds[1], bounds[3], sweepY), 0);
+        camera.zoom = MathUtils.lerp(MIN_ZOOM, MAX_ZOOM, 0.5f - 0.5f * MathUtils.cos(t * MathUtils.PI2));
+        camera.update();
+    }
+
+    /**
+     * Returns the given percentile of a sorted array, using the nearest rank.
+     *
+     * @param values    Sorted values
+     * @param p         Percentile, from 0 to 1
+     *
+     * @return the value at that percentile, or 0 if there are no values
+     */
+    private static long percentile(long[] values, float p) {
+        if (values.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * values.length) - 1;
+        return values[Math.max(0, Math.min(values.length - 1, index))];
+    }
+
+    /**
+     * Returns the value of an integer argument, or the default if it is not given.
+     *
+     * @param arg       The command line arguments
+     * @param name      The name of the argument, such as --nodes
+     * @param fallback  The value to use if the argument is not given
+     *
+     * @return the value of the argument
+     */
+    private static int intArg(String[] arg, String name, int fallback) {
+        for (int i = 0; i < arg.length - 1; i++) {
+            if (arg[i].equals(name)) {
+                return Integer.parseInt(arg[i + 1]);
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,285 @@
+package com.adisgrace.games.desktop;
+
+import com.adisgrace.games.util.CompressedTextures;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build tool that writes compiled, mipmapped variants of every texture in the asset directory.
+ *
+ * Opaque images are written as ETC1, for drivers that can sample it, and as uncompressed RGB for
+ * drivers that cannot. Images with alpha are written as RGBA, since ETC1 has no alpha channel.
+ * All variants are zipped KTX files with a full chain of mipmaps, at the paths given by
+ * {@link CompressedTextures}. Every image gets at least one variant, so an image is skipped, and
+ * not even decoded, if any of its variants is newer than it.
+ *
+ * Run through the compileTextures Gradle task, or with the asset root and directory file as
+ * arguments.
+ */
+public class TextureCompiler {
+    /** File identifier at the start of every KTX file */
+    private static final byte[] KTX_IDENTIFIER = {
+            (byte) 0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte) 0xBB, '\r', '\n', 0x1A, '\n'
+    };
+    /** Size of the KTX header, including the identifier */
+    private static final int KTX_HEADER_SIZE = 64;
+
+    public static void main (String[] arg) throws IOException {
+        FileHandle root = new FileHandle(arg.length > 0 ? arg[0] : ".");
+        String directory = arg.length > 1 ? arg[1] : "assets.json";
+        GdxNativesLoader.load();
+
+        int written = 0;
+        for (String file : textureFiles(root.child(directory))) {
+            FileHandle source = root.child(file);
+            if (!source.exists()) {
+                System.err.println("Missing texture " + file);
+                continue;
+            }
+            FileHandle etc1 = root.child(CompressedTextures.etc1Path(file));
+            FileHandle rgb = root.child(CompressedTextures.rgbPath(file));
+            FileHandle rgba = root.child(CompressedTextures.rgbaPath(file));
+            if (isCurrent(etc1, source) || isCurrent(rgb, source) || isCurrent(rgba, source)) {
+                continue;
+            }
+
+            Pixmap image = new Pixmap(source);
+            try {
+                etc1.delete();
+                rgb.delete();
+                rgba.delete();
+                if (isOpaque(image)) {
+                    writeKTX(etc1, image, Pixmap.Format.RGB888, true);
+                    writeKTX(rgb, image, Pixmap.Format.RGB888, false);
+                } else {
+                    writeKTX(rgba, image, Pixmap.Format.RGBA8888, false);
+                }
+            } finally {
+                image.dispose();
+            }
+            written++;
+        }
+        System.out.println("Compiled " + written + " textures");
+    }
+
+    /**
+     * Returns the file names of every texture listed in an asset directory.
+     *
+     * @param directory The asset directory file
+     *
+     * @return the file names of every texture listed in the directory
+     */
+    private static Array<String> textureFiles(FileHandle directory) {
+        Array<String> files = new Array<String>();
+        JsonValue textures = new JsonReader().parse(directory).get("textures");
+        if (textures == null) {
+            return files;
+        }
+        for (JsonValue entry : textures) {
+            String file = entry.isString() ? entry.asString() : entry.getString("file", null);
+            if (file != null && !files.contains(file, false)) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Returns true if the compiled file exists and is newer than its source.
+     *
+     * @param compiled  The compiled variant
+     * @param source    The source image
+     *
+     * @return true if the compiled file is up to date
+     */
+    private static boolean isCurrent(FileHandle compiled, FileHandle source) {
+        return compiled.exists() && compiled.lastModified() >= source.lastModified();
+    }
+
+    /**
+     * Returns the number of bytes that each pixel takes in the given format.
+     *
+     * @param format    The pixel format
+     *
+     * @return the number of bytes per pixel
+     */
+    private static int bytesPerPixel(Pixmap.Format format) {
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    /**
+     * Returns true if every pixel of the image is fully opaque.
+     *
+     * @param image The image to check
+     *
+     * @return true if every pixel of the image is fully opaque
+     */
+    private static boolean isOpaque(Pixmap image) {
+        if (image.getFormat() == Pixmap.Format.RGB888 || image.getFormat() == Pixmap.Format.RGB565) {
+            return true;
+        }
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getPixel(x, y) & 0xff) != 0xff) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes an image and its mipmaps to a zipped KTX file.
+     *
+     * @param file      The file to write
+     * @param image     The full size image
+     * @param format    The format to store the image in, RGB888 or RGBA8888
+     * @param etc1      Whether to compress the image as ETC1, which must then be stored as RGB888
+     */
+    private static void writeKTX(FileHandle file, Pixmap image, Pixmap.Format format, boolean etc1) throws IOException {
+        Array<byte[]> levels = new Array<byte[]>();
+
+        Pixmap level = convert(image, format, image.getWidth(), image.getHeight());
+        while (true) {
+            levels.add(etc1 ? encodeETC1(level) : copyPixels(level));
+            if (level.getWidth() == 1 && level.getHeight() == 1) {
+                break;
+            }
+            Pixmap next = convert(level, format, Math.max(1, level.getWidth() / 2), Math.max(1, level.getHeight() / 2));
+            level.dispose();
+            level = next;
+        }
+        level.dispose();
+
+        int glFormat = format == Pixmap.Format.RGB888 ? GL20.GL_RGB : GL20.GL_RGBA;
+        int size = KTX_HEADER_SIZE;
+        for (byte[] data : levels) {
+            size += 4 + padded(data.length);
+        }
+        ByteBuffer ktx = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        ktx.put(KTX_IDENTIFIER);
+        ktx.putInt(0x04030201);
+        ktx.putInt(etc1 ? 0 : GL20.GL_UNSIGNED_BYTE);       // glType
+        ktx.putInt(1);                                      // glTypeSize
+        ktx.putInt(etc1 ? 0 : glFormat);                    // glFormat
+        ktx.putInt(etc1 ? ETC1.ETC1_RGB8_OES : glFormat);   // glInternalFormat
+        ktx.putInt(glFormat);                               // glBaseInternalFormat
+        ktx.putInt(image.getWidth());
+        ktx.putInt(image.getHeight());
+        ktx.putInt(0);                                      // pixelDepth
+        ktx.putInt(0);                                      // numberOfArrayElements
+        ktx.putInt(1);                                      // numberOfFaces
+        ktx.putInt(levels.size);                            // numberOfMipmapLevels
+        ktx.putInt(0);                                      // bytesOfKeyValueData
+        for (byte[] data : levels) {
+            ktx.putInt(data.length);
+            ktx.put(data);
+            for (int i = data.length; i < padded(data.length); i++) {
+                ktx.put((byte) 0);
+            }
+        }
+
+        // Zipped KTX files are a gzip stream of the file size followed by the file itself
+        DataOutputStream out = new DataOutputStream(new GZIPOutputStream(file.write(false)));
+        try {
+            out.writeInt(size);
+            out.write(ktx.array());
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Returns a copy of an image in the given format and size, filtered if it is scaled.
+     *
+     * @param image     The image to copy
+     * @param format    The format of the copy
+     * @param width     The width of the copy
+     * @param height    The height of the copy
+     *
+     * @return a copy of the image
+     */
+    private static Pixmap convert(Pixmap image, Pixmap.Format format, int width, int height) {
+        Pixmap result = new Pixmap(width, height, format);
+        result.setBlending(Pixmap.Blending.None);
+        result.setFilter(Pixmap.Filter.BiLinear);
+        result.drawPixmap(image, 0, 0, image.getWidth(), image.getHeight(), 0, 0, width, height);
+        return result;
+    }
+
+    /**
+     * Returns the ETC1 compressed data of an RGB888 image.
+     *
+     * @param image The image to compress
+     *
+     * @return the compressed data, without a PKM header
+     */
+    private static byte[] encodeETC1(Pixmap image) {
+        ETC1.ETC1Data data = ETC1.encodeImage(image);
+        try {
+            ByteBuffer buffer = data.compressedData.duplicate();
+            buffer.clear();
+            buffer.position(data.dataOffset);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        } finally {
+            data.dispose();
+        }
+    }
+
+    /**
+     * Returns a copy of the pixels of an image, with each row padded to a multiple of four bytes.
+     *
+     * KTX rows are padded this way, as the GL unpacks them, which matters for RGB images.
+     *
+     * @param image The image to copy
+     *
+     * @return the pixels of the image, row by row from the top
+     */
+    private static byte[] copyPixels(Pixmap image) {
+        ByteBuffer pixels = image.getPixels().duplicate();
+        pixels.clear();
+        int row = image.getWidth() * bytesPerPixel(image.getFormat());
+        byte[] bytes = new byte[padded(row) * image.getHeight()];
+        for (int y = 0; y < image.getHeight(); y++) {
+            pixels.get(bytes, y * padded(row), row);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the given size rounded up to a multiple of four, as KTX requires for each level.
+     *
+     * @param size  The size in bytes
+     *
+     * @return the size rounded up to a multiple of four
+     */
+    private static int padded(int size) {
+        return (size + 3) & ~3;
+    }
+}